@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model;
+
+import org.eclipse.rdf4j.model.impl.ColumnarModel;
+
+/**
+ * Tests for {@link Namespace} support in {@link ColumnarModel} using the abstract tests defined in
+ * {@link ModelNamespacesTest}.
+ */
+public class ColumnarModelNamespacesTest extends ModelNamespacesTest {
+
+	@Override
+	protected Model getModelImplementation() {
+		return new ColumnarModel();
+	}
+
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.impl.ColumnarModel;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ColumnarModel}.
+ */
+public class ColumnarModelTest extends AbstractModelTest {
+
+	@Override
+	protected Model getNewModel() {
+		return new ColumnarModel();
+	}
+
+	@Test
+	public void testFilterMatchesLinkedHashModel() {
+		Random random = new Random(42);
+		Model expected = new LinkedHashModel();
+		Model actual = new ColumnarModel();
+		for (int i = 0; i < 2000; i++) {
+			Statement st = randomStatement(random);
+			assertEquals(expected.add(st), actual.add(st));
+			if (i % 300 == 0) {
+				// filter while the model is being built, so that indexes are extended
+				assertFilters(random, expected, actual);
+			}
+		}
+		assertFilters(random, expected, actual);
+
+		// remove some statements, without and with a pattern
+		for (int i = 0; i < 500; i++) {
+			Statement st = randomStatement(random);
+			assertEquals(expected.remove(st), actual.remove(st));
+		}
+		IRI pred = vf.createIRI("urn:p:1");
+		assertEquals(expected.remove(null, pred, null), actual.remove(null, pred, null));
+		assertFilters(random, expected, actual);
+	}
+
+	@Test
+	public void testRemoveAllAndReuse() {
+		Random random = new Random(7);
+		Model actual = new ColumnarModel();
+		for (int round = 0; round < 3; round++) {
+			Model expected = new LinkedHashModel();
+			for (int i = 0; i < 1000; i++) {
+				Statement st = randomStatement(random);
+				expected.add(st);
+				actual.add(st);
+			}
+			assertEquals(expected.size(), actual.size());
+			assertFilters(random, expected, actual);
+
+			// removing the majority of the statements compacts the model on the next add
+			actual.removeIf(st -> !st.getSubject().equals(uri1));
+			assertFalse(actual.isEmpty());
+			actual.clear();
+			assertTrue(actual.isEmpty());
+			assertFalse(actual.iterator().hasNext());
+		}
+	}
+
+	@Test
+	public void testIteratorRemoveDuringFilter() {
+		Random random = new Random(3);
+		Model expected = new LinkedHashModel();
+		Model actual = new ColumnarModel();
+		for (int i = 0; i < 1000; i++) {
+			Statement st = randomStatement(random);
+			expected.add(st);
+			actual.add(st);
+		}
+		IRI pred = vf.createIRI("urn:p:2");
+		Iterator<Statement> iter = actual.filter(null, pred, null).iterator();
+		while (iter.hasNext()) {
+			Statement st = iter.next();
+			if (st.getObject() instanceof Literal) {
+				iter.remove();
+				expected.remove(st);
+			}
+		}
+		assertFilters(random, expected, actual);
+
+		// removing through a value set removes the statements with that value in any context
+		actual.contexts().remove(null);
+		expected.contexts().remove(null);
+		assertFilters(random, expected, actual);
+	}
+
+	@Test
+	public void testInsertionOrder() {
+		Random random = new Random(11);
+		List<Statement> statements = new ArrayList<>();
+		Model actual = new ColumnarModel();
+		for (int i = 0; i < 500; i++) {
+			Statement st = randomStatement(random);
+			if (actual.add(st)) {
+				statements.add(st);
+			}
+		}
+		assertEquals(statements, new ArrayList<>(actual));
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		Random random = new Random(5);
+		Model model = new ColumnarModel();
+		model.setNamespace("ex", "urn:ex:");
+		for (int i = 0; i < 1000; i++) {
+			model.add(randomStatement(random));
+		}
+		model.remove(null, vf.createIRI("urn:p:0"), null);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(model);
+		}
+		Model copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (Model) in.readObject();
+		}
+		assertEquals(new HashSet<>(model), new HashSet<>(copy));
+		assertEquals(model.getNamespaces(), copy.getNamespaces());
+		assertFilters(random, new LinkedHashModel(model), copy);
+	}
+
+	private Statement randomStatement(Random random) {
+		Resource subj = random.nextInt(10) == 0 ? uri1 : vf.createIRI("urn:s:" + random.nextInt(100));
+		IRI pred = vf.createIRI("urn:p:" + random.nextInt(5));
+		Value obj;
+		switch (random.nextInt(3)) {
+		case 0:
+			obj = vf.createLiteral("literal " + random.nextInt(50));
+			break;
+		case 1:
+			obj = vf.createBNode("b" + random.nextInt(50));
+			break;
+		default:
+			obj = vf.createIRI("urn:s:" + random.nextInt(100));
+		}
+		Resource ctx = random.nextBoolean() ? null : vf.createIRI("urn:c:" + random.nextInt(3));
+		return vf.createStatement(subj, pred, obj, ctx);
+	}
+
+	/**
+	 * Asserts that the models return the same statements for all combinations of bound terms of random statements.
+	 */
+	private void assertFilters(Random random, Model expected, Model actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+		for (int i = 0; i < 20; i++) {
+			Statement st = randomStatement(random);
+			for (int mask = 0; mask < 16; mask++) {
+				Resource subj = (mask & 1) != 0 ? st.getSubject() : null;
+				IRI pred = (mask & 2) != 0 ? st.getPredicate() : null;
+				Value obj = (mask & 4) != 0 ? st.getObject() : null;
+				Resource[] contexts = (mask & 8) != 0 ? new Resource[] { st.getContext() } : new Resource[0];
+				String pattern = subj + " " + pred + " " + obj + " " + Arrays.toString(contexts);
+				assertEquals(pattern, new HashSet<>(expected.filter(subj, pred, obj, contexts)),
+						new HashSet<>(actual.filter(subj, pred, obj, contexts)));
+				assertEquals(pattern, expected.contains(subj, pred, obj, contexts),
+						actual.contains(subj, pred, obj, contexts));
+			}
+		}
+		IRI ctx1 = vf.createIRI("urn:c:1");
+		IRI ctx2 = vf.createIRI("urn:c:2");
+		assertEquals(new HashSet<>(expected.filter(null, null, null, ctx1, null, ctx2)),
+				new HashSet<>(actual.filter(null, null, null, ctx1, null, ctx2)));
+		assertEquals(expected.contexts(), actual.contexts());
+		assertEquals(expected.subjects(), actual.subjects());
+	}
+}
@@ -0,0 +1,857 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * A compact {@link Model} implementation for large, read-mostly models such as SHACL shapes graphs and query results.
+ * Each distinct value is stored once, in a dictionary that assigns it an integer id, and each statement is stored as
+ * the four ids of its subject, predicate, object and context in primitive <tt>int</tt> columns.
+ * <p>
+ * Filtered access uses sorted permutations of the statements, in subject, predicate, object and context order. These
+ * are created when a pattern first needs them and are extended as statements are added, so models that are filtered
+ * while they are being built should add their statements in batches. Removed statements are marked as deleted; their
+ * space, and that of the values that are no longer used, is reclaimed once deleted statements make up the majority of
+ * the model. Iterating over the whole model returns the statements in insertion order.
+ * <p>
+ * The statements returned by this model are created when they are read: they are equal to, but not the same objects
+ * as, the statements that were added.
+ * <p>
+ * <b>Note that this implementation is not synchronized.</b> If multiple threads access a model concurrently, even if
+ * all of them are read operations, it must be synchronized externally. This is typically accomplished by synchronizing
+ * on some object that naturally encapsulates the model. If no such object exists, the set should be "wrapped" using the
+ * Models.synchronizedModel method.
+ * </p>
+ */
+public class ColumnarModel extends AbstractModel {
+
+	private static final long serialVersionUID = -3188204869712353290L;
+
+	private static final int SUBJ = 0;
+
+	private static final int PRED = 1;
+
+	private static final int OBJ = 2;
+
+	private static final int CTX = 3;
+
+	/**
+	 * The column orders of the permutation indexes.
+	 */
+	private static final int[][] INDEX_ORDERS = { { SUBJ, PRED, OBJ, CTX }, { PRED, OBJ, SUBJ, CTX },
+			{ OBJ, SUBJ, PRED, CTX }, { CTX, SUBJ, PRED, OBJ } };
+
+	/**
+	 * The id of the default context. No value is stored under this id.
+	 */
+	private static final int DEFAULT_CONTEXT = 0;
+
+	/**
+	 * A pattern component that matches any id.
+	 */
+	private static final int ANY = -1;
+
+	/**
+	 * The id of a value that is not in the dictionary.
+	 */
+	private static final int UNKNOWN = -2;
+
+	/**
+	 * The number of statements that may be added after an index was last updated before it is updated again.
+	 */
+	private static final int UNINDEXED_ROWS = 32;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	final Set<Namespace> namespaces = new LinkedHashSet<>();
+
+	/**
+	 * The dictionary values, by id.
+	 */
+	private transient Value[] values;
+
+	private transient int valueCount;
+
+	/**
+	 * An open-addressing hash table of value ids, zero marks a free slot.
+	 */
+	private transient int[] valueTable;
+
+	/**
+	 * The subject, predicate, object and context ids of each row.
+	 */
+	private transient int[][] columns;
+
+	/**
+	 * The number of rows in the columns, including deleted rows.
+	 */
+	private transient int rowCount;
+
+	private transient BitSet deleted;
+
+	/**
+	 * The number of rows that are not deleted.
+	 */
+	private transient int size;
+
+	/**
+	 * An open-addressing hash table of the rows that are not deleted, as row + 1, zero marks a free slot.
+	 */
+	private transient int[] rowTable;
+
+	private transient Index[] indexes;
+
+	/**
+	 * The number of times this model has been modified, used to detect concurrent modification by iterators.
+	 */
+	private transient int modCount;
+
+	public ColumnarModel() {
+		init(INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	public ColumnarModel(Model model) {
+		this(model.getNamespaces());
+		addAll(model);
+	}
+
+	public ColumnarModel(Collection<? extends Statement> c) {
+		this();
+		addAll(c);
+	}
+
+	public ColumnarModel(Set<Namespace> namespaces, Collection<? extends Statement> c) {
+		this(c);
+		this.namespaces.addAll(namespaces);
+	}
+
+	public ColumnarModel(Set<Namespace> namespaces) {
+		this();
+		this.namespaces.addAll(namespaces);
+	}
+
+	@Override
+	public Optional<Namespace> getNamespace(String prefix) {
+		for (Namespace nextNamespace : namespaces) {
+			if (prefix.equals(nextNamespace.getPrefix())) {
+				return Optional.of(nextNamespace);
+			}
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public Set<Namespace> getNamespaces() {
+		return namespaces;
+	}
+
+	@Override
+	public Namespace setNamespace(String prefix, String name) {
+		removeNamespace(prefix);
+		Namespace result = new SimpleNamespace(prefix, name);
+		namespaces.add(result);
+		return result;
+	}
+
+	@Override
+	public void setNamespace(Namespace namespace) {
+		removeNamespace(namespace.getPrefix());
+		namespaces.add(namespace);
+	}
+
+	@Override
+	public Optional<Namespace> removeNamespace(String prefix) {
+		Optional<Namespace> result = getNamespace(prefix);
+		result.ifPresent(namespaces::remove);
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		init(INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	@Override
+	public boolean add(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		if (subj == null || pred == null || obj == null) {
+			throw new UnsupportedOperationException("Incomplete statement");
+		}
+		if (contexts == null || contexts.length == 0) {
+			return addRow(subj, pred, obj, null);
+		}
+		boolean changed = false;
+		for (Resource ctx : contexts) {
+			changed |= addRow(subj, pred, obj, ctx);
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean contains(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		return match(subj, pred, obj, contexts).hasNext();
+	}
+
+	@Override
+	public boolean remove(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		boolean changed = false;
+		Iterator<Statement> iter = match(subj, pred, obj, contexts);
+		while (iter.hasNext()) {
+			iter.next();
+			iter.remove();
+			changed = true;
+		}
+		return changed;
+	}
+
+	@Override
+	public Iterator<Statement> iterator() {
+		return match(null, null, null);
+	}
+
+	@Override
+	public Model filter(final Resource subj, final IRI pred, final Value obj, final Resource... contexts) {
+		return new FilteredModel(this, subj, pred, obj, contexts) {
+
+			private static final long serialVersionUID = -4637302180342592385L;
+
+			@Override
+			public Iterator<Statement> iterator() {
+				return match(subj, pred, obj, contexts);
+			}
+
+			@Override
+			protected void removeFilteredTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+					Resource... contexts) {
+				ColumnarModel.this.removeTermIteration(iter, subj, pred, obj, contexts);
+			}
+		};
+	}
+
+	@Override
+	public void removeTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+			Resource... contexts) {
+		remove(subj, pred, obj, contexts);
+		// deleted rows are skipped by all iterators, so the live iterator remains valid
+		if (iter instanceof RowIterator) {
+			((RowIterator) iter).expectedModCount = modCount;
+		}
+	}
+
+	private void init(int valueCapacity, int rowCapacity) {
+		values = new Value[valueCapacity];
+		valueCount = DEFAULT_CONTEXT + 1;
+		valueTable = new int[tableSize(valueCapacity)];
+		columns = new int[4][rowCapacity];
+		rowCount = 0;
+		deleted = new BitSet();
+		size = 0;
+		rowTable = new int[tableSize(rowCapacity)];
+		indexes = null;
+		modCount++;
+	}
+
+	private boolean addRow(Resource subj, IRI pred, Value obj, Resource ctx) {
+		if (rowCount - size > size) {
+			compact();
+		}
+		int s = encode(subj);
+		int p = encode(pred);
+		int o = encode(obj);
+		int c = ctx == null ? DEFAULT_CONTEXT : encode(ctx);
+		if (findRow(s, p, o, c) >= 0) {
+			return false;
+		}
+		if (rowCount == columns[SUBJ].length) {
+			for (int col = 0; col < columns.length; col++) {
+				columns[col] = Arrays.copyOf(columns[col], rowCount * 2);
+			}
+		}
+		int row = rowCount++;
+		columns[SUBJ][row] = s;
+		columns[PRED][row] = p;
+		columns[OBJ][row] = o;
+		columns[CTX][row] = c;
+		size++;
+		if (size * 2 > rowTable.length) {
+			rowTable = new int[rowTable.length * 2];
+			for (int r = 0; r < row; r++) {
+				if (!deleted.get(r)) {
+					linkRow(r);
+				}
+			}
+		}
+		linkRow(row);
+		modCount++;
+		return true;
+	}
+
+	private void removeRow(int row) {
+		unlinkRow(row);
+		deleted.set(row);
+		size--;
+		modCount++;
+	}
+
+	/**
+	 * Removes the deleted rows from the columns, and the values that are no longer used from the dictionary. This
+	 * renumbers rows and values, so the indexes are dropped.
+	 */
+	private void compact() {
+		Value[] oldValues = values;
+		int[] newIds = new int[valueCount];
+		values = new Value[Math.max(INITIAL_CAPACITY, valueCount / 2)];
+		valueCount = DEFAULT_CONTEXT + 1;
+		valueTable = new int[tableSize(values.length)];
+		int live = 0;
+		for (int row = 0; row < rowCount; row++) {
+			if (deleted.get(row)) {
+				continue;
+			}
+			for (int[] column : columns) {
+				int id = column[row];
+				if (id != DEFAULT_CONTEXT) {
+					if (newIds[id] == 0) {
+						newIds[id] = encode(oldValues[id]);
+					}
+					id = newIds[id];
+				}
+				column[live] = id;
+			}
+			live++;
+		}
+		rowCount = live;
+		deleted.clear();
+		rowTable = new int[tableSize(Math.max(INITIAL_CAPACITY, live))];
+		for (int row = 0; row < live; row++) {
+			linkRow(row);
+		}
+		indexes = null;
+	}
+
+	private Iterator<Statement> match(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		int s = lookup(subj);
+		int p = lookup(pred);
+		int o = lookup(obj);
+		if (s == UNKNOWN || p == UNKNOWN || o == UNKNOWN) {
+			return Collections.emptyIterator();
+		}
+		int[] ctxs;
+		if (contexts == null) {
+			ctxs = new int[] { DEFAULT_CONTEXT };
+		} else if (contexts.length == 0) {
+			ctxs = new int[] { ANY };
+		} else {
+			ctxs = new int[contexts.length];
+			int n = 0;
+			for (Resource ctx : contexts) {
+				int c = ctx == null ? DEFAULT_CONTEXT : lookup(ctx);
+				if (c != UNKNOWN && !containsId(ctxs, n, c)) {
+					ctxs[n++] = c;
+				}
+			}
+			if (n == 0) {
+				return Collections.emptyIterator();
+			}
+			ctxs = Arrays.copyOf(ctxs, n);
+		}
+		return new RowIterator(s, p, o, ctxs);
+	}
+
+	private boolean matches(int row, int[] pattern) {
+		if (deleted.get(row)) {
+			return false;
+		}
+		for (int col = 0; col < pattern.length; col++) {
+			if (pattern[col] != ANY && pattern[col] != columns[col][row]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Statement statement(int row) {
+		Resource subj = (Resource) values[columns[SUBJ][row]];
+		IRI pred = (IRI) values[columns[PRED][row]];
+		Value obj = values[columns[OBJ][row]];
+		int ctx = columns[CTX][row];
+		if (ctx == DEFAULT_CONTEXT) {
+			return new SimpleStatement(subj, pred, obj);
+		}
+		return new ContextStatement(subj, pred, obj, (Resource) values[ctx]);
+	}
+
+	/**
+	 * Returns the index whose column order has the longest prefix of bound components in the pattern, or
+	 * <tt>null</tt> if no component is bound or the fully bound pattern can be looked up directly.
+	 */
+	private Index chooseIndex(int[] pattern) {
+		int best = -1;
+		int bestLength = 0;
+		for (int i = 0; i < INDEX_ORDERS.length; i++) {
+			int length = prefixLength(INDEX_ORDERS[i], pattern);
+			if (length > bestLength) {
+				best = i;
+				bestLength = length;
+			}
+		}
+		if (best < 0 || bestLength == pattern.length) {
+			return null;
+		}
+		if (indexes == null) {
+			indexes = new Index[INDEX_ORDERS.length];
+		}
+		if (indexes[best] == null) {
+			indexes[best] = new Index(INDEX_ORDERS[best]);
+		}
+		return indexes[best];
+	}
+
+	private static int prefixLength(int[] order, int[] pattern) {
+		int length = 0;
+		while (length < order.length && pattern[order[length]] != ANY) {
+			length++;
+		}
+		return length;
+	}
+
+	/*--------------------*
+	 * Value dictionary *
+	 *--------------------*/
+
+	/**
+	 * Returns the id of the value, {@link #ANY} for <tt>null</tt> or {@link #UNKNOWN} if the value is not in the
+	 * dictionary.
+	 */
+	private int lookup(Value value) {
+		if (value == null) {
+			return ANY;
+		}
+		int mask = valueTable.length - 1;
+		for (int i = hash(value.hashCode()) & mask;; i = (i + 1) & mask) {
+			int id = valueTable[i];
+			if (id == 0) {
+				return UNKNOWN;
+			}
+			if (values[id].equals(value)) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * Returns the id of the value, adding it to the dictionary if needed.
+	 */
+	private int encode(Value value) {
+		int mask = valueTable.length - 1;
+		int i = hash(value.hashCode()) & mask;
+		for (int id = valueTable[i]; id != 0; id = valueTable[i]) {
+			if (values[id].equals(value)) {
+				return id;
+			}
+			i = (i + 1) & mask;
+		}
+		if (valueCount == values.length) {
+			values = Arrays.copyOf(values, valueCount * 2);
+		}
+		int id = valueCount++;
+		values[id] = value;
+		valueTable[i] = id;
+		if (valueCount * 2 > valueTable.length) {
+			valueTable = new int[valueTable.length * 2];
+			mask = valueTable.length - 1;
+			for (int v = DEFAULT_CONTEXT + 1; v < valueCount; v++) {
+				int slot = hash(values[v].hashCode()) & mask;
+				while (valueTable[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				valueTable[slot] = v;
+			}
+		}
+		return id;
+	}
+
+	/*-----------*
+	 * Row table *
+	 *-----------*/
+
+	private int findRow(int s, int p, int o, int c) {
+		int mask = rowTable.length - 1;
+		for (int i = hash(s, p, o, c) & mask;; i = (i + 1) & mask) {
+			int row = rowTable[i] - 1;
+			if (row < 0) {
+				return -1;
+			}
+			if (columns[SUBJ][row] == s && columns[PRED][row] == p && columns[OBJ][row] == o
+					&& columns[CTX][row] == c) {
+				return row;
+			}
+		}
+	}
+
+	private int rowHash(int row) {
+		return hash(columns[SUBJ][row], columns[PRED][row], columns[OBJ][row], columns[CTX][row]);
+	}
+
+	private void linkRow(int row) {
+		int mask = rowTable.length - 1;
+		int i = rowHash(row) & mask;
+		while (rowTable[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		rowTable[i] = row + 1;
+	}
+
+	private void unlinkRow(int row) {
+		int mask = rowTable.length - 1;
+		int i = rowHash(row) & mask;
+		while (rowTable[i] != row + 1) {
+			i = (i + 1) & mask;
+		}
+		// shift the following entries of the probe sequence back, so that they remain reachable
+		for (int j = (i + 1) & mask; rowTable[j] != 0; j = (j + 1) & mask) {
+			int home = rowHash(rowTable[j] - 1) & mask;
+			boolean reachable = i <= j ? i < home && home <= j : i < home || home <= j;
+			if (!reachable) {
+				rowTable[i] = rowTable[j];
+				i = j;
+			}
+		}
+		rowTable[i] = 0;
+	}
+
+	private static int hash(int s, int p, int o, int c) {
+		return hash(((s * 31 + p) * 31 + o) * 31 + c);
+	}
+
+	private static int hash(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tableSize(int capacity) {
+		return Integer.highestOneBit(Math.max(INITIAL_CAPACITY, capacity) - 1) << 2;
+	}
+
+	private static boolean containsId(int[] ids, int length, int id) {
+		for (int i = 0; i < length; i++) {
+			if (ids[i] == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*---------------*
+	 * Serialization *
+	 *---------------*/
+
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		if (rowCount > size) {
+			compact();
+		}
+		s.defaultWriteObject();
+		s.writeInt(valueCount);
+		for (int id = DEFAULT_CONTEXT + 1; id < valueCount; id++) {
+			s.writeObject(values[id]);
+		}
+		s.writeInt(rowCount);
+		for (int[] column : columns) {
+			for (int row = 0; row < rowCount; row++) {
+				s.writeInt(column[row]);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		int count = s.readInt();
+		Value[] ids = new Value[count];
+		for (int id = DEFAULT_CONTEXT + 1; id < count; id++) {
+			ids[id] = (Value) s.readObject();
+		}
+		int rows = s.readInt();
+		init(Math.max(INITIAL_CAPACITY, count), Math.max(INITIAL_CAPACITY, rows));
+		for (int id = DEFAULT_CONTEXT + 1; id < count; id++) {
+			encode(ids[id]);
+		}
+		for (int[] column : columns) {
+			for (int row = 0; row < rows; row++) {
+				column[row] = s.readInt();
+			}
+		}
+		rowCount = rows;
+		size = rows;
+		for (int row = 0; row < rows; row++) {
+			linkRow(row);
+		}
+	}
+
+	/**
+	 * The rows sorted by the columns in a given order, used to find the rows that match a pattern by binary search.
+	 * Rows that are deleted after they were indexed remain in the index until it is next updated.
+	 */
+	private final class Index {
+
+		private final int[] order;
+
+		private int[] rows = new int[0];
+
+		/**
+		 * All rows below this number are in the index.
+		 */
+		private int indexedRows;
+
+		Index(int[] order) {
+			this.order = order;
+		}
+
+		/**
+		 * Adds the rows that were added since the last update to the index, if there are enough of them.
+		 */
+		void update() {
+			int added = rowCount - indexedRows;
+			if (added <= UNINDEXED_ROWS + indexedRows / 64) {
+				return;
+			}
+			int[] tail = new int[added];
+			int n = 0;
+			for (int row = indexedRows; row < rowCount; row++) {
+				if (!deleted.get(row)) {
+					tail[n++] = row;
+				}
+			}
+			sort(tail, 0, n, new int[n]);
+			int[] merged = new int[rows.length + n];
+			int i = 0;
+			int j = 0;
+			int k = 0;
+			while (i < rows.length || j < n) {
+				if (i < rows.length && deleted.get(rows[i])) {
+					i++;
+				} else if (j == n || i < rows.length && compare(rows[i], tail[j]) < 0) {
+					merged[k++] = rows[i++];
+				} else {
+					merged[k++] = tail[j++];
+				}
+			}
+			rows = k == merged.length ? merged : Arrays.copyOf(merged, k);
+			indexedRows = rowCount;
+		}
+
+		/**
+		 * Returns the position of the first indexed row that is not less than the pattern, if <tt>upper</tt> is
+		 * <tt>false</tt>, or that is greater than the pattern, if <tt>upper</tt> is <tt>true</tt>.
+		 */
+		int search(int[] pattern, int prefixLength, boolean upper) {
+			int low = 0;
+			int high = rows.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				int cmp = comparePrefix(rows[mid], pattern, prefixLength);
+				if (cmp < 0 || upper && cmp == 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private int comparePrefix(int row, int[] pattern, int prefixLength) {
+			for (int i = 0; i < prefixLength; i++) {
+				int col = order[i];
+				int cmp = Integer.compare(columns[col][row], pattern[col]);
+				if (cmp != 0) {
+					return cmp;
+				}
+			}
+			return 0;
+		}
+
+		private int compare(int row1, int row2) {
+			for (int col : order) {
+				int cmp = Integer.compare(columns[col][row1], columns[col][row2]);
+				if (cmp != 0) {
+					return cmp;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Sorts the rows in the range by merge sort, using the same range of the buffer.
+		 */
+		private void sort(int[] a, int from, int to, int[] buffer) {
+			if (to - from < 16) {
+				for (int i = from + 1; i < to; i++) {
+					int row = a[i];
+					int j = i - 1;
+					while (j >= from && compare(a[j], row) > 0) {
+						a[j + 1] = a[j];
+						j--;
+					}
+					a[j + 1] = row;
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			sort(a, from, mid, buffer);
+			sort(a, mid, to, buffer);
+			if (compare(a[mid - 1], a[mid]) <= 0) {
+				return;
+			}
+			System.arraycopy(a, from, buffer, from, to - from);
+			int i = from;
+			int j = mid;
+			for (int k = from; k < to; k++) {
+				if (j == to || i < mid && compare(buffer[i], buffer[j]) <= 0) {
+					a[k] = buffer[i++];
+				} else {
+					a[k] = buffer[j++];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the rows that match a pattern in each of a number of contexts: first over the matching range of
+	 * an index, if the pattern has bound components, then over the rows that were added since that index was updated.
+	 */
+	private final class RowIterator implements Iterator<Statement> {
+
+		private final int[] pattern;
+
+		private final int[] contexts;
+
+		private int nextContext;
+
+		private int[] indexed;
+
+		private int pos;
+
+		private int end;
+
+		private int scan = Integer.MAX_VALUE;
+
+		private int next = -1;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		/**
+		 * The number of rows when this iterator was created, rows that are added later are not returned.
+		 */
+		private final int rowLimit = rowCount;
+
+		RowIterator(int subj, int pred, int obj, int[] contexts) {
+			this.pattern = new int[] { subj, pred, obj, ANY };
+			this.contexts = contexts;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next < 0) {
+				if (pos < end) {
+					int row = indexed[pos++];
+					if (row < rowLimit && matches(row, pattern)) {
+						next = row;
+					}
+				} else if (scan < rowLimit) {
+					int row = scan++;
+					if (matches(row, pattern)) {
+						next = row;
+					}
+				} else if (nextContext < contexts.length) {
+					pattern[CTX] = contexts[nextContext++];
+					start();
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void start() {
+			pos = end = 0;
+			Index index = chooseIndex(pattern);
+			if (index != null) {
+				index.update();
+				int prefixLength = prefixLength(index.order, pattern);
+				indexed = index.rows;
+				pos = index.search(pattern, prefixLength, false);
+				end = index.search(pattern, prefixLength, true);
+				scan = index.indexedRows;
+			} else if (prefixLength(INDEX_ORDERS[0], pattern) == pattern.length) {
+				int row = findRow(pattern[SUBJ], pattern[PRED], pattern[OBJ], pattern[CTX]);
+				next = row < rowLimit ? row : -1;
+				scan = rowLimit;
+			} else {
+				scan = 0;
+			}
+		}
+
+		@Override
+		public Statement next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = -1;
+			return statement(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!deleted.get(last)) {
+				removeRow(last);
+				expectedModCount = modCount;
+			}
+			last = -1;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import java.io.Serializable;
+
+import org.eclipse.rdf4j.model.ModelFactory;
+
+/**
+ * Creates {@link ColumnarModel}.
+ */
+public class ColumnarModelFactory implements ModelFactory, Serializable {
+
+	private static final long serialVersionUID = 4411702165337049307L;
+
+	@Override
+	public ColumnarModel createEmptyModel() {
+		return new ColumnarModel();
+	}
+
+}
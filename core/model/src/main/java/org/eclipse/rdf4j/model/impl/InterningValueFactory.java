@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.util.URIUtil;
+
+/**
+ * A {@link ValueFactory} that delegates to another {@link ValueFactory} and returns the same object for equal IRIs,
+ * blank nodes and literals created from a lexical value. Parsers and {@link org.eclipse.rdf4j.model.Model Models} that
+ * hold many occurrences of a small vocabulary then keep a single copy of each predicate, class or recurring literal.
+ * <p>
+ * The values are kept in a thread-safe dictionary, that is either
+ * <ul>
+ * <li><em>weak</em>: a value stays in the dictionary for as long as it is referenced elsewhere, or</li>
+ * <li><em>bounded</em>: the dictionary holds a fixed number of values, a new value replaces an older value that is
+ * stored in the same slot.</li>
+ * </ul>
+ * Interning is best-effort: a bounded dictionary may return a different object for a value it has evicted, so values
+ * must still be compared with {@link Object#equals(Object)}.
+ * <p>
+ * Optionally, IRIs are stored as a namespace and a local name, where the namespace string is shared between all IRIs
+ * in the same namespace. This further reduces the footprint of large numbers of distinct IRIs, at the cost of
+ * concatenating the namespace and local name whenever the string value of an IRI is requested. Such IRIs are created
+ * by this factory rather than by the delegate.
+ * <p>
+ * Literals created from Java objects, like {@link #createLiteral(int)}, are not interned.
+ */
+public class InterningValueFactory implements ValueFactory {
+
+	private final ValueFactory delegate;
+
+	private final Dictionary<Value> values;
+
+	/**
+	 * The shared namespace strings, <tt>null</tt> if namespaces are not shared.
+	 */
+	private final Dictionary<String> namespaces;
+
+	/**
+	 * Creates an interning factory that delegates to {@link SimpleValueFactory} and uses a weak dictionary.
+	 */
+	public InterningValueFactory() {
+		this(SimpleValueFactory.getInstance());
+	}
+
+	/**
+	 * Creates an interning factory that delegates to the supplied factory and uses a weak dictionary.
+	 *
+	 * @param delegate the factory that creates the values
+	 */
+	public InterningValueFactory(ValueFactory delegate) {
+		this(delegate, 0, false);
+	}
+
+	/**
+	 * Creates an interning factory that delegates to the supplied factory.
+	 *
+	 * @param delegate        the factory that creates the values
+	 * @param capacity        the number of values held by a bounded dictionary, or zero to use a weak dictionary
+	 * @param shareNamespaces whether IRIs should share their namespace strings
+	 */
+	public InterningValueFactory(ValueFactory delegate, int capacity, boolean shareNamespaces) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+		this.values = capacity == 0 ? new WeakDictionary<>() : new BoundedDictionary<>(capacity);
+		if (shareNamespaces) {
+			this.namespaces = capacity == 0 ? new WeakDictionary<>()
+					: new BoundedDictionary<>(Math.max(16, capacity >>> 6));
+		} else {
+			this.namespaces = null;
+		}
+	}
+
+	/**
+	 * Returns the interned instance of the supplied value: a previously interned value that is equal to it, or the
+	 * value itself.
+	 *
+	 * @param value the value to intern
+	 * @return an equal value, possibly the same object
+	 */
+	@SuppressWarnings("unchecked")
+	public <V extends Value> V intern(V value) {
+		if (value == null) {
+			return null;
+		}
+		return (V) values.intern(value);
+	}
+
+	@Override
+	public IRI createIRI(String iri) {
+		if (namespaces == null) {
+			return intern(delegate.createIRI(iri));
+		}
+		int localNameIdx = URIUtil.getLocalNameIndex(iri);
+		return createNamespacedIRI(iri.substring(0, localNameIdx), iri.substring(localNameIdx));
+	}
+
+	@Override
+	public IRI createIRI(String namespace, String localName) {
+		if (namespaces == null) {
+			return intern(delegate.createIRI(namespace, localName));
+		}
+		if (!URIUtil.isCorrectURISplit(namespace, localName)) {
+			return createIRI(namespace + localName);
+		}
+		return createNamespacedIRI(namespace, localName);
+	}
+
+	private IRI createNamespacedIRI(String namespace, String localName) {
+		if (namespace.indexOf(':') < 0) {
+			throw new IllegalArgumentException("Not a valid (absolute) IRI: " + namespace + localName);
+		}
+		return intern(new NamespacedIRI(namespaces.intern(namespace), localName));
+	}
+
+	@Override
+	public BNode createBNode() {
+		return delegate.createBNode();
+	}
+
+	@Override
+	public BNode createBNode(String nodeID) {
+		return intern(delegate.createBNode(nodeID));
+	}
+
+	@Override
+	public Literal createLiteral(String label) {
+		return intern(delegate.createLiteral(label));
+	}
+
+	@Override
+	public Literal createLiteral(String label, String language) {
+		Literal literal = delegate.createLiteral(label, language);
+		Literal interned = intern(literal);
+		// language tags compare case-insensitively, but the literal should keep the tag it was created with
+		if (interned != literal && !interned.getLanguage().equals(literal.getLanguage())) {
+			return literal;
+		}
+		return interned;
+	}
+
+	@Override
+	public Literal createLiteral(String label, IRI datatype) {
+		return intern(delegate.createLiteral(label, datatype));
+	}
+
+	@Override
+	public Literal createLiteral(boolean value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(byte value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(short value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(int value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(long value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(float value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(double value) {
+		return delegate.createLiteral(value);
+	}
+
+	@Override
+	public Literal createLiteral(BigDecimal bigDecimal) {
+		return delegate.createLiteral(bigDecimal);
+	}
+
+	@Override
+	public Literal createLiteral(BigInteger bigInteger) {
+		return delegate.createLiteral(bigInteger);
+	}
+
+	@Override
+	public Literal createLiteral(XMLGregorianCalendar calendar) {
+		return delegate.createLiteral(calendar);
+	}
+
+	@Override
+	public Literal createLiteral(Date date) {
+		return delegate.createLiteral(date);
+	}
+
+	@Override
+	public Statement createStatement(Resource subject, IRI predicate, Value object) {
+		return delegate.createStatement(subject, predicate, object);
+	}
+
+	@Override
+	public Statement createStatement(Resource subject, IRI predicate, Value object, Resource context) {
+		return delegate.createStatement(subject, predicate, object, context);
+	}
+
+	@Override
+	public Triple createTriple(Resource subject, IRI predicate, Value object) {
+		return delegate.createTriple(subject, predicate, object);
+	}
+
+	/**
+	 * A thread-safe set of canonical objects.
+	 */
+	private interface Dictionary<T> {
+
+		/**
+		 * Returns the stored object that is equal to the supplied object, storing the supplied object if there is none.
+		 */
+		T intern(T object);
+	}
+
+	/**
+	 * A dictionary that drops objects that are no longer referenced elsewhere.
+	 */
+	private static class WeakDictionary<T> implements Dictionary<T> {
+
+		private final ConcurrentMap<Entry<T>, Entry<T>> entries = new ConcurrentHashMap<>();
+
+		private final ReferenceQueue<T> cleared = new ReferenceQueue<>();
+
+		@Override
+		public T intern(T object) {
+			expungeClearedEntries();
+			Entry<T> entry = new Entry<>(object, cleared);
+			while (true) {
+				Entry<T> existing = entries.putIfAbsent(entry, entry);
+				if (existing == null) {
+					return object;
+				}
+				T interned = existing.get();
+				if (interned != null) {
+					return interned;
+				}
+				// the existing object has just been collected
+				entries.remove(existing, existing);
+			}
+		}
+
+		private void expungeClearedEntries() {
+			Reference<? extends T> ref;
+			while ((ref = cleared.poll()) != null) {
+				entries.remove(ref, ref);
+			}
+		}
+
+		/**
+		 * A weak reference that is equal to the references to equal objects. A cleared reference is only equal to
+		 * itself.
+		 */
+		private static class Entry<T> extends WeakReference<T> {
+
+			private final int hashCode;
+
+			Entry(T object, ReferenceQueue<T> queue) {
+				super(object, queue);
+				this.hashCode = object.hashCode();
+			}
+
+			@Override
+			public boolean equals(Object other) {
+				if (this == other) {
+					return true;
+				}
+				if (!(other instanceof Entry)) {
+					return false;
+				}
+				Entry<?> o = (Entry<?>) other;
+				if (hashCode != o.hashCode) {
+					return false;
+				}
+				T object = get();
+				return object != null && object.equals(o.get());
+			}
+
+			@Override
+			public int hashCode() {
+				return hashCode;
+			}
+		}
+	}
+
+	/**
+	 * A fixed-size dictionary in which each object has a single slot, determined by its hash code. Storing an object
+	 * evicts the object that previously occupied its slot.
+	 */
+	private static class BoundedDictionary<T> implements Dictionary<T> {
+
+		private final AtomicReferenceArray<T> slots;
+
+		private final int mask;
+
+		BoundedDictionary(int capacity) {
+			int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+			if (size <= 0) {
+				size = 1 << 30;
+			}
+			slots = new AtomicReferenceArray<>(size);
+			mask = size - 1;
+		}
+
+		@Override
+		public T intern(T object) {
+			int h = object.hashCode();
+			int slot = (h ^ (h >>> 16)) & mask;
+			T existing = slots.get(slot);
+			if (existing != null && (existing == object || existing.equals(object))) {
+				return existing;
+			}
+			slots.lazySet(slot, object);
+			return object;
+		}
+	}
+
+	/**
+	 * An IRI that stores its namespace and local name separately, so that IRIs in the same namespace can share the
+	 * namespace string.
+	 */
+	private static class NamespacedIRI implements IRI {
+
+		private static final long serialVersionUID = 5398476493298146617L;
+
+		private final String namespace;
+
+		private final String localName;
+
+		private int hashCode;
+
+		NamespacedIRI(String namespace, String localName) {
+			this.namespace = namespace;
+			this.localName = localName;
+		}
+
+		@Override
+		public String toString() {
+			return namespace + localName;
+		}
+
+		@Override
+		public String stringValue() {
+			return toString();
+		}
+
+		@Override
+		public String getNamespace() {
+			return namespace;
+		}
+
+		@Override
+		public String getLocalName() {
+			return localName;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other instanceof NamespacedIRI) {
+				NamespacedIRI o = (NamespacedIRI) other;
+				return localName.equals(o.localName) && namespace.equals(o.namespace);
+			}
+			if (other instanceof IRI) {
+				String otherStr = other.toString();
+				return namespace.length() + localName.length() == otherStr.length() && otherStr.endsWith(localName)
+						&& otherStr.startsWith(namespace);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			if (hashCode == 0) {
+				hashCode = toString().hashCode();
+			}
+			return hashCode;
+		}
+	}
+}
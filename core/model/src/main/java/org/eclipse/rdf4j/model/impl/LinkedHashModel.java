@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -58,6 +59,11 @@ public class LinkedHashModel extends AbstractModel {
 
 	transient Set<ModelStatement> statements;
 
+	/**
+	 * The factory that interns the values of this model, or <tt>null</tt> if values are not interned.
+	 */
+	private transient InterningValueFactory interningValueFactory;
+
 	public LinkedHashModel() {
 		this(128);
 	}
@@ -82,6 +88,30 @@ public class LinkedHashModel extends AbstractModel {
 		statements = new LinkedHashSet<>(size * 2, 0.75f);
 	}
 
+	/**
+	 * Creates a model that stores the values interned by the supplied factory, so that models and parsers that share
+	 * the factory also share equal values. The statements added to the model are kept as before. Values are not
+	 * interned after the model has been deserialized.
+	 *
+	 * @param interningValueFactory the factory that interns the values of the model
+	 */
+	public LinkedHashModel(InterningValueFactory interningValueFactory) {
+		this(128, interningValueFactory);
+	}
+
+	/**
+	 * Creates a model that stores the values interned by the supplied factory.
+	 *
+	 * @param size                  the expected number of statements
+	 * @param interningValueFactory the factory that interns the values of the model
+	 * @see #LinkedHashModel(InterningValueFactory)
+	 */
+	public LinkedHashModel(int size, InterningValueFactory interningValueFactory) {
+		this(size);
+		this.interningValueFactory = Objects.requireNonNull(interningValueFactory,
+				"interningValueFactory must not be null");
+	}
+
 	public LinkedHashModel(Set<Namespace> namespaces, Collection<? extends Statement> c) {
 		this(c);
 		this.namespaces.addAll(namespaces);
@@ -551,6 +581,9 @@ public class LinkedHashModel extends AbstractModel {
 		if (node != null) {
 			return node;
 		}
+		if (interningValueFactory != null) {
+			value = interningValueFactory.intern(value);
+		}
 		node = new ModelNode<>(value);
 		values.put(value, node);
 		return node;
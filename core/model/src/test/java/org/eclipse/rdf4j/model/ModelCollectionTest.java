@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.model;
 
+import org.eclipse.rdf4j.model.impl.ColumnarModelFactory;
 import org.eclipse.rdf4j.model.impl.DynamicModelFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModelFactory;
 import org.eclipse.rdf4j.model.impl.TreeModelFactory;
@@ -35,6 +36,7 @@ public class ModelCollectionTest {
 		suite.addTest(testModelImpl("LinkedHashModel", new LinkedHashModelFactory()));
 		suite.addTest(testModelImpl("TreeModel", new TreeModelFactory()));
 		suite.addTest(testModelImpl("DynamicModel", new DynamicModelFactory()));
+		suite.addTest(testModelImpl("ColumnarModel", new ColumnarModelFactory()));
 		return suite;
 	}
 
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InterningValueFactory}.
+ */
+public class InterningValueFactoryTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testWeakDictionary() {
+		InterningValueFactory factory = new InterningValueFactory();
+		assertInterned(factory);
+	}
+
+	@Test
+	public void testBoundedDictionary() {
+		InterningValueFactory factory = new InterningValueFactory(vf, 1024, false);
+		assertInterned(factory);
+
+		// values that are evicted are created again
+		IRI type = factory.createIRI(RDF.TYPE.stringValue());
+		for (int i = 0; i < 100_000; i++) {
+			factory.createIRI("urn:x:" + i);
+		}
+		assertEquals(type, factory.createIRI(RDF.TYPE.stringValue()));
+	}
+
+	@Test
+	public void testSharedNamespaces() {
+		for (int capacity : new int[] { 0, 1024 }) {
+			InterningValueFactory factory = new InterningValueFactory(vf, capacity, true);
+			assertInterned(factory);
+
+			IRI a = factory.createIRI(new String("http://example.org/ns#") + "a");
+			IRI b = factory.createIRI(new String("http://example.org/ns#"), "b");
+			assertSame(a.getNamespace(), b.getNamespace());
+			assertEquals("b", b.getLocalName());
+
+			// equal to, and interchangeable with, the IRIs of other factories
+			IRI simple = vf.createIRI("http://example.org/ns#a");
+			assertEquals(simple, a);
+			assertEquals(a, simple);
+			assertEquals(simple.hashCode(), a.hashCode());
+			assertEquals(simple.stringValue(), a.stringValue());
+			assertSame(a, factory.intern(simple));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSharedNamespacesRelativeIRI() {
+		new InterningValueFactory(vf, 0, true).createIRI("relative");
+	}
+
+	@Test
+	public void testLanguageTagCase() {
+		InterningValueFactory factory = new InterningValueFactory();
+		Literal lower = factory.createLiteral("chat", "en");
+		Literal upper = factory.createLiteral("chat", "EN");
+		assertEquals(lower, upper);
+		assertEquals("EN", upper.getLanguage().get());
+		assertSame(lower, factory.createLiteral("chat", "en"));
+	}
+
+	@Test
+	public void testConcurrentInterning() throws Exception {
+		InterningValueFactory factory = new InterningValueFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<IRI[]>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(() -> {
+					IRI[] iris = new IRI[1000];
+					for (int i = 0; i < iris.length; i++) {
+						iris[i] = factory.createIRI("urn:x:" + i);
+					}
+					return iris;
+				}));
+			}
+			IRI[] first = results.get(0).get();
+			for (Future<IRI[]> result : results) {
+				IRI[] iris = result.get();
+				for (int i = 0; i < iris.length; i++) {
+					assertSame(first[i], iris[i]);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testLinkedHashModelKeepsStatements() {
+		InterningValueFactory factory = new InterningValueFactory();
+		Statement first = factory.createStatement(factory.createIRI("urn:a"), RDF.TYPE, factory.createLiteral("x"));
+		Statement second = factory.createStatement(factory.createIRI("urn:b"), RDF.TYPE, factory.createLiteral("x"));
+
+		LinkedHashModel model = new LinkedHashModel();
+		model.add(first);
+		model.add(second);
+
+		List<Statement> statements = new ArrayList<>(model);
+		assertSame(first, ((LinkedHashModel.ModelStatement) statements.get(0)).getStatement());
+		assertSame(second, ((LinkedHashModel.ModelStatement) statements.get(1)).getStatement());
+		assertSame(first.getObject(), statements.get(1).getObject());
+	}
+
+	@Test
+	public void testLinkedHashModelInterning() {
+		InterningValueFactory factory = new InterningValueFactory();
+		Statement first = vf.createStatement(vf.createIRI("urn:a"), RDF.TYPE, vf.createLiteral("x"));
+		Statement second = vf.createStatement(vf.createIRI("urn:a"), RDF.TYPE, vf.createLiteral("x"),
+				vf.createIRI("urn:g"));
+
+		LinkedHashModel model = new LinkedHashModel(factory);
+		model.add(first);
+		LinkedHashModel other = new LinkedHashModel(factory);
+		other.add(second);
+
+		Statement stored = new ArrayList<>(model).get(0);
+		Statement otherStored = new ArrayList<>(other).get(0);
+		assertSame(first, ((LinkedHashModel.ModelStatement) stored).getStatement());
+		assertSame(stored.getSubject(), otherStored.getSubject());
+		assertSame(stored.getObject(), otherStored.getObject());
+		assertSame(factory.createLiteral("x"), stored.getObject());
+		assertEquals(first, stored);
+	}
+
+	private void assertInterned(InterningValueFactory factory) {
+		assertSame(factory.createIRI("urn:a"), factory.createIRI(new String("urn:a")));
+		assertSame(factory.createIRI("http://example.org/", "a"), factory.createIRI("http://example.org/a"));
+		assertSame(factory.createBNode("b1"), factory.createBNode("b1"));
+		assertSame(factory.createLiteral("x"), factory.createLiteral("x"));
+		assertSame(factory.createLiteral("x", "en"), factory.createLiteral("x", "en"));
+		assertSame(factory.createLiteral("1", XMLSchema.INT), factory.createLiteral("1", XMLSchema.INT));
+
+		assertNotSame(factory.createLiteral("x"), factory.createLiteral("x", "en"));
+		assertNotSame(factory.createBNode(), factory.createBNode());
+		assertEquals(vf.createLiteral("1", XMLSchema.INT), factory.createLiteral("1", XMLSchema.INT));
+	}
+}
@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.SimpleBinding;
+
+/**
+ * A {@link QueryBindingSet} that stores its values in an array, indexed by a {@link SlotTable} that maps variable
+ * names to array slots. The slot table is computed once for a query and shared by all binding sets that are derived
+ * from each other, so that copying a binding set only copies its value array and looking up a variable does not need
+ * to hash its name.
+ * <p>
+ * Variables that are not part of the slot table are added to an extended copy of the table, which is in turn shared
+ * with the copies of this binding set.
+ */
+public class ArrayBindingSet extends QueryBindingSet {
+
+	private static final long serialVersionUID = 7186524393417893451L;
+
+	/**
+	 * Placeholder for variables that are bound to <tt>null</tt>, which are part of {@link #getBindingNames()} but have
+	 * no value.
+	 */
+	private static final Value NULL_VALUE = () -> "";
+
+	private SlotTable slots;
+
+	private Value[] values;
+
+	private int size;
+
+	public ArrayBindingSet(SlotTable slots) {
+		super(Collections.<String, Value>emptyMap());
+		this.slots = slots;
+		this.values = new Value[slots.size()];
+	}
+
+	public ArrayBindingSet(SlotTable slots, BindingSet bindingSet) {
+		this(slots);
+		addAll(bindingSet);
+	}
+
+	/**
+	 * Creates a copy of the supplied binding set that shares its slot table.
+	 */
+	public ArrayBindingSet(ArrayBindingSet bindingSet) {
+		super(Collections.<String, Value>emptyMap());
+		this.slots = bindingSet.slots;
+		this.values = bindingSet.values.clone();
+		this.size = bindingSet.size;
+	}
+
+	/**
+	 * Creates a mutable copy of the supplied binding set. Copies of an {@link ArrayBindingSet} share its slot table,
+	 * other binding sets are copied to a regular {@link QueryBindingSet}.
+	 */
+	public static QueryBindingSet copyOf(BindingSet bindingSet) {
+		if (bindingSet instanceof ArrayBindingSet) {
+			return new ArrayBindingSet((ArrayBindingSet) bindingSet);
+		}
+		return new QueryBindingSet(bindingSet);
+	}
+
+	public SlotTable getSlotTable() {
+		return slots;
+	}
+
+	@Override
+	public void addAll(BindingSet bindingSet) {
+		if (bindingSet instanceof ArrayBindingSet && ((ArrayBindingSet) bindingSet).slots == slots && size == 0) {
+			ArrayBindingSet other = (ArrayBindingSet) bindingSet;
+			System.arraycopy(other.values, 0, values, 0, values.length);
+			size = other.size;
+		} else if (bindingSet instanceof QueryBindingSet) {
+			// include the variables that are bound to null
+			for (String name : bindingSet.getBindingNames()) {
+				setBinding(name, bindingSet.getValue(name));
+			}
+		} else {
+			for (Binding binding : bindingSet) {
+				setBinding(binding.getName(), binding.getValue());
+			}
+		}
+	}
+
+	@Override
+	public void addBinding(String name, Value value) {
+		assert !hasBinding(name) : "variable already bound: " + name;
+		setBinding(name, value);
+	}
+
+	@Override
+	public void setBinding(String name, Value value) {
+		int slot = slots.indexOf(name);
+		if (slot < 0) {
+			slots = slots.extend(name);
+			values = Arrays.copyOf(values, slots.size());
+			slot = values.length - 1;
+		}
+		if (values[slot] == null) {
+			size++;
+		}
+		values[slot] = value == null ? NULL_VALUE : value;
+	}
+
+	@Override
+	public void removeBinding(String name) {
+		int slot = slots.indexOf(name);
+		if (slot >= 0 && values[slot] != null) {
+			values[slot] = null;
+			size--;
+		}
+	}
+
+	@Override
+	public void removeAll(Collection<String> bindingNames) {
+		for (String name : bindingNames) {
+			removeBinding(name);
+		}
+	}
+
+	@Override
+	public void retainAll(Collection<String> bindingNames) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null && !bindingNames.contains(slots.getName(i))) {
+				values[i] = null;
+				size--;
+			}
+		}
+	}
+
+	@Override
+	public Set<String> getBindingNames() {
+		return new AbstractSet<String>() {
+
+			@Override
+			public Iterator<String> iterator() {
+				return new SlotIterator<String>() {
+
+					@Override
+					protected String get(int slot) {
+						return slots.getName(slot);
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof String && hasBinding((String) o);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Value getValue(String bindingName) {
+		int slot = slots.indexOf(bindingName);
+		if (slot < 0) {
+			return null;
+		}
+		Value value = values[slot];
+		return value == NULL_VALUE ? null : value;
+	}
+
+	@Override
+	public boolean hasBinding(String bindingName) {
+		int slot = slots.indexOf(bindingName);
+		return slot >= 0 && values[slot] != null;
+	}
+
+	@Override
+	public Iterator<Binding> iterator() {
+		return new SlotIterator<Binding>() {
+
+			@Override
+			protected boolean accept(Value value) {
+				return value != NULL_VALUE;
+			}
+
+			@Override
+			protected Binding get(int slot) {
+				return new SimpleBinding(slots.getName(slot), values[slot]);
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (other instanceof ArrayBindingSet && ((ArrayBindingSet) other).slots == slots) {
+			return Arrays.equals(values, ((ArrayBindingSet) other).values);
+		}
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof BindingSet) || ((BindingSet) other).size() != size) {
+			return false;
+		}
+		for (Binding binding : (BindingSet) other) {
+			if (!binding.getValue().equals(getValue(binding.getName()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Binding sets are serialized as regular {@link QueryBindingSet}s, as the placeholder for variables that are bound
+	 * to <tt>null</tt> can not be serialized.
+	 */
+	private Object writeReplace() {
+		return new QueryBindingSet(this);
+	}
+
+	/**
+	 * Iterates over the slots that hold a value.
+	 */
+	private abstract class SlotIterator<E> implements Iterator<E> {
+
+		private int next = advance(0);
+
+		private int advance(int slot) {
+			while (slot < values.length && (values[slot] == null || !accept(values[slot]))) {
+				slot++;
+			}
+			return slot;
+		}
+
+		protected boolean accept(Value value) {
+			return true;
+		}
+
+		protected abstract E get(int slot);
+
+		@Override
+		public boolean hasNext() {
+			return next < values.length;
+		}
+
+		@Override
+		public E next() {
+			if (next >= values.length) {
+				throw new NoSuchElementException();
+			}
+			E result = get(next);
+			next = advance(next + 1);
+			return result;
+		}
+	}
+
+	/**
+	 * An immutable mapping of variable names to the slots of {@link ArrayBindingSet}s. A slot table is typically
+	 * computed from all variables of a query when it is prepared.
+	 */
+	public static final class SlotTable {
+
+		/**
+		 * Tables with more variables than this use a hash map to look up a slot, rather than scanning the names.
+		 */
+		private static final int MAX_SCAN_SIZE = 16;
+
+		private final String[] names;
+
+		private final Map<String, Integer> index;
+
+		/**
+		 * The most recently created extension of this table, which is shared by binding sets that add the same
+		 * variable.
+		 */
+		private volatile SlotTable extension;
+
+		private SlotTable(String[] names) {
+			this.names = names;
+			if (names.length > MAX_SCAN_SIZE) {
+				index = new HashMap<>(names.length * 2);
+				for (int i = 0; i < names.length; i++) {
+					index.put(names[i], i);
+				}
+			} else {
+				index = null;
+			}
+		}
+
+		/**
+		 * Creates a slot table for the supplied variable names.
+		 */
+		public static SlotTable of(Collection<String> names) {
+			Set<String> unique = new LinkedHashSet<>(names);
+			return new SlotTable(unique.toArray(new String[unique.size()]));
+		}
+
+		public int size() {
+			return names.length;
+		}
+
+		public String getName(int slot) {
+			return names[slot];
+		}
+
+		/**
+		 * Gets the slot of the supplied variable.
+		 *
+		 * @return The slot, or <tt>-1</tt> if the variable has no slot in this table.
+		 */
+		public int indexOf(String name) {
+			String[] names = this.names;
+			// variable names are mostly the same instances as the names that the table was built from
+			for (int i = 0; i < names.length; i++) {
+				if (names[i] == name) {
+					return i;
+				}
+			}
+			if (index != null) {
+				Integer slot = index.get(name);
+				return slot == null ? -1 : slot;
+			}
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(name)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Creates a slot table with an additional slot for the supplied variable.
+		 */
+		SlotTable extend(String name) {
+			SlotTable result = extension;
+			if (result == null || !result.names[names.length].equals(name)) {
+				String[] extended = Arrays.copyOf(names, names.length + 1);
+				extended[names.length] = name;
+				result = new SlotTable(extended);
+				extension = result;
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(names);
+		}
+	}
+}
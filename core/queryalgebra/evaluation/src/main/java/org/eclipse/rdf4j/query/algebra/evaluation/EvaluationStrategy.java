@@ -62,6 +62,17 @@ public interface EvaluationStrategy extends FederatedServiceResolver {
 	TupleExpr optimize(TupleExpr expr, EvaluationStatistics evaluationStatistics,
 			BindingSet bindings);
 
+	/**
+	 * Prepares this strategy for the evaluation of a query expression that has already been optimized, for example a
+	 * copy of a cached query plan. {@link #optimize(TupleExpr, EvaluationStatistics, BindingSet)} does this as well.
+	 *
+	 * @param expr     the optimized {@link TupleExpr}.
+	 * @param bindings the bindings that have been assigned to the query expression.
+	 */
+	default void prepare(TupleExpr expr, BindingSet bindings) {
+		// no-op for backwards compatibility
+	}
+
 	/**
 	 * Evaluates the tuple expression against the supplied triple source with the specified set of variable bindings as
 	 * input.
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * A triple source of a store that assigns internal IDs to the values it stores. Evaluation strategies use these IDs,
+ * rather than the values themselves, to hash and compare the keys of joins, DISTINCT and GROUP BY, so that the lexical
+ * forms of values do not need to be hashed or compared.
+ */
+public interface InternalIdTripleSource extends TripleSource {
+
+	/**
+	 * The ID of values that are not stored.
+	 */
+	public static final long UNKNOWN_ID = -1;
+
+	/**
+	 * Gets the internal ID of the supplied value. Equal values must have the same ID, and values with the same ID
+	 * must be equal.
+	 *
+	 * @param value A value, typically one that was returned by {@link #getStatements}.
+	 * @return The ID of the value, or {@link #UNKNOWN_ID} if the value is not stored.
+	 * @throws QueryEvaluationException If the ID of the value could not be retrieved.
+	 */
+	public long getInternalID(Value value) throws QueryEvaluationException;
+}
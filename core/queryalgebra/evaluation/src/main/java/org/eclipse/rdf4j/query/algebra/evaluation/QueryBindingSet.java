@@ -39,7 +39,14 @@ public class QueryBindingSet extends AbstractBindingSet {
 	public QueryBindingSet(int capacity) {
 		// Create bindings map with some extra space for new bindings and
 		// compensating for HashMap's load factor
-		bindings = new HashMap<>(capacity * 2);
+		this(new HashMap<>(capacity * 2));
+	}
+
+	/**
+	 * Creates a binding set that is backed by the supplied map, for subclasses that store their bindings differently.
+	 */
+	QueryBindingSet(Map<String, Value> bindings) {
+		this.bindings = bindings;
 	}
 
 	public QueryBindingSet(BindingSet bindingSet) {
@@ -48,7 +55,12 @@ public class QueryBindingSet extends AbstractBindingSet {
 	}
 
 	public void addAll(BindingSet bindingSet) {
-		if (bindingSet instanceof QueryBindingSet) {
+		if (bindingSet instanceof ArrayBindingSet) {
+			// include the variables that are bound to null
+			for (String name : bindingSet.getBindingNames()) {
+				bindings.put(name, bindingSet.getValue(name));
+			}
+		} else if (bindingSet instanceof QueryBindingSet) {
 			bindings.putAll(((QueryBindingSet) bindingSet).bindings);
 		} else {
 			for (Binding binding : bindingSet) {
@@ -146,7 +158,7 @@ public class QueryBindingSet extends AbstractBindingSet {
 
 	@Override
 	public boolean equals(Object other) {
-		if (other instanceof QueryBindingSet) {
+		if (other instanceof QueryBindingSet && !(other instanceof ArrayBindingSet)) {
 			return bindings.equals(((QueryBindingSet) other).bindings);
 		} else {
 			return super.equals(other);
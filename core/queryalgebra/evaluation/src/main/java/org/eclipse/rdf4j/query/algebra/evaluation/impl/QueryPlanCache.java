@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.FunctionCall;
+import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.algebra.helpers.StatementPatternCollector;
+import org.eclipse.rdf4j.query.algebra.helpers.VarNameCollector;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A bounded cache of optimized query plans. Plans are cached for query expressions that have been registered with the
+ * text of the query they were parsed from (see {@link #registerQuery(TupleExpr, QueryLanguage, String, String)}), and
+ * are keyed on that text, the dataset and the inclusion of inferred statements.
+ * <p>
+ * Plans are optimized without bindings; the bindings of each evaluation are assigned to a copy of the cached plan. A
+ * cached plan is re-optimized when the estimated cardinalities of its statement patterns have changed significantly.
+ */
+public class QueryPlanCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	/**
+	 * The number of hits on a plan after which the cardinalities of its statement patterns are checked again.
+	 */
+	public static final int VALIDATION_INTERVAL = 100;
+
+	/**
+	 * The factor by which the cardinality of a statement pattern must change for a plan to be re-optimized.
+	 */
+	public static final double CARDINALITY_CHANGE_FACTOR = 2;
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryPlanCache.class);
+
+	/**
+	 * The query texts of registered query expressions. Keys are compared by identity and weakly referenced.
+	 */
+	private static final Cache<TupleExpr, String> queryTexts = CacheBuilder.newBuilder().weakKeys().build();
+
+	private final Cache<PlanKey, Entry> plans;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder invalidationCount = new LongAdder();
+
+	public QueryPlanCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public QueryPlanCache(int maximumSize) {
+		this.plans = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Registers the text of the query that the supplied query expression was parsed from, so that its plan can be
+	 * cached. The query expression must not be modified afterwards.
+	 *
+	 * @param expr        a query expression, as produced by the query parser
+	 * @param ql          the language of the query
+	 * @param queryString the text of the query
+	 * @param baseURI     the base URI the query was parsed with, may be <code>null</code>
+	 */
+	public static void registerQuery(TupleExpr expr, QueryLanguage ql, String queryString, String baseURI) {
+		queryTexts.put(expr, ql.getName() + '\n' + baseURI + '\n' + queryString);
+	}
+
+	/**
+	 * Optimizes the supplied query expression with the supplied strategy, or returns a copy of its cached plan. The
+	 * supplied expression itself is not modified.
+	 *
+	 * @param expr            the query expression to optimize
+	 * @param dataset         the dataset the query is evaluated on, may be <code>null</code>
+	 * @param bindings        the bindings to assign to the plan
+	 * @param includeInferred whether inferred statements are included in the evaluation
+	 * @param strategy        the strategy to optimize the query expression with
+	 * @param statistics      the statistics to optimize the query expression with
+	 * @return an optimized plan with the supplied bindings assigned, rooted in a {@link QueryRoot}
+	 */
+	public TupleExpr optimize(TupleExpr expr, Dataset dataset, BindingSet bindings, boolean includeInferred,
+			EvaluationStrategy strategy, EvaluationStatistics statistics) {
+		String queryText = queryTexts.getIfPresent(expr);
+		if (queryText == null || !isCacheable(expr)) {
+			return strategy.optimize(root(expr.clone()), statistics, bindings);
+		}
+
+		PlanKey key = new PlanKey(queryText, dataset, includeInferred);
+		Entry entry = plans.getIfPresent(key);
+		if (entry != null && !entry.source.equals(expr)) {
+			// the registered expression has been modified
+			entry = null;
+		} else if (entry != null && !entry.isValid(statistics)) {
+			logger.debug("Statistics have changed, re-optimizing query plan of:\n{}", queryText);
+			invalidationCount.increment();
+			entry = null;
+		}
+
+		if (entry == null) {
+			missCount.increment();
+			TupleExpr plan = strategy.optimize(root(expr.clone()), statistics, EmptyBindingSet.getInstance());
+			entry = new Entry(expr.clone(), plan.clone(), statistics);
+			plans.put(key, entry);
+		} else {
+			hitCount.increment();
+		}
+
+		if (!entry.accepts(bindings)) {
+			return strategy.optimize(root(expr.clone()), statistics, bindings);
+		}
+		TupleExpr plan = entry.plan.clone();
+		new BindingAssigner().optimize(plan, dataset, bindings);
+		strategy.prepare(plan, bindings);
+		return plan;
+	}
+
+	/**
+	 * Removes all plans from this cache.
+	 */
+	public void invalidateAll() {
+		plans.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached plans
+	 */
+	public long size() {
+		return plans.size();
+	}
+
+	/**
+	 * @return the number of evaluations of registered queries that reused a cached plan
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of evaluations of registered queries that had to optimize a new plan
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * @return the number of cached plans that were re-optimized because the statistics had changed
+	 */
+	public long getInvalidationCount() {
+		return invalidationCount.sum();
+	}
+
+	/**
+	 * @return the ratio of hits to lookups, or <code>1.0</code> if there were no lookups
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long lookups = hits + getMissCount();
+		return lookups == 0 ? 1.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryPlanCache [size=" + size() + ", hitCount=" + getHitCount() + ", missCount=" + getMissCount()
+				+ ", hitRate=" + getHitRate() + ", invalidationCount=" + getInvalidationCount() + "]";
+	}
+
+	private static TupleExpr root(TupleExpr expr) {
+		return expr instanceof QueryRoot ? expr : new QueryRoot(expr);
+	}
+
+	/**
+	 * Zero-argument functions such as NOW() are evaluated once per query by the {@link ConstantOptimizer}, so their
+	 * plans can not be reused.
+	 */
+	private static boolean isCacheable(TupleExpr expr) {
+		boolean[] cacheable = { true };
+		expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(FunctionCall node) {
+				if (node.getArgs().isEmpty()) {
+					cacheable[0] = false;
+				} else {
+					super.meet(node);
+				}
+			}
+		});
+		return cacheable[0];
+	}
+
+	private static class PlanKey {
+
+		private final String queryText;
+
+		private final List<Set<?>> dataset;
+
+		private final boolean includeInferred;
+
+		private final int hashCode;
+
+		PlanKey(String queryText, Dataset dataset, boolean includeInferred) {
+			this.queryText = queryText;
+			// datasets do not implement equals, compare their graphs instead
+			this.dataset = dataset == null ? null
+					: Arrays.asList(new HashSet<>(dataset.getDefaultGraphs()),
+							new HashSet<>(dataset.getNamedGraphs()));
+			this.includeInferred = includeInferred;
+			this.hashCode = Objects.hash(queryText, this.dataset, includeInferred);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey o = (PlanKey) other;
+			return includeInferred == o.includeInferred && queryText.equals(o.queryText)
+					&& Objects.equals(dataset, o.dataset);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static class Entry {
+
+		/**
+		 * A copy of the query expression the plan was optimized from.
+		 */
+		final TupleExpr source;
+
+		final TupleExpr plan;
+
+		/**
+		 * The names of the variables that occur in the source, but were removed from the plan by the optimizers.
+		 */
+		private final Set<String> removedVarNames;
+
+		/**
+		 * The names of the variables that the optimizers assigned a value to.
+		 */
+		private final Set<String> assignedVarNames = new HashSet<>();
+
+		private final List<StatementPattern> patterns;
+
+		private final double[] cardinalities;
+
+		private final AtomicInteger hits = new AtomicInteger();
+
+		Entry(TupleExpr source, TupleExpr plan, EvaluationStatistics statistics) {
+			this.source = source;
+			this.plan = plan;
+			this.removedVarNames = VarNameCollector.process(source);
+			removedVarNames.removeAll(VarNameCollector.process(plan));
+			plan.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+				@Override
+				public void meet(Var node) {
+					if (node.hasValue() && !node.isConstant()) {
+						assignedVarNames.add(node.getName());
+					}
+				}
+			});
+			this.patterns = StatementPatternCollector.process(plan);
+			this.cardinalities = getCardinalities(statistics);
+		}
+
+		/**
+		 * Whether the bindings can be assigned to the plan. Bindings for variables that the optimizers have removed
+		 * or assigned a value to would have led to a different plan.
+		 */
+		boolean accepts(BindingSet bindings) {
+			for (String name : bindings.getBindingNames()) {
+				if (removedVarNames.contains(name) || assignedVarNames.contains(name)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		boolean isValid(EvaluationStatistics statistics) {
+			if (hits.incrementAndGet() % VALIDATION_INTERVAL != 0) {
+				return true;
+			}
+			double[] current = getCardinalities(statistics);
+			for (int i = 0; i < current.length; i++) {
+				double ratio = (current[i] + 1) / (cardinalities[i] + 1);
+				if (ratio > CARDINALITY_CHANGE_FACTOR || ratio < 1 / CARDINALITY_CHANGE_FACTOR) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private double[] getCardinalities(EvaluationStatistics statistics) {
+			double[] result = new double[patterns.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = statistics.getCardinality(patterns.get(i));
+			}
+			return result;
+		}
+	}
+}
@@ -7,13 +7,18 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
@@ -67,9 +72,11 @@ import org.eclipse.rdf4j.query.algebra.Distinct;
 import org.eclipse.rdf4j.query.algebra.EmptySet;
 import org.eclipse.rdf4j.query.algebra.Exists;
 import org.eclipse.rdf4j.query.algebra.Extension;
+import org.eclipse.rdf4j.query.algebra.ExtensionElem;
 import org.eclipse.rdf4j.query.algebra.Filter;
 import org.eclipse.rdf4j.query.algebra.FunctionCall;
 import org.eclipse.rdf4j.query.algebra.Group;
+import org.eclipse.rdf4j.query.algebra.GroupElem;
 import org.eclipse.rdf4j.query.algebra.IRIFunction;
 import org.eclipse.rdf4j.query.algebra.If;
 import org.eclipse.rdf4j.query.algebra.In;
@@ -114,7 +121,9 @@ import org.eclipse.rdf4j.query.algebra.ValueExpr;
 import org.eclipse.rdf4j.query.algebra.ValueExprTripleRef;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.ZeroLengthPath;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerPipeline;
@@ -129,18 +138,23 @@ import org.eclipse.rdf4j.query.algebra.evaluation.function.Function;
 import org.eclipse.rdf4j.query.algebra.evaluation.function.FunctionRegistry;
 import org.eclipse.rdf4j.query.algebra.evaluation.function.datetime.Now;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BadlyDesignedLeftJoinIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BreadthFirstPathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.DescribeIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ExtensionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.FilterIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.GroupIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinMemoryBudget;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.InternalIdDistinctIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.LeftJoinIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.MultiProjectionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.OrderIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ParallelUnionIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.PathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ProjectionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SPARQLMinusIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SpillingHashJoinIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ZeroLengthPathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.EvaluationStrategies;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
@@ -172,6 +186,11 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	 * Constants *
 	 *-----------*/
 
+	/**
+	 * The number of results of a concurrently evaluated argument that are buffered for the consumer.
+	 */
+	private static final int PARALLEL_EVALUATION_QUEUE_CAPACITY = 1024;
+
 	protected final TripleSource tripleSource;
 
 	protected final Dataset dataset;
@@ -195,6 +214,14 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 	private QueryOptimizerPipeline pipeline;
 
+	// bounds the size of hash join tables, hash joins are held fully in memory if null
+	private HashJoinMemoryBudget hashJoinMemoryBudget;
+
+	private File hashJoinSpillDirectory;
+
+	// evaluates union and hash join arguments concurrently, everything is evaluated on the calling thread if null
+	private ExecutorService parallelEvaluationExecutor;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -253,6 +280,51 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		this.pipeline = pipeline;
 	}
 
+	/**
+	 * Sets the budget for the number of binding sets that hash joins may keep in memory. Hash joins that exceed the
+	 * budget partition their inputs to disk. The same budget may be shared between strategies to bound the memory of
+	 * all concurrently evaluated hash joins.
+	 *
+	 * @param hashJoinMemoryBudget the budget, or <code>null</code> to always keep hash joins in memory.
+	 */
+	public void setHashJoinMemoryBudget(HashJoinMemoryBudget hashJoinMemoryBudget) {
+		this.hashJoinMemoryBudget = hashJoinMemoryBudget;
+	}
+
+	public HashJoinMemoryBudget getHashJoinMemoryBudget() {
+		return hashJoinMemoryBudget;
+	}
+
+	/**
+	 * Sets the directory in which hash joins that exceed their memory budget store their partitions.
+	 *
+	 * @param hashJoinSpillDirectory the directory, or <code>null</code> for the default temporary directory.
+	 */
+	public void setHashJoinSpillDirectory(File hashJoinSpillDirectory) {
+		this.hashJoinSpillDirectory = hashJoinSpillDirectory;
+	}
+
+	public File getHashJoinSpillDirectory() {
+		return hashJoinSpillDirectory;
+	}
+
+	/**
+	 * Sets the executor that evaluates the arguments of unions and hash joins concurrently. The results of each argument
+	 * are passed through a bounded queue. Arguments that the executor rejects are evaluated on the calling thread, so
+	 * a bounded executor limits the parallelism without risking deadlock. The {@link TripleSource} must support
+	 * concurrent access.
+	 *
+	 * @param parallelEvaluationExecutor the executor, or <code>null</code> to evaluate everything on the calling
+	 *                                   thread.
+	 */
+	public void setParallelEvaluationExecutor(ExecutorService parallelEvaluationExecutor) {
+		this.parallelEvaluationExecutor = parallelEvaluationExecutor;
+	}
+
+	public ExecutorService getParallelEvaluationExecutor() {
+		return parallelEvaluationExecutor;
+	}
+
 	/**
 	 * Execute the {@link QueryOptimizerPipeline} on the given {@link TupleExpr} to optimize its execution plan.
 	 *
@@ -272,6 +344,47 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		return expr;
 	}
 
+	/**
+	 * Creates the slots of the binding sets of an evaluation of the supplied query expression.
+	 */
+	private static ArrayBindingSet.SlotTable createSlotTable(TupleExpr expr, BindingSet bindings) {
+		VarNameCollector collector = new VarNameCollector() {
+
+			@Override
+			public void meet(ExtensionElem node) {
+				getVarNames().add(node.getName());
+				super.meet(node);
+			}
+
+			@Override
+			public void meet(GroupElem node) {
+				getVarNames().add(node.getName());
+				super.meet(node);
+			}
+
+			@Override
+			public void meet(BindingSetAssignment node) {
+				getVarNames().addAll(node.getBindingNames());
+				super.meet(node);
+			}
+		};
+		collector.getVarNames().addAll(bindings.getBindingNames());
+		expr.visit(collector);
+		return ArrayBindingSet.SlotTable.of(collector.getVarNames());
+	}
+
+	/**
+	 * Creates a mutable copy of the supplied bindings, to which the bindings of a solution are added. The evaluation of
+	 * a {@link QueryRoot} assigns the slots of the query variables to its bindings, so that the bindings derived from
+	 * them are copied to {@link ArrayBindingSet}s that use the same slots.
+	 *
+	 * @param bindings the bindings to copy.
+	 * @return a copy of the bindings.
+	 */
+	protected QueryBindingSet createBindingSet(BindingSet bindings) {
+		return ArrayBindingSet.copyOf(bindings);
+	}
+
 	@Override
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(TupleExpr expr, BindingSet bindings)
 			throws QueryEvaluationException {
@@ -321,6 +434,9 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(ArbitraryLengthPath alp,
 			final BindingSet bindings) throws QueryEvaluationException {
+		if (BreadthFirstPathIteration.supports(alp, bindings)) {
+			return new BreadthFirstPathIteration(this, alp, bindings, getInternalIdSource());
+		}
 		final Scope scope = alp.getScope();
 		final Var subjectVar = alp.getSubjectVar();
 		final TupleExpr pathExpression = alp.getPathExpression();
@@ -618,7 +734,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 				@Override
 				protected BindingSet convert(Statement st) {
-					QueryBindingSet result = new QueryBindingSet(bindings);
+					QueryBindingSet result = createBindingSet(bindings);
 
 					if (subjVar != null && !subjVar.isConstant() && !result.hasBinding(subjVar.getName())) {
 						result.addBinding(subjVar.getName(), st.getSubject());
@@ -712,7 +828,8 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 			// new query, reset shared return value for successive calls of
 			// NOW()
 			this.sharedValueOfNow = null;
-			return evaluate(expr.getArg(), bindings);
+			// the binding sets of this evaluation use the slots of the query variables
+			return evaluate(expr.getArg(), new ArrayBindingSet(createSlotTable(expr, bindings), bindings));
 		} else if (expr instanceof DescribeOperator) {
 			return evaluate((DescribeOperator) expr, bindings);
 		} else if (expr == null) {
@@ -731,7 +848,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 		CloseableIteration<BindingSet, QueryEvaluationException> result;
 
-		final QueryBindingSet b = new QueryBindingSet(bindings);
+		final QueryBindingSet b = createBindingSet(bindings);
 
 		result = new LookAheadIteration<BindingSet, QueryEvaluationException>() {
 
@@ -750,7 +867,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 							Value bValue = b.getValue(name);
 							if (bValue == null || assignedValue.equals(bValue)) {
 								if (result == null) {
-									result = new QueryBindingSet(b);
+									result = ArrayBindingSet.copyOf(b);
 								}
 								if (bValue == null) {
 									// we are not overwriting an existing
@@ -833,6 +950,10 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Distinct distinct, BindingSet bindings)
 			throws QueryEvaluationException {
+		if (tripleSource instanceof InternalIdTripleSource) {
+			return new InternalIdDistinctIteration(evaluate(distinct.getArg(), bindings), distinct.getBindingNames(),
+					(InternalIdTripleSource) tripleSource);
+		}
 		return new DistinctIteration<>(evaluate(distinct.getArg(), bindings));
 	}
 
@@ -843,7 +964,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Group node, BindingSet bindings)
 			throws QueryEvaluationException {
-		return new GroupIterator(this, node, bindings, iterationCacheSyncThreshold);
+		return new GroupIterator(this, node, bindings, iterationCacheSyncThreshold, getInternalIdSource());
 	}
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Order node, BindingSet bindings)
@@ -884,12 +1005,66 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		}
 
 		if (isOutOfScopeForLeftArgBindings(join.getRightArg())) {
-			return new HashJoinIteration(this, join, bindings);
+			return evaluateHashJoin(join, bindings, false);
 		} else {
 			return new JoinIterator(this, join, bindings);
 		}
 	}
 
+	private CloseableIteration<BindingSet, QueryEvaluationException> evaluateHashJoin(BinaryTupleOperator join,
+			BindingSet bindings, boolean leftJoin) throws QueryEvaluationException {
+		TupleExpr leftArg = join.getLeftArg();
+		TupleExpr rightArg = join.getRightArg();
+
+		CloseableIteration<BindingSet, QueryEvaluationException> leftIter, rightIter;
+		if (parallelEvaluationExecutor != null) {
+			// the hash table is built from the right argument while the left argument is evaluated ahead
+			rightIter = evaluateConcurrently(Collections.singletonList(rightArg), bindings);
+			leftIter = evaluateConcurrently(Collections.singletonList(leftArg), bindings);
+		} else {
+			leftIter = evaluate(leftArg, bindings);
+			rightIter = evaluate(rightArg, bindings);
+		}
+
+		CloseableIteration<BindingSet, QueryEvaluationException> result;
+		if (hashJoinMemoryBudget != null) {
+			result = new SpillingHashJoinIteration(leftIter, leftArg.getBindingNames(), rightIter,
+					rightArg.getBindingNames(), leftJoin, hashJoinMemoryBudget, hashJoinSpillDirectory,
+					getInternalIdSource());
+		} else {
+			result = new HashJoinIteration(this, leftIter, leftArg.getBindingNames(), rightIter,
+					rightArg.getBindingNames(), leftJoin, getInternalIdSource());
+		}
+		join.setAlgorithm(result);
+		return result;
+	}
+
+	/**
+	 * @return The triple source if it provides internal IDs for the keys of joins and groups, otherwise <tt>null</tt>.
+	 */
+	private InternalIdTripleSource getInternalIdSource() {
+		return tripleSource instanceof InternalIdTripleSource ? (InternalIdTripleSource) tripleSource : null;
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> evaluateConcurrently(List<TupleExpr> args,
+			BindingSet bindings) {
+		List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> suppliers = new ArrayList<>(
+				args.size());
+		for (TupleExpr arg : args) {
+			suppliers.add(() -> evaluate(arg, bindings));
+		}
+		return new ParallelUnionIteration(suppliers, parallelEvaluationExecutor, PARALLEL_EVALUATION_QUEUE_CAPACITY);
+	}
+
+	private static void collectUnionArgs(TupleExpr expr, List<TupleExpr> args) {
+		if (expr instanceof Union) {
+			collectUnionArgs(((Union) expr).getLeftArg(), args);
+			collectUnionArgs(((Union) expr).getRightArg(), args);
+		} else {
+			args.add(expr);
+		}
+	}
+
 	private boolean isOutOfScopeForLeftArgBindings(TupleExpr expr) {
 		return (TupleExprs.isVariableScopeChange(expr) || TupleExprs.containsSubquery(expr));
 	}
@@ -897,7 +1072,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(LeftJoin leftJoin,
 			final BindingSet bindings) throws QueryEvaluationException {
 		if (TupleExprs.containsSubquery(leftJoin.getRightArg())) {
-			return new HashJoinIteration(this, leftJoin, bindings);
+			return evaluateHashJoin(leftJoin, bindings, true);
 		}
 
 		// Check whether optional join is "well designed" as defined in section
@@ -923,6 +1098,13 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	@SuppressWarnings("unchecked")
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final Union union,
 			final BindingSet bindings) throws QueryEvaluationException {
+		if (parallelEvaluationExecutor != null) {
+			// evaluate the arguments of nested unions concurrently as well
+			List<TupleExpr> args = new ArrayList<>();
+			collectUnionArgs(union, args);
+			return evaluateConcurrently(args, bindings);
+		}
+
 		Iteration<BindingSet, QueryEvaluationException> leftArg, rightArg;
 
 		leftArg = new DelayedIteration<BindingSet, QueryEvaluationException>() {
@@ -1932,7 +2114,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 			return new ConvertingIteration<Triple, BindingSet, QueryEvaluationException>(filterIter) {
 				@Override
 				protected BindingSet convert(Triple triple) throws QueryEvaluationException {
-					QueryBindingSet result = new QueryBindingSet(bindings);
+					QueryBindingSet result = createBindingSet(bindings);
 					if (subjValue == null) {
 						result.addBinding(subjVar.getName(), triple.getSubject());
 					}
@@ -1976,7 +2158,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 						throws QueryEvaluationException {
 					while (iter.hasNext()) {
 						Resource theNode = iter.next();
-						QueryBindingSet result = new QueryBindingSet(bindings);
+						QueryBindingSet result = createBindingSet(bindings);
 						// does it match the subjectValue/subjVar
 						if (!matchValue(theNode, subjValue, subjVar, result, RDF.SUBJECT)) {
 							continue;
@@ -7,18 +7,36 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinMemoryBudget;
 
 public class StrictEvaluationStrategyFactory extends AbstractEvaluationStrategyFactory
 		implements EvaluationStrategyFactory, FederatedServiceResolverClient {
 
 	private FederatedServiceResolver serviceResolver;
 
+	private HashJoinMemoryBudget hashJoinMemoryBudget;
+
+	private long hashJoinBindingSetLimit;
+
+	private File hashJoinSpillDirectory;
+
+	private int parallelEvaluationThreads;
+
+	private ExecutorService parallelEvaluationExecutor;
+
 	public StrictEvaluationStrategyFactory() {
 	}
 
@@ -35,12 +53,84 @@ public class StrictEvaluationStrategyFactory extends AbstractEvaluationStrategyF
 		return serviceResolver;
 	}
 
+	/**
+	 * Sets a budget that is shared by the hash joins of all strategies created by this factory. This takes precedence
+	 * over {@link #setHashJoinBindingSetLimit(long)}.
+	 */
+	public void setHashJoinMemoryBudget(HashJoinMemoryBudget hashJoinMemoryBudget) {
+		this.hashJoinMemoryBudget = hashJoinMemoryBudget;
+	}
+
+	public HashJoinMemoryBudget getHashJoinMemoryBudget() {
+		return hashJoinMemoryBudget;
+	}
+
+	/**
+	 * Sets the maximum number of binding sets that the hash joins of a single query may keep in memory before they
+	 * spill to disk. A value of 0 or less keeps hash joins in memory.
+	 */
+	public void setHashJoinBindingSetLimit(long hashJoinBindingSetLimit) {
+		this.hashJoinBindingSetLimit = hashJoinBindingSetLimit;
+	}
+
+	public long getHashJoinBindingSetLimit() {
+		return hashJoinBindingSetLimit;
+	}
+
+	public void setHashJoinSpillDirectory(File hashJoinSpillDirectory) {
+		this.hashJoinSpillDirectory = hashJoinSpillDirectory;
+	}
+
+	public File getHashJoinSpillDirectory() {
+		return hashJoinSpillDirectory;
+	}
+
+	/**
+	 * Sets the maximum number of threads that evaluate union and hash join arguments concurrently, shared by all
+	 * strategies created by this factory. A value of 0 or less evaluates queries on the calling thread only.
+	 */
+	public synchronized void setParallelEvaluationThreads(int parallelEvaluationThreads) {
+		if (parallelEvaluationExecutor instanceof ThreadPoolExecutor && parallelEvaluationThreads > 0) {
+			((ThreadPoolExecutor) parallelEvaluationExecutor).setMaximumPoolSize(parallelEvaluationThreads);
+		} else if (parallelEvaluationExecutor != null) {
+			parallelEvaluationExecutor.shutdown();
+			parallelEvaluationExecutor = null;
+		}
+		this.parallelEvaluationThreads = parallelEvaluationThreads;
+	}
+
+	public synchronized int getParallelEvaluationThreads() {
+		return parallelEvaluationThreads;
+	}
+
+	private synchronized ExecutorService getParallelEvaluationExecutor() {
+		if (parallelEvaluationExecutor == null && parallelEvaluationThreads > 0) {
+			// without a queue, arguments are evaluated on the calling thread when all threads are busy
+			AtomicInteger count = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(0, parallelEvaluationThreads, 60L,
+					TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+						Thread thread = new Thread(r, "rdf4j-evaluation-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			parallelEvaluationExecutor = executor;
+		}
+		return parallelEvaluationExecutor;
+	}
+
 	@Override
 	public EvaluationStrategy createEvaluationStrategy(Dataset dataset, TripleSource tripleSource,
 			EvaluationStatistics evaluationStatistics) {
 		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, dataset, serviceResolver,
 				getQuerySolutionCacheThreshold(), evaluationStatistics, isTrackResultSize());
 		getOptimizerPipeline().ifPresent(strategy::setOptimizerPipeline);
+		if (hashJoinMemoryBudget != null) {
+			strategy.setHashJoinMemoryBudget(hashJoinMemoryBudget);
+		} else if (hashJoinBindingSetLimit > 0) {
+			strategy.setHashJoinMemoryBudget(new HashJoinMemoryBudget(hashJoinBindingSetLimit));
+		}
+		strategy.setHashJoinSpillDirectory(hashJoinSpillDirectory);
+		strategy.setParallelEvaluationExecutor(getParallelEvaluationExecutor());
 
 		return strategy;
 	}
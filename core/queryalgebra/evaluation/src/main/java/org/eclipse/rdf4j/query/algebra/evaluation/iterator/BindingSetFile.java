@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueSpillCodec;
+
+/**
+ * A temporary file of binding sets in the compact binary encoding of {@link ValueSpillCodec}, which are read back in
+ * the order in which they were written. A value that is equal to the value of the same binding in the previous binding
+ * set is written as a single repeat marker, and binding names are written only once per file.
+ */
+class BindingSetFile implements Closeable {
+
+	private final File file;
+
+	private final ValueSpillCodec.Writer output;
+
+	private final Map<String, Integer> bindingNameTable = new HashMap<>();
+
+	private BindingSet previous;
+
+	private BindingSet last;
+
+	private long size;
+
+	private final List<Reader> readers = new ArrayList<>(1);
+
+	public BindingSetFile(String prefix, File directory) throws IOException {
+		file = File.createTempFile(prefix, "", directory);
+		output = new ValueSpillCodec.Writer(file);
+	}
+
+	/**
+	 * @return The number of binding sets in this file.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of bytes of this file on disk.
+	 */
+	public long length() {
+		return file.length();
+	}
+
+	/**
+	 * @return The binding set that was written last, or <tt>null</tt> if the file is empty.
+	 */
+	public BindingSet peekLast() {
+		return last;
+	}
+
+	public void add(BindingSet bindingSet) throws IOException {
+		if (!output.isOpen()) {
+			throw new IllegalStateException("File is no longer writable");
+		}
+
+		int bindingCount = 0;
+		for (Binding binding : bindingSet) {
+			if (binding.getValue() != null) {
+				bindingCount++;
+			}
+		}
+		output.writeInt(bindingCount);
+
+		for (Binding binding : bindingSet) {
+			Value value = binding.getValue();
+			if (value == null) {
+				continue;
+			}
+			String name = binding.getName();
+			output.writeTableEntry(bindingNameTable, name);
+			if (previous != null && value.equals(previous.getValue(name))) {
+				output.writeRepeat();
+			} else {
+				output.writeValue(value);
+			}
+		}
+
+		previous = bindingSet;
+		last = bindingSet;
+		size++;
+	}
+
+	/**
+	 * Flushes all written binding sets to disk. No binding sets may be added after this.
+	 */
+	public void finish() throws IOException {
+		output.finish();
+		previous = null;
+	}
+
+	/**
+	 * Finishes writing and returns an iterator over the binding sets in this file.
+	 */
+	public Iterator<BindingSet> iterator() throws IOException {
+		finish();
+		Reader reader = new Reader();
+		readers.add(reader);
+		return reader;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			output.close();
+			for (Reader reader : readers) {
+				reader.close();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private class Reader implements Iterator<BindingSet>, Closeable {
+
+		private final ValueSpillCodec.Reader input;
+
+		private final List<String> bindingNames = new ArrayList<>();
+
+		private QueryBindingSet previous;
+
+		private long remaining;
+
+		Reader() throws IOException {
+			input = new ValueSpillCodec.Reader(file);
+			remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public BindingSet next() {
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			try {
+				int bindingCount = input.readInt();
+				QueryBindingSet result = new QueryBindingSet(bindingCount);
+				for (int i = 0; i < bindingCount; i++) {
+					String name = input.readTableEntry(bindingNames);
+					Value value;
+					byte marker = input.readMarker();
+					if (marker == ValueSpillCodec.REPEAT_RECORD_MARKER) {
+						value = previous.getValue(name);
+					} else {
+						value = input.readValue(marker);
+					}
+					result.addBinding(name, value);
+				}
+				previous = result;
+				if (--remaining == 0) {
+					close();
+				}
+				return result;
+			} catch (IOException e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			input.close();
+		}
+	}
+}
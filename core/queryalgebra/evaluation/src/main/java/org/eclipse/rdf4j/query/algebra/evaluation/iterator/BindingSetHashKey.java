@@ -12,6 +12,8 @@ import java.util.Arrays;
 
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
 
 /**
  * Compact and efficient representation of a binding set for use as a key in hash maps.
@@ -26,6 +28,11 @@ public class BindingSetHashKey implements Serializable {
 
 	private final Value[] values;
 
+	/**
+	 * The internal IDs of the values, or <tt>null</tt> if the key compares the values themselves.
+	 */
+	private final long[] ids;
+
 	private transient int hashcode;
 
 	public static BindingSetHashKey create(String[] varNames, BindingSet bindings) {
@@ -44,8 +51,34 @@ public class BindingSetHashKey implements Serializable {
 		return key;
 	}
 
+	/**
+	 * Creates a key that is hashed and compared on the internal IDs of the values, as far as these are known to the
+	 * supplied triple source. Keys created by this method must not be mixed with keys created by
+	 * {@link #create(String[], BindingSet)}.
+	 */
+	public static BindingSetHashKey create(String[] varNames, BindingSet bindings, InternalIdTripleSource tripleSource)
+			throws QueryEvaluationException {
+		int varNameSize = varNames.length;
+		if (varNameSize == 0) {
+			return BindingSetHashKey.EMPTY;
+		}
+		Value[] keyValues = new Value[varNameSize];
+		long[] keyIds = new long[varNameSize];
+		for (int i = 0; i < varNameSize; i++) {
+			Value value = bindings.getValue(varNames[i]);
+			keyValues[i] = value;
+			keyIds[i] = value == null ? InternalIdTripleSource.UNKNOWN_ID : tripleSource.getInternalID(value);
+		}
+		return new BindingSetHashKey(keyValues, keyIds);
+	}
+
 	private BindingSetHashKey(Value[] values) {
+		this(values, null);
+	}
+
+	private BindingSetHashKey(Value[] values, long[] ids) {
 		this.values = values;
+		this.ids = ids;
 	}
 
 	@Override
@@ -62,6 +95,10 @@ public class BindingSetHashKey implements Serializable {
 			return false;
 		}
 
+		if (ids != null && jk.ids != null) {
+			return equalIds(jk);
+		}
+
 		for (int i = values.length - 1; i >= 0; i--) {
 			final Value v1 = this.values[i];
 			final Value v2 = jk.values[i];
@@ -79,10 +116,39 @@ public class BindingSetHashKey implements Serializable {
 		return true;
 	}
 
+	private boolean equalIds(BindingSetHashKey jk) {
+		for (int i = values.length - 1; i >= 0; i--) {
+			long id1 = ids[i];
+			long id2 = jk.ids[i];
+			if (id1 != InternalIdTripleSource.UNKNOWN_ID || id2 != InternalIdTripleSource.UNKNOWN_ID) {
+				if (id1 != id2) {
+					return false;
+				}
+			} else if (values[i] == null ? jk.values[i] != null : !values[i].equals(jk.values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public int hashCode() {
 		if (hashcode == 0) {
-			hashcode = Arrays.hashCode(values);
+			if (ids == null) {
+				hashcode = Arrays.hashCode(values);
+			} else {
+				int result = 1;
+				for (int i = 0; i < ids.length; i++) {
+					int h;
+					if (ids[i] != InternalIdTripleSource.UNKNOWN_ID) {
+						h = Long.hashCode(ids[i]);
+					} else {
+						h = values[i] == null ? 0 : values[i].hashCode();
+					}
+					result = 31 * result + h;
+				}
+				hashcode = result;
+			}
 		}
 		return hashcode;
 	}
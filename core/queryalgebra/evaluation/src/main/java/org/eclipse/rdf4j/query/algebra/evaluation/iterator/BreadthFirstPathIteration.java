@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+
+/**
+ * Evaluates an {@link ArbitraryLengthPath} over a single statement pattern, such as <tt>?x skos:broader+ ?y</tt>, by a
+ * breadth-first traversal of the edges that match the pattern. The traversal starts from the bound end of the path and
+ * reports each reachable node as soon as it is visited. If both ends are bound, the path is searched from both ends
+ * at once, expanding the smaller frontier first. If neither end is bound, a traversal is started from each distinct
+ * subject of the pattern.
+ * <p>
+ * Visited nodes are tracked by their internal IDs if the triple source provides these, see
+ * {@link InternalIdTripleSource}.
+ *
+ * @see #supports(ArbitraryLengthPath, BindingSet)
+ */
+public class BreadthFirstPathIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private static final String START_NAME = "-path-start";
+
+	private static final String END_NAME = "-path-end";
+
+	private final EvaluationStrategy strategy;
+
+	private final InternalIdTripleSource idSource;
+
+	private final BindingSet bindings;
+
+	private final Var startVar;
+
+	private final Var endVar;
+
+	/**
+	 * A single step of the path, with the start and end of the step in {@link #START_NAME} and {@link #END_NAME}.
+	 */
+	private final StatementPattern step;
+
+	private final boolean includeZeroLength;
+
+	/**
+	 * Whether the traversal follows the steps from their start to their end, which is the case unless only the end
+	 * of the path is bound.
+	 */
+	private final boolean forward;
+
+	private final Value fixedStart;
+
+	private final Value fixedEnd;
+
+	private final Queue<Value> frontier = new ArrayDeque<>();
+
+	private boolean done;
+
+	private Value origin;
+
+	private boolean originPending;
+
+	private VisitedSet visited;
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> stepIter;
+
+	/**
+	 * The steps that are scanned for the start nodes of traversals if neither end of the path is bound.
+	 */
+	private CloseableIteration<BindingSet, QueryEvaluationException> originIter;
+
+	private VisitedSet origins;
+
+	public BreadthFirstPathIteration(EvaluationStrategy strategy, ArbitraryLengthPath path, BindingSet bindings,
+			InternalIdTripleSource idSource) throws QueryEvaluationException {
+		assert supports(path, bindings);
+		this.strategy = strategy;
+		this.idSource = idSource;
+		this.bindings = bindings;
+		this.startVar = path.getSubjectVar();
+		this.endVar = path.getObjectVar();
+		this.includeZeroLength = path.getMinLength() == 0;
+
+		StatementPattern pattern = (StatementPattern) path.getPathExpression();
+		step = pattern.clone();
+		if (pattern.getSubjectVar().getName().equals(startVar.getName())) {
+			step.setSubjectVar(new Var(START_NAME));
+			step.setObjectVar(new Var(END_NAME));
+		} else {
+			// an inverse path
+			step.setSubjectVar(new Var(END_NAME));
+			step.setObjectVar(new Var(START_NAME));
+		}
+
+		fixedStart = getValue(startVar);
+		fixedEnd = getValue(endVar);
+		forward = fixedStart != null || fixedEnd == null;
+
+		if (isBoundToNull(startVar) || isBoundToNull(endVar)) {
+			// the variable must remain unbound for this solution see https://www.w3.org/TR/sparql11-query/#assignment
+			done = true;
+		} else if (fixedStart == null && fixedEnd == null) {
+			originIter = strategy.evaluate(step, bindings);
+			origins = new VisitedSet();
+		} else if (fixedStart == null || fixedEnd == null) {
+			startFrom(forward ? fixedStart : fixedEnd);
+		}
+	}
+
+	/**
+	 * Checks whether the supplied path can be evaluated by a breadth-first traversal. This is the case for paths of a
+	 * single statement pattern with a minimum length of zero or one, evaluated in a fixed context or none. Paths of
+	 * length zero or more between two unbound variables are not supported, as these match all nodes of the graph.
+	 */
+	public static boolean supports(ArbitraryLengthPath path, BindingSet bindings) {
+		TupleExpr pathExpression = path.getPathExpression();
+		if (!(pathExpression instanceof StatementPattern) || path.getMinLength() > 1) {
+			return false;
+		}
+		StatementPattern pattern = (StatementPattern) pathExpression;
+		String start = path.getSubjectVar().getName();
+		String end = path.getObjectVar().getName();
+		String subj = pattern.getSubjectVar().getName();
+		String obj = pattern.getObjectVar().getName();
+		if (start.equals(end) || pattern.getPredicateVar().getName().equals(start)
+				|| pattern.getPredicateVar().getName().equals(end)) {
+			return false;
+		}
+		if (!(subj.equals(start) && obj.equals(end)) && !(subj.equals(end) && obj.equals(start))) {
+			return false;
+		}
+		Var context = path.getContextVar();
+		Var patternContext = pattern.getContextVar();
+		if (context == null || patternContext == null) {
+			if (context != patternContext) {
+				return false;
+			}
+		} else if (!context.getName().equals(patternContext.getName()) || !isFixed(context, bindings)) {
+			return false;
+		}
+		return path.getMinLength() > 0 || isFixed(path.getSubjectVar(), bindings)
+				|| isFixed(path.getObjectVar(), bindings);
+	}
+
+	private static boolean isFixed(Var var, BindingSet bindings) {
+		return var.hasValue() || bindings.hasBinding(var.getName());
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (done) {
+			return null;
+		}
+		if (fixedStart != null && fixedEnd != null) {
+			done = true;
+			return isConnected(fixedStart, fixedEnd) ? createResult(fixedStart, fixedEnd) : null;
+		}
+
+		while (true) {
+			if (originPending) {
+				originPending = false;
+				return createResult(origin, origin);
+			}
+			if (stepIter != null) {
+				while (stepIter.hasNext()) {
+					Value next = stepIter.next().getValue(forward ? END_NAME : START_NAME);
+					if (next != null && visited.add(next)) {
+						frontier.add(next);
+						return forward ? createResult(origin, next) : createResult(next, origin);
+					}
+				}
+				stepIter.close();
+				stepIter = null;
+			}
+
+			Value node = frontier.poll();
+			if (node != null) {
+				stepIter = expand(node, forward);
+			} else if (!nextOrigin()) {
+				done = true;
+				return null;
+			}
+		}
+	}
+
+	private void startFrom(Value value) {
+		origin = value;
+		visited = new VisitedSet();
+		frontier.add(value);
+		if (includeZeroLength) {
+			visited.add(value);
+			originPending = true;
+		}
+	}
+
+	private boolean nextOrigin() throws QueryEvaluationException {
+		if (originIter == null) {
+			return false;
+		}
+		while (originIter.hasNext()) {
+			Value value = originIter.next().getValue(START_NAME);
+			if (value != null && origins.add(value)) {
+				startFrom(value);
+				return true;
+			}
+		}
+		originIter.close();
+		originIter = null;
+		return false;
+	}
+
+	/**
+	 * Searches a path between the supplied nodes from both ends, expanding the end with the smaller frontier first.
+	 */
+	private boolean isConnected(Value start, Value end) throws QueryEvaluationException {
+		if (includeZeroLength && start.equals(end)) {
+			return true;
+		}
+		VisitedSet forwardVisited = new VisitedSet();
+		VisitedSet backwardVisited = new VisitedSet();
+		forwardVisited.add(start);
+		backwardVisited.add(end);
+		List<Value> forwardFrontier = new ArrayList<>();
+		List<Value> backwardFrontier = new ArrayList<>();
+		forwardFrontier.add(start);
+		backwardFrontier.add(end);
+
+		while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+			boolean expandForward = forwardFrontier.size() <= backwardFrontier.size();
+			VisitedSet own = expandForward ? forwardVisited : backwardVisited;
+			VisitedSet other = expandForward ? backwardVisited : forwardVisited;
+			List<Value> next = new ArrayList<>();
+			for (Value node : expandForward ? forwardFrontier : backwardFrontier) {
+				try (CloseableIteration<BindingSet, QueryEvaluationException> iter = expand(node, expandForward)) {
+					while (iter.hasNext()) {
+						Value value = iter.next().getValue(expandForward ? END_NAME : START_NAME);
+						if (value == null) {
+							continue;
+						}
+						if (other.contains(value)) {
+							return true;
+						}
+						if (own.add(value)) {
+							next.add(value);
+						}
+					}
+				}
+			}
+			if (expandForward) {
+				forwardFrontier = next;
+			} else {
+				backwardFrontier = next;
+			}
+		}
+		return false;
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> expand(Value node, boolean forward)
+			throws QueryEvaluationException {
+		QueryBindingSet stepBindings = new QueryBindingSet(bindings.size() + 1);
+		stepBindings.addAll(bindings);
+		stepBindings.addBinding(forward ? START_NAME : END_NAME, node);
+		return strategy.evaluate(step, stepBindings);
+	}
+
+	private BindingSet createResult(Value start, Value end) {
+		QueryBindingSet result = ArrayBindingSet.copyOf(bindings);
+		if (!startVar.hasValue() && !result.hasBinding(startVar.getName())) {
+			result.addBinding(startVar.getName(), start);
+		}
+		if (!endVar.hasValue() && !result.hasBinding(endVar.getName())) {
+			result.addBinding(endVar.getName(), end);
+		}
+		return result;
+	}
+
+	private Value getValue(Var var) {
+		return var.hasValue() ? var.getValue() : bindings.getValue(var.getName());
+	}
+
+	private boolean isBoundToNull(Var var) {
+		return !var.hasValue() && bindings.hasBinding(var.getName()) && bindings.getValue(var.getName()) == null;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				if (stepIter != null) {
+					stepIter.close();
+				}
+			} finally {
+				if (originIter != null) {
+					originIter.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A set of visited nodes, which holds the internal IDs of the nodes in an open addressing hash table. Nodes without
+	 * an internal ID are kept in a regular set.
+	 */
+	private class VisitedSet {
+
+		/**
+		 * The IDs plus one, so that empty slots are zero.
+		 */
+		private long[] slots;
+
+		private int size;
+
+		private Set<Value> values;
+
+		public boolean add(Value value) throws QueryEvaluationException {
+			long id = getInternalID(value);
+			if (id == InternalIdTripleSource.UNKNOWN_ID) {
+				if (values == null) {
+					values = new HashSet<>();
+				}
+				return values.add(value);
+			}
+			if (slots == null) {
+				slots = new long[64];
+			} else if (size * 2 >= slots.length) {
+				rehash();
+			}
+			return insert(slots, id + 1);
+		}
+
+		public boolean contains(Value value) throws QueryEvaluationException {
+			long id = getInternalID(value);
+			if (id == InternalIdTripleSource.UNKNOWN_ID) {
+				return values != null && values.contains(value);
+			}
+			if (slots == null) {
+				return false;
+			}
+			int mask = slots.length - 1;
+			for (int i = slot(id + 1, mask);; i = (i + 1) & mask) {
+				if (slots[i] == 0) {
+					return false;
+				}
+				if (slots[i] == id + 1) {
+					return true;
+				}
+			}
+		}
+
+		private long getInternalID(Value value) throws QueryEvaluationException {
+			return idSource == null ? InternalIdTripleSource.UNKNOWN_ID : idSource.getInternalID(value);
+		}
+
+		private boolean insert(long[] table, long key) {
+			int mask = table.length - 1;
+			for (int i = slot(key, mask);; i = (i + 1) & mask) {
+				if (table[i] == 0) {
+					table[i] = key;
+					if (table == slots) {
+						size++;
+					}
+					return true;
+				}
+				if (table[i] == key) {
+					return false;
+				}
+			}
+		}
+
+		private void rehash() {
+			long[] old = slots;
+			long[] table = new long[old.length * 2];
+			for (long key : old) {
+				if (key != 0) {
+					insert(table, key);
+				}
+			}
+			slots = table;
+		}
+
+		private int slot(long key, int mask) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32)) & mask;
+		}
+	}
+}
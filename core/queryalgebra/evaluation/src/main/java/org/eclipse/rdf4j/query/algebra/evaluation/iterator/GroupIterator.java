@@ -9,12 +9,12 @@ package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Serializable;
-import java.util.Collection;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
@@ -22,9 +22,11 @@ import java.util.Set;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.lang.ObjectUtil;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.model.impl.NumericLiteral;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -43,6 +45,7 @@ import org.eclipse.rdf4j.query.algebra.Sample;
 import org.eclipse.rdf4j.query.algebra.Sum;
 import org.eclipse.rdf4j.query.algebra.ValueExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
@@ -63,6 +66,17 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	 * Constants *
 	 *-----------*/
 
+	/**
+	 * The number of partitions solutions are split into when there are too many groups to keep in memory.
+	 */
+	private static final int PARTITION_COUNT = 16;
+
+	/**
+	 * The maximum number of times solutions are partitioned, partitions at this depth are aggregated in memory
+	 * regardless of the number of groups.
+	 */
+	private static final int MAX_PARTITION_DEPTH = 3;
+
 	private final SimpleValueFactory vf = SimpleValueFactory.getInstance();
 
 	private final EvaluationStrategy strategy;
@@ -71,6 +85,8 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	private final Group group;
 
+	private final String[] groupBindingNames;
+
 	private volatile boolean initialized = false;
 
 	private final Object lock = new Object();
@@ -85,6 +101,16 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	 */
 	private final long iterationCacheSyncThreshold;
 
+	/**
+	 * The triple source whose internal IDs are used as group keys, or <tt>null</tt> if the values are used as keys.
+	 */
+	private final InternalIdTripleSource idSource;
+
+	/**
+	 * Partitions of solutions that have been written to disk because there were too many groups.
+	 */
+	private final List<BindingSetFile> spillFiles = new ArrayList<>();
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -96,8 +122,19 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
 			long iterationCacheSyncThreshold) throws QueryEvaluationException {
+		this(strategy, group, parentBindings, iterationCacheSyncThreshold, null);
+	}
+
+	/**
+	 * @param idSource The triple source whose internal IDs are used to hash and compare group keys, or <tt>null</tt>
+	 *                 to use the values of the group bindings.
+	 */
+	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
+			long iterationCacheSyncThreshold, InternalIdTripleSource idSource) throws QueryEvaluationException {
 		this.strategy = strategy;
+		this.idSource = idSource;
 		this.group = group;
+		this.groupBindingNames = group.getGroupBindingNames().toArray(new String[0]);
 		this.parentBindings = parentBindings;
 		this.iterationCacheSyncThreshold = iterationCacheSyncThreshold;
 
@@ -149,8 +186,17 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		try {
 			super.handleClose();
 		} finally {
-			if (db != null) {
-				db.close();
+			try {
+				for (BindingSetFile spillFile : spillFiles) {
+					spillFile.close();
+				}
+				spillFiles.clear();
+			} catch (IOException e) {
+				throw new QueryEvaluationException(e);
+			} finally {
+				if (db != null) {
+					db.close();
+				}
 			}
 		}
 	}
@@ -164,124 +210,209 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	}
 
 	private Iterator<BindingSet> createIterator() throws QueryEvaluationException {
-		Collection<Entry> entries = buildEntries();
 		Set<BindingSet> bindingSets = createSet("bindingsets");
 
-		for (Entry entry : entries) {
-			QueryBindingSet sol = new QueryBindingSet(parentBindings);
-
-			for (String name : group.getGroupBindingNames()) {
-				BindingSet prototype = entry.getPrototype();
-				if (prototype != null) {
-					Value value = prototype.getValue(name);
-					if (value != null) {
-						// Potentially overwrites bindings from super
-						sol.setBinding(name, value);
-					}
-				}
-			}
-
-			entry.bindSolution(sol);
-
-			bindingSets.add(sol);
-		}
-
-		return bindingSets.iterator();
-	}
-
-	private Collection<Entry> buildEntries() throws QueryEvaluationException {
 		CloseableIteration<BindingSet, QueryEvaluationException> iter;
 		iter = strategy.evaluate(group.getArg(), parentBindings);
 
 		try {
-			Map<Key, Entry> entries = new LinkedHashMap<>();
-
 			if (!iter.hasNext()) {
 				// no solutions, but if we are not explicitly grouping and aggregates are present,
 				// we still need to process them to produce a zero-result.
 				if (group.getGroupBindingNames().isEmpty()) {
 					final Entry entry = new Entry(null);
-					if (!entry.getAggregates().isEmpty()) {
+					if (entry.aggregates.length > 0) {
 						entry.addSolution(EmptyBindingSet.getInstance());
-						entries.put(new Key(EmptyBindingSet.getInstance()), entry);
+						bindingSets.add(createSolution(entry));
 					}
 				}
 			}
 
-			while (iter.hasNext()) {
-				BindingSet sol;
-				try {
-					sol = iter.next();
-				} catch (NoSuchElementException e) {
-					break; // closed
-				}
-				Key key = new Key(sol);
-				Entry entry = entries.get(key);
+			aggregate(new Iterator<BindingSet>() {
 
-				if (entry == null) {
-					entry = new Entry(sol);
-					entries.put(key, entry);
+				@Override
+				public boolean hasNext() {
+					return iter.hasNext();
 				}
 
-				entry.addSolution(sol);
-			}
-
-			return entries.values();
+				@Override
+				public BindingSet next() {
+					return iter.next();
+				}
+			}, 0, bindingSets);
+		} catch (IOException e) {
+			throw new QueryEvaluationException("Failed to spill groups to disk", e);
 		} finally {
 			iter.close();
 		}
 
+		return bindingSets.iterator();
+	}
+
+	private QueryBindingSet createSolution(Entry entry) throws QueryEvaluationException {
+		QueryBindingSet sol = new QueryBindingSet(parentBindings);
+
+		BindingSet prototype = entry.getPrototype();
+		if (prototype != null) {
+			for (String name : groupBindingNames) {
+				Value value = prototype.getValue(name);
+				if (value != null) {
+					// Potentially overwrites bindings from super
+					sol.setBinding(name, value);
+				}
+			}
+		}
+
+		entry.bindSolution(sol);
+		return sol;
 	}
 
 	/**
-	 * A unique key for a set of existing bindings.
-	 *
-	 * @author David Huynh
+	 * Groups the supplied solutions and adds a solution for each group to the result. If the number of groups exceeds
+	 * the sync threshold, solutions of new groups are partitioned to disk on the hash of their group key, and each
+	 * partition is aggregated separately once the groups in memory are complete.
 	 */
-	protected class Key implements Serializable {
+	private void aggregate(Iterator<BindingSet> solutions, int depth, Set<BindingSet> result)
+			throws QueryEvaluationException, IOException {
+		GroupTable entries = new GroupTable();
+		BindingSetFile[] partitions = null;
+		boolean canSpill = db != null && depth < MAX_PARTITION_DEPTH;
+
+		while (solutions.hasNext()) {
+			BindingSet sol;
+			try {
+				sol = solutions.next();
+			} catch (NoSuchElementException e) {
+				break; // closed
+			}
+			int hash = hash(sol);
+			Entry entry = entries.get(sol, hash);
+
+			if (entry == null) {
+				if (canSpill && entries.size() >= iterationCacheSyncThreshold) {
+					if (partitions == null) {
+						partitions = new BindingSetFile[PARTITION_COUNT];
+						for (int i = 0; i < partitions.length; i++) {
+							partitions[i] = new BindingSetFile("group-eval", null);
+							spillFiles.add(partitions[i]);
+						}
+					}
+					partitions[partitionOf(hash, depth)].add(sol);
+					continue;
+				}
+				entry = new Entry(sol);
+				entries.put(hash, entry);
+			}
 
-		private static final long serialVersionUID = 4461951265373324084L;
+			entry.addSolution(sol);
+		}
 
-		private final BindingSet bindingSet;
+		for (Entry entry : entries.entries) {
+			addResult(result, createSolution(entry));
+		}
 
-		private final int hash;
+		if (partitions != null) {
+			// release the groups of this level before the partitions are processed
+			entries = null;
+			for (BindingSetFile partition : partitions) {
+				aggregate(partition.iterator(), depth + 1, result);
+				partition.close();
+				spillFiles.remove(partition);
+			}
+		}
+	}
 
-		public Key(BindingSet bindingSet) {
-			this.bindingSet = bindingSet;
+	private void addResult(Set<BindingSet> result, BindingSet sol) {
+		result.add(sol);
+		if (db != null && result.size() % iterationCacheSyncThreshold == 0) {
+			// write to disk every $iterationCacheSyncThreshold items
+			db.commit();
+		}
+	}
 
-			int nextHash = 0;
-			for (String name : group.getGroupBindingNames()) {
-				Value value = bindingSet.getValue(name);
-				if (value != null) {
-					nextHash ^= value.hashCode();
-				}
-			}
-			this.hash = nextHash;
+	private int hash(BindingSet bindingSet) {
+		int hash = 0;
+		for (String name : groupBindingNames) {
+			hash = 31 * hash + hash(bindingSet.getValue(name));
 		}
+		return hash;
+	}
 
-		@Override
-		public int hashCode() {
-			return hash;
+	private int hash(Value value) throws QueryEvaluationException {
+		if (value == null) {
+			return 0;
 		}
+		if (idSource != null) {
+			long id = idSource.getInternalID(value);
+			if (id != InternalIdTripleSource.UNKNOWN_ID) {
+				return Long.hashCode(id);
+			}
+		}
+		return value.hashCode();
+	}
 
-		@Override
-		public boolean equals(Object other) {
-			if (other instanceof Key && other.hashCode() == hash) {
-				BindingSet otherSolution = ((Key) other).bindingSet;
+	private long getInternalID(Value value) throws QueryEvaluationException {
+		return value == null ? InternalIdTripleSource.UNKNOWN_ID : idSource.getInternalID(value);
+	}
 
-				for (String name : group.getGroupBindingNames()) {
-					Value v1 = bindingSet.getValue(name);
-					Value v2 = otherSolution.getValue(name);
+	private static int partitionOf(int hash, int depth) {
+		// seed the hash with the depth, so that a partition is split differently from its parent
+		int h = hash ^ ((depth + 1) * 0x9E3779B9);
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h & (PARTITION_COUNT - 1);
+	}
 
-					if (!ObjectUtil.nullEquals(v1, v2)) {
-						return false;
-					}
+	/**
+	 * An open addressing hash table of the groups, keyed on the values of the group bindings. Groups are kept in
+	 * insertion order.
+	 */
+	private class GroupTable {
+
+		private final List<Entry> entries = new ArrayList<>();
+
+		private Entry[] slots = new Entry[16];
+
+		public int size() {
+			return entries.size();
+		}
+
+		public Entry get(BindingSet bindingSet, int hash) {
+			int mask = slots.length - 1;
+			for (int i = hash & mask;; i = (i + 1) & mask) {
+				Entry entry = slots[i];
+				if (entry == null) {
+					return null;
+				}
+				if (entry.hash == hash && entry.hasKey(bindingSet)) {
+					return entry;
 				}
+			}
+		}
 
-				return true;
+		public void put(int hash, Entry entry) {
+			entry.hash = hash;
+			entries.add(entry);
+			if (entries.size() * 2 > slots.length) {
+				Entry[] old = slots;
+				slots = new Entry[old.length * 2];
+				for (Entry e : old) {
+					if (e != null) {
+						insert(e);
+					}
+				}
 			}
+			insert(entry);
+		}
 
-			return false;
+		private void insert(Entry entry) {
+			int mask = slots.length - 1;
+			int i = entry.hash & mask;
+			while (slots[i] != null) {
+				i = (i + 1) & mask;
+			}
+			slots[i] = entry;
 		}
 	}
 
@@ -289,49 +420,94 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 		private final BindingSet prototype;
 
-		private volatile Map<String, Aggregate> aggregates;
+		private final Value[] key;
+
+		/**
+		 * The internal IDs of the key values, or <tt>null</tt> if groups are keyed on values.
+		 */
+		private final long[] keyIds;
+
+		private int hash;
+
+		private final String[] names;
+
+		private final Aggregate[] aggregates;
 
 		public Entry(BindingSet prototype) throws ValueExprEvaluationException, QueryEvaluationException {
 			this.prototype = prototype;
 
-		}
-
-		private Map<String, Aggregate> getAggregates() throws ValueExprEvaluationException, QueryEvaluationException {
-			Map<String, Aggregate> result = aggregates;
-			if (result == null) {
-				synchronized (this) {
-					result = aggregates;
-					if (result == null) {
-						result = aggregates = new LinkedHashMap<>();
-						for (GroupElem ge : group.getGroupElements()) {
-							Aggregate create = create(ge.getOperator());
-							if (create != null) {
-								aggregates.put(ge.getName(), create);
-							}
-						}
+			if (prototype != null) {
+				key = new Value[groupBindingNames.length];
+				for (int i = 0; i < key.length; i++) {
+					key[i] = prototype.getValue(groupBindingNames[i]);
+				}
+			} else {
+				key = null;
+			}
+			if (key != null && idSource != null) {
+				keyIds = new long[key.length];
+				for (int i = 0; i < key.length; i++) {
+					keyIds[i] = getInternalID(key[i]);
+				}
+			} else {
+				keyIds = null;
+			}
+
+			List<String> names = new ArrayList<>();
+			List<Aggregate> aggregates = new ArrayList<>();
+			for (GroupElem ge : group.getGroupElements()) {
+				Aggregate create = create(ge.getOperator());
+				if (create != null) {
+					// later elements with the same name replace earlier ones, but keep their position
+					int index = names.indexOf(ge.getName());
+					if (index >= 0) {
+						aggregates.set(index, create);
+					} else {
+						names.add(ge.getName());
+						aggregates.add(create);
 					}
 				}
 			}
-			return result;
+			this.names = names.toArray(new String[names.size()]);
+			this.aggregates = aggregates.toArray(new Aggregate[aggregates.size()]);
 		}
 
 		public BindingSet getPrototype() {
 			return prototype;
 		}
 
+		public boolean hasKey(BindingSet bindingSet) {
+			for (int i = 0; i < key.length; i++) {
+				Value value = bindingSet.getValue(groupBindingNames[i]);
+				if (keyIds != null) {
+					long id = getInternalID(value);
+					if (id != keyIds[i]) {
+						return false;
+					}
+					if (id != InternalIdTripleSource.UNKNOWN_ID) {
+						continue;
+					}
+				}
+				if (!ObjectUtil.nullEquals(key[i], value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 		public void addSolution(BindingSet bindingSet) throws QueryEvaluationException {
-			for (Aggregate aggregate : getAggregates().values()) {
+			for (Aggregate aggregate : aggregates) {
 				aggregate.processAggregate(bindingSet);
 			}
 		}
 
 		public void bindSolution(QueryBindingSet sol) throws QueryEvaluationException {
-			for (String name : getAggregates().keySet()) {
+			for (int i = 0; i < aggregates.length; i++) {
 				try {
-					Value value = getAggregates().get(name).getValue();
+					Value value = aggregates[i].getValue();
 					if (value != null) {
 						// Potentially overwrites bindings from super
-						sol.setBinding(name, value);
+						sol.setBinding(names[i], value);
 					}
 				} catch (ValueExprEvaluationException ex) {
 					// There was a type error when calculating the value of the aggregate. We silently ignore the error,
@@ -526,7 +702,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	private class SumAggregate extends Aggregate {
 
-		private Literal sum = vf.createLiteral("0", XMLSchema.INTEGER);
+		private final NumericSum sum = new NumericSum();
 
 		private ValueExprEvaluationException typeError = null;
 
@@ -547,7 +723,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 					Literal nextLiteral = (Literal) v;
 					if (nextLiteral.getDatatype() != null
 							&& XMLDatatypeUtil.isNumericDatatype(nextLiteral.getDatatype())) {
-						sum = MathUtil.compute(sum, nextLiteral, MathOp.PLUS);
+						sum.add(nextLiteral);
 					} else {
 						typeError = new ValueExprEvaluationException("not a number: " + v);
 					}
@@ -563,7 +739,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 				throw typeError;
 			}
 
-			return sum;
+			return sum.getValue();
 		}
 	}
 
@@ -571,7 +747,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 		private long count = 0;
 
-		private Literal sum = vf.createLiteral("0", XMLSchema.INTEGER);
+		private final NumericSum sum = new NumericSum();
 
 		private ValueExprEvaluationException typeError = null;
 
@@ -594,7 +770,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 					// check if the literal is numeric.
 					if (nextLiteral.getDatatype() != null
 							&& XMLDatatypeUtil.isNumericDatatype(nextLiteral.getDatatype())) {
-						sum = MathUtil.compute(sum, nextLiteral, MathOp.PLUS);
+						sum.add(nextLiteral);
 					} else {
 						typeError = new ValueExprEvaluationException("not a number: " + v);
 					}
@@ -621,7 +797,7 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			}
 
 			Literal sizeLit = vf.createLiteral(count);
-			return MathUtil.compute(sum, sizeLit, MathOp.DIVIDE);
+			return MathUtil.compute(sum.getValue(), sizeLit, MathOp.DIVIDE);
 		}
 	}
 
@@ -693,4 +869,138 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			return vf.createLiteral(concatenated.substring(0, len));
 		}
 	}
+
+	/**
+	 * The sum of a sequence of numeric literals, which is kept in primitive form as long as possible. The result is the
+	 * same as that of adding the literals with {@link MathUtil#compute(Literal, Literal, MathOp)}, starting from an
+	 * xsd:integer zero: the sum is promoted to xsd:decimal, xsd:float or xsd:double when the first operand of that
+	 * type is added.
+	 */
+	private class NumericSum {
+
+		private static final int INTEGER = 0;
+
+		private static final int DECIMAL = 1;
+
+		private static final int FLOAT = 2;
+
+		private static final int DOUBLE = 3;
+
+		private int type = INTEGER;
+
+		private long longSum;
+
+		/**
+		 * The integer sum once it no longer fits in a long.
+		 */
+		private BigInteger integerSum;
+
+		private BigDecimal decimalSum;
+
+		private float floatSum;
+
+		private double doubleSum;
+
+		public void add(Literal literal) throws ValueExprEvaluationException {
+			IRI datatype = literal.getDatatype();
+			int operandType;
+			if (datatype.equals(XMLSchema.DOUBLE)) {
+				operandType = DOUBLE;
+			} else if (datatype.equals(XMLSchema.FLOAT)) {
+				operandType = FLOAT;
+			} else if (datatype.equals(XMLSchema.DECIMAL)) {
+				operandType = DECIMAL;
+			} else {
+				operandType = INTEGER;
+			}
+
+			try {
+				if (operandType > type) {
+					promote(operandType);
+				}
+
+				switch (type) {
+				case DOUBLE:
+					doubleSum += literal.doubleValue();
+					break;
+				case FLOAT:
+					floatSum += literal.floatValue();
+					break;
+				case DECIMAL:
+					decimalSum = decimalSum.add(literal.decimalValue());
+					break;
+				default:
+					addInteger(literal);
+				}
+			} catch (NumberFormatException | ArithmeticException e) {
+				throw new ValueExprEvaluationException(e);
+			}
+		}
+
+		private void addInteger(Literal literal) {
+			if (integerSum == null) {
+				if (literal instanceof NumericLiteral) {
+					// xsd:byte, xsd:short, xsd:int or xsd:long backed by a primitive
+					long value = literal.longValue();
+					long result = longSum + value;
+					if (((longSum ^ result) & (value ^ result)) >= 0) {
+						longSum = result;
+						return;
+					}
+				} else {
+					BigInteger value = literal.integerValue();
+					if (value.bitLength() < 63) {
+						long result = longSum + value.longValue();
+						if (((longSum ^ result) & (value.longValue() ^ result)) >= 0) {
+							longSum = result;
+							return;
+						}
+					}
+				}
+				integerSum = BigInteger.valueOf(longSum);
+			}
+			integerSum = integerSum.add(literal.integerValue());
+		}
+
+		private BigInteger integerSum() {
+			return integerSum != null ? integerSum : BigInteger.valueOf(longSum);
+		}
+
+		private void promote(int newType) {
+			switch (newType) {
+			case DOUBLE:
+				if (type == FLOAT) {
+					doubleSum = floatSum;
+				} else if (type == DECIMAL) {
+					doubleSum = decimalSum.doubleValue();
+				} else {
+					doubleSum = integerSum().doubleValue();
+				}
+				break;
+			case FLOAT:
+				if (type == DECIMAL) {
+					floatSum = decimalSum.floatValue();
+				} else {
+					floatSum = integerSum().floatValue();
+				}
+				break;
+			default:
+				decimalSum = new BigDecimal(integerSum());
+			}
+			type = newType;
+		}
+
+		public Literal getValue() {
+			switch (type) {
+			case DOUBLE:
+				return vf.createLiteral(doubleSum);
+			case FLOAT:
+				return vf.createLiteral(floatSum);
+			case DECIMAL:
+				return vf.createLiteral(decimalSum);
+			default:
+				return vf.createLiteral(integerSum());
+			}
+		}
+	}
 }
@@ -25,7 +25,9 @@ import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.LeftJoin;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.util.iterators.EmptyIterator;
@@ -59,6 +61,8 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 
 	private final boolean leftJoin;
 
+	private final InternalIdTripleSource idSource;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -85,6 +89,17 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 			CloseableIteration<BindingSet, QueryEvaluationException> leftIter, Set<String> leftBindingNames,
 			CloseableIteration<BindingSet, QueryEvaluationException> rightIter, Set<String> rightBindingNames,
 			boolean leftJoin) throws QueryEvaluationException {
+		this(strategy, leftIter, leftBindingNames, rightIter, rightBindingNames, leftJoin, null);
+	}
+
+	/**
+	 * @param idSource The triple source whose internal IDs are used as join keys, or <tt>null</tt> to use the values
+	 *                 as join keys.
+	 */
+	public HashJoinIteration(EvaluationStrategy strategy,
+			CloseableIteration<BindingSet, QueryEvaluationException> leftIter, Set<String> leftBindingNames,
+			CloseableIteration<BindingSet, QueryEvaluationException> rightIter, Set<String> rightBindingNames,
+			boolean leftJoin, InternalIdTripleSource idSource) throws QueryEvaluationException {
 		this.leftIter = leftIter;
 		this.rightIter = rightIter;
 
@@ -93,6 +108,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		joinAttributes = joinAttributeNames.toArray(new String[joinAttributeNames.size()]);
 
 		this.leftJoin = leftJoin;
+		this.idSource = idSource;
 	}
 
 	/*---------*
@@ -139,7 +155,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 						nextHashTableValues = hashTableValues = null;
 					}
 				} else {
-					BindingSetHashKey key = BindingSetHashKey.create(joinAttributes, currentScanElem);
+					BindingSetHashKey key = createHashKey(currentScanElem);
 					List<BindingSet> hashValue = nextHashTable.get(key);
 					if (hashValue != null && !hashValue.isEmpty()) {
 						nextHashTableValues = hashTableValues = hashValue.iterator();
@@ -158,7 +174,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		if (nextHashTableValues != null) {
 			BindingSet nextHashTableValue = nextHashTableValues.next();
 
-			QueryBindingSet result = new QueryBindingSet(currentScanElem);
+			QueryBindingSet result = ArrayBindingSet.copyOf(currentScanElem);
 
 			for (String name : nextHashTableValue.getBindingNames()) {
 				if (!result.hasBinding(name)) {
@@ -262,7 +278,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		Map<BindingSetHashKey, List<BindingSet>> resultHashTable = makeHashTable(smallestResult.size());
 		int maxListSize = 1;
 		for (BindingSet b : smallestResult) {
-			BindingSetHashKey hashKey = BindingSetHashKey.create(joinAttributes, b);
+			BindingSetHashKey hashKey = createHashKey(b);
 
 			List<BindingSet> hashValue = resultHashTable.get(hashKey);
 			boolean newEntry = (hashValue == null);
@@ -279,6 +295,13 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		return resultHashTable;
 	}
 
+	private BindingSetHashKey createHashKey(BindingSet bindingSet) throws QueryEvaluationException {
+		if (idSource != null) {
+			return BindingSetHashKey.create(joinAttributes, bindingSet, idSource);
+		}
+		return BindingSetHashKey.create(joinAttributes, bindingSet);
+	}
+
 	protected void putHashTableEntry(Map<BindingSetHashKey, List<BindingSet>> nextHashTable, BindingSetHashKey hashKey,
 			List<BindingSet> hashValue, boolean newEntry) throws QueryEvaluationException {
 		// by default, we use a standard memory hash map
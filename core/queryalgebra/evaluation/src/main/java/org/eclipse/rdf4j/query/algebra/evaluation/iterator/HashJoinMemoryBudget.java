@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A budget for the number of binding sets that {@link SpillingHashJoinIteration}s may hold in their in-memory hash
+ * tables. A join that can not reserve room for another binding set spills its inputs to disk. A budget can be used
+ * for a single query, or be shared between all queries to bound the memory used by hash joins globally.
+ * <p>
+ * The budget also collects statistics on the joins that had to spill.
+ */
+public class HashJoinMemoryBudget {
+
+	private final long maxBindingSets;
+
+	private final AtomicLong used = new AtomicLong();
+
+	private final AtomicLong spillCount = new AtomicLong();
+
+	private final AtomicLong spilledBindingSets = new AtomicLong();
+
+	private final AtomicLong spilledBytes = new AtomicLong();
+
+	/**
+	 * @param maxBindingSets The maximum number of binding sets held in memory by all joins that use this budget.
+	 */
+	public HashJoinMemoryBudget(long maxBindingSets) {
+		if (maxBindingSets < 0) {
+			throw new IllegalArgumentException("maxBindingSets must not be negative");
+		}
+		this.maxBindingSets = maxBindingSets;
+	}
+
+	/**
+	 * Tries to reserve room for the specified number of binding sets.
+	 *
+	 * @return <tt>true</tt> if the binding sets fit in the budget, <tt>false</tt> otherwise.
+	 */
+	public boolean tryReserve(long bindingSets) {
+		while (true) {
+			long current = used.get();
+			long next = current + bindingSets;
+			if (next > maxBindingSets) {
+				return false;
+			}
+			if (used.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Reserves room for the specified number of binding sets, even if this exceeds the budget.
+	 */
+	public void forceReserve(long bindingSets) {
+		used.addAndGet(bindingSets);
+	}
+
+	/**
+	 * Releases room for the specified number of binding sets that was previously reserved.
+	 */
+	public void release(long bindingSets) {
+		used.addAndGet(-bindingSets);
+	}
+
+	void recordSpill(long bindingSets, long bytes) {
+		spillCount.incrementAndGet();
+		spilledBindingSets.addAndGet(bindingSets);
+		spilledBytes.addAndGet(bytes);
+	}
+
+	public long getMaxBindingSets() {
+		return maxBindingSets;
+	}
+
+	/**
+	 * @return The number of binding sets that are currently held in memory.
+	 */
+	public long getUsed() {
+		return used.get();
+	}
+
+	/**
+	 * @return The number of joins that have spilled to disk.
+	 */
+	public long getSpillCount() {
+		return spillCount.get();
+	}
+
+	/**
+	 * @return The total number of binding sets that have been written to disk.
+	 */
+	public long getSpilledBindingSets() {
+		return spilledBindingSets.get();
+	}
+
+	/**
+	 * @return The total number of bytes that have been written to disk.
+	 */
+	public long getSpilledBytes() {
+		return spilledBytes.get();
+	}
+}
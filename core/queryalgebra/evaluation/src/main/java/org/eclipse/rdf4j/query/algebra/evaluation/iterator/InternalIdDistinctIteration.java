@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.FilterIteration;
+import org.eclipse.rdf4j.common.iteration.Iteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+
+/**
+ * Removes duplicate solutions by comparing the internal IDs of their values, rather than the values themselves.
+ * Solutions that bind variables other than the supplied binding names are compared on their values.
+ */
+public class InternalIdDistinctIteration extends FilterIteration<BindingSet, QueryEvaluationException> {
+
+	private final String[] bindingNames;
+
+	private final InternalIdTripleSource tripleSource;
+
+	private final Set<BindingSetHashKey> keys = new HashSet<>();
+
+	private Set<BindingSet> otherSolutions;
+
+	public InternalIdDistinctIteration(Iteration<? extends BindingSet, ? extends QueryEvaluationException> iter,
+			Set<String> bindingNames, InternalIdTripleSource tripleSource) {
+		super(iter);
+		this.bindingNames = bindingNames.toArray(new String[bindingNames.size()]);
+		this.tripleSource = tripleSource;
+	}
+
+	@Override
+	protected boolean accept(BindingSet bindingSet) throws QueryEvaluationException {
+		int bound = 0;
+		for (String name : bindingNames) {
+			if (bindingSet.hasBinding(name)) {
+				bound++;
+			}
+		}
+		if (bound != bindingSet.size()) {
+			if (otherSolutions == null) {
+				otherSolutions = new HashSet<>();
+			}
+			return otherSolutions.add(bindingSet);
+		}
+		return keys.add(BindingSetHashKey.create(bindingNames, bindingSet, tripleSource));
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			keys.clear();
+			otherSolutions = null;
+		}
+	}
+}
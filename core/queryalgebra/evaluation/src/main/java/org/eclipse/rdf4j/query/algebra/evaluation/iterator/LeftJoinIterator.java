@@ -16,6 +16,7 @@ import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.LeftJoin;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
@@ -86,7 +87,7 @@ public class LeftJoinIterator extends LookAheadIteration<BindingSet, QueryEvalua
 						} else {
 							// Limit the bindings to the ones that are in scope for
 							// this filter
-							QueryBindingSet scopeBindings = new QueryBindingSet(rightBindings);
+							QueryBindingSet scopeBindings = ArrayBindingSet.copyOf(rightBindings);
 							scopeBindings.retainAll(scopeBindingNames);
 
 							if (strategy.isTrue(join.getCondition(), scopeBindings)) {
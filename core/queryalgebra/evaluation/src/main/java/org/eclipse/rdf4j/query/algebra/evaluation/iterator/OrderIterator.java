@@ -7,15 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 
-import java.io.Closeable;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -43,116 +35,6 @@ import org.eclipse.rdf4j.query.QueryEvaluationException;
  */
 public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationException> {
 
-	private static class SerializedQueue<E extends Serializable> extends AbstractQueue<E> implements Closeable {
-
-		private final File file;
-
-		private ObjectOutputStream output;
-
-		private ObjectInputStream input;
-
-		private int size;
-
-		private E next;
-
-		private E last;
-
-		public SerializedQueue(String prefix) throws IOException {
-			this(prefix, null);
-		}
-
-		public SerializedQueue(String prefix, File directory) throws IOException {
-			file = File.createTempFile(prefix, "", directory);
-			output = new ObjectOutputStream(new FileOutputStream(file));
-		}
-
-		public E peekLast() {
-			return last;
-		}
-
-		@Override
-		public boolean offer(E e) {
-			if (output == null) {
-				return false;
-			}
-			try {
-				output.writeObject(e);
-				last = e;
-				size++;
-				return true;
-			} catch (IOException exc) {
-				return false;
-			}
-		}
-
-		@Override
-		@SuppressWarnings("unchecked")
-		public E poll() {
-			try {
-				if (next != null) {
-					return next;
-				} else if (input == null) {
-					output.close();
-					input = new ObjectInputStream(new FileInputStream(file));
-				}
-				size--;
-				return (E) input.readObject();
-			} catch (IOException | ClassNotFoundException exc) {
-				return null;
-			} finally {
-				next = null;
-			}
-		}
-
-		@Override
-		public E peek() {
-			if (size <= 0) {
-				return null;
-			} else if (next != null) {
-				return next;
-			} else {
-				return next = poll();
-			}
-		}
-
-		@Override
-		public Iterator<E> iterator() {
-			return new Iterator<E>() {
-
-				@Override
-				public boolean hasNext() {
-					return peek() != null;
-				}
-
-				@Override
-				public E next() {
-					return poll();
-				}
-			};
-		}
-
-		@Override
-		public int size() {
-			if (next == null) {
-				return (int) size;
-			} else {
-				return (int) size + 1;
-			}
-		}
-
-		@Override
-		public void close() throws IOException {
-			if (output != null) {
-				output.close();
-			}
-			if (input != null) {
-				input.close();
-			}
-			file.delete();
-		}
-
-	}
-
 	private static class SortedIterators<E> implements Iterator<E> {
 
 		private final List<Iterator<E>> iterators;
@@ -220,6 +102,12 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 
 	}
 
+	/**
+	 * The number of sorted runs of similar size on disk that are merged into a single run, which also bounds the
+	 * number of runs that are read concurrently.
+	 */
+	private static final int MAX_MERGE_RUNS = 64;
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -232,7 +120,10 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 
 	private final boolean distinct;
 
-	private final List<SerializedQueue<BindingSet>> serialized = new LinkedList<>();
+	/**
+	 * The sorted runs on disk, by the number of times their bindings have been merged.
+	 */
+	private final List<List<BindingSetFile>> levels = new ArrayList<>();
 
 	/**
 	 * Number of items cached before internal collection is synced to disk. If set to 0, no disk-syncing is done and all
@@ -276,11 +167,20 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 		try {
 			while (iter.hasNext()) {
 				if (list.size() >= syncThreshold && list.size() < limit) {
-					SerializedQueue<BindingSet> queue = new SerializedQueue<>("orderiter");
-					sort(list).forEach(bs -> queue.add(bs));
-					serialized.add(queue);
-					decrement(list.size() - queue.size());
+					BindingSetFile run = new BindingSetFile("orderiter", null);
+					try {
+						for (Iterator<BindingSet> sorted = sort(list).iterator(); sorted.hasNext();) {
+							run.add(sorted.next());
+						}
+						run.finish();
+					} catch (IOException | RuntimeException e) {
+						run.close();
+						throw e;
+					}
+					decrement((int) (list.size() - run.size()));
 					list = new ArrayList<>(list.size());
+					addRun(run, 0);
+					List<BindingSetFile> serialized = runs();
 					if (threshold == null && serialized.stream().mapToLong(q -> q.size()).sum() >= limit) {
 						Stream<BindingSet> stream = serialized.stream().map(q -> q.peekLast());
 						threshold = stream.sorted(comparator).skip(serialized.size() - 1).findFirst().get();
@@ -306,13 +206,83 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 			iter.close();
 		}
 		SortedIterators<BindingSet> iterator;
-		List<Iterator<BindingSet>> iterators = new ArrayList<>(serialized.size() + 1);
-		serialized.forEach(queue -> iterators.add(queue.iterator()));
+		List<Iterator<BindingSet>> iterators = new ArrayList<>(MAX_MERGE_RUNS + 1);
+		try {
+			reduceRuns();
+			for (BindingSetFile run : runs()) {
+				iterators.add(run.iterator());
+			}
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		}
 		iterators.add(sort(list).iterator());
 		iterator = new SortedIterators<>(comparator, distinct, iterators);
 		return new LimitIteration<>(new CloseableIteratorIteration<>(iterator), limit);
 	}
 
+	/**
+	 * Adds a sorted run to the runs on disk whose bindings have been merged the given number of times. Once there are
+	 * {@link #MAX_MERGE_RUNS} runs on a level, they are merged into a single run on the next level. Each binding is
+	 * then rewritten once per level, a logarithmic number of times, instead of once per merge.
+	 */
+	private void addRun(BindingSetFile run, int level) throws IOException {
+		while (levels.size() <= level) {
+			levels.add(new ArrayList<>());
+		}
+		List<BindingSetFile> runs = levels.get(level);
+		runs.add(run);
+		if (runs.size() >= MAX_MERGE_RUNS) {
+			BindingSetFile merged = mergeRuns(runs);
+			levels.set(level, new ArrayList<>());
+			addRun(merged, level + 1);
+		}
+	}
+
+	/**
+	 * Merges the runs of the lowest levels until at most {@link #MAX_MERGE_RUNS} runs are left to read concurrently.
+	 */
+	private void reduceRuns() throws IOException {
+		for (int level = 0; level < levels.size() && runs().size() > MAX_MERGE_RUNS; level++) {
+			List<BindingSetFile> runs = levels.get(level);
+			if (runs.size() > 1) {
+				BindingSetFile merged = mergeRuns(runs);
+				levels.set(level, new ArrayList<>());
+				addRun(merged, level + 1);
+			}
+		}
+	}
+
+	/**
+	 * Merges the supplied sorted runs into a single run and deletes them.
+	 */
+	private BindingSetFile mergeRuns(List<BindingSetFile> runs) throws IOException {
+		List<Iterator<BindingSet>> iterators = new ArrayList<>(runs.size());
+		for (BindingSetFile run : runs) {
+			iterators.add(run.iterator());
+		}
+		BindingSetFile merged = new BindingSetFile("orderiter", null);
+		try {
+			SortedIterators<BindingSet> iterator = new SortedIterators<>(comparator, distinct, iterators);
+			while (merged.size() < limit && iterator.hasNext()) {
+				merged.add(iterator.next());
+			}
+			merged.finish();
+		} catch (IOException | RuntimeException e) {
+			merged.close();
+			throw e;
+		}
+		for (BindingSetFile run : runs) {
+			run.close();
+		}
+		return merged;
+	}
+
+	private List<BindingSetFile> runs() {
+		List<BindingSetFile> runs = new ArrayList<>();
+		levels.forEach(runs::addAll);
+		return runs;
+	}
+
 	protected void increment() throws QueryEvaluationException {
 		// give subclasses a chance to stop query evaluation
 	}
@@ -347,9 +317,9 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 			try {
 				iter.close();
 			} finally {
-				serialized.stream().map(queue -> {
+				runs().stream().map(run -> {
 					try {
-						queue.close();
+						run.close();
 						return null;
 					} catch (IOException e) {
 						return e;
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.impl.QueueCursor;
+
+/**
+ * The union of a number of arguments that are evaluated concurrently by an {@link ExecutorService}. Results are passed
+ * to the consuming thread through a bounded queue, so that the arguments can not run arbitrarily far ahead of the
+ * consumer. With a single argument, this evaluates that argument ahead of its consumer.
+ * <p>
+ * Arguments that the executor rejects, because all of its threads are busy, are evaluated by the consuming thread
+ * after the concurrently evaluated arguments. Closing the iteration interrupts the threads of the arguments, closes
+ * their iterations and waits for them to finish, so that no argument accesses the underlying store after the iteration
+ * has been closed.
+ */
+public class ParallelUnionIteration extends QueueCursor<BindingSet> {
+
+	private final List<Producer> producers;
+
+	private final List<Future<?>> futures;
+
+	private final Deque<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> inline = new ArrayDeque<>();
+
+	private final AtomicInteger running;
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> current;
+
+	/**
+	 * @param args     Suppliers of the iterations of the arguments, which are called by the thread that evaluates the
+	 *                 argument.
+	 * @param executor The executor that evaluates the arguments.
+	 * @param capacity The capacity of the queue of results.
+	 */
+	public ParallelUnionIteration(List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args,
+			ExecutorService executor, int capacity) {
+		super(capacity);
+		producers = new ArrayList<>(args.size());
+		futures = new ArrayList<>(args.size());
+		running = new AtomicInteger(args.size());
+
+		for (Supplier<CloseableIteration<BindingSet, QueryEvaluationException>> arg : args) {
+			Producer producer = new Producer(arg);
+			try {
+				futures.add(executor.submit(producer));
+				producers.add(producer);
+			} catch (RejectedExecutionException e) {
+				inline.add(arg);
+				finished();
+			}
+		}
+		if (args.isEmpty()) {
+			done();
+		}
+	}
+
+	private void finished() {
+		if (running.decrementAndGet() == 0) {
+			done();
+		}
+	}
+
+	@Override
+	public BindingSet getNextElement() throws QueryEvaluationException {
+		BindingSet next = super.getNextElement();
+		if (next != null || isClosed()) {
+			return next;
+		}
+
+		// all concurrently evaluated arguments are exhausted, continue with the rejected ones
+		while (true) {
+			if (current == null) {
+				Supplier<CloseableIteration<BindingSet, QueryEvaluationException>> arg = inline.poll();
+				if (arg == null) {
+					return null;
+				}
+				current = arg.get();
+			}
+			if (current.hasNext()) {
+				return current.next();
+			}
+			current.close();
+			current = null;
+		}
+	}
+
+	@Override
+	public void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				for (Future<?> future : futures) {
+					future.cancel(true);
+				}
+				for (Producer producer : producers) {
+					producer.stop();
+				}
+			} finally {
+				for (Producer producer : producers) {
+					producer.awaitFinished();
+				}
+				inline.clear();
+				if (current != null) {
+					current.close();
+					current = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates an argument in a thread of the executor, and puts its results in the queue.
+	 */
+	private class Producer implements Runnable {
+
+		private final Supplier<CloseableIteration<BindingSet, QueryEvaluationException>> arg;
+
+		/**
+		 * Set when the producer starts running, or when it is stopped before it started, in which case it does not run.
+		 */
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		private volatile Thread thread;
+
+		private volatile CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+		public Producer(Supplier<CloseableIteration<BindingSet, QueryEvaluationException>> arg) {
+			this.arg = arg;
+		}
+
+		@Override
+		public void run() {
+			if (!started.compareAndSet(false, true)) {
+				return;
+			}
+			thread = Thread.currentThread();
+			try {
+				if (!isClosed()) {
+					try (CloseableIteration<BindingSet, QueryEvaluationException> iter = arg.get()) {
+						this.iter = iter;
+						while (!isClosed() && iter.hasNext()) {
+							put(iter.next());
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				toss(e);
+			} finally {
+				iter = null;
+				finished.countDown();
+				finished();
+			}
+		}
+
+		/**
+		 * Closes the iteration of the argument, or prevents the producer from running if it has not started yet.
+		 */
+		public void stop() throws QueryEvaluationException {
+			if (started.compareAndSet(false, true)) {
+				finished.countDown();
+				return;
+			}
+			CloseableIteration<BindingSet, QueryEvaluationException> iter = this.iter;
+			if (iter != null) {
+				iter.close();
+			}
+		}
+
+		/**
+		 * Waits until the producer has finished, unless it is the current thread that closes the iteration.
+		 */
+		public void awaitFinished() {
+			if (thread == Thread.currentThread()) {
+				return;
+			}
+			try {
+				finished.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import org.eclipse.rdf4j.query.algebra.Projection;
 import org.eclipse.rdf4j.query.algebra.ProjectionElem;
 import org.eclipse.rdf4j.query.algebra.ProjectionElemList;
 import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 
 public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingSet, QueryEvaluationException> {
@@ -31,6 +32,8 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 
 	private final boolean isOuterProjection;
 
+	private final ArrayBindingSet.SlotTable projectionSlots;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -41,6 +44,7 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 		this.projection = projection;
 		this.parentBindings = parentBindings;
 		this.isOuterProjection = determineOuterProjection();
+		this.projectionSlots = ArrayBindingSet.SlotTable.of(projection.getProjectionElemList().getTargetNames());
 	}
 
 	private final boolean determineOuterProjection() {
@@ -60,7 +64,12 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 
 	@Override
 	protected BindingSet convert(BindingSet sourceBindings) throws QueryEvaluationException {
-		return project(projection.getProjectionElemList(), sourceBindings, parentBindings, !isOuterProjection);
+		// solutions that are backed by arrays are projected to arrays with the slots of the projection
+		QueryBindingSet resultBindings = sourceBindings instanceof ArrayBindingSet
+				? new ArrayBindingSet(projectionSlots)
+				: new QueryBindingSet();
+		return project(projection.getProjectionElemList(), sourceBindings, parentBindings, !isOuterProjection,
+				resultBindings);
 	}
 
 	public static BindingSet project(ProjectionElemList projElemList, BindingSet sourceBindings,
@@ -70,7 +79,11 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 
 	public static BindingSet project(ProjectionElemList projElemList, BindingSet sourceBindings,
 			BindingSet parentBindings, boolean includeAllParentBindings) {
-		final QueryBindingSet resultBindings = new QueryBindingSet();
+		return project(projElemList, sourceBindings, parentBindings, includeAllParentBindings, new QueryBindingSet());
+	}
+
+	private static BindingSet project(ProjectionElemList projElemList, BindingSet sourceBindings,
+			BindingSet parentBindings, boolean includeAllParentBindings, QueryBindingSet resultBindings) {
 		if (includeAllParentBindings) {
 			resultBindings.addAll(parentBindings);
 		}
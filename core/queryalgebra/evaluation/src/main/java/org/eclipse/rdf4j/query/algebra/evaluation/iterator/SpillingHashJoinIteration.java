@@ -0,0 +1,644 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.LeftJoin;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hash join that holds its hash table in memory as long as it fits in a {@link HashJoinMemoryBudget}, and otherwise
+ * falls back to a grace hash join: both inputs are partitioned to temporary files on the hash of their join
+ * attributes, after which each pair of partitions is joined separately. Partitions that still do not fit in the
+ * budget are partitioned again, up to a fixed depth.
+ * <p>
+ * The hash table is always built from the right argument, so that the left argument can be streamed, which is required
+ * for left joins.
+ */
+public class SpillingHashJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpillingHashJoinIteration.class);
+
+	/**
+	 * The number of partitions an input is split into when it is spilled.
+	 */
+	static final int PARTITION_COUNT = 32;
+
+	/**
+	 * The maximum number of times a partition is split further, partitions at this depth are loaded into memory
+	 * regardless of the budget.
+	 */
+	static final int MAX_PARTITION_DEPTH = 3;
+
+	/*-----------*
+	 * Variables *
+	 *-----------*/
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> rightIter;
+
+	private final String[] joinAttributes;
+
+	private final boolean leftJoin;
+
+	private final HashJoinMemoryBudget budget;
+
+	private final File tempDir;
+
+	private final InternalIdTripleSource idSource;
+
+	/**
+	 * Partitions that remain to be joined, only used once the inputs have been spilled.
+	 */
+	private final Deque<Partition> pendingPartitions = new ArrayDeque<>();
+
+	private final List<SpillFile> spillFiles = new ArrayList<>();
+
+	private boolean initialized;
+
+	private boolean spilled;
+
+	private Map<BindingSetHashKey, List<BindingSet>> hashTable;
+
+	private long reserved;
+
+	private Iterator<BindingSet> probeIter;
+
+	private SpillFile.Reader probeReader;
+
+	private BindingSet probeElem;
+
+	private Iterator<BindingSet> matches;
+
+	private long spilledBindingSets;
+
+	private int partitionCount;
+
+	private int maxDepth;
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	public SpillingHashJoinIteration(EvaluationStrategy strategy, Join join, BindingSet bindings,
+			HashJoinMemoryBudget budget, File tempDir) throws QueryEvaluationException {
+		this(strategy, join.getLeftArg(), join.getRightArg(), bindings, false, budget, tempDir);
+		join.setAlgorithm(this);
+	}
+
+	public SpillingHashJoinIteration(EvaluationStrategy strategy, LeftJoin join, BindingSet bindings,
+			HashJoinMemoryBudget budget, File tempDir) throws QueryEvaluationException {
+		this(strategy, join.getLeftArg(), join.getRightArg(), bindings, true, budget, tempDir);
+		join.setAlgorithm(this);
+	}
+
+	public SpillingHashJoinIteration(EvaluationStrategy strategy, TupleExpr left, TupleExpr right,
+			BindingSet bindings, boolean leftJoin, HashJoinMemoryBudget budget, File tempDir)
+			throws QueryEvaluationException {
+		this(strategy.evaluate(left, bindings), left.getBindingNames(), strategy.evaluate(right, bindings),
+				right.getBindingNames(), leftJoin, budget, tempDir);
+	}
+
+	/**
+	 * @param budget  The budget for the number of binding sets held in memory.
+	 * @param tempDir The directory for temporary files, or <tt>null</tt> for the system's temporary directory.
+	 */
+	public SpillingHashJoinIteration(CloseableIteration<BindingSet, QueryEvaluationException> leftIter,
+			Set<String> leftBindingNames, CloseableIteration<BindingSet, QueryEvaluationException> rightIter,
+			Set<String> rightBindingNames, boolean leftJoin, HashJoinMemoryBudget budget, File tempDir) {
+		this(leftIter, leftBindingNames, rightIter, rightBindingNames, leftJoin, budget, tempDir, null);
+	}
+
+	/**
+	 * @param budget   The budget for the number of binding sets held in memory.
+	 * @param tempDir  The directory for temporary files, or <tt>null</tt> for the system's temporary directory.
+	 * @param idSource The triple source whose internal IDs are used as join keys, or <tt>null</tt> to use the values
+	 *                 as join keys.
+	 */
+	public SpillingHashJoinIteration(CloseableIteration<BindingSet, QueryEvaluationException> leftIter,
+			Set<String> leftBindingNames, CloseableIteration<BindingSet, QueryEvaluationException> rightIter,
+			Set<String> rightBindingNames, boolean leftJoin, HashJoinMemoryBudget budget, File tempDir,
+			InternalIdTripleSource idSource) {
+		this.leftIter = leftIter;
+		this.rightIter = rightIter;
+
+		Set<String> joinAttributeNames = leftBindingNames;
+		joinAttributeNames.retainAll(rightBindingNames);
+		joinAttributes = joinAttributeNames.toArray(new String[joinAttributeNames.size()]);
+
+		this.leftJoin = leftJoin;
+		this.budget = budget;
+		this.tempDir = tempDir;
+		this.idSource = idSource;
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	/**
+	 * @return <tt>true</tt> if the inputs of this join did not fit in memory and have been written to disk.
+	 */
+	public boolean isSpilled() {
+		return spilled;
+	}
+
+	/**
+	 * @return The number of binding sets that have been written to disk, including those that were written more than
+	 *         once because their partition had to be split further.
+	 */
+	public long getSpilledBindingSets() {
+		return spilledBindingSets;
+	}
+
+	/**
+	 * @return The number of partition pairs that have been created.
+	 */
+	public int getPartitionCount() {
+		return partitionCount;
+	}
+
+	/**
+	 * @return The deepest level at which partitions had to be split, <tt>0</tt> if the join did not spill.
+	 */
+	public int getMaxPartitionDepth() {
+		return maxDepth;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (!initialized) {
+			initialized = true;
+			setup();
+		}
+
+		while (true) {
+			if (matches != null) {
+				if (matches.hasNext()) {
+					return join(probeElem, matches.next());
+				}
+				matches = null;
+				probeElem = null;
+			}
+
+			if (probeIter.hasNext()) {
+				BindingSet next = probeIter.next();
+
+				List<BindingSet> hashValue;
+				if (next instanceof EmptyBindingSet) {
+					// the empty binding set is merged with all binding sets in the hash table
+					hashValue = allValues();
+					if (hashValue.isEmpty() && leftJoin && !spilled) {
+						return next;
+					}
+				} else {
+					hashValue = hashTable.get(createHashKey(next));
+					if (hashValue == null || hashValue.isEmpty()) {
+						if (leftJoin) {
+							return next;
+						}
+						hashValue = null;
+					}
+				}
+
+				if (hashValue != null) {
+					probeElem = next;
+					matches = hashValue.iterator();
+				}
+			} else {
+				// the current partition is exhausted
+				releaseHashTable();
+				closeProbeReader();
+
+				Partition partition = pendingPartitions.poll();
+				if (partition == null) {
+					return null;
+				}
+				loadPartition(partition);
+			}
+		}
+	}
+
+	private void setup() throws QueryEvaluationException {
+		hashTable = new HashMap<>();
+
+		while (rightIter.hasNext()) {
+			BindingSet next = rightIter.next();
+			if (!budget.tryReserve(1)) {
+				spill(next);
+				return;
+			}
+			reserved++;
+			addToHashTable(next);
+		}
+
+		probeIter = new QueryIterator(leftIter);
+	}
+
+	/**
+	 * Partitions the (remainder of the) right and left arguments to disk.
+	 */
+	private void spill(BindingSet firstUnreserved) throws QueryEvaluationException {
+		spilled = true;
+		try {
+			Partition[] partitions = createPartitions(1);
+
+			for (List<BindingSet> hashValue : hashTable.values()) {
+				for (BindingSet bs : hashValue) {
+					partitions[partitionOf(bs, 1)].build.write(bs);
+				}
+			}
+			releaseHashTable();
+
+			partitions[partitionOf(firstUnreserved, 1)].build.write(firstUnreserved);
+			while (rightIter.hasNext()) {
+				BindingSet bs = rightIter.next();
+				partitions[partitionOf(bs, 1)].build.write(bs);
+			}
+
+			while (leftIter.hasNext()) {
+				writeProbe(partitions, leftIter.next(), 1);
+			}
+
+			finishPartitions(partitions);
+		} catch (IOException e) {
+			throw new QueryEvaluationException("Failed to spill hash join to disk", e);
+		}
+
+		probeIter = Collections.emptyIterator();
+	}
+
+	private void loadPartition(Partition partition) throws QueryEvaluationException {
+		try {
+			hashTable = new HashMap<>();
+
+			SpillFile.Reader reader = partition.build.read();
+			boolean overBudget = false;
+			BindingSet bs;
+			while ((bs = reader.next()) != null) {
+				if (budget.tryReserve(1)) {
+					reserved++;
+				} else if (partition.depth < MAX_PARTITION_DEPTH) {
+					repartition(partition, reader, bs);
+					return;
+				} else {
+					if (!overBudget) {
+						overBudget = true;
+						logger.warn("Hash join partition does not fit in memory budget at depth {}, loading anyway",
+								partition.depth);
+					}
+					budget.forceReserve(1);
+					reserved++;
+				}
+				addToHashTable(bs);
+			}
+			partition.build.delete();
+
+			probeReader = partition.probe.read();
+			probeIter = new ReaderIterator(probeReader);
+		} catch (IOException e) {
+			throw new QueryEvaluationException("Failed to read spilled hash join partition", e);
+		}
+	}
+
+	/**
+	 * Splits a partition that does not fit in the memory budget into smaller partitions.
+	 */
+	private void repartition(Partition partition, SpillFile.Reader buildReader, BindingSet firstUnreserved)
+			throws IOException {
+		int depth = partition.depth + 1;
+		Partition[] partitions = createPartitions(depth);
+
+		for (List<BindingSet> hashValue : hashTable.values()) {
+			for (BindingSet bs : hashValue) {
+				partitions[partitionOf(bs, depth)].build.write(bs);
+			}
+		}
+		releaseHashTable();
+
+		BindingSet bs = firstUnreserved;
+		do {
+			partitions[partitionOf(bs, depth)].build.write(bs);
+		} while ((bs = buildReader.next()) != null);
+		partition.build.delete();
+
+		SpillFile.Reader probeReader = partition.probe.read();
+		while ((bs = probeReader.next()) != null) {
+			writeProbe(partitions, bs, depth);
+		}
+		partition.probe.delete();
+
+		finishPartitions(partitions);
+		probeIter = Collections.emptyIterator();
+	}
+
+	private Partition[] createPartitions(int depth) throws IOException {
+		maxDepth = Math.max(maxDepth, depth);
+		Partition[] partitions = new Partition[PARTITION_COUNT];
+		for (int i = 0; i < partitions.length; i++) {
+			partitions[i] = new Partition(depth, newSpillFile("build"), newSpillFile("probe"));
+		}
+		partitionCount += partitions.length;
+		return partitions;
+	}
+
+	private void writeProbe(Partition[] partitions, BindingSet bs, int depth) throws IOException {
+		if (bs instanceof EmptyBindingSet) {
+			// the empty binding set joins with the binding sets of every partition
+			for (Partition partition : partitions) {
+				partition.probe.write(bs);
+			}
+		} else {
+			partitions[partitionOf(bs, depth)].probe.write(bs);
+		}
+	}
+
+	private void finishPartitions(Partition[] partitions) throws IOException {
+		long bindingSets = 0;
+		long bytes = 0;
+		// process the partitions depth-first, so that the number of pending files stays bounded
+		for (int i = partitions.length - 1; i >= 0; i--) {
+			Partition partition = partitions[i];
+			partition.build.finish();
+			partition.probe.finish();
+			bindingSets += partition.build.size + partition.probe.size;
+			bytes += partition.build.file.length() + partition.probe.file.length();
+			if (partition.build.size == 0 && (!leftJoin || partition.probe.size == 0)) {
+				// an empty partition produces no results
+				partition.build.delete();
+				partition.probe.delete();
+			} else {
+				pendingPartitions.push(partition);
+			}
+		}
+		spilledBindingSets += bindingSets;
+		budget.recordSpill(bindingSets, bytes);
+		logger.debug("Spilled {} binding sets ({} bytes) of hash join to disk at depth {}", bindingSets, bytes,
+				partitions[0].depth);
+	}
+
+	private int partitionOf(BindingSet bs, int depth) {
+		// seed the hash with the depth, so that a partition is split differently from its parent
+		int h = createHashKey(bs).hashCode() ^ (depth * 0x9E3779B9);
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h & (PARTITION_COUNT - 1);
+	}
+
+	private BindingSetHashKey createHashKey(BindingSet bs) {
+		if (idSource != null) {
+			return BindingSetHashKey.create(joinAttributes, bs, idSource);
+		}
+		return BindingSetHashKey.create(joinAttributes, bs);
+	}
+
+	private SpillFile newSpillFile(String prefix) throws IOException {
+		SpillFile spillFile = new SpillFile(new BindingSetFile("hashjoin-" + prefix, tempDir));
+		spillFiles.add(spillFile);
+		return spillFile;
+	}
+
+	private void addToHashTable(BindingSet bs) {
+		BindingSetHashKey hashKey = createHashKey(bs);
+		List<BindingSet> hashValue = hashTable.get(hashKey);
+		if (hashValue == null) {
+			hashValue = new ArrayList<>(1);
+			hashTable.put(hashKey, hashValue);
+		}
+		hashValue.add(bs);
+	}
+
+	private List<BindingSet> allValues() {
+		List<BindingSet> values = new ArrayList<>(hashTable.size());
+		for (List<BindingSet> hashValue : hashTable.values()) {
+			values.addAll(hashValue);
+		}
+		return values;
+	}
+
+	private BindingSet join(BindingSet probe, BindingSet build) {
+		QueryBindingSet result = ArrayBindingSet.copyOf(probe);
+
+		for (String name : build.getBindingNames()) {
+			if (!result.hasBinding(name)) {
+				Value v = build.getValue(name);
+				if (v != null) {
+					result.addBinding(name, v);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void releaseHashTable() {
+		hashTable = null;
+		budget.release(reserved);
+		reserved = 0;
+	}
+
+	private void closeProbeReader() {
+		if (probeReader != null) {
+			probeReader.spillFile.delete();
+			probeReader = null;
+		}
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				leftIter.close();
+			} finally {
+				try {
+					rightIter.close();
+				} finally {
+					releaseHashTable();
+					closeProbeReader();
+					pendingPartitions.clear();
+					for (SpillFile spillFile : spillFiles) {
+						spillFile.delete();
+					}
+					spillFiles.clear();
+					if (spilled) {
+						logger.debug("Hash join spilled {} binding sets into {} partitions, max depth {}",
+								spilledBindingSets, partitionCount, maxDepth);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A pair of spill files that hold the binding sets of both arguments that have the same partition hash.
+	 */
+	private static class Partition {
+
+		final int depth;
+
+		final SpillFile build;
+
+		final SpillFile probe;
+
+		Partition(int depth, SpillFile build, SpillFile probe) {
+			this.depth = depth;
+			this.build = build;
+			this.probe = probe;
+		}
+	}
+
+	/**
+	 * A temporary file of binding sets in the compact encoding of {@link BindingSetFile}. Empty binding sets, which join
+	 * with all binding sets of the other argument, are only counted, since the file does not distinguish them from
+	 * other binding sets without bindings.
+	 */
+	private static class SpillFile {
+
+		final BindingSetFile file;
+
+		long size;
+
+		private long emptyBindingSets;
+
+		SpillFile(BindingSetFile file) {
+			this.file = file;
+		}
+
+		void write(BindingSet bs) throws IOException {
+			if (bs instanceof EmptyBindingSet) {
+				emptyBindingSets++;
+			} else {
+				file.add(bs);
+			}
+			size++;
+		}
+
+		void finish() throws IOException {
+			file.finish();
+		}
+
+		Reader read() throws IOException {
+			return new Reader(this);
+		}
+
+		void delete() {
+			try {
+				file.close();
+			} catch (IOException e) {
+				logger.warn("Failed to close spilled hash join partition", e);
+			}
+		}
+
+		/**
+		 * Reads the binding sets of a spill file, until the spill file is deleted.
+		 */
+		static class Reader {
+
+			final SpillFile spillFile;
+
+			private final Iterator<BindingSet> iterator;
+
+			private long emptyBindingSets;
+
+			Reader(SpillFile spillFile) throws IOException {
+				this.spillFile = spillFile;
+				this.iterator = spillFile.file.iterator();
+				this.emptyBindingSets = spillFile.emptyBindingSets;
+			}
+
+			BindingSet next() {
+				if (emptyBindingSets > 0) {
+					emptyBindingSets--;
+					return EmptyBindingSet.getInstance();
+				}
+				return iterator.hasNext() ? iterator.next() : null;
+			}
+		}
+	}
+
+	/**
+	 * Adapts a spill file reader to an iterator.
+	 */
+	private static class ReaderIterator implements Iterator<BindingSet> {
+
+		private final SpillFile.Reader reader;
+
+		private BindingSet next;
+
+		ReaderIterator(SpillFile.Reader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = reader.next();
+			}
+			return next != null;
+		}
+
+		@Override
+		public BindingSet next() {
+			hasNext();
+			BindingSet result = next;
+			next = null;
+			return result;
+		}
+	}
+
+	/**
+	 * Adapts a query result iteration to an iterator.
+	 */
+	private static class QueryIterator implements Iterator<BindingSet> {
+
+		private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+		QueryIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter) {
+			this.iter = iter;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iter.hasNext();
+		}
+
+		@Override
+		public BindingSet next() {
+			return iter.next();
+		}
+	}
+}
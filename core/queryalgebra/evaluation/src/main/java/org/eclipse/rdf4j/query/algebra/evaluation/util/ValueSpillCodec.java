@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Literals;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+
+/**
+ * The compact binary encoding of values in temporary files, such as the runs of a sort or the partitions of a hash
+ * join that are spilled to disk. Values are encoded with the records of the binary query result format: IRIs are split
+ * into a namespace, which is written only once per file, and a local name. A value that is equal to the value at the
+ * same position of the previous record can be written as a single repeat marker, which makes the encoding
+ * particularly compact for sorted records.
+ * <p>
+ * Files are written by a {@link Writer} and read back in the same order by any number of {@link Reader}s. Both
+ * buffer their I/O.
+ */
+public class ValueSpillCodec {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The maximum number of strings that are assigned an ID in a table.
+	 */
+	private static final int MAX_TABLE_SIZE = 16 * 1024;
+
+	/* RECORD TYPES */
+	public static final byte REPEAT_RECORD_MARKER = 1;
+
+	private static final byte IRI_RECORD_MARKER = 4;
+
+	private static final byte BNODE_RECORD_MARKER = 5;
+
+	private static final byte PLAIN_LITERAL_RECORD_MARKER = 6;
+
+	private static final byte LANG_LITERAL_RECORD_MARKER = 7;
+
+	private static final byte DATATYPE_LITERAL_RECORD_MARKER = 8;
+
+	private static final byte TRIPLE_RECORD_MARKER = 10;
+
+	private ValueSpillCodec() {
+	}
+
+	/**
+	 * Writes values and other records to a file.
+	 */
+	public static class Writer implements Closeable {
+
+		private FileChannel output;
+
+		private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		private final Map<String, Integer> namespaceTable = new HashMap<>();
+
+		public Writer(File file) throws IOException {
+			output = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+		}
+
+		/**
+		 * @return <tt>false</tt> once the writer has been finished or closed.
+		 */
+		public boolean isOpen() {
+			return output != null;
+		}
+
+		public void writeValue(Value value) throws IOException {
+			if (value instanceof IRI) {
+				writeMarker(IRI_RECORD_MARKER);
+				writeIRI((IRI) value);
+			} else if (value instanceof BNode) {
+				writeMarker(BNODE_RECORD_MARKER);
+				writeString(((BNode) value).getID());
+			} else if (value instanceof Literal) {
+				Literal literal = (Literal) value;
+				if (Literals.isLanguageLiteral(literal)) {
+					writeMarker(LANG_LITERAL_RECORD_MARKER);
+					writeString(literal.getLabel());
+					writeString(literal.getLanguage().get());
+				} else if (XMLSchema.STRING.equals(literal.getDatatype())) {
+					writeMarker(PLAIN_LITERAL_RECORD_MARKER);
+					writeString(literal.getLabel());
+				} else {
+					writeMarker(DATATYPE_LITERAL_RECORD_MARKER);
+					writeString(literal.getLabel());
+					writeIRI(literal.getDatatype());
+				}
+			} else if (value instanceof Triple) {
+				Triple triple = (Triple) value;
+				writeMarker(TRIPLE_RECORD_MARKER);
+				writeValue(triple.getSubject());
+				writeValue(triple.getPredicate());
+				writeValue(triple.getObject());
+			} else {
+				throw new IOException("Unknown Value object type: " + value.getClass());
+			}
+		}
+
+		/**
+		 * Writes a marker that the value is equal to the value at the same position of the previous record.
+		 */
+		public void writeRepeat() throws IOException {
+			writeMarker(REPEAT_RECORD_MARKER);
+		}
+
+		/**
+		 * Writes the ID of a string in the table, followed by the string itself if it has not been written before. Once
+		 * the table is full, new strings are written inline with ID 0.
+		 *
+		 * @see Reader#readTableEntry(List)
+		 */
+		public void writeTableEntry(Map<String, Integer> table, String s) throws IOException {
+			Integer id = table.get(s);
+			if (id != null) {
+				writeInt(id);
+			} else if (table.size() < MAX_TABLE_SIZE) {
+				id = table.size() + 1;
+				table.put(s, id);
+				writeInt(id);
+				writeString(s);
+			} else {
+				writeInt(0);
+				writeString(s);
+			}
+		}
+
+		public void writeString(String s) throws IOException {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			writeInt(bytes.length);
+			if (bytes.length > buffer.capacity()) {
+				flush();
+				ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+				while (wrapped.hasRemaining()) {
+					output.write(wrapped);
+				}
+			} else {
+				ensure(bytes.length);
+				buffer.put(bytes);
+			}
+		}
+
+		/**
+		 * Writes a non-negative int in a variable number of bytes.
+		 */
+		public void writeInt(int i) throws IOException {
+			ensure(5);
+			while ((i & ~0x7F) != 0) {
+				buffer.put((byte) ((i & 0x7F) | 0x80));
+				i >>>= 7;
+			}
+			buffer.put((byte) i);
+		}
+
+		/**
+		 * Flushes all written records to disk and closes the file. No records may be written after this.
+		 */
+		public void finish() throws IOException {
+			if (output != null) {
+				flush();
+				close();
+			}
+		}
+
+		/**
+		 * Closes the file, discarding the records that have not been flushed.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (output != null) {
+				try {
+					output.close();
+				} finally {
+					output = null;
+					buffer = null;
+				}
+			}
+		}
+
+		private void writeIRI(IRI iri) throws IOException {
+			writeTableEntry(namespaceTable, iri.getNamespace());
+			writeString(iri.getLocalName());
+		}
+
+		private void writeMarker(byte marker) throws IOException {
+			ensure(1);
+			buffer.put(marker);
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				output.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Reads the values and other records of a file in the order in which they were written.
+	 */
+	public static class Reader implements Closeable {
+
+		private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+		private final File file;
+
+		private final FileChannel input;
+
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		private final List<String> namespaces = new ArrayList<>();
+
+		public Reader(File file) throws IOException {
+			this.file = file;
+			input = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			buffer.limit(0);
+		}
+
+		/**
+		 * Reads the marker of the next value, which is either {@link ValueSpillCodec#REPEAT_RECORD_MARKER} or is passed
+		 * to {@link #readValue(byte)}.
+		 */
+		public byte readMarker() throws IOException {
+			ensure(1);
+			return buffer.get();
+		}
+
+		public Value readValue(byte marker) throws IOException {
+			switch (marker) {
+			case IRI_RECORD_MARKER:
+				return readIRI();
+			case BNODE_RECORD_MARKER:
+				return vf.createBNode(readString());
+			case PLAIN_LITERAL_RECORD_MARKER:
+				return vf.createLiteral(readString());
+			case LANG_LITERAL_RECORD_MARKER:
+				String label = readString();
+				return vf.createLiteral(label, readString());
+			case DATATYPE_LITERAL_RECORD_MARKER:
+				label = readString();
+				return vf.createLiteral(label, readIRI());
+			case TRIPLE_RECORD_MARKER:
+				Resource subject = (Resource) readValue(readMarker());
+				IRI predicate = (IRI) readValue(readMarker());
+				Value object = readValue(readMarker());
+				return vf.createTriple(subject, predicate, object);
+			default:
+				throw new IOException("Unexpected record marker " + marker + " in " + file);
+			}
+		}
+
+		/**
+		 * Reads a string written by {@link Writer#writeTableEntry(Map, String)}, adding it to the table if it is new.
+		 */
+		public String readTableEntry(List<String> table) throws IOException {
+			int id = readInt();
+			if (id == 0) {
+				return readString();
+			} else if (id > table.size()) {
+				table.add(readString());
+			}
+			return table.get(id - 1);
+		}
+
+		public String readString() throws IOException {
+			int length = readInt();
+			byte[] bytes = new byte[length];
+			int offset = 0;
+			while (offset < length) {
+				ensure(1);
+				int n = Math.min(buffer.remaining(), length - offset);
+				buffer.get(bytes, offset, n);
+				offset += n;
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		public int readInt() throws IOException {
+			int result = 0;
+			for (int shift = 0;; shift += 7) {
+				ensure(1);
+				byte b = buffer.get();
+				result |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			input.close();
+		}
+
+		private IRI readIRI() throws IOException {
+			String namespace = readTableEntry(namespaces);
+			return vf.createIRI(namespace, readString());
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				buffer.compact();
+				while (buffer.position() < bytes) {
+					if (input.read(buffer) < 0) {
+						throw new EOFException("Unexpected end of " + file);
+					}
+				}
+				buffer.flip();
+			}
+		}
+	}
+}
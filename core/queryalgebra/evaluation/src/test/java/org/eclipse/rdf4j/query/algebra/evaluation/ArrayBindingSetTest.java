@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Test;
+
+public class ArrayBindingSetTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final ArrayBindingSet.SlotTable slots = ArrayBindingSet.SlotTable.of(Arrays.asList("x", "y", "z"));
+
+	@Test
+	public void testEqualsHashcode() {
+		ArrayBindingSet abs = new ArrayBindingSet(slots);
+		QueryBindingSet qbs = new QueryBindingSet();
+		MapBindingSet mbs = new MapBindingSet();
+		assertEquals(abs, qbs);
+
+		abs.addBinding("y", RDF.BAG);
+		abs.addBinding("x", RDF.ALT);
+		qbs.addBinding("x", RDF.ALT);
+		qbs.addBinding("y", RDF.BAG);
+		mbs.addBinding("x", RDF.ALT);
+		mbs.addBinding("y", RDF.BAG);
+
+		assertEquals(abs, qbs);
+		assertEquals(qbs, abs);
+		assertEquals(abs, mbs);
+		assertEquals(mbs, abs);
+		assertEquals(abs.hashCode(), qbs.hashCode());
+		assertEquals(abs.hashCode(), mbs.hashCode());
+
+		abs.setBinding("x", RDF.FIRST);
+		assertNotEquals(abs, qbs);
+		assertNotEquals(qbs, abs);
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		ArrayBindingSet bs = new ArrayBindingSet(slots);
+		bs.addBinding("x", RDF.ALT);
+
+		QueryBindingSet copy = ArrayBindingSet.copyOf(bs);
+		assertTrue(copy instanceof ArrayBindingSet);
+		assertSame(slots, ((ArrayBindingSet) copy).getSlotTable());
+		copy.addBinding("y", RDF.BAG);
+		copy.removeBinding("x");
+
+		assertEquals(1, bs.size());
+		assertEquals(RDF.ALT, bs.getValue("x"));
+		assertFalse(bs.hasBinding("y"));
+		assertEquals(1, copy.size());
+		assertEquals(RDF.BAG, copy.getValue("y"));
+		assertEquals(new HashSet<>(Arrays.asList("y")), copy.getBindingNames());
+	}
+
+	@Test
+	public void testUnknownVariableExtendsSlots() {
+		ArrayBindingSet bs1 = new ArrayBindingSet(slots);
+		ArrayBindingSet bs2 = new ArrayBindingSet(slots);
+		bs1.addBinding("x", RDF.ALT);
+		bs1.addBinding("other", RDF.BAG);
+		bs2.addBinding("other", RDF.FIRST);
+
+		assertEquals(4, bs1.getSlotTable().size());
+		assertSame(bs1.getSlotTable(), bs2.getSlotTable());
+		assertEquals(3, slots.size());
+		assertEquals(RDF.BAG, bs1.getValue("other"));
+		assertEquals(RDF.FIRST, bs2.getValue("other"));
+
+		ArrayBindingSet bs3 = new ArrayBindingSet(slots, bs1);
+		assertEquals(bs1, bs3);
+		bs1.retainAll(Arrays.asList("other"));
+		assertEquals(1, bs1.size());
+		assertNull(bs1.getValue("x"));
+	}
+
+	@Test
+	public void testNullBinding() {
+		ArrayBindingSet bs = new ArrayBindingSet(slots);
+		bs.addBinding("x", RDF.ALT);
+		bs.setBinding("y", null);
+
+		assertTrue(bs.hasBinding("y"));
+		assertNull(bs.getValue("y"));
+		assertNull(bs.getBinding("y"));
+		assertEquals(new HashSet<>(Arrays.asList("x", "y")), bs.getBindingNames());
+		assertFalse(bs.iterator().next().getName().equals("y"));
+
+		QueryBindingSet qbs = new QueryBindingSet(bs);
+		assertTrue(qbs.hasBinding("y"));
+		ArrayBindingSet copy = new ArrayBindingSet(slots, qbs);
+		assertTrue(copy.hasBinding("y"));
+		assertEquals(bs, copy);
+	}
+
+	@Test
+	public void testStrategyUsesSlots() {
+		Model model = new LinkedHashModel();
+		for (int i = 0; i < 20; i++) {
+			IRI subj = vf.createIRI("urn:s:" + i);
+			model.add(subj, RDF.TYPE, RDFS.RESOURCE);
+			model.add(subj, RDF.VALUE, vf.createLiteral(i));
+			if (i % 2 == 0) {
+				model.add(subj, RDFS.COMMENT, vf.createLiteral("comment " + i));
+			}
+		}
+		String query = "PREFIX rdf: <" + RDF.NAMESPACE + "> PREFIX rdfs: <" + RDFS.NAMESPACE + "> "
+				+ "SELECT ?s ?v ?c ?n { ?s a rdfs:Resource ; rdf:value ?v "
+				+ "OPTIONAL { ?s rdfs:comment ?c } BIND(?v + 1 AS ?n) FILTER(?n > 10) }";
+
+		Set<BindingSet> expected = evaluate(model, query, false);
+		Set<BindingSet> actual = evaluate(model, query, true);
+		assertEquals(expected, actual);
+		assertEquals(10, actual.size());
+		for (BindingSet bs : actual) {
+			assertTrue(bs instanceof ArrayBindingSet);
+		}
+	}
+
+	private Set<BindingSet> evaluate(Model model, String query, boolean optimize) {
+		TripleSource tripleSource = new TripleSource() {
+
+			@Override
+			public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj,
+					IRI pred, Value obj, Resource... contexts) throws QueryEvaluationException {
+				return new CloseableIteratorIteration<>(model.filter(subj, pred, obj, contexts).iterator());
+			}
+
+			@Override
+			public ValueFactory getValueFactory() {
+				return vf;
+			}
+		};
+		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, null);
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		TupleExpr expr = pq.getTupleExpr();
+		if (optimize) {
+			expr = strategy.optimize(expr, new EvaluationStatistics(), EmptyBindingSet.getInstance());
+		}
+		Set<BindingSet> result = new HashSet<>();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(expr,
+				EmptyBindingSet.getInstance())) {
+			while (iter.hasNext()) {
+				result.add(iter.next());
+			}
+		}
+		return result;
+	}
+}
@@ -8,6 +8,7 @@
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -15,6 +16,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,7 +28,9 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.algebra.QueryRoot;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
@@ -88,6 +92,34 @@ public class StrictEvaluationStrategyTest {
 		verify(optimizer2, times(1)).optimize(expr, null, bindings);
 	}
 
+	@Test
+	public void testBindingSlotsPerEvaluation() throws Exception {
+		List<QueryBindingSet> created = new ArrayList<>();
+		strategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null) {
+
+			@Override
+			protected QueryBindingSet createBindingSet(BindingSet bindings) {
+				QueryBindingSet result = super.createBindingSet(bindings);
+				created.add(result);
+				return result;
+			}
+		};
+
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding("x", SimpleValueFactory.getInstance().createLiteral("X"));
+		TupleExpr plan = optimize("SELECT ?a WHERE { VALUES ?a { \"foo\" } }", bindings);
+		// the slots of another query must not be used to evaluate the first one
+		optimize("SELECT ?b WHERE { VALUES ?b { \"bar\" } }", bindings);
+
+		assertEquals(1, QueryResults.asList(strategy.evaluate(plan, bindings)).size());
+		assertFalse(created.isEmpty());
+		for (QueryBindingSet bs : created) {
+			ArrayBindingSet.SlotTable slots = ((ArrayBindingSet) bs).getSlotTable();
+			assertTrue(slots.indexOf("a") >= 0);
+			assertEquals(-1, slots.indexOf("b"));
+		}
+	}
+
 	@Test
 	public void testEvaluateRegexFlags() throws Exception {
 
@@ -134,4 +166,9 @@ public class StrictEvaluationStrategyTest {
 		assertThat(values).containsExactlyInAnyOrder("foo.bar", "FOO.BAR");
 	}
 
+	private TupleExpr optimize(String query, BindingSet bindings) {
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		return strategy.optimize(new QueryRoot(pq.getTupleExpr()), new EvaluationStatistics(), bindings);
+	}
+
 }
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BindingSetFileTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		IRI iri = vf.createIRI("http://example.org/ns#", "local");
+		char[] longLabel = new char[100000];
+		Arrays.fill(longLabel, 'é');
+
+		List<BindingSet> expected = new ArrayList<>();
+		expected.add(bindingSet("a", iri, "b", vf.createBNode("node1")));
+		expected.add(bindingSet("a", iri, "b", vf.createLiteral("plain")));
+		expected.add(EmptyBindingSet.getInstance());
+		expected.add(bindingSet("a", vf.createLiteral("hallo", "de"), "c", vf.createLiteral(42)));
+		expected.add(bindingSet("a", vf.createLiteral("1", XMLSchema.INTEGER), "c", vf.createLiteral(42)));
+		expected.add(bindingSet("t", vf.createTriple(iri, iri, vf.createLiteral("o"))));
+		expected.add(bindingSet("a", vf.createLiteral(new String(longLabel))));
+
+		try (BindingSetFile file = new BindingSetFile("test", tempDir.getRoot())) {
+			for (BindingSet bs : expected) {
+				file.add(bs);
+			}
+			assertEquals(expected.size(), file.size());
+			assertEquals(expected.get(expected.size() - 1), file.peekLast());
+
+			assertBindingSets(expected, file.iterator());
+			// files can be read more than once
+			assertBindingSets(expected, file.iterator());
+		}
+		assertEquals(0, tempDir.getRoot().list().length);
+	}
+
+	@Test
+	public void testManyNamespaces() throws Exception {
+		List<BindingSet> expected = new ArrayList<>();
+		for (int i = 0; i < 40000; i++) {
+			expected.add(bindingSet("s", vf.createIRI("urn:ns:" + i + ":", "local"), "n" + (i % 100),
+					vf.createLiteral(i)));
+		}
+
+		try (BindingSetFile file = new BindingSetFile("test", tempDir.getRoot())) {
+			for (BindingSet bs : expected) {
+				file.add(bs);
+			}
+			assertBindingSets(expected, file.iterator());
+		}
+	}
+
+	private void assertBindingSets(List<BindingSet> expected, Iterator<BindingSet> actual) {
+		for (BindingSet bs : expected) {
+			assertEquals(bs, actual.next());
+		}
+		assertFalse(actual.hasNext());
+	}
+
+	private BindingSet bindingSet(Object... namesAndValues) {
+		QueryBindingSet result = new QueryBindingSet();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			result.addBinding((String) namesAndValues[i], (Value) namesAndValues[i + 1]);
+		}
+		return result;
+	}
+}
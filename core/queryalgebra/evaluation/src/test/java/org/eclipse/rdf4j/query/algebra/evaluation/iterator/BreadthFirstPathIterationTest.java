@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BreadthFirstPathIterationTest {
+
+	private static final String PREFIXES = "PREFIX rdfs: <" + RDFS.NAMESPACE + "> PREFIX ex: <urn:> ";
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final Model model = new LinkedHashModel();
+
+	private final Map<Value, Long> ids = new HashMap<>();
+
+	private final InternalIdTripleSource tripleSource = new InternalIdTripleSource() {
+
+		@Override
+		public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj,
+				IRI pred, Value obj, Resource... contexts) throws QueryEvaluationException {
+			return new CloseableIteratorIteration<>(model.filter(subj, pred, obj, contexts).iterator());
+		}
+
+		@Override
+		public ValueFactory getValueFactory() {
+			return vf;
+		}
+
+		@Override
+		public long getInternalID(Value value) {
+			Long id = ids.get(value);
+			return id == null ? UNKNOWN_ID : id;
+		}
+	};
+
+	@Before
+	public void setUp() {
+		// a -> b -> c -> d, c -> a, e -> f, g -> g
+		add("a", "b");
+		add("b", "c");
+		add("c", "d");
+		add("c", "a");
+		add("e", "f");
+		add("g", "g");
+		model.add(iri("a"), RDFS.LABEL, vf.createLiteral("a"));
+		for (int i = 0; i < 200; i++) {
+			add("n" + i, "n" + (i + 1));
+		}
+	}
+
+	@Test
+	public void testOneOrMore() {
+		assertSameResults(PREFIXES + "SELECT ?o { ex:a rdfs:subClassOf+ ?o }", 4);
+		assertSameResults(PREFIXES + "SELECT ?o { ex:g rdfs:subClassOf+ ?o }", 1);
+		assertSameResults(PREFIXES + "SELECT ?s { ?s rdfs:subClassOf+ ex:d }", 3);
+		assertSameResults(PREFIXES + "SELECT ?s { ?s ^rdfs:subClassOf+ ex:a }", 4);
+		assertSameResults(PREFIXES + "SELECT ?s ?o { ?s rdfs:subClassOf+ ?o }", 14 + 200 * 201 / 2);
+	}
+
+	@Test
+	public void testZeroOrMore() {
+		assertSameResults(PREFIXES + "SELECT ?o { ex:a rdfs:subClassOf* ?o }", 4);
+		assertSameResults(PREFIXES + "SELECT ?o { ex:x rdfs:subClassOf* ?o }", 1);
+		assertSameResults(PREFIXES + "SELECT ?s { ?s rdfs:subClassOf* ex:e }", 1);
+		assertSameResults(PREFIXES + "SELECT ?o { ex:n0 rdfs:subClassOf* ?o }", 201);
+	}
+
+	@Test
+	public void testBothEndsBound() {
+		assertSameResults(PREFIXES + "SELECT * { ex:a rdfs:subClassOf+ ex:a }", 1);
+		assertSameResults(PREFIXES + "SELECT * { ex:d rdfs:subClassOf+ ex:d }", 0);
+		assertSameResults(PREFIXES + "SELECT * { ex:d rdfs:subClassOf* ex:d }", 1);
+		assertSameResults(PREFIXES + "SELECT * { ex:b rdfs:subClassOf+ ex:d }", 1);
+		assertSameResults(PREFIXES + "SELECT * { ex:d rdfs:subClassOf+ ex:b }", 0);
+		assertSameResults(PREFIXES + "SELECT * { ex:n0 rdfs:subClassOf+ ex:n200 }", 1);
+		assertSameResults(PREFIXES + "SELECT ?s ?o { ?s rdfs:label ?l . ?o rdfs:label ?l . ?s rdfs:subClassOf+ ?o }",
+				1);
+		assertSameResults(PREFIXES + "SELECT ?s ?o { VALUES (?s ?o) { (ex:a ex:d) (ex:d ex:a) (ex:e ex:f) } "
+				+ "?s rdfs:subClassOf+ ?o }", 2);
+	}
+
+	@Test
+	public void testStrategyUsesBreadthFirstSearch() {
+		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, null);
+		TupleExpr expr = QueryParserUtil
+				.parseQuery(QueryLanguage.SPARQL, PREFIXES + "SELECT ?o { ex:a rdfs:subClassOf+ ?o }", null)
+				.getTupleExpr();
+		ArbitraryLengthPath[] path = new ArbitraryLengthPath[1];
+		expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(ArbitraryLengthPath node) {
+				path[0] = node;
+			}
+		});
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(path[0],
+				EmptyBindingSet.getInstance())) {
+			assertTrue(iter instanceof BreadthFirstPathIteration);
+			// results are streamed in the order of their distance
+			assertEquals(iri("b"), iter.next().getValue("o"));
+			assertEquals(iri("c"), iter.next().getValue("o"));
+		}
+	}
+
+	private void assertSameResults(String query, int expectedSize) {
+		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, null);
+		StrictEvaluationStrategy reference = new StrictEvaluationStrategy(tripleSource, null) {
+
+			@Override
+			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(ArbitraryLengthPath alp,
+					BindingSet bindings) throws QueryEvaluationException {
+				return new PathIteration(this, alp.getScope(), alp.getSubjectVar(), alp.getPathExpression(),
+						alp.getObjectVar(), alp.getContextVar(), alp.getMinLength(), bindings);
+			}
+		};
+
+		Set<BindingSet> expected = evaluate(reference, query);
+		Set<BindingSet> actual = evaluate(strategy, query);
+		assertEquals(query, expected, actual);
+		assertEquals(query, expectedSize, actual.size());
+	}
+
+	private Set<BindingSet> evaluate(StrictEvaluationStrategy strategy, String query) {
+		TupleExpr expr = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+		Set<BindingSet> result = new HashSet<>();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(expr,
+				EmptyBindingSet.getInstance())) {
+			while (iter.hasNext()) {
+				result.add(iter.next());
+			}
+		}
+		return result;
+	}
+
+	private void add(String subj, String obj) {
+		model.add(iri(subj), RDFS.SUBCLASSOF, iri(obj));
+		ids.putIfAbsent(iri(subj), (long) ids.size());
+		ids.putIfAbsent(iri(obj), (long) ids.size());
+	}
+
+	private IRI iri(String name) {
+		return vf.createIRI("urn:" + name);
+	}
+}
@@ -9,9 +9,13 @@ package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
@@ -150,4 +154,68 @@ public class GroupIteratorTest {
 
 		assertThat(gi.next().getBinding("sum").getValue()).isEqualTo(vf.createLiteral("45", XMLSchema.INTEGER));
 	}
+
+	@Test
+	public void testSumMixedTypes() throws QueryEvaluationException {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		ArrayList<BindingSet> list = new ArrayList<>();
+		list.add(createBindingSet("a", vf.createLiteral(Long.MAX_VALUE)));
+		list.add(createBindingSet("a", vf.createLiteral(1)));
+		list.add(createBindingSet("a", vf.createLiteral(new BigDecimal("0.5"))));
+		assignment.setBindingSets(list);
+
+		Group group = new Group(assignment);
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+		GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance());
+
+		assertThat(gi.next().getBinding("sum").getValue())
+				.isEqualTo(vf.createLiteral("9223372036854775808.5", XMLSchema.DECIMAL));
+
+		list.add(createBindingSet("a", vf.createLiteral(1.0d)));
+		gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance());
+
+		assertThat(gi.next().getBinding("sum").getValue()).isEqualTo(vf.createLiteral(9223372036854775809.5d));
+	}
+
+	@Test
+	public void testGroupsWithSync() throws QueryEvaluationException {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		ArrayList<BindingSet> list = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			QueryBindingSet bindings = new QueryBindingSet();
+			bindings.addBinding("g", vf.createLiteral(i % 1000));
+			bindings.addBinding("a", vf.createLiteral(i));
+			list.add(bindings);
+		}
+		assignment.setBindingSets(list);
+
+		Group group = new Group(assignment);
+		group.addGroupBindingName("g");
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+		group.addGroupElement(new GroupElem("count", new Count(new Var("a"))));
+
+		// more groups than the sync threshold, which are partitioned to disk
+		GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), 10);
+		Set<BindingSet> actual = new HashSet<>();
+		while (gi.hasNext()) {
+			actual.add(gi.next());
+		}
+		gi.close();
+
+		gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance());
+		Set<BindingSet> expected = new HashSet<>();
+		while (gi.hasNext()) {
+			expected.add(gi.next());
+		}
+		gi.close();
+
+		assertThat(actual).hasSize(1000);
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	private static BindingSet createBindingSet(String name, Value value) {
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding(name, value);
+		return bindings;
+	}
 }
@@ -13,13 +13,18 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 
 import junit.framework.TestCase;
 
@@ -114,6 +119,20 @@ public class OrderIteratorTest extends TestCase {
 		}
 	}
 
+	class ValueComparator implements Comparator<BindingSet> {
+
+		private final String name;
+
+		public ValueComparator(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public int compare(BindingSet o1, BindingSet o2) {
+			return Integer.compare(((Literal) o1.getValue(name)).intValue(), ((Literal) o2.getValue(name)).intValue());
+		}
+	}
+
 	private IterationStub iteration;
 
 	private OrderIterator order;
@@ -181,6 +200,67 @@ public class OrderIteratorTest extends TestCase {
 		assertFalse(order.hasNext());
 	}
 
+	public void testSortingWithSync() throws Exception {
+		List<BindingSet> input = createBindingSets(10000);
+		List<BindingSet> sorted = new ArrayList<>(input);
+		Collections.sort(sorted, new ValueComparator("v"));
+
+		// enough runs on disk to be merged
+		OrderIterator order = new OrderIterator(new CloseableIteratorIteration<>(input.iterator()),
+				new ValueComparator("v"), Long.MAX_VALUE, false, 100);
+		for (BindingSet b : sorted) {
+			assertEquals(b.getValue("v"), order.next().getValue("v"));
+		}
+		assertFalse(order.hasNext());
+		order.close();
+	}
+
+	public void testSortingWithManyRuns() throws Exception {
+		List<BindingSet> input = createBindingSets(8190);
+		List<BindingSet> sorted = new ArrayList<>(input);
+		Collections.sort(sorted, new ValueComparator("v"));
+
+		// 63 runs that have been merged once and 63 runs that have not, more than can be read concurrently
+		OrderIterator order = new OrderIterator(new CloseableIteratorIteration<>(input.iterator()),
+				new ValueComparator("v"), Long.MAX_VALUE, false, 2);
+		for (BindingSet b : sorted) {
+			assertEquals(b.getValue("v"), order.next().getValue("v"));
+		}
+		assertFalse(order.hasNext());
+		order.close();
+	}
+
+	public void testLimitDistinctWithSync() throws Exception {
+		List<BindingSet> input = new ArrayList<>(createBindingSets(5000));
+		input.addAll(createBindingSets(5000));
+		List<BindingSet> sorted = new ArrayList<>(createBindingSets(5000));
+		Collections.sort(sorted, new ValueComparator("v"));
+
+		OrderIterator order = new OrderIterator(new CloseableIteratorIteration<>(input.iterator()),
+				new ValueComparator("v"), 1500, true, 100);
+		for (BindingSet b : sorted.subList(0, 1500)) {
+			assertEquals(b, order.next());
+		}
+		assertFalse(order.hasNext());
+		order.close();
+	}
+
+	private List<BindingSet> createBindingSets(int size) {
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		List<BindingSet> result = new ArrayList<>(size);
+		Random random = new Random(size);
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("v", vf.createLiteral((i * 7919) % size));
+			bs.addBinding("s", vf.createIRI("urn:test:", "s" + random.nextInt(size)));
+			if (i % 3 == 0) {
+				bs.addBinding("l", vf.createLiteral("label " + i, "en"));
+			}
+			result.add(bs);
+		}
+		return result;
+	}
+
 	@Override
 	protected void setUp() throws Exception {
 		list = Arrays.asList(b3, b5, b2, b1, b4, b2);
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Union;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelUnionIterationTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testUnion() throws Exception {
+		List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args = new ArrayList<>();
+		Set<BindingSet> expected = new HashSet<>();
+		for (int i = 0; i < 8; i++) {
+			List<BindingSet> bindingSets = createBindingSets("a" + i, 5000);
+			expected.addAll(bindingSets);
+			args.add(() -> new CloseableIteratorIteration<>(bindingSets.iterator()));
+		}
+
+		Set<BindingSet> actual = drain(new ParallelUnionIteration(args, executor, 16));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testRejectedArgumentsAreEvaluatedInline() throws Exception {
+		ThreadPoolExecutor bounded = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new SynchronousQueue<>());
+		try {
+			List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args = new ArrayList<>();
+			Set<BindingSet> expected = new HashSet<>();
+			for (int i = 0; i < 3; i++) {
+				List<BindingSet> bindingSets = createBindingSets("a" + i, 1000);
+				expected.addAll(bindingSets);
+				args.add(() -> new CloseableIteratorIteration<>(bindingSets.iterator()));
+			}
+
+			Set<BindingSet> actual = drain(new ParallelUnionIteration(args, bounded, 16));
+			assertEquals(expected, actual);
+		} finally {
+			bounded.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testExceptionIsPropagated() throws Exception {
+		List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args = new ArrayList<>();
+		args.add(() -> new CloseableIteratorIteration<>(createBindingSets("a", 10).iterator()));
+		args.add(() -> {
+			throw new QueryEvaluationException("failed");
+		});
+
+		try {
+			drain(new ParallelUnionIteration(args, executor, 16));
+			fail("expected exception");
+		} catch (QueryEvaluationException e) {
+			Throwable cause = e;
+			while (cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			assertEquals("failed", cause.getMessage());
+		}
+	}
+
+	@Test
+	public void testCloseStopsArguments() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args = new ArrayList<>();
+		args.add(() -> new LookAheadIteration<BindingSet, QueryEvaluationException>() {
+
+			@Override
+			protected BindingSet getNextElement() {
+				return EmptyBindingSet.getInstance();
+			}
+
+			@Override
+			protected void handleClose() {
+				closed.set(true);
+			}
+		});
+
+		ParallelUnionIteration iter = new ParallelUnionIteration(args, executor, 4);
+		assertTrue(iter.hasNext());
+		iter.next();
+		iter.close();
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void testCloseWaitsForProducers() throws Exception {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger closed = new AtomicInteger();
+		List<Supplier<CloseableIteration<BindingSet, QueryEvaluationException>>> args = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			args.add(() -> new LookAheadIteration<BindingSet, QueryEvaluationException>() {
+
+				@Override
+				protected BindingSet getNextElement() {
+					active.incrementAndGet();
+					try {
+						// a slow argument, such as one that reads from disk
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						active.decrementAndGet();
+					}
+					return EmptyBindingSet.getInstance();
+				}
+
+				@Override
+				protected void handleClose() {
+					closed.incrementAndGet();
+				}
+			});
+		}
+
+		ParallelUnionIteration iter = new ParallelUnionIteration(args, executor, 2);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(iter.hasNext());
+			iter.next();
+		}
+		iter.close();
+
+		// no producer is running once close returns, without waiting for the executor
+		assertEquals(0, active.get());
+		assertEquals(4, closed.get());
+	}
+
+	@Test
+	public void testStrategyEvaluatesUnionConcurrently() throws Exception {
+		List<BindingSet> left = createBindingSets("a", 2000);
+		List<BindingSet> middle = createBindingSets("b", 2000);
+		List<BindingSet> right = createBindingSets("c", 2000);
+		Union union = new Union(assignment(left), new Union(assignment(middle), assignment(right)));
+
+		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(null, null);
+		Set<BindingSet> expected = drain(strategy.evaluate(union, EmptyBindingSet.getInstance()));
+
+		strategy.setParallelEvaluationExecutor(executor);
+		CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(union,
+				EmptyBindingSet.getInstance());
+		assertTrue(iter instanceof ParallelUnionIteration);
+		assertEquals(expected, drain(iter));
+		assertEquals(6000, expected.size());
+	}
+
+	private BindingSetAssignment assignment(List<BindingSet> bindingSets) {
+		BindingSetAssignment result = new BindingSetAssignment();
+		result.setBindingSets(bindingSets);
+		return result;
+	}
+
+	private List<BindingSet> createBindingSets(String name, int size) {
+		List<BindingSet> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding(name, vf.createLiteral(i));
+			result.add(bs);
+		}
+		return result;
+	}
+
+	private static Set<BindingSet> drain(CloseableIteration<BindingSet, QueryEvaluationException> iter)
+			throws QueryEvaluationException {
+		Set<BindingSet> result = new HashSet<>();
+		try {
+			while (iter.hasNext()) {
+				assertTrue(result.add(iter.next()));
+			}
+		} finally {
+			iter.close();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillingHashJoinIterationTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final EvaluationStrategy evaluator = new StrictEvaluationStrategy(null, null);
+
+	@Test
+	public void testInMemoryJoin() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(1000);
+		BindingSetAssignment left = createBindingSets("a", 200, 50);
+		BindingSetAssignment right = createBindingSets("b", 100, 50);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), false, budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		assertEquals(expected(left, right, false), actual);
+		assertFalse(iter.isSpilled());
+		assertEquals(0, budget.getSpillCount());
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testSpilledJoin() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(20);
+		BindingSetAssignment left = createBindingSets("a", 2000, 500);
+		BindingSetAssignment right = createBindingSets("b", 1000, 400);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), false, budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		assertEquals(expected(left, right, false), actual);
+		assertTrue(iter.isSpilled());
+		assertTrue(iter.getMaxPartitionDepth() > 1);
+		assertTrue(budget.getSpilledBindingSets() >= 3000);
+		assertEquals(0, budget.getUsed());
+		assertEquals(0, tempDir.getRoot().list().length);
+	}
+
+	@Test
+	public void testSpilledLeftJoin() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(20);
+		BindingSetAssignment left = createBindingSets("a", 500, 300);
+		BindingSetAssignment right = createBindingSets("b", 200, 100);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), true, budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		assertEquals(expected(left, right, true), actual);
+		assertTrue(iter.isSpilled());
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testSpilledJoinWithEmptyBindingSet() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(20);
+		List<BindingSet> left = new ArrayList<>();
+		createBindingSets("a", 100, 50).getBindingSets().forEach(left::add);
+		left.add(EmptyBindingSet.getInstance());
+		BindingSetAssignment right = createBindingSets("b", 200, 50);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(
+				new CloseableIteratorIteration<>(left.iterator()), new HashSet<>(Arrays.asList("key", "a")),
+				new CloseableIteratorIteration<>(right.getBindingSets().iterator()), right.getBindingNames(), false,
+				budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		// each binding set on the left joins with 4 on the right, the empty binding set joins with all of them
+		assertTrue(iter.isSpilled());
+		assertEquals(100 * 4 + 200, count(actual));
+		for (BindingSet bs : right.getBindingSets()) {
+			assertEquals(Integer.valueOf(1), actual.get(bs));
+		}
+	}
+
+	@Test
+	public void testSkewedPartition() throws Exception {
+		// all binding sets have the same key, so partitions can not be split
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(10);
+		BindingSetAssignment left = createBindingSets("a", 20, 1);
+		BindingSetAssignment right = createBindingSets("b", 30, 1);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), false, budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		assertEquals(expected(left, right, false), actual);
+		assertEquals(SpillingHashJoinIteration.MAX_PARTITION_DEPTH, iter.getMaxPartitionDepth());
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testCartesianJoin() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(5);
+		BindingSetAssignment left = new BindingSetAssignment();
+		List<BindingSet> leftBindings = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("x", vf.createLiteral(i));
+			leftBindings.add(bs);
+		}
+		left.setBindingSets(leftBindings);
+
+		BindingSetAssignment right = new BindingSetAssignment();
+		List<BindingSet> rightBindings = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("y", vf.createLiteral(i));
+			rightBindings.add(bs);
+		}
+		right.setBindingSets(rightBindings);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), false, budget, tempDir.getRoot());
+		Map<BindingSet, Integer> actual = drain(iter);
+
+		assertEquals(expected(left, right, false), actual);
+		assertEquals(100, count(actual));
+	}
+
+	@Test
+	public void testCloseRemovesSpillFiles() throws Exception {
+		HashJoinMemoryBudget budget = new HashJoinMemoryBudget(10);
+		BindingSetAssignment left = createBindingSets("a", 500, 100);
+		BindingSetAssignment right = createBindingSets("b", 500, 100);
+
+		SpillingHashJoinIteration iter = new SpillingHashJoinIteration(evaluator, left, right,
+				EmptyBindingSet.getInstance(), false, budget, tempDir.getRoot());
+		iter.next();
+		assertTrue(tempDir.getRoot().list().length > 0);
+
+		iter.close();
+		assertEquals(0, tempDir.getRoot().list().length);
+		assertEquals(0, budget.getUsed());
+	}
+
+	private BindingSetAssignment createBindingSets(String name, int size, int distinctKeys) {
+		List<BindingSet> bindingSets = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("key", vf.createIRI("urn:key:" + (i % distinctKeys)));
+			bs.addBinding(name, vf.createLiteral(i));
+			bindingSets.add(bs);
+		}
+		BindingSetAssignment result = new BindingSetAssignment();
+		result.setBindingSets(bindingSets);
+		return result;
+	}
+
+	private Map<BindingSet, Integer> expected(BindingSetAssignment left, BindingSetAssignment right, boolean leftJoin)
+			throws QueryEvaluationException {
+		return drain(new HashJoinIteration(evaluator, left, right, EmptyBindingSet.getInstance(), leftJoin));
+	}
+
+	private static Map<BindingSet, Integer> drain(CloseableIteration<BindingSet, QueryEvaluationException> iter)
+			throws QueryEvaluationException {
+		Map<BindingSet, Integer> result = new HashMap<>();
+		try {
+			while (iter.hasNext()) {
+				result.merge(iter.next(), 1, Integer::sum);
+			}
+		} finally {
+			iter.close();
+		}
+		return result;
+	}
+
+	private static int count(Map<BindingSet, Integer> bindingSets) {
+		int count = 0;
+		for (int c : bindingSets.values()) {
+			count += c;
+		}
+		return count;
+	}
+}
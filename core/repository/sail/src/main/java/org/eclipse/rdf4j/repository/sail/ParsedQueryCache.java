@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.repository.sail;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedDescribeQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A bounded cache of parsed queries, keyed on the query language, the query text and the base URI. Each lookup returns
+ * a copy of the cached query, whose query model is registered with the {@link QueryPlanCache} so that the store can
+ * reuse its optimized plan.
+ */
+public class ParsedQueryCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private final Cache<Key, ParsedQuery> queries;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	public ParsedQueryCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public ParsedQueryCache(int maximumSize) {
+		this.queries = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Parses the supplied query, or returns a copy of the cached result of parsing it.
+	 *
+	 * @see QueryParserUtil#parseQuery(QueryLanguage, String, String)
+	 */
+	public ParsedQuery parseQuery(QueryLanguage ql, String queryString, String baseURI)
+			throws MalformedQueryException {
+		// leading and trailing whitespace does not change the parsed query
+		Key key = new Key(ql, queryString.trim(), baseURI);
+		ParsedQuery template = queries.getIfPresent(key);
+		if (template == null) {
+			missCount.increment();
+			template = QueryParserUtil.parseQuery(ql, queryString, baseURI);
+			queries.put(key, template);
+		} else {
+			hitCount.increment();
+		}
+
+		TupleExpr tupleExpr = template.getTupleExpr().clone();
+		ParsedQuery parsedQuery;
+		if (template instanceof ParsedTupleQuery) {
+			parsedQuery = new ParsedTupleQuery(queryString, tupleExpr);
+		} else if (template instanceof ParsedDescribeQuery) {
+			parsedQuery = new ParsedDescribeQuery(queryString, tupleExpr,
+					((ParsedDescribeQuery) template).getQueryNamespaces());
+		} else if (template instanceof ParsedGraphQuery) {
+			parsedQuery = new ParsedGraphQuery(queryString, tupleExpr,
+					((ParsedGraphQuery) template).getQueryNamespaces());
+		} else if (template instanceof ParsedBooleanQuery) {
+			parsedQuery = new ParsedBooleanQuery(queryString, tupleExpr);
+		} else {
+			return QueryParserUtil.parseQuery(ql, queryString, baseURI);
+		}
+		if (template.getDataset() != null) {
+			parsedQuery.setDataset(copy(template.getDataset()));
+		}
+		QueryPlanCache.registerQuery(tupleExpr, ql, key.queryString, baseURI);
+		return parsedQuery;
+	}
+
+	/**
+	 * @see QueryParserUtil#parseTupleQuery(QueryLanguage, String, String)
+	 */
+	public ParsedTupleQuery parseTupleQuery(QueryLanguage ql, String queryString, String baseURI)
+			throws MalformedQueryException {
+		ParsedQuery q = parseQuery(ql, queryString, baseURI);
+		if (q instanceof ParsedTupleQuery) {
+			return (ParsedTupleQuery) q;
+		}
+		throw new IllegalArgumentException("query is not a tuple query: " + queryString);
+	}
+
+	/**
+	 * @see QueryParserUtil#parseGraphQuery(QueryLanguage, String, String)
+	 */
+	public ParsedGraphQuery parseGraphQuery(QueryLanguage ql, String queryString, String baseURI)
+			throws MalformedQueryException {
+		ParsedQuery q = parseQuery(ql, queryString, baseURI);
+		if (q instanceof ParsedGraphQuery) {
+			return (ParsedGraphQuery) q;
+		}
+		throw new IllegalArgumentException("query is not a graph query: " + queryString);
+	}
+
+	/**
+	 * @see QueryParserUtil#parseBooleanQuery(QueryLanguage, String, String)
+	 */
+	public ParsedBooleanQuery parseBooleanQuery(QueryLanguage ql, String queryString, String baseURI)
+			throws MalformedQueryException {
+		ParsedQuery q = parseQuery(ql, queryString, baseURI);
+		if (q instanceof ParsedBooleanQuery) {
+			return (ParsedBooleanQuery) q;
+		}
+		throw new IllegalArgumentException("query is not a boolean query: " + queryString);
+	}
+
+	/**
+	 * Removes all queries from this cache.
+	 */
+	public void invalidateAll() {
+		queries.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached queries
+	 */
+	public long size() {
+		return queries.size();
+	}
+
+	/**
+	 * @return the number of queries that were copied from the cache
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of queries that had to be parsed
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * @return the ratio of hits to lookups, or <code>1.0</code> if there were no lookups
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long lookups = hits + getMissCount();
+		return lookups == 0 ? 1.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return "ParsedQueryCache [size=" + size() + ", hitCount=" + getHitCount() + ", missCount=" + getMissCount()
+				+ ", hitRate=" + getHitRate() + "]";
+	}
+
+	private static Dataset copy(Dataset dataset) {
+		SimpleDataset copy = new SimpleDataset();
+		dataset.getDefaultGraphs().forEach(copy::addDefaultGraph);
+		dataset.getNamedGraphs().forEach(copy::addNamedGraph);
+		dataset.getDefaultRemoveGraphs().forEach(copy::addDefaultRemoveGraph);
+		copy.setDefaultInsertGraph(dataset.getDefaultInsertGraph());
+		return copy;
+	}
+
+	private static class Key {
+
+		private final QueryLanguage ql;
+
+		private final String queryString;
+
+		private final String baseURI;
+
+		Key(QueryLanguage ql, String queryString, String baseURI) {
+			this.ql = ql;
+			this.queryString = queryString;
+			this.baseURI = baseURI;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key o = (Key) other;
+			return ql.equals(o.ql) && queryString.equals(o.queryString) && Objects.equals(baseURI, o.baseURI);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ql, queryString, baseURI);
+		}
+	}
+}
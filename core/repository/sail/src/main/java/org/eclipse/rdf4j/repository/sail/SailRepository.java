@@ -61,6 +61,8 @@ public class SailRepository extends AbstractRepository implements FederatedServi
 
 	private final Sail sail;
 
+	private volatile ParsedQueryCache parsedQueryCache = new ParsedQueryCache();
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -172,6 +174,24 @@ public class SailRepository extends AbstractRepository implements FederatedServi
 		return sail;
 	}
 
+	/**
+	 * Gets the cache of parsed queries that connections of this repository prepare their queries from.
+	 *
+	 * @return A ParsedQueryCache, or <code>null</code> if queries are parsed every time they are prepared.
+	 */
+	public ParsedQueryCache getParsedQueryCache() {
+		return parsedQueryCache;
+	}
+
+	/**
+	 * Sets the cache of parsed queries that connections of this repository prepare their queries from.
+	 *
+	 * @param parsedQueryCache A ParsedQueryCache, or <code>null</code> to parse queries every time they are prepared.
+	 */
+	public void setParsedQueryCache(ParsedQueryCache parsedQueryCache) {
+		this.parsedQueryCache = parsedQueryCache;
+	}
+
 	@Override
 	public boolean isWritable() throws RepositoryException {
 		try {
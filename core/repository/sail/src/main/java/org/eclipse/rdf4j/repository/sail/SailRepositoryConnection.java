@@ -34,6 +34,7 @@ import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 import org.eclipse.rdf4j.query.parser.ParsedUpdate;
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryReadOnlyException;
@@ -196,7 +197,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 
 	@Override
 	public SailQuery prepareQuery(QueryLanguage ql, String queryString, String baseURI) throws MalformedQueryException {
-		ParsedQuery parsedQuery = QueryParserUtil.parseQuery(ql, queryString, baseURI);
+		ParsedQuery parsedQuery = parseQuery(ql, queryString, baseURI);
 
 		if (parsedQuery instanceof ParsedTupleQuery) {
 			Optional<TupleExpr> sailTupleExpr = sailConnection.prepareQuery(ql, Query.QueryType.TUPLE, queryString,
@@ -232,7 +233,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 
 		ParsedTupleQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedTupleQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseTupleQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseTupleQuery(ql, queryString, baseURI));
 		return new SailTupleQuery(parsedQuery, this);
 	}
 
@@ -243,7 +244,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 				baseURI);
 		ParsedGraphQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedGraphQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseGraphQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseGraphQuery(ql, queryString, baseURI));
 		return new SailGraphQuery(parsedQuery, this);
 	}
 
@@ -254,10 +255,39 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 				baseURI);
 		ParsedBooleanQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedBooleanQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseBooleanQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseBooleanQuery(ql, queryString, baseURI));
 		return new SailBooleanQuery(parsedQuery, this);
 	}
 
+	private ParsedQuery parseQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = getParsedQueryCache();
+		return cache != null ? cache.parseQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedTupleQuery parseTupleQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = getParsedQueryCache();
+		return cache != null ? cache.parseTupleQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseTupleQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedGraphQuery parseGraphQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = getParsedQueryCache();
+		return cache != null ? cache.parseGraphQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseGraphQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedBooleanQuery parseBooleanQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = getParsedQueryCache();
+		return cache != null ? cache.parseBooleanQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseBooleanQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedQueryCache getParsedQueryCache() {
+		Repository repository = getRepository();
+		return repository instanceof SailRepository ? ((SailRepository) repository).getParsedQueryCache() : null;
+	}
+
 	@Override
 	public Update prepareUpdate(QueryLanguage ql, String update, String baseURI)
 			throws RepositoryException, MalformedQueryException {
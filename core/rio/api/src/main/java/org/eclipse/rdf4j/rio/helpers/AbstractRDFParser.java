@@ -29,6 +29,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.InterningValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.rio.ParseErrorListener;
 import org.eclipse.rdf4j.rio.ParseLocationListener;
@@ -73,6 +74,12 @@ public abstract class AbstractRDFParser implements RDFParser {
 
 	private ValueFactory originalValueFactory;
 
+	/**
+	 * The interning wrapper of the original ValueFactory, kept across documents while
+	 * {@link BasicParserSettings#INTERN_VALUES} is enabled.
+	 */
+	private InterningValueFactory interningValueFactory;
+
 	/**
 	 * The base URI for resolving relative URIs.
 	 */
@@ -133,6 +140,7 @@ public abstract class AbstractRDFParser implements RDFParser {
 	public RDFParser setValueFactory(ValueFactory valueFactory) {
 		this.valueFactory = valueFactory;
 		this.originalValueFactory = valueFactory;
+		this.interningValueFactory = null;
 		return this;
 	}
 
@@ -208,6 +216,9 @@ public abstract class AbstractRDFParser implements RDFParser {
 
 		result.add(BasicParserSettings.NAMESPACES);
 
+		// Supported in clear
+		result.add(BasicParserSettings.INTERN_VALUES);
+
 		return result;
 	}
 
@@ -347,10 +358,17 @@ public abstract class AbstractRDFParser implements RDFParser {
 		nextBNodePrefix = createUniqueBNodePrefix();
 		namespaceTable.clear();
 		// Don't use the setter setValueFactory() as it will update originalValueFactory too
+		ValueFactory vf = originalValueFactory;
+		if (getParserConfig().get(BasicParserSettings.INTERN_VALUES) && !(vf instanceof InterningValueFactory)) {
+			if (interningValueFactory == null) {
+				interningValueFactory = new InterningValueFactory(originalValueFactory);
+			}
+			vf = interningValueFactory;
+		}
 		if (getParserConfig().get(BasicParserSettings.PROCESS_ENCODED_RDF_STAR)) {
-			valueFactory = new RDFStarDecodingValueFactory(originalValueFactory);
+			valueFactory = new RDFStarDecodingValueFactory(vf);
 		} else {
-			valueFactory = originalValueFactory;
+			valueFactory = vf;
 		}
 
 		initializeNamespaceTableFromConfiguration();
@@ -307,6 +307,19 @@ public class BasicParserSettings {
 			"org.eclipse.rdf4j.rio.process_encoded_rdf_star",
 			"Converts RDF* triples encoded as RDF-compatible IRIs back to triple values", Boolean.TRUE);
 
+	/**
+	 * Boolean setting for parser to determine whether it should create a single object for equal IRIs, blank nodes and
+	 * literals, using an {@link org.eclipse.rdf4j.model.impl.InterningValueFactory} around the configured value
+	 * factory. This reduces the memory used by collections of parsed statements that repeat the same values, at the
+	 * cost of a dictionary lookup for every value that is created.
+	 * <p>
+	 * Defaults to false.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.rio.intern_values}.
+	 */
+	public static final RioSetting<Boolean> INTERN_VALUES = new BooleanRioSetting(
+			"org.eclipse.rdf4j.rio.intern_values", "Create a single object for equal values", Boolean.FALSE);
+
 	static {
 		List<DatatypeHandler> defaultDatatypeHandlers = new ArrayList<>(5);
 		try {
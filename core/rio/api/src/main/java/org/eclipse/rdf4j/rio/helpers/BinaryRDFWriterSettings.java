@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.helpers;
+
+import org.eclipse.rdf4j.rio.RioSetting;
+
+/**
+ * WriterSettings for the binary RDF writer.
+ */
+public class BinaryRDFWriterSettings {
+
+	/**
+	 * The version of the binary RDF format that is written. Version 1 is readable by all parsers of the format.
+	 * Version 2 writes values through a dictionary that grows over the document, encodes numbers as varints and groups
+	 * records in frames that are compressed independently, so that an interrupted transfer can be resumed at a frame
+	 * boundary.
+	 * <p>
+	 * Defaults to 1.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.rio.binary.format_version}
+	 */
+	public static final RioSetting<Long> FORMAT_VERSION = new LongRioSetting(
+			"org.eclipse.rdf4j.rio.binary.format_version", "Binary RDF format version", 1L);
+
+	/**
+	 * Boolean setting for the writer to determine if the frames of version 2 documents are compressed with Deflate.
+	 * <p>
+	 * Defaults to true.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.rio.binary.compress}
+	 */
+	public static final RioSetting<Boolean> COMPRESS = new BooleanRioSetting("org.eclipse.rdf4j.rio.binary.compress",
+			"Compress frames", Boolean.TRUE);
+
+	/**
+	 * The number of bytes of records after which a frame of a version 2 document is written. Larger frames compress
+	 * better, smaller frames lose less data when a transfer is interrupted.
+	 * <p>
+	 * Defaults to 65536.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.rio.binary.frame_size}
+	 */
+	public static final RioSetting<Long> FRAME_SIZE = new LongRioSetting("org.eclipse.rdf4j.rio.binary.frame_size",
+			"Frame size", 65536L);
+
+	/**
+	 * The number of values that the dictionary of a version 2 document holds before it is cleared. This bounds the
+	 * memory that both the writer and the parser need for the dictionary.
+	 * <p>
+	 * Defaults to 262144.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.rio.binary.dictionary_size}
+	 */
+	public static final RioSetting<Long> DICTIONARY_SIZE = new LongRioSetting(
+			"org.eclipse.rdf4j.rio.binary.dictionary_size", "Dictionary size", 262144L);
+
+	/**
+	 * Private constructor
+	 */
+	private BinaryRDFWriterSettings() {
+	}
+
+}
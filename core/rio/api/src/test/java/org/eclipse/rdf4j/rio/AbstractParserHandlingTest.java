@@ -9,6 +9,7 @@ package org.eclipse.rdf4j.rio;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -16,10 +17,14 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
@@ -961,6 +966,30 @@ public abstract class AbstractParserHandlingTest {
 		}
 	}
 
+	@Test
+	public void testInternValues() throws Exception {
+		Model expectedModel = new LinkedHashModel();
+		for (int i = 0; i < 10; i++) {
+			IRI subject = vf.createIRI("http://example.com/" + i);
+			expectedModel.add(vf.createStatement(subject, RDF.TYPE, vf.createIRI("http://example.com/Class")));
+			expectedModel.add(vf.createStatement(subject, RDFS.LABEL, vf.createLiteral("label", "en")));
+		}
+		List<Statement> statements = new ArrayList<>();
+		testParser.setRDFHandler(new StatementCollector(statements));
+		testParser.getParserConfig().set(BasicParserSettings.INTERN_VALUES, true);
+		testParser.parse(serialize(expectedModel), BASE_URI);
+
+		assertErrorListener(0, 0, 0);
+		assertEquals(20, statements.size());
+		assertTrue(Models.isomorphic(expectedModel, statements));
+		Map<IRI, Statement> firstByPredicate = new HashMap<>();
+		for (Statement st : statements) {
+			Statement first = firstByPredicate.computeIfAbsent(st.getPredicate(), p -> st);
+			assertSame(first.getPredicate(), st.getPredicate());
+			assertSame(first.getObject(), st.getObject());
+		}
+	}
+
 	private void assertModel(Model expectedModel) {
 		if (logger.isTraceEnabled()) {
 			logger.trace("Expected: {}", expectedModel);
@@ -15,10 +15,15 @@ class BinaryRDFConstants {
 	static final byte[] MAGIC_NUMBER = new byte[] { 'B', 'R', 'D', 'F' };
 
 	/**
-	 * The version number of the current format.
+	 * The version number of the format with uncompressed records and explicitly declared value identifiers.
 	 */
 	static final int FORMAT_VERSION = 1;
 
+	/**
+	 * The version number of the format with a value dictionary, varint encoded numbers and compressed frames.
+	 */
+	static final int FORMAT_VERSION_2 = 2;
+
 	/* RECORD TYPES */
 
 	static final int NAMESPACE_DECL = 0;
@@ -29,6 +34,11 @@ class BinaryRDFConstants {
 
 	static final int VALUE_DECL = 3;
 
+	/**
+	 * Clears the value dictionary (version 2 only).
+	 */
+	static final int DICTIONARY_RESET = 4;
+
 	// public static final int ERROR = 126;
 
 	static final int END_OF_DATA = 127;
@@ -50,4 +60,21 @@ class BinaryRDFConstants {
 	static final int VALUE_REF = 6;
 
 	static final int TRIPLE_VALUE = 7;
+
+	/**
+	 * Flag on the type of a value that is added to the value dictionary when it is read (version 2 only).
+	 */
+	static final int DICTIONARY_FLAG = 0x40;
+
+	/* FRAME TYPES (version 2 only) */
+
+	static final int STORED_FRAME = 0;
+
+	static final int DEFLATED_FRAME = 1;
+
+	/**
+	 * The maximum length of the records of a frame, compressed or not. Parsers reject longer frames before allocating
+	 * a buffer for them, so that a corrupt length can not exhaust the memory.
+	 */
+	static final int MAX_FRAME_LENGTH = 1 << 28;
 }
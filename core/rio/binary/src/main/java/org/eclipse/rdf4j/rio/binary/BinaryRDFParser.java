@@ -10,14 +10,20 @@ package org.eclipse.rdf4j.rio.binary;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.BNODE_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.COMMENT;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DATATYPE_LITERAL_VALUE;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DEFLATED_FRAME;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DICTIONARY_FLAG;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DICTIONARY_RESET;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.END_OF_DATA;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.FORMAT_VERSION_2;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.LANG_LITERAL_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.MAX_FRAME_LENGTH;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.NAMESPACE_DECL;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.NULL_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.PLAIN_LITERAL_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.STATEMENT;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.STORED_FRAME;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.TRIPLE_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.URI_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.VALUE_DECL;
@@ -25,10 +31,15 @@ import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.VALUE_REF;
 
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import org.eclipse.rdf4j.common.io.IOUtil;
 import org.eclipse.rdf4j.model.IRI;
@@ -43,6 +54,13 @@ import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFParser;
 
 /**
+ * Parses documents in version 1 or version 2 of the binary RDF format.
+ * <p>
+ * A version 2 document is read frame by frame, and the records of a frame are only processed once the whole frame has
+ * been read and its checksum verified. If the input stream fails or ends early, or a frame is corrupt, the parser keeps
+ * its state and {@link #resume(InputStream)} continues the document from the frame boundary at
+ * {@link #getResumeOffset()}.
+ *
  * @author Arjohn Kampman
  */
 public class BinaryRDFParser extends AbstractRDFParser {
@@ -53,6 +71,45 @@ public class BinaryRDFParser extends AbstractRDFParser {
 
 	private byte[] buf = null;
 
+	private int formatVersion;
+
+	/**
+	 * The values of the dictionary of a version 2 document, in the order in which they were added.
+	 */
+	private Value[] dictionary = new Value[16];
+
+	private int dictionarySize;
+
+	/**
+	 * The records of the current frame, from position 0 to {@link #frameLimit}.
+	 */
+	private byte[] frame = new byte[0];
+
+	private int framePosition;
+
+	private int frameLimit;
+
+	/**
+	 * The bytes of the current frame as stored in the input.
+	 */
+	private byte[] storedFrame = new byte[0];
+
+	/**
+	 * The number of bytes of the current frame in the input, including its header.
+	 */
+	private int frameBytes;
+
+	private Inflater inflater;
+
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * The offset in the document of the end of the last frame that has been processed completely.
+	 */
+	private long resumeOffset;
+
+	private boolean resumable;
+
 	@Override
 	public RDFFormat getRDFFormat() {
 		return RDFFormat.BINARY;
@@ -66,6 +123,7 @@ public class BinaryRDFParser extends AbstractRDFParser {
 	@Override
 	public void parse(InputStream in, String baseURI) throws IOException, RDFParseException, RDFHandlerException {
 		clear();
+		resumable = false;
 
 		try {
 			if (in == null) {
@@ -80,10 +138,9 @@ public class BinaryRDFParser extends AbstractRDFParser {
 				reportFatalError("File does not contain a binary RDF document");
 			}
 
-			// Check format version (parser is backward-compatible with version 1 and
-			// version 2)
-			int formatVersion = this.in.readInt();
-			if (formatVersion != FORMAT_VERSION) {
+			// Check format version (parser is backward-compatible with version 1)
+			formatVersion = this.in.readInt();
+			if (formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_2) {
 				reportFatalError("Incompatible format version: " + formatVersion);
 			}
 
@@ -91,35 +148,199 @@ public class BinaryRDFParser extends AbstractRDFParser {
 				rdfHandler.startRDF();
 			}
 
-			loop: while (true) {
-				int recordType = this.in.readByte();
+			if (formatVersion == FORMAT_VERSION_2) {
+				resetDictionary();
+				resumeOffset = MAGIC_NUMBER.length + 4;
+				readFrames();
+			} else {
+				loop: while (true) {
+					int recordType = this.in.readByte();
+
+					switch (recordType) {
+					case END_OF_DATA:
+						break loop;
+					case STATEMENT:
+						readStatement();
+						break;
+					case VALUE_DECL:
+						readValueDecl();
+						break;
+					case NAMESPACE_DECL:
+						readNamespaceDecl();
+						break;
+					case COMMENT:
+						readComment();
+						break;
+					default:
+						reportFatalError("Invalid record type: " + recordType);
+					}
+				}
+			}
+		} finally {
+			if (!resumable) {
+				clear();
+			}
+		}
+
+		if (rdfHandler != null) {
+			rdfHandler.endRDF();
+		}
+	}
+
+	/**
+	 * Continues parsing a version 2 document that was interrupted by a failing or truncated input stream, or by a
+	 * corrupt frame. The supplied stream must contain the rest of the document, from the offset returned by
+	 * {@link #getResumeOffset()} on. The start of the document is not reported to the RDF handler again.
+	 *
+	 * @param in The input stream that continues the document at the resume offset.
+	 * @throws IllegalStateException If no document has been interrupted.
+	 */
+	public void resume(InputStream in) throws IOException, RDFParseException, RDFHandlerException {
+		if (!resumable) {
+			throw new IllegalStateException("No interrupted binary RDF document to resume");
+		}
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream must not be null");
+		}
+		resumable = false;
+
+		try {
+			this.in = new DataInputStream(new BufferedInputStream(in));
+			readFrames();
+		} finally {
+			if (!resumable) {
+				clear();
+			}
+		}
+
+		if (rdfHandler != null) {
+			rdfHandler.endRDF();
+		}
+	}
+
+	/**
+	 * Returns the offset in the interrupted document at which {@link #resume(InputStream)} continues parsing: the end
+	 * of the last frame whose records have all been reported.
+	 *
+	 * @return The offset in bytes from the start of the document, or -1 if no document has been interrupted.
+	 */
+	public long getResumeOffset() {
+		return resumable ? resumeOffset : -1;
+	}
+
+	/**
+	 * Reads and processes the frames of a version 2 document up to its end of data record.
+	 */
+	private void readFrames() throws IOException, RDFParseException, RDFHandlerException {
+		while (true) {
+			try {
+				readFrame();
+			} catch (IOException | RDFParseException e) {
+				resumable = true;
+				throw e;
+			}
+
+			while (framePosition < frameLimit) {
+				int recordType = frame[framePosition++];
 
 				switch (recordType) {
 				case END_OF_DATA:
-					break loop;
+					resetDictionary();
+					return;
 				case STATEMENT:
 					readStatement();
 					break;
-				case VALUE_DECL:
-					readValueDecl();
-					break;
 				case NAMESPACE_DECL:
 					readNamespaceDecl();
 					break;
 				case COMMENT:
 					readComment();
 					break;
+				case DICTIONARY_RESET:
+					resetDictionary();
+					break;
 				default:
 					reportFatalError("Invalid record type: " + recordType);
 				}
 			}
-		} finally {
-			clear();
+			resumeOffset += frameBytes;
 		}
+	}
 
-		if (rdfHandler != null) {
-			rdfHandler.endRDF();
+	/**
+	 * Reads the next frame and decompresses its records into {@link #frame}.
+	 */
+	private void readFrame() throws IOException, RDFParseException {
+		int frameType = in.read();
+		if (frameType < 0) {
+			throw new EOFException("Binary RDF document ends before its end of data record");
+		}
+		frameBytes = 1 + 4;
+		int length = readStreamVarInt();
+		int storedLength = readStreamVarInt();
+		int expectedChecksum = in.readInt();
+		frameBytes += storedLength;
+
+		if (length < 0 || length > MAX_FRAME_LENGTH) {
+			reportFatalError("Invalid frame length: " + length);
+		}
+		if (storedLength < 0 || storedLength > length) {
+			reportFatalError("Invalid stored frame length: " + storedLength);
+		}
+
+		if (frame.length < length) {
+			frame = new byte[length];
+		}
+		if (frameType == STORED_FRAME) {
+			if (storedLength != length) {
+				reportFatalError("Invalid length of stored frame: " + storedLength);
+			}
+			in.readFully(frame, 0, length);
+		} else if (frameType == DEFLATED_FRAME) {
+			if (storedFrame.length < storedLength) {
+				storedFrame = new byte[storedLength];
+			}
+			in.readFully(storedFrame, 0, storedLength);
+			inflate(storedLength, length);
+		} else {
+			reportFatalError("Invalid frame type: " + frameType);
+		}
+
+		checksum.reset();
+		checksum.update(frame, 0, length);
+		if ((int) checksum.getValue() != expectedChecksum) {
+			reportFatalError("Checksum mismatch in frame at offset " + resumeOffset);
+		}
+		framePosition = 0;
+		frameLimit = length;
+	}
+
+	private void inflate(int storedLength, int length) throws RDFParseException {
+		if (inflater == null) {
+			inflater = new Inflater();
+		}
+		inflater.reset();
+		inflater.setInput(storedFrame, 0, storedLength);
+		int inflated = 0;
+		try {
+			while (inflated < length && !inflater.finished()) {
+				int n = inflater.inflate(frame, inflated, length - inflated);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				inflated += n;
+			}
+		} catch (DataFormatException e) {
+			reportFatalError(e);
 		}
+		if (inflated != length) {
+			reportFatalError("Compressed frame at offset " + resumeOffset + " is truncated");
+		}
+	}
+
+	private void resetDictionary() {
+		Arrays.fill(dictionary, 0, dictionarySize, null);
+		dictionarySize = 0;
 	}
 
 	private void readNamespaceDecl() throws IOException, RDFHandlerException {
@@ -188,6 +409,9 @@ public class BinaryRDFParser extends AbstractRDFParser {
 	}
 
 	private Value readValue() throws RDFParseException, IOException {
+		if (formatVersion == FORMAT_VERSION_2) {
+			return readDictionaryValue();
+		}
 		byte valueType = in.readByte();
 		switch (valueType) {
 		case NULL_VALUE:
@@ -212,6 +436,54 @@ public class BinaryRDFParser extends AbstractRDFParser {
 		}
 	}
 
+	/**
+	 * Reads a value of a version 2 document, a reference to the dictionary or a value that may be added to it.
+	 */
+	private Value readDictionaryValue() throws RDFParseException, IOException {
+		int valueType = readFrameByte();
+		Value value;
+		switch (valueType & ~DICTIONARY_FLAG) {
+		case NULL_VALUE:
+			return null;
+		case VALUE_REF:
+			int id = readVarInt();
+			if (id >= dictionarySize) {
+				reportFatalError("Unknown value reference: " + id);
+			}
+			return dictionary[id];
+		case URI_VALUE:
+			value = readURI();
+			break;
+		case BNODE_VALUE:
+			value = readBNode();
+			break;
+		case LANG_LITERAL_VALUE:
+			value = readLangLiteral();
+			break;
+		case DATATYPE_LITERAL_VALUE:
+			String label = readString();
+			Value datatype = readDictionaryValue();
+			if (!(datatype instanceof IRI)) {
+				reportFatalError("Invalid datatype: " + datatype);
+			}
+			value = createLiteral(label, null, (IRI) datatype, -1, -1);
+			break;
+		case TRIPLE_VALUE:
+			return readTriple();
+		default:
+			reportFatalError("Unknown value type: " + valueType);
+			return null;
+		}
+
+		if ((valueType & DICTIONARY_FLAG) != 0) {
+			if (dictionarySize == dictionary.length) {
+				dictionary = Arrays.copyOf(dictionary, 2 * dictionarySize);
+			}
+			dictionary[dictionarySize++] = value;
+		}
+		return value;
+	}
+
 	private Value readValueRef() throws IOException, RDFParseException {
 		int id = in.readInt();
 		return declaredValues[id];
@@ -261,6 +533,15 @@ public class BinaryRDFParser extends AbstractRDFParser {
 	}
 
 	private String readString() throws IOException {
+		if (formatVersion == FORMAT_VERSION_2) {
+			int length = readVarInt();
+			if (length < 0 || length > frameLimit - framePosition) {
+				reportFatalError("String extends beyond the end of its frame");
+			}
+			String result = new String(frame, framePosition, length, StandardCharsets.UTF_8);
+			framePosition += length;
+			return result;
+		}
 		int stringLength = in.readInt();
 		int stringBytes = stringLength << 1;
 		if (buf == null || buf.length < stringBytes) {
@@ -270,4 +551,41 @@ public class BinaryRDFParser extends AbstractRDFParser {
 		in.readFully(buf, 0, stringBytes);
 		return new String(buf, 0, stringBytes, "UTF-16BE");
 	}
+
+	private int readFrameByte() throws RDFParseException {
+		if (framePosition == frameLimit) {
+			reportFatalError("Record extends beyond the end of its frame");
+		}
+		return frame[framePosition++] & 0xFF;
+	}
+
+	private int readVarInt() throws RDFParseException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = readFrameByte();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		reportFatalError("Invalid varint");
+		return -1;
+	}
+
+	private int readStreamVarInt() throws IOException, RDFParseException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			frameBytes++;
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (result < 0) {
+					break;
+				}
+				return result;
+			}
+		}
+		reportFatalError("Invalid frame length");
+		return -1;
+	}
 }
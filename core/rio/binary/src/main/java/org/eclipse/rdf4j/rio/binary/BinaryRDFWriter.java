@@ -10,27 +10,40 @@ package org.eclipse.rdf4j.rio.binary;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.BNODE_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.COMMENT;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DATATYPE_LITERAL_VALUE;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DEFLATED_FRAME;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DICTIONARY_FLAG;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.DICTIONARY_RESET;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.END_OF_DATA;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.FORMAT_VERSION_2;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.LANG_LITERAL_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.MAX_FRAME_LENGTH;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.NAMESPACE_DECL;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.NULL_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.STATEMENT;
+import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.STORED_FRAME;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.TRIPLE_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.URI_VALUE;
 import static org.eclipse.rdf4j.rio.binary.BinaryRDFConstants.VALUE_REF;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
@@ -42,13 +55,34 @@ import org.eclipse.rdf4j.model.util.Literals;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFWriter;
+import org.eclipse.rdf4j.rio.helpers.BinaryRDFWriterSettings;
 
 /**
+ * Writes RDF in the binary RDF format. The format version is chosen with
+ * {@link BinaryRDFWriterSettings#FORMAT_VERSION}.
+ * <p>
+ * In version 2, every value is written in full the first time it occurs and is added to a dictionary, later
+ * occurrences refer to it by its position in the dictionary. Literals with long labels are not added. Numbers are
+ * written as varints and strings in UTF-8. The records are grouped in frames of about
+ * {@link BinaryRDFWriterSettings#FRAME_SIZE} bytes, each compressed on its own and carrying a CRC-32 checksum, and the
+ * output is flushed after every frame.
+ *
  * @author Arjohn Kampman
  */
 public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 
+	/**
+	 * The maximum length of the label of a literal that is added to the dictionary of a version 2 document.
+	 */
+	private static final int MAX_DICTIONARY_LABEL_LENGTH = 256;
+
+	/**
+	 * The largest frame size that is used, whatever the value of {@link BinaryRDFWriterSettings#FRAME_SIZE}.
+	 */
+	private static final int MAX_FRAME_SIZE = 1 << 26;
+
 	private final BlockingQueue<Statement> statementQueue;
 
 	private final Map<Value, AtomicInteger> valueFreq;
@@ -61,6 +95,27 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 
 	private byte[] buf;
 
+	private int formatVersion;
+
+	/**
+	 * The stream that records are written to: {@link #out} in version 1, the current {@link #frame} in version 2.
+	 */
+	private DataOutputStream records;
+
+	private FrameBuffer frame;
+
+	private int frameSize;
+
+	private Map<Value, Integer> dictionary;
+
+	private long maxDictionarySize;
+
+	private Deflater deflater;
+
+	private byte[] deflated;
+
+	private final CRC32 checksum = new CRC32();
+
 	public BinaryRDFWriter(OutputStream out) {
 		this(out, 100);
 	}
@@ -78,12 +133,40 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 		return RDFFormat.BINARY;
 	}
 
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		Set<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
+
+		result.add(BinaryRDFWriterSettings.FORMAT_VERSION);
+		result.add(BinaryRDFWriterSettings.COMPRESS);
+		result.add(BinaryRDFWriterSettings.FRAME_SIZE);
+		result.add(BinaryRDFWriterSettings.DICTIONARY_SIZE);
+
+		return result;
+	}
+
 	@Override
 	public void startRDF() throws RDFHandlerException {
 		super.startRDF();
+		formatVersion = getWriterConfig().get(BinaryRDFWriterSettings.FORMAT_VERSION).intValue();
+		if (formatVersion == FORMAT_VERSION_2) {
+			frameSize = (int) Math.min(getWriterConfig().get(BinaryRDFWriterSettings.FRAME_SIZE), MAX_FRAME_SIZE);
+			frame = new FrameBuffer(Math.max(frameSize, 64) + 1024);
+			records = new DataOutputStream(frame);
+			dictionary = new HashMap<>();
+			maxDictionarySize = getWriterConfig().get(BinaryRDFWriterSettings.DICTIONARY_SIZE);
+			if (getWriterConfig().get(BinaryRDFWriterSettings.COMPRESS)) {
+				deflater = new Deflater();
+				deflated = new byte[frame.capacity()];
+			}
+		} else if (formatVersion == FORMAT_VERSION) {
+			records = out;
+		} else {
+			throw new RDFHandlerException("Unsupported format version: " + formatVersion);
+		}
 		try {
 			out.write(MAGIC_NUMBER);
-			out.writeInt(FORMAT_VERSION);
+			out.writeInt(formatVersion);
 		} catch (IOException e) {
 			throw new RDFHandlerException(e);
 		}
@@ -96,7 +179,13 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 			while (!statementQueue.isEmpty()) {
 				writeStatement();
 			}
-			out.writeByte(END_OF_DATA);
+			records.writeByte(END_OF_DATA);
+			if (formatVersion == FORMAT_VERSION_2) {
+				writeFrame();
+				if (deflater != null) {
+					deflater.end();
+				}
+			}
 			out.flush();
 		} catch (IOException e) {
 			throw new RDFHandlerException(e);
@@ -107,9 +196,10 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 	public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
 		checkWritingStarted();
 		try {
-			out.writeByte(NAMESPACE_DECL);
+			records.writeByte(NAMESPACE_DECL);
 			writeString(prefix);
 			writeString(uri);
+			endRecord();
 		} catch (IOException e) {
 			throw new RDFHandlerException(e);
 		}
@@ -119,8 +209,9 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 	public void handleComment(String comment) throws RDFHandlerException {
 		checkWritingStarted();
 		try {
-			out.writeByte(COMMENT);
+			records.writeByte(COMMENT);
 			writeString(comment);
+			endRecord();
 		} catch (IOException e) {
 			throw new RDFHandlerException(e);
 		}
@@ -128,6 +219,15 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 
 	@Override
 	protected void consumeStatement(Statement st) {
+		if (formatVersion == FORMAT_VERSION_2) {
+			try {
+				writeFramedStatement(st);
+			} catch (IOException e) {
+				throw new RDFHandlerException(e);
+			}
+			return;
+		}
+
 		statementQueue.add(st);
 		incValueFreq(st.getSubject());
 		incValueFreq(st.getPredicate());
@@ -167,6 +267,135 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 		writeValueOrId(st.getContext(), contextId);
 	}
 
+	/** Writes a statement to the current frame, with its values written through the dictionary */
+	private void writeFramedStatement(Statement st) throws IOException {
+		if (dictionary.size() >= maxDictionarySize) {
+			records.writeByte(DICTIONARY_RESET);
+			dictionary.clear();
+		}
+		records.writeByte(STATEMENT);
+		writeDictionaryValue(st.getSubject());
+		writeDictionaryValue(st.getPredicate());
+		writeDictionaryValue(st.getObject());
+		writeDictionaryValue(st.getContext());
+		endRecord();
+	}
+
+	/**
+	 * Writes a reference to a value in the dictionary or, if the value is not in it, the value itself. Values are added
+	 * to the dictionary after any values nested in them, in the order in which the parser reads them.
+	 */
+	private void writeDictionaryValue(Value value) throws IOException {
+		if (value == null) {
+			records.writeByte(NULL_VALUE);
+			return;
+		}
+		Integer id = dictionary.get(value);
+		if (id != null) {
+			records.writeByte(VALUE_REF);
+			writeVarInt(records, id);
+			return;
+		}
+
+		boolean add = !(value instanceof Literal)
+				|| ((Literal) value).getLabel().length() <= MAX_DICTIONARY_LABEL_LENGTH;
+		int flag = add ? DICTIONARY_FLAG : 0;
+		if (value instanceof IRI) {
+			records.writeByte(URI_VALUE | flag);
+			writeString(value.stringValue());
+		} else if (value instanceof BNode) {
+			records.writeByte(BNODE_VALUE | flag);
+			writeString(((BNode) value).getID());
+		} else if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			if (Literals.isLanguageLiteral(literal)) {
+				records.writeByte(LANG_LITERAL_VALUE | flag);
+				writeString(literal.getLabel());
+				writeString(literal.getLanguage().get());
+			} else {
+				records.writeByte(DATATYPE_LITERAL_VALUE | flag);
+				writeString(literal.getLabel());
+				writeDictionaryValue(literal.getDatatype());
+			}
+		} else if (value instanceof Triple) {
+			// triples are not added, but their values are
+			Triple triple = (Triple) value;
+			records.writeByte(TRIPLE_VALUE);
+			writeDictionaryValue(triple.getSubject());
+			writeDictionaryValue(triple.getPredicate());
+			writeDictionaryValue(triple.getObject());
+			return;
+		} else {
+			throw new RDFHandlerException("Unknown Value object type: " + value.getClass());
+		}
+		if (add) {
+			dictionary.put(value, dictionary.size());
+		}
+	}
+
+	/**
+	 * Writes the current frame once it has reached the frame size. Records are never split across frames.
+	 */
+	private void endRecord() throws IOException {
+		if (formatVersion == FORMAT_VERSION_2 && frame.size() >= frameSize) {
+			writeFrame();
+		}
+	}
+
+	/**
+	 * Writes the records of the current frame as a frame: the frame type, the length of the records, the length of the
+	 * stored bytes, the CRC-32 checksum of the records and the stored bytes. The records are stored as they are if
+	 * compression is disabled or does not make them smaller.
+	 */
+	private void writeFrame() throws IOException {
+		int length = frame.size();
+		if (length == 0) {
+			return;
+		} else if (length > MAX_FRAME_LENGTH) {
+			throw new RDFHandlerException("Record too large for a binary RDF frame: " + length + " bytes");
+		}
+		byte[] data = frame.buffer();
+		checksum.reset();
+		checksum.update(data, 0, length);
+
+		int frameType = STORED_FRAME;
+		byte[] stored = data;
+		int storedLength = length;
+		if (deflater != null) {
+			if (deflated.length < length) {
+				deflated = new byte[length];
+			}
+			deflater.reset();
+			deflater.setInput(data, 0, length);
+			deflater.finish();
+			int compressedLength = 0;
+			while (!deflater.finished() && compressedLength < length) {
+				compressedLength += deflater.deflate(deflated, compressedLength, length - compressedLength);
+			}
+			if (deflater.finished() && compressedLength < length) {
+				frameType = DEFLATED_FRAME;
+				stored = deflated;
+				storedLength = compressedLength;
+			}
+		}
+
+		out.writeByte(frameType);
+		writeVarInt(out, length);
+		writeVarInt(out, storedLength);
+		out.writeInt((int) checksum.getValue());
+		out.write(stored, 0, storedLength);
+		out.flush();
+		frame.reset();
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
 	private void incValueFreq(Value v) {
 		if (v != null) {
 			AtomicInteger freq = valueFreq.get(v);
@@ -284,6 +513,12 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 	}
 
 	private void writeString(String s) throws IOException {
+		if (formatVersion == FORMAT_VERSION_2) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(records, bytes.length);
+			records.write(bytes);
+			return;
+		}
 		int strLen = s.length();
 		out.writeInt(strLen);
 		int stringBytes = strLen << 1;
@@ -298,4 +533,22 @@ public class BinaryRDFWriter extends AbstractRDFWriter implements RDFWriter {
 		}
 		out.write(buf, 0, stringBytes);
 	}
+
+	/**
+	 * A byte array output stream that gives access to its buffer, so that frames can be compressed without copying.
+	 */
+	private static class FrameBuffer extends ByteArrayOutputStream {
+
+		FrameBuffer(int size) {
+			super(size);
+		}
+
+		byte[] buffer() {
+			return buf;
+		}
+
+		int capacity() {
+			return buf.length;
+		}
+	}
 }
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.BinaryRDFWriterSettings;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for version 2 of the binary RDF format: dictionary, compression and resuming at frame boundaries.
+ */
+public class BinaryRDFParserVersion2Test {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private List<Statement> statements;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(42);
+		IRI label = vf.createIRI("http://example.org/label");
+		IRI related = vf.createIRI("http://example.org/related");
+		IRI graph = vf.createIRI("http://example.org/graph");
+		statements = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Resource subj = random.nextInt(10) == 0 ? vf.createBNode("node" + random.nextInt(100))
+					: vf.createIRI("http://example.org/resource/" + random.nextInt(500));
+			Resource ctx = i % 7 == 0 ? graph : null;
+			switch (i % 4) {
+			case 0:
+				statements.add(vf.createStatement(subj, RDF.TYPE,
+						vf.createIRI("http://example.org/class/" + random.nextInt(20)), ctx));
+				break;
+			case 1:
+				statements.add(vf.createStatement(subj, label, vf.createLiteral("label " + i, "en"), ctx));
+				break;
+			case 2:
+				Value obj = i % 100 == 2 ? vf.createLiteral(longLabel(i))
+						: vf.createLiteral(String.valueOf(random.nextInt(50)), XMLSchema.INT);
+				statements.add(vf.createStatement(subj, RDF.VALUE, obj, ctx));
+				break;
+			default:
+				statements.add(vf.createStatement(subj, related,
+						vf.createTriple(subj, label, vf.createLiteral("é " + random.nextInt(10))), ctx));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		for (boolean compress : new boolean[] { false, true }) {
+			byte[] document = write(2, compress, 65536, 262144);
+			assertEquals(statements, parse(new BinaryRDFParser(), document));
+		}
+	}
+
+	@Test
+	public void testDictionaryReset() throws Exception {
+		byte[] document = write(2, true, 1024, 16);
+		assertEquals(statements, parse(new BinaryRDFParser(), document));
+	}
+
+	@Test
+	public void testSmallerThanVersion1() throws Exception {
+		byte[] version1 = write(1, false, 0, 0);
+		byte[] uncompressed = write(2, false, 65536, 262144);
+		byte[] compressed = write(2, true, 65536, 262144);
+		assertEquals(statements, parse(new BinaryRDFParser(), version1));
+		assertTrue(uncompressed.length < version1.length);
+		assertTrue(compressed.length < uncompressed.length);
+	}
+
+	@Test
+	public void testResumeAfterTruncation() throws Exception {
+		byte[] document = write(2, true, 1024, 256);
+		Random random = new Random(1);
+		for (int i = 0; i < 20; i++) {
+			int cut = random.nextInt(document.length);
+			BinaryRDFParser parser = new BinaryRDFParser();
+			List<Statement> result = new ArrayList<>();
+			parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+			parser.setRDFHandler(new StatementCollector(result));
+			try {
+				parser.parse(new ByteArrayInputStream(document, 0, cut), "");
+				fail("Truncated document was parsed");
+			} catch (EOFException e) {
+				// expected
+			}
+			long offset = parser.getResumeOffset();
+			assertTrue(offset > 0 && offset <= cut);
+			assertEquals(statements.subList(0, result.size()), result);
+
+			parser.resume(new ByteArrayInputStream(document, (int) offset, document.length - (int) offset));
+			assertEquals(statements, result);
+			assertEquals(-1, parser.getResumeOffset());
+		}
+	}
+
+	@Test
+	public void testResumeAfterCorruptFrame() throws Exception {
+		byte[] document = write(2, false, 1024, 256);
+		// corrupt a long literal in the second half of the uncompressed document, so that a checksum fails
+		byte[] corrupt = Arrays.copyOf(document, document.length);
+		String text = new String(document, StandardCharsets.ISO_8859_1);
+		int position = text.indexOf("A long literal", document.length / 2);
+		assertTrue(position > 0);
+		corrupt[position] = 'a';
+
+		BinaryRDFParser parser = new BinaryRDFParser();
+		List<Statement> result = new ArrayList<>();
+		parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+		parser.setRDFHandler(new StatementCollector(result));
+		try {
+			parser.parse(new ByteArrayInputStream(corrupt), "");
+			fail("Corrupt document was parsed");
+		} catch (RDFParseException e) {
+			// expected
+		}
+		long offset = parser.getResumeOffset();
+		assertTrue(offset > 0 && offset <= position);
+
+		parser.resume(new ByteArrayInputStream(document, (int) offset, document.length - (int) offset));
+		assertEquals(statements, result);
+	}
+
+	@Test
+	public void testCorruptFrameLength() throws Exception {
+		byte[] document = write(2, true, 65536, 262144);
+		byte[] small = { 0x10 };
+		byte[] tooLarge = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+		byte[] negative = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F };
+		byte[][][] lengths = { { tooLarge, tooLarge }, { negative, small }, { small, tooLarge } };
+
+		for (byte[][] length : lengths) {
+			// the magic number, the format version and the type of the first frame, followed by corrupt lengths
+			ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+			corrupt.write(document, 0, 9);
+			corrupt.write(length[0]);
+			corrupt.write(length[1]);
+			corrupt.write(document, 9, document.length - 9);
+			try {
+				parse(new BinaryRDFParser(), corrupt.toByteArray());
+				fail("Frame with corrupt length was parsed");
+			} catch (RDFParseException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testResumeWithoutInterruption() throws Exception {
+		BinaryRDFParser parser = new BinaryRDFParser();
+		parse(parser, write(2, true, 65536, 262144));
+		parser.resume(new ByteArrayInputStream(new byte[0]));
+	}
+
+	private byte[] write(long version, boolean compress, long frameSize, long dictionarySize) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RDFWriter writer = new BinaryRDFWriter(out);
+		writer.set(BinaryRDFWriterSettings.FORMAT_VERSION, version);
+		writer.set(BinaryRDFWriterSettings.COMPRESS, compress);
+		writer.set(BinaryRDFWriterSettings.FRAME_SIZE, frameSize);
+		writer.set(BinaryRDFWriterSettings.DICTIONARY_SIZE, dictionarySize);
+		writer.startRDF();
+		writer.handleNamespace("ex", "http://example.org/");
+		for (Statement st : statements) {
+			writer.handleStatement(st);
+		}
+		writer.endRDF();
+		return out.toByteArray();
+	}
+
+	private List<Statement> parse(BinaryRDFParser parser, byte[] document) throws IOException {
+		List<Statement> result = new ArrayList<>();
+		parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+		parser.setRDFHandler(new StatementCollector(result));
+		try (InputStream in = new ByteArrayInputStream(document)) {
+			parser.parse(in, "");
+		}
+		return result;
+	}
+
+	private static String longLabel(int i) {
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < 300) {
+			sb.append("A long literal that is not added to the dictionary ").append(i).append(". ");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.binary;
+
+import org.eclipse.rdf4j.rio.RDFWriterTest;
+import org.eclipse.rdf4j.rio.WriterConfig;
+import org.eclipse.rdf4j.rio.helpers.BinaryRDFWriterSettings;
+
+/**
+ * Runs the writer tests on version 2 documents, with frames and a dictionary small enough to be written and cleared
+ * several times per document.
+ */
+public class BinaryRDFWriterVersion2Test extends RDFWriterTest {
+
+	public BinaryRDFWriterVersion2Test() {
+		super(new BinaryRDFWriterFactory(), new BinaryRDFParserFactory());
+	}
+
+	@Override
+	protected void setupWriterConfig(WriterConfig config) {
+		super.setupWriterConfig(config);
+		config.set(BinaryRDFWriterSettings.FORMAT_VERSION, 2L);
+		config.set(BinaryRDFWriterSettings.FRAME_SIZE, 512L);
+		config.set(BinaryRDFWriterSettings.DICTIONARY_SIZE, 32L);
+	}
+}
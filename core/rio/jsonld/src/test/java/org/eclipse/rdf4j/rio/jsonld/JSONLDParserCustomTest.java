@@ -143,8 +143,8 @@ public class JSONLDParserCustomTest {
 
 	@Test
 	public void testSupportedSettings() throws Exception {
-		// 12 supported in JSONLDParser + 12 from AbstractRDFParser
-		assertEquals(24, parser.getSupportedSettings().size());
+		// 12 supported in JSONLDParser + 13 from AbstractRDFParser
+		assertEquals(25, parser.getSupportedSettings().size());
 	}
 
 	@Test
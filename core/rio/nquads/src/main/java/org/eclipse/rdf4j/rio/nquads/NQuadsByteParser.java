@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.nquads;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.helpers.NTriplesParserSettings;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesByteParser;
+
+/**
+ * RDF parser for the {@link RDFFormat#NQUADS N-Quads} RDF format that scans the UTF-8 encoded bytes of the input
+ * directly, extending the {@link NTriplesByteParser}. It accepts the same documents as the {@link NQuadsParser}. This
+ * parser is not thread-safe, therefore its public methods are synchronized.
+ *
+ * @see NQuadsByteParserFactory
+ */
+public class NQuadsByteParser extends NTriplesByteParser {
+
+	protected Resource context;
+
+	public NQuadsByteParser() {
+		super();
+	}
+
+	public NQuadsByteParser(ValueFactory valueFactory) {
+		super(valueFactory);
+	}
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NQUADS;
+	}
+
+	@Override
+	protected void parseStatement() throws RDFParseException, RDFHandlerException {
+		boolean ignoredAnError = false;
+		try {
+			parseSubject();
+			skipWhitespace();
+			parsePredicate();
+			skipWhitespace();
+			parseObject();
+			skipWhitespace();
+
+			// Context is not required
+			if (peek() != '.') {
+				parseContext();
+				skipWhitespace();
+			}
+			int c = peek();
+			if (c == -1) {
+				throwEOFException();
+			} else if (c != '.') {
+				reportFatalError("Expected '.', found: " + currentCharacter());
+			}
+
+			assertLineTerminates();
+		} catch (RDFParseException rdfpe) {
+			if (getParserConfig().isNonFatalError(NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES)) {
+				reportError(rdfpe, NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+				ignoredAnError = true;
+			} else {
+				throw rdfpe;
+			}
+		}
+
+		if (!ignoredAnError) {
+			handleStatement(createStatement(subject, predicate, object, context));
+		}
+
+		subject = null;
+		predicate = null;
+		object = null;
+		context = null;
+	}
+
+	protected void parseContext() throws RDFParseException {
+		int c = peek();
+		// context is either an uriref (<foo://bar>) or a nodeID (_:node1)
+		if (c == '<') {
+			context = createURI(parseUriRef());
+		} else if (c == '_') {
+			context = createNode(parseNodeID());
+		} else if (c == -1) {
+			throwEOFException();
+		} else {
+			reportFatalError("Expected '<' or '_', found: " + currentCharacter());
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.nquads;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserFactory;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+
+/**
+ * An {@link RDFParserFactory} for {@link NQuadsByteParser}s. Like the
+ * {@link org.eclipse.rdf4j.rio.ntriples.NTriplesByteParserFactory}, it is not registered as a service and has to be
+ * added to the {@link RDFParserRegistry} explicitly to replace the default N-Quads parser.
+ */
+public class NQuadsByteParserFactory implements RDFParserFactory {
+
+	/**
+	 * Returns {@link RDFFormat#NQUADS}.
+	 */
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NQUADS;
+	}
+
+	/**
+	 * Returns a new instance of NQuadsByteParser.
+	 */
+	@Override
+	public RDFParser getParser() {
+		return new NQuadsByteParser();
+	}
+}
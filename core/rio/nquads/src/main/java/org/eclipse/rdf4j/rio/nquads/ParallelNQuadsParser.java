@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.nquads;
+
+import java.util.concurrent.Executor;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesByteParser;
+import org.eclipse.rdf4j.rio.ntriples.ParallelNTriplesParser;
+
+/**
+ * RDF parser for N-Quads files that parses chunks of the input concurrently with {@link NQuadsByteParser}s.
+ *
+ * @see ParallelNTriplesParser
+ */
+public class ParallelNQuadsParser extends ParallelNTriplesParser {
+
+	public ParallelNQuadsParser() {
+		this(SimpleValueFactory.getInstance());
+	}
+
+	public ParallelNQuadsParser(ValueFactory valueFactory) {
+		super(valueFactory);
+	}
+
+	public ParallelNQuadsParser(ValueFactory valueFactory, Executor executor, int parallelism) {
+		super(valueFactory, executor, parallelism);
+	}
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NQUADS;
+	}
+
+	@Override
+	protected NTriplesByteParser createChunkParser() {
+		return new NQuadsByteParser();
+	}
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.nquads;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserFactory;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+
+/**
+ * An {@link RDFParserFactory} for {@link ParallelNQuadsParser}s. It is not registered as a service; add it to the
+ * {@link RDFParserRegistry} to replace the default N-Quads parser.
+ */
+public class ParallelNQuadsParserFactory implements RDFParserFactory {
+
+	/**
+	 * Returns {@link RDFFormat#NQUADS}.
+	 */
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NQUADS;
+	}
+
+	/**
+	 * Returns a new instance of ParallelNQuadsParser.
+	 */
+	@Override
+	public RDFParser getParser() {
+		return new ParallelNQuadsParser();
+	}
+}
@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.nquads;
+
+import org.eclipse.rdf4j.rio.RDFParser;
+
+/**
+ * JUnit test for the byte-level N-Quads parser.
+ */
+public class NQuadsByteParserUnitTest extends AbstractNQuadsParserUnitTest {
+
+	@Override
+	protected RDFParser createRDFParser() {
+		return new NQuadsByteParser();
+	}
+}
@@ -0,0 +1,901 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.function.Function;
+
+import org.apache.commons.io.input.ReaderInputStream;
+import org.eclipse.rdf4j.common.text.ASCIIUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFParser;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.NTriplesParserSettings;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+
+/**
+ * RDF parser for N-Triples files that scans the UTF-8 encoded bytes of the input directly, rather than decoding the
+ * input to characters first. Besides the {@link InputStream} and {@link Reader} methods of the RDFParser interface, it
+ * can parse {@link ByteBuffer}s, such as large direct buffers, and memory-map {@link File}s. Only the bytes of IRIs,
+ * blank node identifiers, literals and language tags are decoded, and escape sequences are only processed in tokens
+ * that contain a backslash.
+ * <p>
+ * The parser accepts the same documents, supports the same settings and reports the same errors as the
+ * {@link NTriplesParser}, except that it reads the input line by line, so a missing token is reported as an unexpected
+ * end of line. It is not registered as the default N-Triples parser; use the {@link NTriplesByteParserFactory} to
+ * register it. This parser is not thread-safe, therefore its public methods are synchronized.
+ */
+public class NTriplesByteParser extends AbstractRDFParser {
+
+	/**
+	 * The default size in bytes of the buffer that input streams are read into, and of the regions of files that are
+	 * memory-mapped at a time.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	private static final int UTF8_BOM_LENGTH = 3;
+
+	protected long lineNo;
+	protected Resource subject;
+	protected IRI predicate;
+	protected Value object;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	/**
+	 * The buffer that is being parsed.
+	 */
+	private ByteBuffer buf;
+
+	/**
+	 * A view of {@link #buf} used to copy tokens out of buffers that are not backed by an array.
+	 */
+	private ByteBuffer view;
+
+	/**
+	 * The position of the next byte to parse.
+	 */
+	private int pos;
+
+	/**
+	 * The position of the end of the line that is being parsed, excluding the line terminator.
+	 */
+	private int lineEnd;
+
+	/**
+	 * A reusable buffer for the bytes of a single token.
+	 */
+	private byte[] token = new byte[256];
+
+	/**
+	 * Creates the nodes for blank node identifiers while a chunk is parsed, or <tt>null</tt>.
+	 */
+	private Function<String, Resource> blankNodeScope;
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	/**
+	 * Creates a new NTriplesByteParser that will use a {@link SimpleValueFactory} to create object for resources,
+	 * bNodes and literals.
+	 */
+	public NTriplesByteParser() {
+		super();
+	}
+
+	/**
+	 * Creates a new NTriplesByteParser that will use the supplied <tt>ValueFactory</tt> to create RDF model objects.
+	 *
+	 * @param valueFactory A ValueFactory.
+	 */
+	public NTriplesByteParser(ValueFactory valueFactory) {
+		super(valueFactory);
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NTRIPLES;
+	}
+
+	/**
+	 * Sets the size in bytes of the buffer that input streams are read into, and of the regions of files that are
+	 * memory-mapped at a time. The buffer grows as needed to hold lines that are longer than this size.
+	 *
+	 * @param bufferSize the buffer size in bytes, defaults to {@link #DEFAULT_BUFFER_SIZE}
+	 */
+	public void setBufferSize(int bufferSize) {
+		if (bufferSize < UTF8_BOM_LENGTH) {
+			throw new IllegalArgumentException("buffer size must be at least " + UTF8_BOM_LENGTH + " bytes");
+		}
+		this.bufferSize = bufferSize;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Implementation of the <tt>parse(InputStream, String)</tt> method defined in the RDFParser interface. The stream
+	 * is read into a reusable buffer, from which complete lines are parsed.
+	 *
+	 * @param in      The InputStream from which to read the data, must not be <tt>null</tt>. The InputStream is
+	 *                supposed to contain UTF-8 encoded characters, as per the N-Triples specification.
+	 * @param baseURI The URI associated with the data in the InputStream, must not be <tt>null</tt>.
+	 * @throws IOException              If an I/O error occurred while data was read from the InputStream.
+	 * @throws RDFParseException        If the parser has found an unrecoverable parse error.
+	 * @throws RDFHandlerException      If the configured statement handler encountered an unrecoverable error.
+	 * @throws IllegalArgumentException If the supplied input stream or base URI is <tt>null</tt>.
+	 */
+	@Override
+	public synchronized void parse(InputStream in, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream can not be 'null'");
+		}
+		if (baseURI == null) {
+			throw new IllegalArgumentException("base URI can not be 'null'");
+		}
+
+		clear();
+		try {
+			startRDF();
+
+			byte[] bytes = new byte[bufferSize];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			int limit = 0;
+			int start = -1;
+			boolean endOfInput = false;
+			while (!endOfInput) {
+				int n = in.read(bytes, limit, bytes.length - limit);
+				if (n == -1) {
+					endOfInput = true;
+				} else {
+					limit += n;
+				}
+				if (start == -1) {
+					if (limit < UTF8_BOM_LENGTH && !endOfInput) {
+						continue;
+					}
+					start = skipBOM(buffer, 0, limit);
+				}
+
+				int consumed = parseLines(buffer, start, limit, endOfInput);
+				if (consumed > 0) {
+					System.arraycopy(bytes, consumed, bytes, 0, limit - consumed);
+					limit -= consumed;
+				} else if (limit == bytes.length) {
+					// the buffer holds an incomplete line
+					bytes = Arrays.copyOf(bytes, bytes.length * 2);
+					buffer = ByteBuffer.wrap(bytes);
+				}
+				start = 0;
+			}
+		} finally {
+			clear();
+		}
+
+		endRDF();
+	}
+
+	/**
+	 * Implementation of the <tt>parse(Reader, String)</tt> method defined in the RDFParser interface. The characters
+	 * of the reader are encoded to UTF-8 and parsed with {@link #parse(InputStream, String)}.
+	 *
+	 * @param reader  The Reader from which to read the data, must not be <tt>null</tt>.
+	 * @param baseURI The URI associated with the data in the Reader, must not be <tt>null</tt>.
+	 * @throws IOException              If an I/O error occurred while data was read from the InputStream.
+	 * @throws RDFParseException        If the parser has found an unrecoverable parse error.
+	 * @throws RDFHandlerException      If the configured statement handler encountered an unrecoverable error.
+	 * @throws IllegalArgumentException If the supplied reader or base URI is <tt>null</tt>.
+	 */
+	@Override
+	public synchronized void parse(Reader reader, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (reader == null) {
+			throw new IllegalArgumentException("Reader can not be 'null'");
+		}
+		parse(new ReaderInputStream(reader, StandardCharsets.UTF_8), baseURI);
+	}
+
+	/**
+	 * Parses the remaining UTF-8 encoded bytes of the supplied buffer. The position of the buffer is not modified.
+	 *
+	 * @param buffer  The buffer containing the data, must not be <tt>null</tt>.
+	 * @param baseURI The URI associated with the data in the buffer, must not be <tt>null</tt>.
+	 * @throws RDFParseException        If the parser has found an unrecoverable parse error.
+	 * @throws RDFHandlerException      If the configured statement handler encountered an unrecoverable error.
+	 * @throws IllegalArgumentException If the supplied buffer or base URI is <tt>null</tt>.
+	 */
+	public synchronized void parse(ByteBuffer buffer, String baseURI) throws RDFParseException, RDFHandlerException {
+		if (buffer == null) {
+			throw new IllegalArgumentException("Buffer can not be 'null'");
+		}
+		if (baseURI == null) {
+			throw new IllegalArgumentException("base URI can not be 'null'");
+		}
+
+		clear();
+		try {
+			startRDF();
+			ByteBuffer slice = buffer.slice();
+			parseLines(slice, skipBOM(slice, 0, slice.limit()), slice.limit(), true);
+		} finally {
+			clear();
+		}
+
+		endRDF();
+	}
+
+	/**
+	 * Parses the supplied file by memory-mapping consecutive regions of it. Each region starts at the beginning of a
+	 * line and is {@link #getBufferSize() buffer size} bytes long, or longer if a single line does not fit.
+	 *
+	 * @param file    The file containing UTF-8 encoded N-Triples data, must not be <tt>null</tt>.
+	 * @param baseURI The URI associated with the data in the file, must not be <tt>null</tt>.
+	 * @throws IOException              If an I/O error occurred while the file was read.
+	 * @throws RDFParseException        If the parser has found an unrecoverable parse error.
+	 * @throws RDFHandlerException      If the configured statement handler encountered an unrecoverable error.
+	 * @throws IllegalArgumentException If the supplied file or base URI is <tt>null</tt>.
+	 */
+	public synchronized void parse(File file, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (file == null) {
+			throw new IllegalArgumentException("File can not be 'null'");
+		}
+		parse(file.toPath(), baseURI);
+	}
+
+	/**
+	 * Parses the supplied file by memory-mapping consecutive regions of it.
+	 *
+	 * @see #parse(File, String)
+	 */
+	public synchronized void parse(Path file, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (file == null) {
+			throw new IllegalArgumentException("File can not be 'null'");
+		}
+		if (baseURI == null) {
+			throw new IllegalArgumentException("base URI can not be 'null'");
+		}
+
+		clear();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			startRDF();
+
+			long size = channel.size();
+			long offset = 0;
+			int regionSize = bufferSize;
+			while (offset < size) {
+				int length = (int) Math.min(regionSize, size - offset);
+				boolean endOfInput = offset + length == size;
+				MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+				int start = offset == 0 ? skipBOM(region, 0, length) : 0;
+
+				int consumed = parseLines(region, start, length, endOfInput);
+				if (consumed > 0) {
+					offset += consumed;
+					regionSize = bufferSize;
+				} else if (regionSize <= Integer.MAX_VALUE / 2) {
+					// the region holds an incomplete line
+					regionSize *= 2;
+				} else {
+					reportFatalError("Line is too long to be memory-mapped");
+				}
+			}
+		} finally {
+			clear();
+		}
+
+		endRDF();
+	}
+
+	/**
+	 * Parses the remaining UTF-8 encoded bytes of the supplied buffer as a chunk of a larger document. The chunk must
+	 * start at the beginning of a line and end at the end of a line. The RDF handler receives the statements of the
+	 * chunk, but is not notified of the start and end of the document.
+	 *
+	 * @param chunk          The buffer containing the chunk, must not be <tt>null</tt>. Its position is not modified.
+	 * @param firstLineNo    The line number of the first line of the chunk within the document.
+	 * @param blankNodeScope Creates the node for a blank node identifier, so that equal identifiers in different
+	 *                       chunks of the same document yield the same node. May be called from several threads if
+	 *                       chunks are parsed concurrently.
+	 * @throws RDFParseException   If the parser has found an unrecoverable parse error.
+	 * @throws RDFHandlerException If the configured statement handler encountered an unrecoverable error.
+	 */
+	public synchronized void parseChunk(ByteBuffer chunk, long firstLineNo, Function<String, Resource> blankNodeScope)
+			throws RDFParseException, RDFHandlerException {
+		clear();
+		this.blankNodeScope = blankNodeScope;
+		try {
+			lineNo = firstLineNo;
+			ByteBuffer slice = chunk.slice();
+			parseLines(slice, 0, slice.limit(), true);
+		} finally {
+			this.blankNodeScope = null;
+			clear();
+		}
+	}
+
+	private void startRDF() throws RDFHandlerException {
+		if (rdfHandler != null) {
+			rdfHandler.startRDF();
+		}
+		lineNo = 1;
+		reportLocation(lineNo, 1);
+	}
+
+	private void endRDF() throws RDFHandlerException {
+		if (rdfHandler != null) {
+			rdfHandler.endRDF();
+		}
+	}
+
+	private static int skipBOM(ByteBuffer buffer, int start, int end) {
+		if (end - start >= UTF8_BOM_LENGTH && buffer.get(start) == (byte) 0xEF && buffer.get(start + 1) == (byte) 0xBB
+				&& buffer.get(start + 2) == (byte) 0xBF) {
+			return start + UTF8_BOM_LENGTH;
+		}
+		return start;
+	}
+
+	/**
+	 * Parses the complete lines between the supplied positions of the buffer.
+	 *
+	 * @param buffer     the buffer to parse
+	 * @param start      the position of the first byte of the first line
+	 * @param end        the position after the last available byte
+	 * @param endOfInput whether the input ends at <tt>end</tt>, so that the last line is complete without a line
+	 *                   terminator
+	 * @return the position of the first byte that was not parsed, which is the start of an incomplete line or
+	 *         <tt>end</tt>
+	 */
+	private int parseLines(ByteBuffer buffer, int start, int end, boolean endOfInput)
+			throws RDFParseException, RDFHandlerException {
+		if (buf != buffer) {
+			buf = buffer;
+			view = buffer.hasArray() ? null : buffer.duplicate();
+		}
+
+		int lineStart = start;
+		while (lineStart < end) {
+			int eol = lineStart;
+			byte b = 0;
+			while (eol < end) {
+				b = buffer.get(eol);
+				if (b == '\n' || b == '\r') {
+					break;
+				}
+				eol++;
+			}
+
+			int next;
+			if (eol == end) {
+				if (!endOfInput) {
+					return lineStart;
+				}
+				next = end;
+			} else if (b == '\r') {
+				if (eol + 1 == end && !endOfInput) {
+					// the \r may be followed by a \n that has not been read yet
+					return lineStart;
+				}
+				next = eol + 1 < end && buffer.get(eol + 1) == '\n' ? eol + 2 : eol + 1;
+			} else {
+				next = eol + 1;
+			}
+
+			parseLine(lineStart, eol);
+
+			if (eol < end) {
+				lineNo++;
+				reportLocation(lineNo, 1);
+			}
+			lineStart = next;
+		}
+		return lineStart;
+	}
+
+	private void parseLine(int start, int end) throws RDFParseException, RDFHandlerException {
+		pos = start;
+		lineEnd = end;
+
+		skipWhitespace();
+		int c = peek();
+		if (c != -1 && c != '#') {
+			parseStatement();
+		}
+	}
+
+	/**
+	 * Parses a statement from the current line and reports it to the RDF handler.
+	 */
+	protected void parseStatement() throws RDFParseException, RDFHandlerException {
+		boolean ignoredAnError = false;
+		try {
+			parseSubject();
+			skipWhitespace();
+			parsePredicate();
+			skipWhitespace();
+			parseObject();
+			skipWhitespace();
+
+			int c = peek();
+			if (c == -1) {
+				throwEOFException();
+			} else if (c != '.') {
+				reportError("Expected '.', found: " + currentCharacter(),
+						NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			}
+
+			assertLineTerminates();
+		} catch (RDFParseException rdfpe) {
+			if (!getParserConfig().get(NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES)
+					|| getParserConfig().isNonFatalError(NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES)) {
+				reportError(rdfpe, NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+				ignoredAnError = true;
+			} else {
+				throw rdfpe;
+			}
+		}
+
+		if (!ignoredAnError) {
+			handleStatement(createStatement(subject, predicate, object));
+		}
+
+		subject = null;
+		predicate = null;
+		object = null;
+	}
+
+	protected void handleStatement(Statement st) throws RDFHandlerException {
+		if (rdfHandler != null) {
+			rdfHandler.handleStatement(st);
+		}
+	}
+
+	/**
+	 * Returns the byte at the current position, or -1 if the end of the line has been reached.
+	 */
+	protected int peek() {
+		return pos < lineEnd ? buf.get(pos) & 0xFF : -1;
+	}
+
+	/**
+	 * Skips spaces and tabs.
+	 */
+	protected void skipWhitespace() {
+		while (pos < lineEnd) {
+			byte b = buf.get(pos);
+			if (b != ' ' && b != '\t') {
+				break;
+			}
+			pos++;
+		}
+	}
+
+	/**
+	 * Verifies that there is only whitespace or a comment after the '.' at the current position.
+	 */
+	protected void assertLineTerminates() throws RDFParseException {
+		pos++;
+		skipWhitespace();
+		int c = peek();
+		if (c != -1 && c != '#') {
+			reportFatalError("Content after '.' is not allowed");
+		}
+	}
+
+	protected void parseSubject() throws RDFParseException {
+		int c = peek();
+		// subject is either an uriref (<foo://bar>) or a nodeID (_:node1)
+		if (c == '<') {
+			subject = createURI(parseUriRef());
+		} else if (c == '_') {
+			subject = createNode(parseNodeID());
+		} else if (c == -1) {
+			throwEOFException();
+		} else {
+			throw new RDFParseException("Expected '<' or '_', found: " + currentCharacter(), lineNo, -1);
+		}
+	}
+
+	protected void parsePredicate() throws RDFParseException {
+		int c = peek();
+		// predicate must be an uriref (<foo://bar>)
+		if (c == '<') {
+			predicate = createURI(parseUriRef());
+		} else if (c == -1) {
+			throwEOFException();
+		} else {
+			throw new RDFParseException("Expected '<', found: " + currentCharacter(), lineNo, -1);
+		}
+	}
+
+	protected void parseObject() throws RDFParseException {
+		int c = peek();
+		// object is either an uriref (<foo://bar>), a nodeID (_:node1) or a
+		// literal ("foo"-en or "1"^^<xsd:integer>).
+		if (c == '<') {
+			object = createURI(parseUriRef());
+		} else if (c == '_') {
+			object = createNode(parseNodeID());
+		} else if (c == '"') {
+			object = parseLiteral();
+		} else if (c == -1) {
+			throwEOFException();
+		} else {
+			throw new RDFParseException("Expected '<' or '_', found: " + currentCharacter(), lineNo, -1);
+		}
+	}
+
+	/**
+	 * Reads an IRI reference starting at the '&lt;' at the current position, and returns its unescaped value.
+	 */
+	protected String parseUriRef() throws RDFParseException {
+		if (peek() != '<') {
+			reportError("Supplied char should be a '<', is: " + currentCharacter(),
+					NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+		}
+		int start = ++pos;
+		int bits = 0;
+		boolean hasEscapes = false;
+		while (true) {
+			if (pos >= lineEnd) {
+				throwEOFException();
+			}
+			byte b = buf.get(pos);
+			if (b == '>') {
+				break;
+			}
+			if (b == ' ') {
+				reportError("IRI included an unencoded space", BasicParserSettings.VERIFY_URI_SYNTAX);
+			}
+			bits |= b;
+			if (b == '\\') {
+				// This escapes the next character, which might be a '>'
+				if (++pos >= lineEnd) {
+					throwEOFException();
+				}
+				b = buf.get(pos);
+				if (b != 'u' && b != 'U') {
+					reportError("IRI includes string escapes: '\\" + currentCharacter() + "'",
+							BasicParserSettings.VERIFY_URI_SYNTAX);
+				}
+				bits |= b;
+				hasEscapes = true;
+			}
+			pos++;
+		}
+		String uri = decode(start, pos, bits >= 0);
+		// skip the '>'
+		pos++;
+
+		if (hasEscapes) {
+			try {
+				uri = NTriplesUtil.unescapeString(uri);
+			} catch (IllegalArgumentException e) {
+				reportError(e.getMessage(), NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			}
+		}
+		return uri;
+	}
+
+	/**
+	 * Reads a blank node identifier starting at the '_' at the current position, and returns its label.
+	 */
+	protected String parseNodeID() throws RDFParseException {
+		if (peek() != '_') {
+			reportError("Supplied char should be a '_', is: " + currentCharacter(),
+					NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+		}
+
+		pos++;
+		int c = peek();
+		if (c == -1) {
+			throwEOFException();
+		} else if (c != ':') {
+			reportError("Expected ':', found: " + currentCharacter(),
+					NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+		}
+
+		pos++;
+		int start = pos;
+		c = codePointAt(pos);
+		if (c == -1) {
+			throwEOFException();
+		} else if (!ASCIIUtil.isLetterOrNumber(c) && !NTriplesUtil.isUnderscore(c)) {
+			reportError("Expected a letter or number or underscore, found: " + currentCharacter(),
+					NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+		}
+		boolean ascii = c < 0x80;
+		pos = nextCodePoint(pos);
+
+		// Read all following letter and numbers, they are part of the name
+		c = codePointAt(pos);
+		while (c != -1 && NTriplesUtil.isValidCharacterForBNodeLabel(c)) {
+			int next = nextCodePoint(pos);
+			if (NTriplesUtil.isDot(c) && !NTriplesUtil.isValidCharacterForBNodeLabel(codePointAt(next))) {
+				break;
+			}
+			ascii &= c < 0x80;
+			pos = next;
+			c = codePointAt(pos);
+		}
+
+		return decode(start, pos, ascii);
+	}
+
+	private Literal parseLiteral() throws RDFParseException {
+		int start = ++pos;
+		int bits = 0;
+		boolean hasEscapes = false;
+		while (true) {
+			if (pos >= lineEnd) {
+				throwEOFException();
+			}
+			byte b = buf.get(pos);
+			if (b == '"') {
+				break;
+			}
+			bits |= b;
+			if (b == '\\') {
+				// This escapes the next character, which might be a double quote
+				if (++pos >= lineEnd) {
+					throwEOFException();
+				}
+				bits |= buf.get(pos);
+				hasEscapes = true;
+			}
+			pos++;
+		}
+		String label = decode(start, pos, bits >= 0);
+		// skip the '"'
+		pos++;
+
+		String lang = null;
+		String datatype = null;
+		int c = peek();
+		if (c == '@') {
+			// Read language
+			pos++;
+			if (!ASCIIUtil.isLetter(codePointAt(pos))) {
+				reportError("Expected a letter, found: " + currentCharacter(),
+						NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			}
+
+			start = pos;
+			bits = 0;
+			c = peek();
+			while (c != -1 && c != '.' && c != '^' && c != ' ' && c != '\t') {
+				bits |= c;
+				pos++;
+				c = peek();
+			}
+			lang = decode(start, pos, bits < 0x80);
+		} else if (c == '^') {
+			// Read datatype
+			pos++;
+
+			// c should be another '^'
+			c = peek();
+			if (c == -1) {
+				throwEOFException();
+			} else if (c != '^') {
+				reportError("Expected '^', found: " + currentCharacter(),
+						NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			}
+
+			pos++;
+
+			// c should be a '<'
+			c = peek();
+			if (c == -1) {
+				throwEOFException();
+			} else if (c != '<') {
+				reportError("Expected '<', found: " + currentCharacter(),
+						NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			}
+
+			datatype = parseUriRef();
+		}
+
+		if (hasEscapes) {
+			try {
+				label = NTriplesUtil.unescapeString(label);
+			} catch (IllegalArgumentException e) {
+				throw new RDFParseException(e, lineNo, -1);
+			}
+		}
+
+		if (lang != null && lang.isEmpty()) {
+			lang = null;
+		}
+
+		IRI dtURI = null;
+		if (datatype != null && !datatype.isEmpty()) {
+			dtURI = createURI(datatype);
+		}
+
+		return super.createLiteral(label, lang, dtURI, lineNo, -1);
+	}
+
+	/**
+	 * Returns the string of the bytes between the supplied positions of the line.
+	 *
+	 * @param ascii whether all bytes are known to be ASCII characters, which do not need UTF-8 decoding
+	 */
+	private String decode(int start, int end, boolean ascii) {
+		Charset charset = ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+		int length = end - start;
+		if (view == null) {
+			return new String(buf.array(), buf.arrayOffset() + start, length, charset);
+		}
+
+		if (token.length < length) {
+			token = new byte[Math.max(length, token.length * 2)];
+		}
+		view.position(start);
+		view.get(token, 0, length);
+		return new String(token, 0, length, charset);
+	}
+
+	/**
+	 * Decodes the UTF-8 encoded code point at the supplied position of the line.
+	 *
+	 * @return the code point, U+FFFD for malformed input, or -1 if the end of the line has been reached
+	 */
+	private int codePointAt(int p) {
+		if (p >= lineEnd) {
+			return -1;
+		}
+		int b = buf.get(p) & 0xFF;
+		if (b < 0x80) {
+			return b;
+		}
+		int length = utf8Length(b);
+		if (length == 1 || p + length > lineEnd) {
+			return 0xFFFD;
+		}
+		int codePoint = b & (0xFF >> (length + 1));
+		for (int i = 1; i < length; i++) {
+			int next = buf.get(p + i) & 0xFF;
+			if ((next & 0xC0) != 0x80) {
+				return 0xFFFD;
+			}
+			codePoint = (codePoint << 6) | (next & 0x3F);
+		}
+		return codePoint;
+	}
+
+	private int nextCodePoint(int p) {
+		if (p >= lineEnd) {
+			return p;
+		}
+		return Math.min(p + utf8Length(buf.get(p) & 0xFF), lineEnd);
+	}
+
+	private static int utf8Length(int b) {
+		if ((b & 0xE0) == 0xC0) {
+			return 2;
+		} else if ((b & 0xF0) == 0xE0) {
+			return 3;
+		} else if ((b & 0xF8) == 0xF0) {
+			return 4;
+		} else {
+			return 1;
+		}
+	}
+
+	@Override
+	protected Resource createNode(String nodeID) throws RDFParseException {
+		return blankNodeScope == null ? super.createNode(nodeID) : blankNodeScope.apply(nodeID);
+	}
+
+	/**
+	 * Returns the character at the current position, for use in error messages.
+	 */
+	protected String currentCharacter() {
+		int c = codePointAt(pos);
+		return c == -1 ? "end of line" : new String(Character.toChars(c));
+	}
+
+	/**
+	 * Overrides {@link AbstractRDFParser#reportWarning(String)}, adding line number information to the error.
+	 */
+	@Override
+	protected void reportWarning(String msg) {
+		reportWarning(msg, lineNo, -1);
+	}
+
+	/**
+	 * Overrides {@link AbstractRDFParser#reportError(String, RioSetting)}, adding line number information to the error.
+	 */
+	@Override
+	protected void reportError(String msg, RioSetting<Boolean> setting) throws RDFParseException {
+		reportError(msg, lineNo, -1, setting);
+	}
+
+	@Override
+	protected void reportError(Exception e, RioSetting<Boolean> setting) throws RDFParseException {
+		reportError(e, lineNo, -1, setting);
+	}
+
+	/**
+	 * Overrides {@link AbstractRDFParser#reportFatalError(String)}, adding line number information to the error.
+	 */
+	@Override
+	protected void reportFatalError(String msg) throws RDFParseException {
+		reportFatalError(msg, lineNo, -1);
+	}
+
+	/**
+	 * Overrides {@link AbstractRDFParser#reportFatalError(Exception)}, adding line number information to the error.
+	 */
+	@Override
+	protected void reportFatalError(Exception e) throws RDFParseException {
+		reportFatalError(e, lineNo, -1);
+	}
+
+	protected void throwEOFException() throws RDFParseException {
+		throw new RDFParseException("Unexpected end of line", lineNo, -1);
+	}
+
+	@Override
+	protected void clear() {
+		super.clear();
+		buf = null;
+		view = null;
+		pos = 0;
+		lineEnd = 0;
+		// get rid of anything large left in the token buffer
+		if (token.length > 4096) {
+			token = new byte[256];
+		}
+	}
+
+	/*
+	 * N-Triples parser supports these settings.
+	 */
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		Collection<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
+
+		result.add(NTriplesParserSettings.FAIL_ON_INVALID_LINES);
+
+		return result;
+	}
+}
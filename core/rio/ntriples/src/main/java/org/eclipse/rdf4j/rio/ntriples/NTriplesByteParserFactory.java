@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserFactory;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+
+/**
+ * An {@link RDFParserFactory} for {@link NTriplesByteParser}s. This factory is not registered as a service, so that
+ * the {@link NTriplesParserFactory} remains the default for {@link RDFFormat#NTRIPLES}. To use byte-level parsing
+ * wherever an N-Triples parser is obtained from the registry, add it to the registry explicitly:
+ *
+ * <pre>
+ * RDFParserRegistry.getInstance().add(new NTriplesByteParserFactory());
+ * </pre>
+ *
+ * @see RDFParserRegistry
+ */
+public class NTriplesByteParserFactory implements RDFParserFactory {
+
+	/**
+	 * Returns {@link RDFFormat#NTRIPLES}.
+	 */
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NTRIPLES;
+	}
+
+	/**
+	 * Returns a new instance of NTriplesByteParser.
+	 */
+	@Override
+	public RDFParser getParser() {
+		return new NTriplesByteParser();
+	}
+}
@@ -0,0 +1,546 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import org.apache.commons.io.input.ReaderInputStream;
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.common.net.ParsedIRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.InterningValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.ParseErrorListener;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFParser;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+
+/**
+ * RDF parser for N-Triples files that parses chunks of the input concurrently. The input is split into chunks of
+ * complete lines, which are parsed by {@link NTriplesByteParser}s on an {@link Executor}. The RDF handler and the parse
+ * error listener are only called from the thread that invokes the parse method.
+ * <p>
+ * By default statements are reported in the order of the input. If order is not important, chunks can be reported as
+ * soon as they have been parsed, see {@link #setPreserveOrder(boolean)}. Blank nodes are scoped to the document, as
+ * with the other parsers, and errors are reported with the line number within the document. When a chunk fails with a
+ * fatal error, the statements before the error in that chunk are reported; in order-preserving mode all statements of
+ * the preceding chunks are reported as well.
+ * <p>
+ * The value factory must be thread-safe. This parser is not thread-safe, therefore its public methods are
+ * synchronized.
+ */
+public class ParallelNTriplesParser extends AbstractRDFParser {
+
+	/**
+	 * The default size in bytes of the chunks that are parsed concurrently.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+	private final Executor executor;
+
+	private int parallelism;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private boolean preserveOrder = true;
+
+	/**
+	 * The value factory that was set on this parser, without the wrappers that {@link #clear()} may add.
+	 */
+	private ValueFactory chunkValueFactory;
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	/**
+	 * Creates a new ParallelNTriplesParser that uses a {@link SimpleValueFactory} and parses chunks on the
+	 * {@link ForkJoinPool#commonPool() common pool}.
+	 */
+	public ParallelNTriplesParser() {
+		this(SimpleValueFactory.getInstance());
+	}
+
+	/**
+	 * Creates a new ParallelNTriplesParser that uses the supplied thread-safe <tt>ValueFactory</tt> and parses chunks
+	 * on the {@link ForkJoinPool#commonPool() common pool}.
+	 *
+	 * @param valueFactory A ValueFactory.
+	 */
+	public ParallelNTriplesParser(ValueFactory valueFactory) {
+		this(valueFactory, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new ParallelNTriplesParser that uses the supplied thread-safe <tt>ValueFactory</tt> and parses chunks
+	 * on the supplied executor.
+	 *
+	 * @param valueFactory A ValueFactory.
+	 * @param executor     The executor to parse chunks on. Chunks that it rejects are parsed by the calling thread.
+	 * @param parallelism  The maximum number of chunks that are parsed at the same time.
+	 */
+	public ParallelNTriplesParser(ValueFactory valueFactory, Executor executor, int parallelism) {
+		super(valueFactory);
+		if (executor == null) {
+			throw new IllegalArgumentException("executor can not be 'null'");
+		}
+		this.executor = executor;
+		this.chunkValueFactory = valueFactory;
+		setParallelism(parallelism);
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NTRIPLES;
+	}
+
+	/**
+	 * Creates the parser for a single chunk.
+	 */
+	protected NTriplesByteParser createChunkParser() {
+		return new NTriplesByteParser();
+	}
+
+	@Override
+	public RDFParser setValueFactory(ValueFactory valueFactory) {
+		this.chunkValueFactory = valueFactory;
+		return super.setValueFactory(valueFactory);
+	}
+
+	/**
+	 * Sets the maximum number of chunks that are parsed at the same time. Twice this number of chunks is held in memory
+	 * at most.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.parallelism = parallelism;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the size in bytes of the chunks that are parsed concurrently. Chunks end at the last line terminator within
+	 * this size, and grow if a single line is longer.
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunk size must be positive");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets whether statements are reported in the order of the input, which is the default. Otherwise, the statements
+	 * of each chunk are reported as soon as the chunk has been parsed.
+	 */
+	public void setPreserveOrder(boolean preserveOrder) {
+		this.preserveOrder = preserveOrder;
+	}
+
+	public boolean isPreserveOrder() {
+		return preserveOrder;
+	}
+
+	@Override
+	public synchronized void parse(InputStream in, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream can not be 'null'");
+		}
+		if (baseURI == null) {
+			throw new IllegalArgumentException("base URI can not be 'null'");
+		}
+
+		clear();
+		Run run = new Run();
+		try {
+			if (rdfHandler != null) {
+				rdfHandler.startRDF();
+			}
+			reportLocation(1, 1);
+
+			byte[] bytes = new byte[chunkSize];
+			int limit = 0;
+			boolean first = true;
+			boolean endOfInput = false;
+			long lineNo = 1;
+			while (!endOfInput) {
+				int n = in.read(bytes, limit, bytes.length - limit);
+				if (n == -1) {
+					endOfInput = true;
+				} else {
+					limit += n;
+					if (limit < bytes.length) {
+						continue;
+					}
+				}
+
+				int start = 0;
+				if (first) {
+					if (limit >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+						start = 3;
+					}
+				}
+
+				int end = endOfInput ? limit : chunkEnd(bytes, start, limit);
+				if (end == -1) {
+					// the chunk holds an incomplete line, the byte order mark is checked again when it is complete
+					bytes = Arrays.copyOf(bytes, bytes.length * 2);
+					continue;
+				}
+				first = false;
+
+				if (end > start) {
+					run.submit(ByteBuffer.wrap(bytes, start, end - start), lineNo);
+					lineNo += countLines(bytes, start, end);
+				}
+
+				byte[] next = new byte[Math.max(chunkSize, limit - end)];
+				System.arraycopy(bytes, end, next, 0, limit - end);
+				bytes = next;
+				limit -= end;
+			}
+			run.finish();
+			reportLocation(lineNo, 1);
+		} finally {
+			run.cancel();
+			clear();
+		}
+
+		if (rdfHandler != null) {
+			rdfHandler.endRDF();
+		}
+	}
+
+	@Override
+	public synchronized void parse(Reader reader, String baseURI)
+			throws IOException, RDFParseException, RDFHandlerException {
+		if (reader == null) {
+			throw new IllegalArgumentException("Reader can not be 'null'");
+		}
+		parse(new ReaderInputStream(reader, StandardCharsets.UTF_8), baseURI);
+	}
+
+	/**
+	 * Returns the position after the last line terminator between the supplied positions, or -1 if there is none. A
+	 * carriage return at the end is not a line terminator yet, because it may be followed by a line feed.
+	 */
+	private static int chunkEnd(byte[] bytes, int start, int end) {
+		for (int i = end - 1; i >= start; i--) {
+			if (bytes[i] == '\n' || (bytes[i] == '\r' && i < end - 1)) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	private static long countLines(byte[] bytes, int start, int end) {
+		long count = 0;
+		for (int i = start; i < end; i++) {
+			byte b = bytes[i];
+			if (b == '\n' || (b == '\r' && (i + 1 == end || bytes[i + 1] != '\n'))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * N-Triples parser supports these settings.
+	 */
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		return createChunkParser().getSupportedSettings();
+	}
+
+	/**
+	 * The chunks of a single parse operation.
+	 */
+	private class Run {
+
+		private final String bnodePrefix = UUID.randomUUID().toString().replaceAll("-", "") + "-";
+
+		/**
+		 * The factory shared by the chunk parsers, so that values are interned across chunks.
+		 */
+		private final ValueFactory sharedValueFactory = createSharedValueFactory();
+
+		private final BlockingQueue<Chunk> parsed = new LinkedBlockingQueue<>();
+
+		/**
+		 * Parsed chunks that wait for their predecessors to be reported, by sequence number.
+		 */
+		private final Map<Long, Chunk> pending = new HashMap<>();
+
+		private long submitted;
+
+		private long reported;
+
+		private volatile boolean cancelled;
+
+		void submit(ByteBuffer bytes, long firstLineNo) throws IOException, RDFParseException, RDFHandlerException {
+			while (submitted - reported >= 2L * parallelism) {
+				reportNext();
+			}
+			Chunk chunk = new Chunk(submitted++, bytes, firstLineNo);
+			try {
+				executor.execute(chunk);
+			} catch (RejectedExecutionException e) {
+				chunk.run();
+			}
+		}
+
+		void finish() throws IOException, RDFParseException, RDFHandlerException {
+			while (reported < submitted) {
+				reportNext();
+			}
+		}
+
+		void cancel() {
+			cancelled = true;
+		}
+
+		/**
+		 * Reports the next chunk, waiting for it to be parsed if needed.
+		 */
+		private void reportNext() throws IOException, RDFParseException, RDFHandlerException {
+			Chunk chunk;
+			if (preserveOrder) {
+				chunk = pending.remove(reported);
+				while (chunk == null) {
+					Chunk next = take();
+					if (next.seq == reported) {
+						chunk = next;
+					} else {
+						pending.put(next.seq, next);
+					}
+				}
+			} else {
+				chunk = take();
+			}
+			reported++;
+			chunk.report();
+		}
+
+		private Chunk take() throws InterruptedIOException {
+			try {
+				return parsed.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for a chunk to be parsed");
+			}
+		}
+
+		private ValueFactory createSharedValueFactory() {
+			if (getParserConfig().get(BasicParserSettings.INTERN_VALUES)
+					&& !(chunkValueFactory instanceof InterningValueFactory)) {
+				return new InterningValueFactory(chunkValueFactory);
+			}
+			return chunkValueFactory;
+		}
+
+		/**
+		 * Creates the nodes for blank node identifiers in the same way as {@link AbstractRDFParser#createNode(String)},
+		 * with a prefix that is shared by all chunks. Each function is used by a single thread.
+		 */
+		private Function<String, Resource> createBlankNodeScope() {
+			MessageDigest md5;
+			try {
+				md5 = MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new RuntimeException(e);
+			}
+			boolean preserveBNodeIDs = preserveBNodeIDs();
+			String origin = getParserConfig().get(BasicParserSettings.SKOLEMIZE_ORIGIN);
+			ValueFactory vf = sharedValueFactory;
+			return nodeID -> {
+				if (preserveBNodeIDs) {
+					return vf.createBNode(nodeID);
+				}
+				String id = nodeID;
+				if (nodeID.length() > 32) {
+					id = ByteArrayUtil.toHexString(md5.digest(nodeID.getBytes(StandardCharsets.UTF_8)));
+				}
+				if (origin == null || origin.isEmpty()) {
+					return vf.createBNode("genid-" + bnodePrefix + id);
+				}
+				return vf.createIRI(ParsedIRI.create(origin).resolve("/.well-known/genid/" + bnodePrefix + id));
+			};
+		}
+
+		/**
+		 * A chunk of lines, and the statements and errors that parsing them produced.
+		 */
+		private class Chunk extends AbstractRDFHandler implements Runnable, ParseErrorListener {
+
+			final long seq;
+
+			final long firstLineNo;
+
+			private ByteBuffer bytes;
+
+			/**
+			 * The statements and {@link ParseError}s of the chunk, in the order they were produced.
+			 */
+			private final List<Object> events = new ArrayList<>();
+
+			private Exception failure;
+
+			Chunk(long seq, ByteBuffer bytes, long firstLineNo) {
+				this.seq = seq;
+				this.bytes = bytes;
+				this.firstLineNo = firstLineNo;
+			}
+
+			@Override
+			public void run() {
+				try {
+					if (!cancelled) {
+						NTriplesByteParser parser = createChunkParser();
+						parser.setValueFactory(sharedValueFactory);
+						parser.setParserConfig(getParserConfig());
+						parser.setParseErrorListener(this);
+						parser.setRDFHandler(this);
+						parser.parseChunk(bytes, firstLineNo, createBlankNodeScope());
+					}
+				} catch (Exception e) {
+					failure = e;
+				} finally {
+					bytes = null;
+					parsed.add(this);
+				}
+			}
+
+			void report() throws IOException, RDFParseException, RDFHandlerException {
+				reportLocation(firstLineNo, 1);
+				ParseErrorListener errorListener = getParseErrorListener();
+				for (Object event : events) {
+					if (event instanceof Statement) {
+						if (rdfHandler != null) {
+							rdfHandler.handleStatement((Statement) event);
+						}
+					} else if (errorListener != null) {
+						((ParseError) event).report(errorListener);
+					}
+				}
+
+				if (failure instanceof RDFParseException) {
+					throw (RDFParseException) failure;
+				} else if (failure instanceof RDFHandlerException) {
+					throw (RDFHandlerException) failure;
+				} else if (failure instanceof RuntimeException) {
+					throw (RuntimeException) failure;
+				} else if (failure != null) {
+					throw new RDFParseException(failure);
+				}
+			}
+
+			@Override
+			public void handleStatement(Statement st) throws RDFHandlerException {
+				if (cancelled) {
+					throw new RDFHandlerException("Parsing has been cancelled");
+				}
+				events.add(st);
+			}
+
+			@Override
+			public void warning(String msg, long lineNo, long colNo) {
+				events.add(new ParseError(ParseError.WARNING, msg, lineNo, colNo));
+			}
+
+			@Override
+			public void error(String msg, long lineNo, long colNo) {
+				events.add(new ParseError(ParseError.ERROR, msg, lineNo, colNo));
+			}
+
+			@Override
+			public void fatalError(String msg, long lineNo, long colNo) {
+				events.add(new ParseError(ParseError.FATAL_ERROR, msg, lineNo, colNo));
+			}
+		}
+	}
+
+	/**
+	 * An error reported while a chunk was parsed, to be passed on to the error listener by the reporting thread.
+	 */
+	private static class ParseError {
+
+		static final int WARNING = 0;
+
+		static final int ERROR = 1;
+
+		static final int FATAL_ERROR = 2;
+
+		private final int severity;
+
+		private final String msg;
+
+		private final long lineNo;
+
+		private final long colNo;
+
+		ParseError(int severity, String msg, long lineNo, long colNo) {
+			this.severity = severity;
+			this.msg = msg;
+			this.lineNo = lineNo;
+			this.colNo = colNo;
+		}
+
+		void report(ParseErrorListener listener) {
+			switch (severity) {
+			case WARNING:
+				listener.warning(msg, lineNo, colNo);
+				break;
+			case ERROR:
+				listener.error(msg, lineNo, colNo);
+				break;
+			default:
+				listener.fatalError(msg, lineNo, colNo);
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserFactory;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+
+/**
+ * An {@link RDFParserFactory} for {@link ParallelNTriplesParser}s that parse on the common fork-join pool. Like the
+ * {@link NTriplesByteParserFactory}, it is not registered as a service; add it to the {@link RDFParserRegistry} to
+ * have {@link org.eclipse.rdf4j.rio.Rio#parse Rio.parse} use all cores for N-Triples.
+ */
+public class ParallelNTriplesParserFactory implements RDFParserFactory {
+
+	/**
+	 * Returns {@link RDFFormat#NTRIPLES}.
+	 */
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NTRIPLES;
+	}
+
+	/**
+	 * Returns a new instance of ParallelNTriplesParser.
+	 */
+	@Override
+	public RDFParser getParser() {
+		return new ParallelNTriplesParser();
+	}
+}
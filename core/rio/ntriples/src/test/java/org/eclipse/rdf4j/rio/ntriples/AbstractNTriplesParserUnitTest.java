@@ -285,7 +285,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 
 	@Test
 	public void testSupportedSettings() throws Exception {
-		assertEquals(13, createRDFParser().getSupportedSettings().size());
+		assertEquals(14, createRDFParser().getSupportedSettings().size());
 	}
 
 	@Test
@@ -331,7 +331,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 	@Test
 	public void testBlankNodeIdentifiersWithUnderScore() throws Exception {
 		// The characters _ and [0-9] may appear anywhere in a blank node label.
-		RDFParser ntriplesParser = new NTriplesParser();
+		RDFParser ntriplesParser = createRDFParser();
 		Model model = new LinkedHashModel();
 		ntriplesParser.setRDFHandler(new StatementCollector(model));
 		ntriplesParser.parse(new StringReader("_:123_ <urn:test:predicate> _:_456 ."), NTRIPLES_TEST_URL);
@@ -345,7 +345,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 	@Test
 	public void testBlankNodeIdentifiersWithDot() throws Exception {
 		// The character . may appear anywhere except the first or last character.
-		RDFParser ntriplesParser = new NTriplesParser();
+		RDFParser ntriplesParser = createRDFParser();
 		Model model = new LinkedHashModel();
 		ntriplesParser.setRDFHandler(new StatementCollector(model));
 		ntriplesParser.parse(new StringReader("_:1.23 <urn:test:predicate> _:45.6 ."), NTRIPLES_TEST_URL);
@@ -359,7 +359,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 	@Test
 	public void testBlankNodeIdentifiersWithDotAsFirstCahracter() throws Exception {
 		// The character . may appear anywhere except the first or last character.
-		RDFParser ntriplesParser = new NTriplesParser();
+		RDFParser ntriplesParser = createRDFParser();
 		Model model = new LinkedHashModel();
 		ntriplesParser.setRDFHandler(new StatementCollector(model));
 		try {
@@ -377,7 +377,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 	@Test(expected = RDFParseException.class)
 	public void testBlankNodeIdentifiersWithDotAsLastCahracter() throws Exception {
 		// The character . may appear anywhere except the first or last character.
-		RDFParser ntriplesParser = new NTriplesParser();
+		RDFParser ntriplesParser = createRDFParser();
 		Model model = new LinkedHashModel();
 		ntriplesParser.setRDFHandler(new StatementCollector(model));
 		try {
@@ -406,7 +406,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 
 		for (int i = 0; i < charactersList.size(); i++) {
 			Character character = charactersList.get(i);
-			RDFParser ntriplesParser = new NTriplesParser();
+			RDFParser ntriplesParser = createRDFParser();
 			Model model = new LinkedHashModel();
 			ntriplesParser.setRDFHandler(new StatementCollector(model));
 
@@ -442,7 +442,7 @@ public abstract class AbstractNTriplesParserUnitTest {
 		charactersList.add('\u203F');
 
 		for (Character character : charactersList) {
-			RDFParser ntriplesParser = new NTriplesParser();
+			RDFParser ntriplesParser = createRDFParser();
 			Model model = new LinkedHashModel();
 			ntriplesParser.setRDFHandler(new StatementCollector(model));
 
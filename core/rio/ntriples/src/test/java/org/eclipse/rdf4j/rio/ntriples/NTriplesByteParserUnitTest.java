@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test for the byte-level N-Triples parser.
+ */
+public class NTriplesByteParserUnitTest extends AbstractNTriplesParserUnitTest {
+
+	private static final String BASE_URI = "http://example.org/";
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Override
+	protected RDFParser createRDFParser() {
+		return new NTriplesByteParser();
+	}
+
+	@Test
+	public void testSameResultAsNTriplesParser() throws Exception {
+		Model expected = new LinkedHashModel();
+		Model actual = new LinkedHashModel();
+		String data = document(200);
+
+		RDFParser reference = new NTriplesParser();
+		reference.setPreserveBNodeIDs(true);
+		reference.setRDFHandler(new StatementCollector(expected));
+		reference.parse(new StringReader(data), BASE_URI);
+
+		NTriplesByteParser parser = new NTriplesByteParser();
+		parser.setPreserveBNodeIDs(true);
+		parser.setRDFHandler(new StatementCollector(actual));
+		parser.parse(new StringReader(data), BASE_URI);
+
+		assertEquals(200, expected.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testSmallBuffers() throws Exception {
+		String data = "﻿" + document(100).replace("\n", "\r\n");
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		File file = tempDir.newFile("test.nt");
+		Files.write(file.toPath(), bytes);
+
+		Model expected = parse(new NTriplesByteParser(), new ByteArrayInputStream(bytes));
+		assertEquals(100, expected.size());
+		for (int bufferSize = 3; bufferSize < 40; bufferSize++) {
+			NTriplesByteParser parser = new NTriplesByteParser();
+			parser.setBufferSize(bufferSize);
+			assertEquals("buffer size " + bufferSize, expected, parse(parser, new ByteArrayInputStream(bytes)));
+
+			Model actual = new LinkedHashModel();
+			parser.setRDFHandler(new StatementCollector(actual));
+			parser.parse(file, BASE_URI);
+			assertEquals("region size " + bufferSize, expected, actual);
+		}
+	}
+
+	@Test
+	public void testDirectByteBuffer() throws Exception {
+		byte[] bytes = document(50).getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 10);
+		buffer.position(10);
+		buffer.put(bytes);
+		buffer.position(10);
+
+		Model expected = parse(new NTriplesByteParser(), new ByteArrayInputStream(bytes));
+		NTriplesByteParser parser = new NTriplesByteParser();
+		Model actual = new LinkedHashModel();
+		parser.setRDFHandler(new StatementCollector(actual));
+		parser.parse(buffer, BASE_URI);
+
+		assertEquals(50, actual.size());
+		assertEquals(expected, actual);
+		assertEquals(10, buffer.position());
+	}
+
+	@Test
+	public void testNonAsciiAndEscapes() throws Exception {
+		String data = "<urn:s\\u00E9> <urn:p> \"café \\u00E9 \\\"x\\\"\"@fr .\n"
+				+ "_:b\u00B7\u0301 <urn:p> \"文字\\té\"^^<urn:dté> .\n";
+		Model model = parse(new NTriplesByteParser(), new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, model.size());
+		assertEquals("urn:sé", Models.subject(model.filter(null, null, null)).get().stringValue());
+		List<String> labels = new ArrayList<>();
+		model.objects().forEach(o -> labels.add(o.stringValue()));
+		assertEquals("café é \"x\"", labels.get(0));
+		assertEquals("文字\té", labels.get(1));
+	}
+
+	@Test
+	public void testErrorLineNumber() throws Exception {
+		String data = "# comment\n\r\n<urn:s> <urn:p> <urn:o> .\r<urn:s> <urn:p> <urn:o> \n";
+		for (int bufferSize = 3; bufferSize < 50; bufferSize++) {
+			NTriplesByteParser parser = new NTriplesByteParser();
+			parser.setBufferSize(bufferSize);
+			try {
+				parse(parser, new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+				fail("expected RDFParseException due to missing '.'");
+			} catch (RDFParseException e) {
+				assertEquals(4, e.getLineNumber());
+			}
+		}
+	}
+
+	private Model parse(RDFParser parser, InputStream in) throws Exception {
+		Model model = new LinkedHashModel();
+		parser.setRDFHandler(new StatementCollector(model));
+		parser.parse(in, BASE_URI);
+		return model;
+	}
+
+	private static String document(int size) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("# generated\n\n");
+		for (int i = 0; i < size; i++) {
+			switch (i % 4) {
+			case 0:
+				sb.append("<urn:s").append(i).append("> <urn:p> <urn:o").append(i).append("> .\n");
+				break;
+			case 1:
+				sb.append("_:b").append(i).append(" <urn:p> \"label ").append(i).append("\"@en .\n");
+				break;
+			case 2:
+				sb.append("<urn:s").append(i).append(">\t<urn:p> \"")
+						.append(i)
+						.append("\"^^<http://www.w3.org/2001/XMLSchema#int> . # comment\n");
+				break;
+			default:
+				sb.append("<urn:s").append(i).append("> <urn:p> \"été \\u00E9 ").append(i).append("\" .\n");
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.ntriples;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.NTriplesParserSettings;
+import org.eclipse.rdf4j.rio.helpers.ParseErrorCollector;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * JUnit test for the parallel N-Triples parser.
+ */
+public class ParallelNTriplesParserUnitTest extends AbstractNTriplesParserUnitTest {
+
+	private static final String BASE_URI = "http://example.org/";
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	protected RDFParser createRDFParser() {
+		return new ParallelNTriplesParser(SimpleValueFactory.getInstance(), executor, 4);
+	}
+
+	@Test
+	public void testOrderPreserved() throws Exception {
+		String data = document(1000, 0);
+		List<Statement> expected = parse(new NTriplesByteParser(), data);
+		assertEquals(1000, expected.size());
+		for (int chunkSize : new int[] { 1, 64, 1000, 1 << 20 }) {
+			ParallelNTriplesParser parser = parallelParser(chunkSize);
+			assertEquals("chunk size " + chunkSize, expected, parse(parser, data));
+			assertEquals("chunk size " + chunkSize, expected, parse(parser, data.replace("\n", "\r\n")));
+			assertEquals("chunk size " + chunkSize, expected, parse(parser, data.replace("\n", "\r")));
+		}
+	}
+
+	@Test
+	public void testByteOrderMarkWithLongFirstLine() throws Exception {
+		String data = "<urn:s> <urn:p> \"a first line that is longer than a chunk\" .\n" + document(100, 0);
+		List<Statement> expected = parse(new NTriplesByteParser(), data);
+		for (int chunkSize : new int[] { 16, 64, 1 << 20 }) {
+			assertEquals("chunk size " + chunkSize, expected, parse(parallelParser(chunkSize), "\uFEFF" + data));
+		}
+	}
+
+	@Test
+	public void testUnordered() throws Exception {
+		String data = document(1000, 0);
+		ParallelNTriplesParser parser = parallelParser(64);
+		parser.setPreserveOrder(false);
+		List<Statement> actual = parse(parser, data);
+		assertEquals(1000, actual.size());
+		assertEquals(new HashSet<>(parse(new NTriplesByteParser(), data)), new HashSet<>(actual));
+	}
+
+	@Test
+	public void testBlankNodesScopedToDocument() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		String longLabel = "b1234567890123456789012345678901234567890";
+		for (int i = 0; i < 100; i++) {
+			sb.append("_:b").append(i % 10).append(" <urn:p> _:").append(longLabel).append(" .\n");
+		}
+		ParallelNTriplesParser parser = parallelParser(50);
+		List<Statement> first = parse(parser, sb.toString());
+
+		HashSet<BNode> subjects = new HashSet<>();
+		HashSet<BNode> objects = new HashSet<>();
+		for (Statement st : first) {
+			subjects.add((BNode) st.getSubject());
+			objects.add((BNode) st.getObject());
+		}
+		assertEquals(10, subjects.size());
+		assertEquals(1, objects.size());
+		assertEquals(first.get(0).getSubject(), first.get(10).getSubject());
+
+		// blank nodes of different documents are distinct
+		List<Statement> second = parse(parser, sb.toString());
+		assertNotEquals(first.get(0).getSubject(), second.get(0).getSubject());
+
+		parser.setPreserveBNodeIDs(true);
+		assertEquals("b0", ((BNode) parse(parser, sb.toString()).get(0).getSubject()).getID());
+	}
+
+	@Test
+	public void testFatalErrorLineNumber() throws Exception {
+		StringBuilder sb = new StringBuilder(document(500, 0));
+		sb.append("<urn:s> <urn:p> <urn:o>\n");
+		sb.append(document(500, 500));
+		ParallelNTriplesParser parser = parallelParser(100);
+		List<Statement> statements = new ArrayList<>();
+		parser.setRDFHandler(new StatementCollector(statements));
+		try {
+			parser.parse(new StringReader(sb.toString()), BASE_URI);
+			fail("expected RDFParseException due to missing '.'");
+		} catch (RDFParseException e) {
+			// the document starts with a comment and an empty line
+			assertEquals(503, e.getLineNumber());
+		}
+		// all statements before the error have been reported
+		assertEquals(500, statements.size());
+	}
+
+	@Test
+	public void testNonFatalErrorLineNumbers() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i <= 200; i++) {
+			if (i % 50 == 0) {
+				sb.append("invalid line\n");
+			} else {
+				sb.append("<urn:s> <urn:p> \"").append(i).append("\" .\n");
+			}
+		}
+		for (boolean preserveOrder : new boolean[] { true, false }) {
+			ParallelNTriplesParser parser = parallelParser(30);
+			parser.setPreserveOrder(preserveOrder);
+			parser.getParserConfig().addNonFatalError(NTriplesParserSettings.FAIL_ON_NTRIPLES_INVALID_LINES);
+			ParseErrorCollector errors = new ParseErrorCollector();
+			parser.setParseErrorListener(errors);
+			assertEquals(196, parse(parser, sb.toString()).size());
+
+			assertEquals(4, errors.getErrors().size());
+			for (int i = 1; i <= 4; i++) {
+				String suffix = "(" + (i * 50) + ", -1)";
+				assertTrue(errors.getErrors().toString(),
+						errors.getErrors().stream().anyMatch(e -> e.endsWith(suffix)));
+			}
+		}
+	}
+
+	private ParallelNTriplesParser parallelParser(int chunkSize) {
+		ParallelNTriplesParser parser = new ParallelNTriplesParser(SimpleValueFactory.getInstance(), executor, 4);
+		parser.setChunkSize(chunkSize);
+		return parser;
+	}
+
+	private List<Statement> parse(RDFParser parser, String data) throws Exception {
+		List<Statement> statements = new ArrayList<>();
+		parser.setRDFHandler(new StatementCollector(statements));
+		parser.parse(new StringReader(data), BASE_URI);
+		return statements;
+	}
+
+	private static String document(int size, int offset) {
+		StringBuilder sb = new StringBuilder();
+		if (offset == 0) {
+			sb.append("# generated\n\n");
+		}
+		for (int i = offset; i < offset + size; i++) {
+			if (i % 2 == 0) {
+				sb.append("<urn:s").append(i).append("> <urn:p> \"café ").append(i).append("\"@fr .\n");
+			} else {
+				sb.append("<urn:s").append(i).append("> <urn:p> <urn:o").append(i).append("> .\n");
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -194,7 +194,7 @@ public class TriGParserCustomTest {
 
 	@Test
 	public void testSupportedSettings() throws Exception {
-		assertEquals(13, Rio.createParser(RDFFormat.TRIG).getSupportedSettings().size());
+		assertEquals(14, Rio.createParser(RDFFormat.TRIG).getSupportedSettings().size());
 	}
 
 	@Test
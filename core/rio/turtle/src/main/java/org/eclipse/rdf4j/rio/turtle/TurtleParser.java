@@ -10,7 +10,6 @@ package org.eclipse.rdf4j.rio.turtle;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -59,7 +58,28 @@ public class TurtleParser extends AbstractRDFParser {
 	 * Variables *
 	 *-----------*/
 
-	private PushbackReader reader;
+	/**
+	 * The size of the buffer that characters are read into from the {@link Reader}.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The number of characters that are made available in front of the buffer when characters are pushed back beyond
+	 * its start.
+	 */
+	private static final int PUSHBACK_SIZE = 16;
+
+	private Reader reader;
+
+	/**
+	 * The characters read from {@link #reader}, the next character is at {@link #position} and the buffered characters
+	 * end at {@link #limit}. Pushed-back characters are stored in front of the current position.
+	 */
+	private char[] buffer;
+
+	private int position;
+
+	private int limit;
 
 	protected Resource subject;
 
@@ -71,6 +91,10 @@ public class TurtleParser extends AbstractRDFParser {
 
 	private final StringBuilder parsingBuilder = new StringBuilder();
 
+	private final StringBuilder prefixBuilder = new StringBuilder(8);
+
+	private final StringBuilder nameBuilder = new StringBuilder(64);
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -164,8 +188,12 @@ public class TurtleParser extends AbstractRDFParser {
 			// Start counting lines at 1:
 			lineNumber = 1;
 
-			// Allow at most 8 characters to be pushed back:
-			this.reader = new PushbackReader(reader, 8);
+			this.reader = reader;
+			if (buffer == null) {
+				buffer = new char[BUFFER_SIZE];
+			}
+			position = 0;
+			limit = 0;
 
 			// Store normalized base URI
 			setBaseURI(baseURI);
@@ -179,6 +207,7 @@ public class TurtleParser extends AbstractRDFParser {
 				c = skipWSC();
 			}
 		} finally {
+			this.reader = null;
 			clear();
 		}
 
@@ -719,6 +748,7 @@ public class TurtleParser extends AbstractRDFParser {
 		StringBuilder sb = getBuilder();
 
 		while (true) {
+			copyUntil(sb, closingCharacter, '\\', '\r', '\n');
 			int c = readCodePoint();
 
 			if (c == closingCharacter) {
@@ -760,6 +790,9 @@ public class TurtleParser extends AbstractRDFParser {
 		int c;
 
 		while (doubleQuoteCount < 3) {
+			if (copyUntil(sb, closingCharacter, '\\', '\\', '\\') > 0) {
+				doubleQuoteCount = 0;
+			}
 			c = readCodePoint();
 
 			if (c == -1) {
@@ -890,6 +923,7 @@ public class TurtleParser extends AbstractRDFParser {
 		boolean uriIsIllegal = false;
 		// Read up to the next '>' character
 		while (true) {
+			copyUntil(uriBuf, '>', '\\', ' ', ' ');
 			c = readCodePoint();
 
 			if (c == '>') {
@@ -967,7 +1001,8 @@ public class TurtleParser extends AbstractRDFParser {
 			namespace = getNamespace("");
 		} else {
 			// c is the first letter of the prefix
-			StringBuilder prefix = new StringBuilder(8);
+			StringBuilder prefix = prefixBuilder;
+			prefix.setLength(0);
 			appendCodepoint(prefix, c);
 
 			int previousChar = c;
@@ -1003,8 +1038,11 @@ public class TurtleParser extends AbstractRDFParser {
 			namespace = getNamespace(prefix.toString());
 		}
 
-		// c == ':', read optional local name
-		StringBuilder localName = new StringBuilder(16);
+		// c == ':', read optional local name, directly following the namespace
+		StringBuilder localName = nameBuilder;
+		localName.setLength(0);
+		localName.append(namespace);
+		int localNameStart = localName.length();
 		c = readCodePoint();
 		if (TurtleUtil.isNameStartChar(c)) {
 			if (c == '\\') {
@@ -1040,13 +1078,12 @@ public class TurtleParser extends AbstractRDFParser {
 			unread(c);
 		}
 
-		String localNameString = localName.toString();
-
-		for (int i = 0; i < localNameString.length(); i++) {
-			if (localNameString.charAt(i) == '%') {
-				if (i > localNameString.length() - 3 || !ASCIIUtil.isHex(localNameString.charAt(i + 1))
-						|| !ASCIIUtil.isHex(localNameString.charAt(i + 2))) {
-					reportFatalError("Found incomplete percent-encoded sequence: " + localNameString);
+		for (int i = localNameStart; i < localName.length(); i++) {
+			if (localName.charAt(i) == '%') {
+				if (i > localName.length() - 3 || !ASCIIUtil.isHex(localName.charAt(i + 1))
+						|| !ASCIIUtil.isHex(localName.charAt(i + 2))) {
+					reportFatalError(
+							"Found incomplete percent-encoded sequence: " + localName.substring(localNameStart));
 				}
 			}
 		}
@@ -1056,7 +1093,7 @@ public class TurtleParser extends AbstractRDFParser {
 		// }
 
 		// Note: namespace has already been resolved
-		return createURI(namespace + localNameString);
+		return createURI(localName.toString());
 	}
 
 	private char readLocalEscapedChar() throws RDFParseException, IOException {
@@ -1187,9 +1224,11 @@ public class TurtleParser extends AbstractRDFParser {
 	 */
 	protected void processComment() throws IOException, RDFHandlerException {
 		StringBuilder comment = getBuilder();
+		copyUntil(comment, 0xD, 0xA, 0xA, 0xA);
 		int c = readCodePoint();
 		while (c != -1 && c != 0xD && c != 0xA) {
 			appendCodepoint(comment, c);
+			copyUntil(comment, 0xD, 0xA, 0xA, 0xA);
 			c = readCodePoint();
 		}
 
@@ -1220,9 +1259,15 @@ public class TurtleParser extends AbstractRDFParser {
 	 * @throws IOException
 	 */
 	protected int readCodePoint() throws IOException {
-		int next = reader.read();
-		if (Character.isHighSurrogate((char) next)) {
-			next = Character.toCodePoint((char) next, (char) reader.read());
+		if (position == limit && !fillBuffer()) {
+			return -1;
+		}
+		char next = buffer[position++];
+		if (Character.isHighSurrogate(next)) {
+			if (position == limit && !fillBuffer()) {
+				return next;
+			}
+			return Character.toCodePoint(next, buffer[position++]);
 		}
 		return next;
 	}
@@ -1237,10 +1282,10 @@ public class TurtleParser extends AbstractRDFParser {
 	protected void unread(int codePoint) throws IOException {
 		if (codePoint != -1) {
 			if (Character.isSupplementaryCodePoint(codePoint)) {
-				final char[] surrogatePair = Character.toChars(codePoint);
-				reader.unread(surrogatePair);
+				unread(Character.lowSurrogate(codePoint));
+				unread(Character.highSurrogate(codePoint));
 			} else {
-				reader.unread(codePoint);
+				unread((char) codePoint);
 			}
 		}
 	}
@@ -1254,15 +1299,25 @@ public class TurtleParser extends AbstractRDFParser {
 	 * @throws IOException
 	 */
 	protected void unread(String string) throws IOException {
-		for (int i = string.codePointCount(0, string.length()); i >= 1; i--) {
-			final int codePoint = string.codePointBefore(i);
-			if (Character.isSupplementaryCodePoint(codePoint)) {
-				final char[] surrogatePair = Character.toChars(codePoint);
-				reader.unread(surrogatePair);
-			} else {
-				reader.unread(codePoint);
+		for (int i = string.length() - 1; i >= 0; i--) {
+			unread(string.charAt(i));
+		}
+	}
+
+	/**
+	 * Pushes back a single character in front of the current buffer position, making room at the start of the buffer
+	 * if needed.
+	 */
+	private void unread(char c) {
+		if (position == 0) {
+			if (limit + PUSHBACK_SIZE > buffer.length) {
+				buffer = Arrays.copyOf(buffer, limit + PUSHBACK_SIZE);
 			}
+			System.arraycopy(buffer, 0, buffer, PUSHBACK_SIZE, limit);
+			position = PUSHBACK_SIZE;
+			limit += PUSHBACK_SIZE;
 		}
+		buffer[--position] = c;
 	}
 
 	/**
@@ -1272,9 +1327,56 @@ public class TurtleParser extends AbstractRDFParser {
 	 * @throws IOException
 	 */
 	protected int peekCodePoint() throws IOException {
-		int result = readCodePoint();
-		unread(result);
-		return result;
+		if (position == limit && !fillBuffer()) {
+			return -1;
+		}
+		char next = buffer[position];
+		if (Character.isHighSurrogate(next)) {
+			int result = readCodePoint();
+			unread(result);
+			return result;
+		}
+		return next;
+	}
+
+	/**
+	 * Reads the next block of characters into the buffer, if the buffered characters have all been read.
+	 *
+	 * @return <tt>false</tt> if the end of the stream has been reached.
+	 */
+	private boolean fillBuffer() throws IOException {
+		int read;
+		do {
+			read = reader.read(buffer, 0, buffer.length);
+		} while (read == 0);
+		if (read < 0) {
+			return false;
+		}
+		position = 0;
+		limit = read;
+		return true;
+	}
+
+	/**
+	 * Appends the buffered characters that precede the next occurrence of any of the supplied characters to the
+	 * builder, and advances past them. The characters after the buffered characters are not read, so this may stop
+	 * before any of the supplied characters has been found.
+	 *
+	 * @return the number of characters that were appended
+	 */
+	private int copyUntil(StringBuilder dst, int stop1, int stop2, int stop3, int stop4) {
+		int start = position;
+		int end = start;
+		while (end < limit) {
+			char c = buffer[end];
+			if (c == stop1 || c == stop2 || c == stop3 || c == stop4) {
+				break;
+			}
+			end++;
+		}
+		dst.append(buffer, start, end - start);
+		position = end;
+		return end - start;
 	}
 
 	protected void reportLocation() {
@@ -183,7 +183,7 @@ public class CustomTurtleParserTest {
 
 	@Test
 	public void testSupportedSettings() throws Exception {
-		assertEquals(13, parser.getSupportedSettings().size());
+		assertEquals(14, parser.getSupportedSettings().size());
 	}
 
 	@Test
@@ -19,8 +19,10 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
@@ -29,6 +31,7 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DC;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 import org.eclipse.rdf4j.rio.helpers.ParseErrorCollector;
 import org.eclipse.rdf4j.rio.helpers.SimpleParseLocationListener;
@@ -482,4 +485,75 @@ public class TurtleParserTest {
 		}
 	}
 
+	@Test
+	public void testSurrogatePairSplitAcrossBuffer() throws IOException {
+		String smiley = "\uD83D\uDE00";
+		String data = prefixes + "ex:" + smiley + "s" + smiley + " ex:p \"" + smiley + "a" + smiley + "\" , "
+				+ "\"\"\"" + smiley + "\n" + smiley + "\"\"\" , <http://example.org/" + smiley + "> , ex:" + smiley
+				+ " .\n# " + smiley + "\n";
+
+		List<String> parsed = assertSameWithTinyBuffers(data);
+		assertEquals(5, parsed.size());
+	}
+
+	@Test
+	public void testUnreadAtBufferStart() throws IOException {
+		String data = prefixes + "PREFIX ex2: <http://example.org/ex2/>\n"
+				+ "ex:a.b ex:p true , false , 1.5 , -2e3 , 42 , ex2:o.\n"
+				+ "ex:a a ex:c ; ex:p \"x\"@en-gb , \"1\"^^ex:t .\n";
+
+		List<String> parsed = assertSameWithTinyBuffers(data);
+		assertEquals(9, parsed.size());
+	}
+
+	@Test
+	public void testCopyUntilBufferEnd() throws IOException {
+		StringBuilder longName = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			longName.append("abc");
+		}
+		String data = prefixes + "<http://example.org/" + longName + "> ex:p \"" + longName + "\\t" + longName
+				+ "\" , \"\"\"" + longName + "\n\"" + longName + "\"\"" + longName + "\"\"\" .\n# " + longName + "\n";
+
+		List<String> parsed = assertSameWithTinyBuffers(data);
+		assertEquals(3, parsed.size());
+	}
+
+	/**
+	 * Parses the data with buffers of a few characters, by limiting the number of characters that the reader returns
+	 * at a time, and checks that the statements and comments are the same as for a single buffer.
+	 */
+	private List<String> assertSameWithTinyBuffers(String data) throws IOException {
+		List<String> expected = parse(data, data.length());
+		for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+			assertEquals("buffer size " + bufferSize, expected, parse(data, bufferSize));
+		}
+		return expected;
+	}
+
+	private List<String> parse(String data, int bufferSize) throws IOException {
+		List<String> parsed = new ArrayList<>();
+		TurtleParser parser = new TurtleParser();
+		parser.setRDFHandler(new AbstractRDFHandler() {
+
+			@Override
+			public void handleStatement(Statement st) {
+				parsed.add(st.toString());
+			}
+
+			@Override
+			public void handleComment(String comment) {
+				parsed.add("# " + comment);
+			}
+		});
+		parser.parse(new StringReader(data) {
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, bufferSize));
+			}
+		}, baseURI);
+		return parsed;
+	}
+
 }
@@ -32,6 +32,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.helpers.QueryModelTreeToGenericPlanNode;
@@ -196,6 +197,15 @@ public abstract class SailSourceConnection extends NotifyingSailConnectionBase
 		this.federatedServiceResolver = resolver;
 	}
 
+	/**
+	 * Returns the cache of optimized query plans to use for the evaluation of queries, if any.
+	 *
+	 * @return a {@link QueryPlanCache}, or <code>null</code> if query plans are not cached.
+	 */
+	protected QueryPlanCache getQueryPlanCache() {
+		return null;
+	}
+
 	protected EvaluationStrategy getEvaluationStrategy(Dataset dataset, TripleSource tripleSource) {
 		EvaluationStrategy evalStrat = evalStratFactory.createEvaluationStrategy(dataset, tripleSource,
 				store.getEvaluationStatistics());
@@ -211,15 +221,20 @@ public abstract class SailSourceConnection extends NotifyingSailConnectionBase
 		flush();
 		logger.trace("Incoming query model:\n{}", tupleExpr);
 
-		if (cloneTupleExpression) {
-			// Clone the tuple expression to allow for more aggressive optimizations
-			tupleExpr = tupleExpr.clone();
-		}
+		// the plan cache copies and roots the incoming query model itself
+		QueryPlanCache queryPlanCache = cloneTupleExpression ? getQueryPlanCache() : null;
 
-		if (!(tupleExpr instanceof QueryRoot)) {
-			// Add a dummy root node to the tuple expressions to allow the
-			// optimizers to modify the actual root node
-			tupleExpr = new QueryRoot(tupleExpr);
+		if (queryPlanCache == null) {
+			if (cloneTupleExpression) {
+				// Clone the tuple expression to allow for more aggressive optimizations
+				tupleExpr = tupleExpr.clone();
+			}
+
+			if (!(tupleExpr instanceof QueryRoot)) {
+				// Add a dummy root node to the tuple expressions to allow the
+				// optimizers to modify the actual root node
+				tupleExpr = new QueryRoot(tupleExpr);
+			}
 		}
 
 		SailSource branch = null;
@@ -241,7 +256,12 @@ public abstract class SailSourceConnection extends NotifyingSailConnectionBase
 				strategy.setTrackTime(trackTime);
 			}
 
-			tupleExpr = strategy.optimize(tupleExpr, store.getEvaluationStatistics(), bindings);
+			if (queryPlanCache != null) {
+				tupleExpr = queryPlanCache.optimize(tupleExpr, dataset, bindings, includeInferred, strategy,
+						store.getEvaluationStatistics());
+			} else {
+				tupleExpr = strategy.optimize(tupleExpr, store.getEvaluationStatistics(), bindings);
+			}
 
 			logger.trace("Optimized query model:\n{}", tupleExpr);
 
@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+
+/**
+ * An append-only log of the changesets that were committed to a persistent MemoryStore after its data file was written.
+ * Changesets are encoded with the value records of {@link FileIO} and are protected by a checksum, so that a record
+ * that was only partially written before a crash is discarded on replay.
+ * <p>
+ * Data files and logs are numbered by generation. The log starts with the generation of the data file that it applies
+ * to. A checkpoint marks the position in the log up to which the next data file, with the next generation, contains
+ * all changes. Once that data file has been written, the log is compacted to the changesets that follow the checkpoint.
+ *
+ * @see MemoryStore#sync()
+ */
+class ChangeLog implements Closeable {
+
+	/*-----------*
+	 * Constants *
+	 *-----------*/
+
+	/** Magic number for Binary Memory Store Logs */
+	private static final byte[] MAGIC_NUMBER = new byte[] { 'B', 'M', 'S', 'L' };
+
+	private static final int LOG_VERSION = 1;
+
+	private static final int HEADER_LENGTH = MAGIC_NUMBER.length + 1 + 8;
+
+	/* RECORD TYPES */
+	private static final int CHANGESET_MARKER = 1;
+
+	private static final int CHECKPOINT_MARKER = 2;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/*-----------*
+	 * Variables *
+	 *-----------*/
+
+	private final File file;
+
+	private final ValueFactory vf;
+
+	private FileChannel channel;
+
+	/**
+	 * Records that have not been written to the channel yet.
+	 */
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream(BUFFER_SIZE);
+
+	private final DataOutputStream pendingOut = new DataOutputStream(pending);
+
+	/**
+	 * The generation of the last checkpoint, or of the log if it contains no checkpoint.
+	 */
+	private long lastGeneration;
+
+	/**
+	 * The position that follows the last checkpoint, or -1 if the log contains no checkpoint.
+	 */
+	private long checkpointPosition = -1;
+
+	/**
+	 * The position at which the next record will be written.
+	 */
+	private long size;
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	private ChangeLog(File file, ValueFactory vf) {
+		this.file = file;
+		this.vf = vf;
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	/**
+	 * Replays the changesets in the log file that are not contained in the data file with the given generation, and
+	 * opens the log for appending. A new log is created if the file does not exist.
+	 */
+	public static ChangeLog open(File file, long dataGeneration, SailSource explicit, SailSource inferred,
+			ValueFactory vf) throws IOException, SailException {
+		ChangeLog log = new ChangeLog(file, vf);
+		if (file.exists() && file.length() > 0) {
+			log.replay(dataGeneration, explicit, inferred);
+			log.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			log.channel.truncate(log.size);
+			log.channel.position(log.size);
+		} else {
+			log.create(dataGeneration);
+		}
+		return log;
+	}
+
+	/**
+	 * Replays the changesets in the log file that are not contained in the data file with the given generation, without
+	 * opening the log for appending.
+	 */
+	public static void replay(File file, long dataGeneration, SailSource explicit, SailSource inferred,
+			ValueFactory vf) throws IOException, SailException {
+		if (file.exists() && file.length() > 0) {
+			new ChangeLog(file, vf).replay(dataGeneration, explicit, inferred);
+		}
+	}
+
+	/**
+	 * @return The generation of the next data file.
+	 */
+	public synchronized long getNextGeneration() {
+		return lastGeneration + 1;
+	}
+
+	/**
+	 * @return The size of the log in bytes, including records that have not been written to disk.
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	public Changeset newChangeset() {
+		return new Changeset();
+	}
+
+	public synchronized void append(Changeset changeset) throws IOException {
+		byte[] bytes = changeset.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		pendingOut.writeByte(CHANGESET_MARKER);
+		pendingOut.writeInt(bytes.length);
+		pendingOut.write(bytes);
+		pendingOut.writeInt((int) crc.getValue());
+		size += 1 + 4 + bytes.length + 4;
+		if (pending.size() >= BUFFER_SIZE) {
+			flush();
+		}
+	}
+
+	/**
+	 * Marks that all changesets appended so far are contained in the data file with the given generation.
+	 */
+	public synchronized void checkpoint(long checkpointGeneration) throws IOException {
+		pendingOut.writeByte(CHECKPOINT_MARKER);
+		pendingOut.writeLong(checkpointGeneration);
+		size += 1 + 8;
+		checkpointPosition = size;
+		lastGeneration = checkpointGeneration;
+		flush();
+	}
+
+	/**
+	 * Writes all appended records to disk.
+	 */
+	public synchronized void flush() throws IOException {
+		if (pending.size() > 0) {
+			ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+			pending.reset();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Removes the changesets before the last checkpoint, after the data file of that checkpoint has been written.
+	 */
+	public synchronized void compact() throws IOException {
+		if (checkpointPosition < 0) {
+			return;
+		}
+		flush();
+
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+		long tailSize = size - checkpointPosition;
+		try (FileChannel out = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			writeFully(out, header(lastGeneration));
+			long position = checkpointPosition;
+			while (position < size) {
+				position += channel.transferTo(position, size - position, out);
+			}
+			out.force(false);
+		}
+		channel.close();
+		try {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			checkpointPosition = -1;
+			size = HEADER_LENGTH + tailSize;
+		} finally {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channel.position(size);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			try {
+				flush();
+			} finally {
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+
+	private void create(long dataGeneration) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		writeFully(channel, header(dataGeneration));
+		lastGeneration = dataGeneration;
+		size = HEADER_LENGTH;
+	}
+
+	private static ByteBuffer header(long generation) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.put(MAGIC_NUMBER);
+		header.put((byte) LOG_VERSION);
+		header.putLong(generation);
+		header.flip();
+		return header;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private void replay(long dataGeneration, SailSource explicit, SailSource inferred)
+			throws IOException, SailException {
+		long fileSize = file.length();
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE))) {
+			byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
+			if (!Arrays.equals(magicNumber, MAGIC_NUMBER)) {
+				throw new IOException("File is not a MemoryStore change log");
+			}
+			int version = in.read();
+			if (version != LOG_VERSION) {
+				throw new IOException("Incompatible change log version: " + version);
+			}
+			long generation = lastGeneration = in.readLong();
+			if (generation > dataGeneration) {
+				throw new IOException("Change log " + file + " is newer than the data file");
+			}
+
+			// changesets that precede the checkpoint of the data file are already part of it
+			boolean apply = generation == dataGeneration;
+			long position = HEADER_LENGTH;
+			try {
+				while (position < fileSize) {
+					int recordTypeMarker = in.readByte();
+					if (recordTypeMarker == CHECKPOINT_MARKER) {
+						lastGeneration = in.readLong();
+						position += 1 + 8;
+						checkpointPosition = position;
+						apply = apply || lastGeneration == dataGeneration;
+					} else if (recordTypeMarker == CHANGESET_MARKER) {
+						int length = in.readInt();
+						if (length < 0 || length > fileSize - position) {
+							break;
+						}
+						byte[] bytes = IOUtil.readBytes(in, length);
+						int checksum = in.readInt();
+						CRC32 crc = new CRC32();
+						crc.update(bytes, 0, bytes.length);
+						if (bytes.length != length || checksum != (int) crc.getValue()) {
+							break;
+						}
+						if (apply) {
+							apply(bytes, explicit, inferred);
+						}
+						position += 1 + 4 + length + 4;
+					} else {
+						break;
+					}
+				}
+			} catch (EOFException e) {
+				// the last record was not written completely
+			}
+			size = position;
+		}
+	}
+
+	private void apply(byte[] changeset, SailSource explicit, SailSource inferred) throws IOException, SailException {
+		FileIO io = new FileIO(vf);
+		SailSink explicitSink = explicit.sink(IsolationLevels.NONE);
+		SailSink inferredSink = inferred.sink(IsolationLevels.NONE);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(changeset))) {
+			int recordTypeMarker;
+			while ((recordTypeMarker = in.read()) >= 0) {
+				switch (recordTypeMarker) {
+				case FileIO.NAMESPACE_MARKER:
+					String prefix = io.readString(in);
+					explicitSink.setNamespace(prefix, io.readString(in));
+					break;
+				case FileIO.REMOVE_NAMESPACE_MARKER:
+					explicitSink.removeNamespace(io.readString(in));
+					break;
+				case FileIO.CLEAR_NAMESPACES_MARKER:
+					explicitSink.clearNamespaces();
+					break;
+				case FileIO.EXPL_TRIPLE_MARKER:
+				case FileIO.EXPL_QUAD_MARKER:
+					approve(io, in, recordTypeMarker == FileIO.EXPL_QUAD_MARKER, explicitSink);
+					break;
+				case FileIO.INF_TRIPLE_MARKER:
+				case FileIO.INF_QUAD_MARKER:
+					approve(io, in, recordTypeMarker == FileIO.INF_QUAD_MARKER, inferredSink);
+					break;
+				case FileIO.DEPR_EXPL_TRIPLE_MARKER:
+				case FileIO.DEPR_EXPL_QUAD_MARKER:
+					deprecate(io, in, recordTypeMarker == FileIO.DEPR_EXPL_QUAD_MARKER, explicitSink);
+					break;
+				case FileIO.DEPR_INF_TRIPLE_MARKER:
+				case FileIO.DEPR_INF_QUAD_MARKER:
+					deprecate(io, in, recordTypeMarker == FileIO.DEPR_INF_QUAD_MARKER, inferredSink);
+					break;
+				default:
+					throw new IOException("Invalid record type marker: " + recordTypeMarker);
+				}
+			}
+			explicitSink.prepare();
+			explicitSink.flush();
+			inferredSink.prepare();
+			inferredSink.flush();
+		} finally {
+			explicitSink.close();
+			inferredSink.close();
+		}
+	}
+
+	private void approve(FileIO io, DataInputStream in, boolean hasContext, SailSink sink)
+			throws IOException, SailException {
+		Resource subj = (Resource) io.readValue(in);
+		IRI pred = (IRI) io.readValue(in);
+		Value obj = io.readValue(in);
+		Resource context = hasContext ? (Resource) io.readValue(in) : null;
+		sink.approve(subj, pred, obj, context);
+	}
+
+	private void deprecate(FileIO io, DataInputStream in, boolean hasContext, SailSink sink)
+			throws IOException, SailException {
+		Resource subj = (Resource) io.readValue(in);
+		IRI pred = (IRI) io.readValue(in);
+		Value obj = io.readValue(in);
+		Resource context = hasContext ? (Resource) io.readValue(in) : null;
+		sink.deprecateByQuery(subj, pred, obj, new Resource[] { context });
+	}
+
+	/**
+	 * The changes that a single sink commits, which are appended to the log as one record.
+	 */
+	class Changeset {
+
+		private final FileIO io = new FileIO(vf);
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream out = new DataOutputStream(bytes);
+
+		public boolean isEmpty() {
+			return bytes.size() == 0;
+		}
+
+		public void setNamespace(String prefix, String name) throws IOException {
+			out.writeByte(FileIO.NAMESPACE_MARKER);
+			io.writeString(prefix, out);
+			io.writeString(name, out);
+		}
+
+		public void removeNamespace(String prefix) throws IOException {
+			out.writeByte(FileIO.REMOVE_NAMESPACE_MARKER);
+			io.writeString(prefix, out);
+		}
+
+		public void clearNamespaces() throws IOException {
+			out.writeByte(FileIO.CLEAR_NAMESPACES_MARKER);
+		}
+
+		public void approve(Resource subj, IRI pred, Value obj, Resource context, boolean explicit)
+				throws IOException {
+			if (explicit) {
+				write(FileIO.EXPL_TRIPLE_MARKER, FileIO.EXPL_QUAD_MARKER, subj, pred, obj, context);
+			} else {
+				write(FileIO.INF_TRIPLE_MARKER, FileIO.INF_QUAD_MARKER, subj, pred, obj, context);
+			}
+		}
+
+		public void deprecate(Resource subj, IRI pred, Value obj, Resource context, boolean explicit)
+				throws IOException {
+			if (explicit) {
+				write(FileIO.DEPR_EXPL_TRIPLE_MARKER, FileIO.DEPR_EXPL_QUAD_MARKER, subj, pred, obj, context);
+			} else {
+				write(FileIO.DEPR_INF_TRIPLE_MARKER, FileIO.DEPR_INF_QUAD_MARKER, subj, pred, obj, context);
+			}
+		}
+
+		private void write(int tripleMarker, int quadMarker, Resource subj, IRI pred, Value obj, Resource context)
+				throws IOException {
+			out.writeByte(context == null ? tripleMarker : quadMarker);
+			io.writeValue(subj, out);
+			io.writeValue(pred, out);
+			io.writeValue(obj, out);
+			if (context != null) {
+				io.writeValue(context, out);
+			}
+		}
+
+		byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+	}
+}
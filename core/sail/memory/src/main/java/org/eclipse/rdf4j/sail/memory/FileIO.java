@@ -32,6 +32,7 @@ import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.util.Literals;
@@ -60,7 +61,8 @@ class FileIO {
 	// Version 1: initial version
 	// Version 2: don't use read/writeUTF() to remove 64k limit on strings,
 	// removed dummy "up-to-date status" boolean for namespace records
-	private static final int BMSF_VERSION = 2;
+	// Version 3: added the change log generation record and RDF-star triple values
+	private static final int BMSF_VERSION = 3;
 
 	/* RECORD TYPES */
 	public static final int NAMESPACE_MARKER = 1;
@@ -83,6 +85,24 @@ class FileIO {
 
 	public static final int DATATYPE_LITERAL_MARKER = 10;
 
+	public static final int TRIPLE_MARKER = 11;
+
+	/** The generation of the {@link ChangeLog} that continues where the data file ends. */
+	public static final int GENERATION_MARKER = 12;
+
+	/* CHANGE LOG RECORD TYPES, namespace and statement records denote additions */
+	public static final int REMOVE_NAMESPACE_MARKER = 13;
+
+	public static final int CLEAR_NAMESPACES_MARKER = 14;
+
+	public static final int DEPR_EXPL_TRIPLE_MARKER = 15;
+
+	public static final int DEPR_EXPL_QUAD_MARKER = 16;
+
+	public static final int DEPR_INF_TRIPLE_MARKER = 17;
+
+	public static final int DEPR_INF_QUAD_MARKER = 18;
+
 	public static final int EOF_MARKER = 127;
 
 	/*-----------*
@@ -109,9 +129,12 @@ class FileIO {
 	 * Methods *
 	 *---------*/
 
-	public synchronized void write(SailDataset explicit, SailDataset inferred, File syncFile, File dataFile)
-			throws IOException, SailException {
-		write(explicit, inferred, syncFile);
+	/**
+	 * Writes the data file, recording the generation of the change log that continues where the data file ends.
+	 */
+	public synchronized void write(SailDataset explicit, SailDataset inferred, File syncFile, File dataFile,
+			long generation) throws IOException, SailException {
+		write(explicit, inferred, syncFile, generation);
 
 		// prefer atomic renameTo operations
 		boolean renamed = syncFile.renameTo(dataFile);
@@ -131,7 +154,8 @@ class FileIO {
 		}
 	}
 
-	private void write(SailDataset explicit, SailDataset inferred, File dataFile) throws IOException, SailException {
+	private void write(SailDataset explicit, SailDataset inferred, File dataFile, long generation)
+			throws IOException, SailException {
 		try (OutputStream out = Files.newOutputStream(dataFile.toPath())) {
 			// Write header
 			out.write(MAGIC_NUMBER);
@@ -139,6 +163,8 @@ class FileIO {
 			out.flush();
 			// The rest of the data is GZIP-compressed
 			try (DataOutputStream dataOut = new DataOutputStream(new GZIPOutputStream(out));) {
+				dataOut.writeByte(GENERATION_MARKER);
+				dataOut.writeLong(generation);
 				writeNamespaces(explicit, dataOut);
 				writeStatements(explicit, inferred, dataOut);
 
@@ -147,8 +173,15 @@ class FileIO {
 		}
 	}
 
-	public synchronized void read(File dataFile, SailSink explicit, SailSink inferred)
+	/**
+	 * Reads the data file into the given sinks.
+	 *
+	 * @return The generation of the change log that continues where the data file ends, 0 for files that predate the
+	 *         change log.
+	 */
+	public synchronized long read(File dataFile, SailSink explicit, SailSink inferred)
 			throws IOException, SailException {
+		long generation = 0;
 		try (InputStream in = Files.newInputStream(dataFile.toPath())) {
 			byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
 			if (!Arrays.equals(magicNumber, MAGIC_NUMBER)) {
@@ -165,6 +198,9 @@ class FileIO {
 				int recordTypeMarker;
 				while ((recordTypeMarker = dataIn.readByte()) != EOF_MARKER) {
 					switch (recordTypeMarker) {
+					case GENERATION_MARKER:
+						generation = dataIn.readLong();
+						break;
 					case NAMESPACE_MARKER:
 						readNamespace(dataIn, explicit);
 						break;
@@ -186,6 +222,7 @@ class FileIO {
 				}
 			}
 		}
+		return generation;
 	}
 
 	private void writeNamespaces(SailDataset store, DataOutputStream dataOut) throws IOException, SailException {
@@ -259,7 +296,7 @@ class FileIO {
 		}
 	}
 
-	private void writeValue(Value value, DataOutputStream dataOut) throws IOException {
+	void writeValue(Value value, DataOutputStream dataOut) throws IOException {
 		if (value instanceof IRI) {
 			dataOut.writeByte(URI_MARKER);
 			writeString(((IRI) value).toString(), dataOut);
@@ -281,12 +318,18 @@ class FileIO {
 				writeString(label, dataOut);
 				writeValue(datatype, dataOut);
 			}
+		} else if (value instanceof Triple) {
+			Triple triple = (Triple) value;
+			dataOut.writeByte(TRIPLE_MARKER);
+			writeValue(triple.getSubject(), dataOut);
+			writeValue(triple.getPredicate(), dataOut);
+			writeValue(triple.getObject(), dataOut);
 		} else {
 			throw new IllegalArgumentException("unexpected value type: " + value.getClass());
 		}
 	}
 
-	private Value readValue(DataInputStream dataIn) throws IOException, ClassCastException {
+	Value readValue(DataInputStream dataIn) throws IOException, ClassCastException {
 		int valueTypeMarker = dataIn.readByte();
 
 		if (valueTypeMarker == URI_MARKER) {
@@ -306,18 +349,23 @@ class FileIO {
 			String label = readString(dataIn);
 			IRI datatype = (IRI) readValue(dataIn);
 			return vf.createLiteral(label, datatype);
+		} else if (valueTypeMarker == TRIPLE_MARKER) {
+			Resource subject = (Resource) readValue(dataIn);
+			IRI predicate = (IRI) readValue(dataIn);
+			Value object = readValue(dataIn);
+			return vf.createTriple(subject, predicate, object);
 		} else {
 			throw new IOException("Invalid value type marker: " + valueTypeMarker);
 		}
 	}
 
-	private void writeString(String s, DataOutputStream dataOut) throws IOException {
+	void writeString(String s, DataOutputStream dataOut) throws IOException {
 		ByteBuffer byteBuf = charsetEncoder.encode(CharBuffer.wrap(s));
 		dataOut.writeInt(byteBuf.remaining());
 		dataOut.write(byteBuf.array(), 0, byteBuf.remaining());
 	}
 
-	private String readString(DataInputStream dataIn) throws IOException {
+	String readString(DataInputStream dataIn) throws IOException {
 		if (formatVersion == 1) {
 			return readStringV1(dataIn);
 		} else {
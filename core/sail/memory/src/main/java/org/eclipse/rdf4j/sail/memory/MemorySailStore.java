@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.memory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -101,6 +102,11 @@ class MemorySailStore implements SailStore {
 	 */
 	private final Object snapshotCleanupThreadLockObject = new Object();
 
+	/**
+	 * The log that committed changes are appended to, null if changes are not logged.
+	 */
+	private volatile ChangeLog changeLog;
+
 	public MemorySailStore(boolean debug) {
 		statementListLockManager = new ReadPrefReadWriteLockManager(debug);
 	}
@@ -125,6 +131,22 @@ class MemorySailStore implements SailStore {
 		}
 	}
 
+	void setChangeLog(ChangeLog changeLog) {
+		this.changeLog = changeLog;
+	}
+
+	/**
+	 * Blocks until no transaction is committing, and prevents transactions from committing until
+	 * {@link #unlockTransactions()} is called.
+	 */
+	void lockTransactions() {
+		txnLockManager.lock();
+	}
+
+	void unlockTransactions() {
+		txnLockManager.unlock();
+	}
+
 	@Override
 	public EvaluationStatistics getEvaluationStatistics() {
 		return new MemEvaluationStatistics(valueFactory, statements);
@@ -401,8 +423,12 @@ class MemorySailStore implements SailStore {
 
 		private boolean requireCleanup;
 
+		private final ChangeLog.Changeset changes;
+
 		public MemorySailSink(boolean explicit, boolean serializable) throws SailException {
 			this.explicit = explicit;
+			ChangeLog log = changeLog;
+			changes = log == null ? null : log.newChangeset();
 			if (serializable) {
 				this.serializable = currentSnapshot;
 			} else {
@@ -465,6 +491,14 @@ class MemorySailStore implements SailStore {
 				if (requireCleanup) {
 					scheduleSnapshotCleanup();
 				}
+				ChangeLog log = changeLog;
+				if (changes != null && !changes.isEmpty() && log != null) {
+					try {
+						log.append(changes);
+					} catch (IOException e) {
+						throw new SailException("Failed to append changes to the change log", e);
+					}
+				}
 			}
 		}
 
@@ -487,18 +521,39 @@ class MemorySailStore implements SailStore {
 		public synchronized void setNamespace(String prefix, String name) throws SailException {
 			acquireExclusiveTransactionLock();
 			namespaceStore.setNamespace(prefix, name);
+			if (changes != null) {
+				try {
+					changes.setNamespace(prefix, name);
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
 		}
 
 		@Override
 		public synchronized void removeNamespace(String prefix) throws SailException {
 			acquireExclusiveTransactionLock();
 			namespaceStore.removeNamespace(prefix);
+			if (changes != null) {
+				try {
+					changes.removeNamespace(prefix);
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
 		}
 
 		@Override
 		public synchronized void clearNamespaces() throws SailException {
 			acquireExclusiveTransactionLock();
 			namespaceStore.clear();
+			if (changes != null) {
+				try {
+					changes.clearNamespaces();
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
 		}
 
 		@Override
@@ -529,6 +584,7 @@ class MemorySailStore implements SailStore {
 				while (iter.hasNext()) {
 					MemStatement st = iter.next();
 					st.setTillSnapshot(nextSnapshot);
+					logDeprecated(st);
 				}
 			}
 		}
@@ -536,7 +592,14 @@ class MemorySailStore implements SailStore {
 		@Override
 		public synchronized void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
 			acquireExclusiveTransactionLock();
-			addStatement(subj, pred, obj, ctx, explicit);
+			MemStatement st = addStatement(subj, pred, obj, ctx, explicit);
+			if (st != null && changes != null) {
+				try {
+					changes.approve(subj, pred, obj, ctx, explicit);
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
 		}
 
 		@Override
@@ -548,6 +611,7 @@ class MemorySailStore implements SailStore {
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
 					toDeprecate.setTillSnapshot(nextSnapshot);
+					logDeprecated(toDeprecate);
 				}
 			} else if (statement instanceof LinkedHashModel.ModelStatement
 					&& ((LinkedHashModel.ModelStatement) statement).getStatement() instanceof MemStatement) {
@@ -557,6 +621,7 @@ class MemorySailStore implements SailStore {
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
 					toDeprecate.setTillSnapshot(nextSnapshot);
+					logDeprecated(toDeprecate);
 				}
 			} else {
 				try (CloseableIteration<MemStatement, SailException> iter = createStatementIterator(
@@ -566,11 +631,22 @@ class MemorySailStore implements SailStore {
 					while (iter.hasNext()) {
 						MemStatement st = iter.next();
 						st.setTillSnapshot(nextSnapshot);
+						logDeprecated(st);
 					}
 				}
 			}
 		}
 
+		private void logDeprecated(MemStatement st) throws SailException {
+			if (changes != null) {
+				try {
+					changes.deprecate(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext(), explicit);
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
+		}
+
 		private void acquireExclusiveTransactionLock() throws SailException {
 			if (!txnLock) {
 				txnLockManager.lock();
@@ -630,6 +706,7 @@ class MemorySailStore implements SailStore {
 					deprecated = true;
 					MemStatement st = iter.next();
 					st.setTillSnapshot(nextSnapshot);
+					logDeprecated(st);
 				}
 			}
 
@@ -19,6 +19,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyFactory;
 import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
@@ -38,6 +39,9 @@ import org.slf4j.LoggerFactory;
  * visible until a transaction is committed and that concurrent transactions are not possible. When another transaction
  * is active, calls to <tt>startTransaction()</tt> will block until the active transaction is committed or rolled back.
  *
+ * When persistence is enabled, committed changes are appended to a change log, and the data file is rewritten only
+ * once the change log has outgrown it. The change log is replayed when the store is initialized.
+ *
  * The MemoryStore is designed for datasets with fewer than 100,000 triples. The MemoryStore uses hash tables, and when
  * these hash tables fill up it copies the values to larger hash tables. This can cause strain on the garbage collector
  * due to lots of memory being allocated and freed.
@@ -57,6 +61,14 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	protected static final String SYNC_FILE_NAME = "memorystore.sync";
 
+	protected static final String LOG_FILE_NAME = "memorystore.log";
+
+	/**
+	 * The size in bytes that the change log may grow to before the data file is rewritten, unless the data file is
+	 * larger.
+	 */
+	private static final long MIN_CHECKPOINT_SIZE = 1024 * 1024;
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -64,7 +76,7 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	/**
 	 * Factory/cache for MemValue objects.
 	 */
-	private SailStore store;
+	private MemorySailStore store;
 
 	private volatile boolean persist = false;
 
@@ -78,6 +90,11 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile File syncFile;
 
+	/**
+	 * The log of changes that are not contained in the data file, null if this is a read-only or volatile RDF store.
+	 */
+	private volatile ChangeLog changeLog;
+
 	/**
 	 * The directory lock, null if this is read-only or a volatile RDF store.
 	 */
@@ -117,6 +134,8 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	private EvaluationStrategyFactory evalStratFactory;
 
+	private final QueryPlanCache queryPlanCache = new QueryPlanCache();
+
 	/** independent life cycle */
 	private FederatedServiceResolver serviceResolver;
 
@@ -211,6 +230,14 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	public synchronized void setEvaluationStrategyFactory(EvaluationStrategyFactory factory) {
 		evalStratFactory = factory;
+		queryPlanCache.invalidateAll();
+	}
+
+	/**
+	 * @return Returns the cache of optimized query plans, which also reports its hit rate.
+	 */
+	public QueryPlanCache getQueryPlanCache() {
+		return queryPlanCache;
 	}
 
 	/**
@@ -270,6 +297,7 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 				if (dirLock == null) {
 					logger.warn("Failed to lock directory: {}", dataDir);
 				}
+				long generation = 0;
 				// Don't try to read empty files: this will result in an
 				// IOException, and the file doesn't contain any data anyway.
 				if (dataFile.length() == 0L) {
@@ -278,7 +306,7 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 					SailSink explicit = store.getExplicitSailSource().sink(IsolationLevels.NONE);
 					SailSink inferred = store.getInferredSailSource().sink(IsolationLevels.NONE);
 					try {
-						new FileIO(store.getValueFactory()).read(dataFile, explicit, inferred);
+						generation = new FileIO(store.getValueFactory()).read(dataFile, explicit, inferred);
 						logger.debug("Data file read successfully");
 					} catch (IOException e) {
 						logger.error("Failed to read data file", e);
@@ -292,6 +320,21 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 						inferred.close();
 					}
 				}
+
+				File logFile = new File(dataDir, LOG_FILE_NAME);
+				try {
+					if (dirLock != null) {
+						changeLog = ChangeLog.open(logFile, generation, store.getExplicitSailSource(),
+								store.getInferredSailSource(), store.getValueFactory());
+					} else {
+						ChangeLog.replay(logFile, generation, store.getExplicitSailSource(),
+								store.getInferredSailSource(), store.getValueFactory());
+					}
+					logger.debug("Change log replayed successfully");
+				} catch (IOException e) {
+					logger.error("Failed to replay change log", e);
+					throw new SailException(e);
+				}
 			} else {
 				// file specified that does not exist yet, create it
 				try {
@@ -309,8 +352,13 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 					logger.debug("Initializing data file...");
 					try (SailDataset explicit = store.getExplicitSailSource().dataset(IsolationLevels.SNAPSHOT);
 							SailDataset inferred = store.getInferredSailSource().dataset(IsolationLevels.SNAPSHOT)) {
-						new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+						new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile, 0);
 					}
+					// a change log without data file is stale
+					File logFile = new File(dataDir, LOG_FILE_NAME);
+					logFile.delete();
+					changeLog = ChangeLog.open(logFile, 0, store.getExplicitSailSource(),
+							store.getInferredSailSource(), store.getValueFactory());
 					logger.debug("Data file initialized");
 				} catch (IOException | SailException e) {
 					logger.debug("Failed to initialize data file", e);
@@ -319,6 +367,7 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			}
 		}
 
+		store.setChangeLog(changeLog);
 		contentsChanged = false;
 
 		logger.debug("MemoryStore initialized");
@@ -334,6 +383,14 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			dataFile = null;
 			syncFile = null;
 		} finally {
+			if (changeLog != null) {
+				try {
+					changeLog.close();
+				} catch (IOException e) {
+					logger.warn("Failed to close change log", e);
+				}
+				changeLog = null;
+			}
 			if (dirLock != null) {
 				dirLock.release();
 			}
@@ -433,7 +490,8 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	/**
 	 * Synchronizes the contents of this repository with the data that is stored on disk. Data will only be written when
-	 * the contents of the repository and data in the file are out of sync.
+	 * the contents of the repository and data in the file are out of sync. The changes are written to the change log,
+	 * and the data file is rewritten when the change log has grown larger than the data file.
 	 */
 	public void sync() throws SailException {
 		// syncSemaphore prevents concurrent file synchronizations
@@ -441,10 +499,17 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			if (persist && contentsChanged) {
 				logger.debug("syncing data to file...");
 				try {
-					IsolationLevels level = IsolationLevels.SNAPSHOT;
-					try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
-							SailDataset inferred = store.getInferredSailSource().dataset(level)) {
-						new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+					if (changeLog == null) {
+						IsolationLevels level = IsolationLevels.SNAPSHOT;
+						try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
+								SailDataset inferred = store.getInferredSailSource().dataset(level)) {
+							new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile, 0);
+						}
+					} else {
+						changeLog.flush();
+						if (changeLog.size() > Math.max(MIN_CHECKPOINT_SIZE, dataFile.length())) {
+							checkpoint();
+						}
 					}
 					contentsChanged = false;
 					logger.debug("Data synced to file");
@@ -456,6 +521,45 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		}
 	}
 
+	/**
+	 * Rewrites the data file with the current contents of the store, and removes the changes it contains from the change
+	 * log.
+	 */
+	void checkpoint() throws IOException, SailException {
+		synchronized (syncSemaphore) {
+			logger.debug("writing checkpoint of change log to data file...");
+			long generation = changeLog.getNextGeneration();
+			SailDataset explicit = null;
+			SailDataset inferred = null;
+			// the datasets must contain exactly the changes that precede the checkpoint
+			store.lockTransactions();
+			try {
+				explicit = store.getExplicitSailSource().dataset(IsolationLevels.SNAPSHOT);
+				inferred = store.getInferredSailSource().dataset(IsolationLevels.SNAPSHOT);
+				changeLog.checkpoint(generation);
+			} catch (IOException | RuntimeException e) {
+				try {
+					if (explicit != null) {
+						explicit.close();
+					}
+				} finally {
+					if (inferred != null) {
+						inferred.close();
+					}
+				}
+				throw e;
+			} finally {
+				store.unlockTransactions();
+			}
+
+			try (SailDataset e = explicit; SailDataset i = inferred) {
+				new FileIO(store.getValueFactory()).write(e, i, syncFile, dataFile, generation);
+			}
+			changeLog.compact();
+			logger.debug("Checkpoint written to data file");
+		}
+	}
+
 	SailStore getSailStore() {
 		return store;
 	}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.repository.evaluation.RepositoryTripleSource;
+import org.eclipse.rdf4j.repository.sail.ParsedQueryCache;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemoryQueryPlanCacheTest {
+
+	private static final String PREFIXES = "PREFIX ex: <urn:> PREFIX rdfs: <" + RDFS.NAMESPACE + "> ";
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private MemoryStore store;
+
+	private SailRepository repository;
+
+	@Before
+	public void setUp() {
+		store = new MemoryStore();
+		repository = new SailRepository(store);
+		repository.init();
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			for (int i = 0; i < 10; i++) {
+				con.add(iri("s" + i), RDF.TYPE, iri("C" + (i % 2)));
+				con.add(iri("s" + i), RDFS.LABEL, vf.createLiteral("label " + i));
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testBindingsAppliedToCachedPlan() {
+		String query = PREFIXES + "SELECT ?s ?l { ?s a ?type ; rdfs:label ?l }";
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			for (int i = 0; i < 3; i++) {
+				TupleQuery tupleQuery = con.prepareTupleQuery(query);
+				tupleQuery.setBinding("type", iri("C" + (i % 2)));
+				assertEquals(5, QueryResults.asList(tupleQuery.evaluate()).size());
+			}
+			assertEquals(10, QueryResults.asList(con.prepareTupleQuery(query).evaluate()).size());
+
+			TupleQuery tupleQuery = con.prepareTupleQuery(query);
+			tupleQuery.setBinding("s", iri("s3"));
+			try (TupleQueryResult result = tupleQuery.evaluate()) {
+				BindingSet bs = result.next();
+				assertEquals(iri("s3"), bs.getValue("s"));
+				assertEquals("label 3", bs.getValue("l").stringValue());
+			}
+		}
+
+		ParsedQueryCache parsedQueryCache = repository.getParsedQueryCache();
+		assertEquals(1, parsedQueryCache.size());
+		assertEquals(1, parsedQueryCache.getMissCount());
+		assertEquals(4, parsedQueryCache.getHitCount());
+
+		QueryPlanCache queryPlanCache = store.getQueryPlanCache();
+		assertEquals(1, queryPlanCache.size());
+		assertEquals(1, queryPlanCache.getMissCount());
+		assertEquals(4, queryPlanCache.getHitCount());
+		assertEquals(0.8, queryPlanCache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void testBindingsOfOptimizedVariables() {
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			// the optimizers rename ?t to ?type, so a plan without bindings can not be reused
+			String sameTerm = PREFIXES + "SELECT ?s ?t { ?s a ?type ; a ?t FILTER(sameTerm(?type, ?t)) }";
+			assertEquals(10, count(con, sameTerm, null, null));
+			assertEquals(5, count(con, sameTerm, "t", iri("C1")));
+			assertEquals(5, count(con, sameTerm, "type", iri("C0")));
+
+			// the optimizers assign ex:C0 to ?type
+			String compare = PREFIXES + "SELECT ?s { ?s a ?type FILTER(?type = ex:C0) }";
+			assertEquals(5, count(con, compare, null, null));
+			assertEquals(0, count(con, compare, "type", iri("C1")));
+			assertEquals(5, count(con, compare, "type", iri("C0")));
+		}
+	}
+
+	@Test
+	public void testConstantFunctionsNotCached() {
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			String query = "SELECT ?now { BIND(NOW() AS ?now) }";
+			assertEquals(1, count(con, query, null, null));
+			assertEquals(1, count(con, query, null, null));
+			assertEquals(0, store.getQueryPlanCache().size());
+		}
+	}
+
+	@Test
+	public void testInvalidationOnStatisticsChange() {
+		String query = PREFIXES + "SELECT ?s { ?s a ex:C2 }";
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			assertEquals(0, count(con, query, null, null));
+			for (int i = 0; i < 10; i++) {
+				con.add(iri("t" + i), RDF.TYPE, iri("C2"));
+			}
+			for (int i = 0; i < QueryPlanCache.VALIDATION_INTERVAL; i++) {
+				assertEquals(10, count(con, query, null, null));
+			}
+		}
+		QueryPlanCache queryPlanCache = store.getQueryPlanCache();
+		assertEquals(1, queryPlanCache.getInvalidationCount());
+		assertEquals(2, queryPlanCache.getMissCount());
+	}
+
+	@Test
+	public void testStrategyPreparedForCachedPlan() {
+		List<TupleExpr> prepared = new ArrayList<>();
+		QueryPlanCache queryPlanCache = new QueryPlanCache();
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache();
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(new RepositoryTripleSource(con), null) {
+
+				@Override
+				public void prepare(TupleExpr expr, BindingSet bindings) {
+					prepared.add(expr);
+					super.prepare(expr, bindings);
+				}
+			};
+
+			for (int i = 0; i < 2; i++) {
+				TupleExpr expr = parsedQueryCache.parseQuery(QueryLanguage.SPARQL, "SELECT ?s { ?s a ?type }", null)
+						.getTupleExpr();
+				TupleExpr plan = queryPlanCache.optimize(expr, null, EmptyBindingSet.getInstance(), false, strategy,
+						new EvaluationStatistics());
+				assertSame(plan, prepared.get(prepared.size() - 1));
+			}
+		}
+		assertEquals(1, queryPlanCache.getHitCount());
+	}
+
+	@Test
+	public void testDatasetNotShared() {
+		ParsedQueryCache parsedQueryCache = new ParsedQueryCache();
+		String query = "SELECT ?s FROM <urn:g1> { ?s a ?type }";
+		ParsedQuery first = parsedQueryCache.parseQuery(QueryLanguage.SPARQL, query, null);
+		((SimpleDataset) first.getDataset()).addDefaultGraph(iri("g2"));
+
+		ParsedQuery second = parsedQueryCache.parseQuery(QueryLanguage.SPARQL, query, null);
+		assertNotSame(first.getDataset(), second.getDataset());
+		assertEquals(Collections.singleton(iri("g1")), second.getDataset().getDefaultGraphs());
+	}
+
+	@Test
+	public void testDisabledParsedQueryCache() {
+		repository.setParsedQueryCache(null);
+		try (SailRepositoryConnection con = repository.getConnection()) {
+			assertEquals(10, count(con, PREFIXES + "SELECT ?s { ?s a ?type }", null, null));
+			assertEquals(10, count(con, PREFIXES + "SELECT ?s { ?s a ?type }", null, null));
+		}
+		assertEquals(0, store.getQueryPlanCache().size());
+	}
+
+	private int count(SailRepositoryConnection con, String query, String name, Value value) {
+		TupleQuery tupleQuery = con.prepareTupleQuery(query);
+		if (name != null) {
+			tupleQuery.setBinding(name, value);
+		}
+		return QueryResults.asList(tupleQuery.evaluate()).size();
+	}
+
+	private IRI iri(String localName) {
+		return vf.createIRI("urn:" + localName);
+	}
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.inferencer.InferencerConnection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryStoreChangeLogTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final IRI g1 = vf.createIRI("urn:g1");
+
+	private File dataDir;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tempDir.newFolder();
+	}
+
+	@Test
+	public void testChangesAreReplayed() throws Exception {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+		File dataFile = new File(dataDir, MemoryStore.DATA_FILE_NAME);
+		long dataFileSize = dataFile.length();
+
+		try (InferencerConnection con = (InferencerConnection) store.getConnection()) {
+			for (int i = 0; i < 10; i++) {
+				con.begin();
+				con.addStatement(iri(i), RDF.VALUE, vf.createLiteral(i));
+				con.addStatement(iri(i), RDFS.LABEL, vf.createLiteral("label " + i, "en"), g1);
+				con.addInferredStatement(iri(i), RDF.TYPE, RDFS.RESOURCE);
+				con.commit();
+			}
+			con.begin();
+			con.removeStatements(iri(0), null, null);
+			con.clear(g1);
+			con.addStatement(iri(3), RDFS.COMMENT, vf.createTriple(iri(1), RDF.VALUE, vf.createLiteral(1)));
+			con.setNamespace("ex", "urn:ex#");
+			con.setNamespace("rdfs", RDFS.NAMESPACE);
+			con.commit();
+			con.begin();
+			con.removeInferredStatement(iri(1), RDF.TYPE, RDFS.RESOURCE);
+			con.removeNamespace("rdfs");
+			con.commit();
+		}
+		Set<Statement> explicit = getStatements(store, true);
+		Set<Statement> all = getStatements(store, false);
+		store.shutDown();
+
+		assertEquals("commits must not rewrite the data file", dataFileSize, dataFile.length());
+		assertTrue(new File(dataDir, MemoryStore.LOG_FILE_NAME).length() > 0);
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(explicit, getStatements(store, true));
+			assertEquals(all, getStatements(store, false));
+			assertEquals(10, explicit.size());
+			assertEquals(19, all.size());
+			try (InferencerConnection con = (InferencerConnection) store.getConnection()) {
+				assertEquals("urn:ex#", con.getNamespace("ex"));
+				assertNull(con.getNamespace("rdfs"));
+			}
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+		File logFile = new File(dataDir, MemoryStore.LOG_FILE_NAME);
+
+		add(store, 0, 100);
+		long logSize = logFile.length();
+		store.checkpoint();
+		assertTrue(logFile.length() < logSize);
+
+		add(store, 100, 200);
+		remove(store, 50, 150);
+		Set<Statement> expected = getStatements(store, false);
+		store.shutDown();
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store, false));
+			assertEquals(100, expected.size());
+
+			// a second checkpoint on top of a replayed log
+			store.checkpoint();
+			add(store, 200, 210);
+			expected = getStatements(store, false);
+		} finally {
+			store.shutDown();
+		}
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store, false));
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testIncompleteRecordIsDiscarded() throws Exception {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+		add(store, 0, 10);
+		Set<Statement> expected = getStatements(store, false);
+		add(store, 10, 20);
+		store.shutDown();
+
+		// simulate a crash while the last changeset was written
+		File logFile = new File(dataDir, MemoryStore.LOG_FILE_NAME);
+		try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store, false));
+			add(store, 30, 40);
+			expected = getStatements(store, false);
+		} finally {
+			store.shutDown();
+		}
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store, false));
+			assertEquals(20, expected.size());
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	private void add(MemoryStore store, int from, int to) throws SailException {
+		try (InferencerConnection con = (InferencerConnection) store.getConnection()) {
+			con.begin();
+			for (int i = from; i < to; i++) {
+				con.addStatement(iri(i), RDF.VALUE, vf.createLiteral(i), g1);
+			}
+			con.commit();
+		}
+	}
+
+	private void remove(MemoryStore store, int from, int to) throws SailException {
+		try (InferencerConnection con = (InferencerConnection) store.getConnection()) {
+			con.begin();
+			for (int i = from; i < to; i++) {
+				con.removeStatements(iri(i), RDF.VALUE, vf.createLiteral(i), g1);
+			}
+			con.commit();
+		}
+	}
+
+	private IRI iri(int i) {
+		return vf.createIRI("urn:s:" + i);
+	}
+
+	private Set<Statement> getStatements(MemoryStore store, boolean explicitOnly) throws SailException {
+		Set<Statement> result = new HashSet<>();
+		try (InferencerConnection con = (InferencerConnection) store.getConnection();
+				CloseableIteration<? extends Statement, SailException> iter = con.getStatements(null, null, null,
+						!explicitOnly)) {
+			while (iter.hasNext()) {
+				Statement st = iter.next();
+				result.add(vf.createStatement(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()));
+			}
+		}
+		return result;
+	}
+}
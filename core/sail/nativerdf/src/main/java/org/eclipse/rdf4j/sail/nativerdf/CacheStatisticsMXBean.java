@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+/**
+ * Management interface exposing the usage statistics of a NativeStore cache, e.g. the caches of the
+ * {@link ValueStore}.
+ */
+public interface CacheStatisticsMXBean {
+
+	/**
+	 * @return The number of lookups that were answered from the cache.
+	 */
+	long getHitCount();
+
+	/**
+	 * @return The number of lookups that were not answered from the cache.
+	 */
+	long getMissCount();
+
+	/**
+	 * @return The fraction of lookups that were answered from the cache, or <tt>0</tt> if there have been no lookups.
+	 */
+	double getHitRate();
+
+	/**
+	 * @return The number of entries that were evicted to keep the cache within its budget.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * @return The number of entries currently in the cache.
+	 */
+	int getSize();
+
+	/**
+	 * @return The current weight of the cache, in the unit of the cache's budget (entries or approximate bytes).
+	 */
+	long getWeight();
+
+	/**
+	 * @return The maximum weight of the cache.
+	 */
+	long getMaxWeight();
+
+	/**
+	 * Resets the hit, miss and eviction counters.
+	 */
+	void resetStatistics();
+}
@@ -121,7 +121,18 @@ class ContextStore implements Iterable<Resource> {
 	 * @param context the context identifier.
 	 */
 	void increment(Resource context) {
-		contextInfoMap.merge(context, 1L, (size, one) -> size + one);
+		incrementBy(context, 1L);
+	}
+
+	/**
+	 * Increase the size of the context by the given amount. If the context was not yet known, it is created with the
+	 * given size.
+	 *
+	 * @param context the context identifier.
+	 * @param amount  the number by which to increase the size
+	 */
+	void incrementBy(Resource context, long amount) {
+		contextInfoMap.merge(context, amount, (size, increment) -> size + increment);
 		contentsChanged = true;
 	}
 
@@ -0,0 +1,609 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.eclipse.rdf4j.OpenRDFUtil;
+import org.eclipse.rdf4j.common.concurrent.locks.Lock;
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.common.io.FileUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads large amounts of statements into an empty {@link NativeStore}, bypassing the regular transaction mechanism.
+ * The values of the statements are stored as they are added and the resulting (subject, predicate, object, context)
+ * ID quads are collected in sorted runs, which are spilled to disk when they no longer fit in memory. When the load is
+ * {@link #finish() finished}, each triple index is built bottom-up from the merged runs. The resulting files are
+ * identical in format to those created by adding statements through a connection.
+ * <p>
+ * The loaded statements only become visible once {@link #finish()} has completed. No other updates should be made to
+ * the store while a bulk load is in progress. If a bulk load is interrupted by a crash, the contents of the data
+ * directory are undefined and the load should be repeated on a new data directory.
+ *
+ * @see NativeStore#startBulkLoad()
+ */
+public class NativeBulkLoader implements AutoCloseable {
+
+	/**
+	 * The default maximum number of statements that are kept in memory before they are spilled to a sorted run on
+	 * disk. Each statement takes 32 bytes of memory.
+	 */
+	public static final int DEFAULT_RUN_SIZE = 1_000_000;
+
+	private static final Logger logger = LoggerFactory.getLogger(NativeBulkLoader.class);
+
+	private final NativeSailStore store;
+
+	private final Lock txnLock;
+
+	private final File tmpDir;
+
+	private final List<String> fieldSeqs;
+
+	/**
+	 * For each index, the positions of the quad fields in index order, e.g. <tt>{1, 2, 0, 3}</tt> for <tt>posc</tt>.
+	 */
+	private final int[][] fieldOrders;
+
+	/**
+	 * ID quads of the statements that have not yet been written to a sorted run.
+	 */
+	private final int[] quads;
+
+	private int quadCount;
+
+	/**
+	 * The quads in the order of one of the indexes, encoded as two longs per quad so that they can be sorted cheaply.
+	 */
+	private final long[] sortKeys;
+
+	/**
+	 * The number of quads in each of the runs that have been spilled to disk.
+	 */
+	private final List<Integer> runSizes = new ArrayList<>();
+
+	private boolean finished;
+
+	private boolean closed;
+
+	NativeBulkLoader(NativeSailStore store, Lock txnLock, File tmpDir, int runSize) throws IOException {
+		this.store = store;
+		this.txnLock = txnLock;
+		this.tmpDir = Files.createTempDirectory(tmpDir.toPath(), "bulkload").toFile();
+		this.fieldSeqs = store.getTripleStore().getIndexFieldSeqs();
+		this.quads = new int[4 * runSize];
+		this.sortKeys = new long[2 * runSize];
+
+		fieldOrders = new int[fieldSeqs.size()][];
+		for (int i = 0; i < fieldOrders.length; i++) {
+			fieldOrders[i] = new int[4];
+			for (int j = 0; j < 4; j++) {
+				fieldOrders[i][j] = "spoc".indexOf(fieldSeqs.get(i).charAt(j));
+			}
+		}
+	}
+
+	/**
+	 * Adds a statement to the bulk load.
+	 *
+	 * @param st The statement to add.
+	 * @throws SailException If the statement could not be added.
+	 */
+	public void add(Statement st) throws SailException {
+		add(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext());
+	}
+
+	/**
+	 * Adds a statement to each of the specified contexts, or to the default graph if no contexts are specified.
+	 *
+	 * @param subj     The subject of the statement.
+	 * @param pred     The predicate of the statement.
+	 * @param obj      The object of the statement.
+	 * @param contexts The contexts to add the statement to; <tt>null</tt> denotes the default graph.
+	 * @throws SailException If the statement could not be added.
+	 */
+	public void add(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+		OpenRDFUtil.verifyContextNotNull(contexts);
+		if (closed || finished) {
+			throw new IllegalStateException("Bulk load has already been finished or closed");
+		}
+
+		try {
+			if (contexts.length == 0) {
+				addQuad(subj, pred, obj, null);
+			} else {
+				for (Resource context : contexts) {
+					addQuad(subj, pred, obj, context);
+				}
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Builds the triple indexes from the statements that have been added and makes them visible in the store.
+	 *
+	 * @return The number of distinct statements that have been loaded.
+	 * @throws SailException If the store is no longer empty or if an I/O error occurred.
+	 */
+	public long finish() throws SailException {
+		if (closed || finished) {
+			throw new IllegalStateException("Bulk load has already been finished or closed");
+		}
+		finished = true;
+
+		try {
+			TripleStore tripleStore = store.getTripleStore();
+			if (!tripleStore.isEmpty()) {
+				throw new SailException("Bulk loading requires an empty store");
+			}
+
+			Map<Integer, Long> contextSizes = new HashMap<>();
+			long statementCount = 0;
+
+			for (int i = 0; i < fieldSeqs.size(); i++) {
+				logger.debug("Building {} index from {} sorted run(s)", fieldSeqs.get(i), runSizes.size() + 1);
+
+				try (MergedRuns records = openRuns(i, i == 0 ? contextSizes : null)) {
+					tripleStore.bulkLoad(fieldSeqs.get(i), records);
+					statementCount = records.recordCount;
+				}
+			}
+
+			ValueStore valueStore = store.getValueStore();
+			valueStore.sync();
+
+			ContextStore contextStore = store.getContextStore();
+			for (Map.Entry<Integer, Long> entry : contextSizes.entrySet()) {
+				contextStore.incrementBy((Resource) valueStore.getValue(entry.getKey()), entry.getValue());
+			}
+			contextStore.sync();
+
+			return statementCount;
+		} catch (IOException e) {
+			throw new SailException(e);
+		} catch (UncheckedIOException e) {
+			throw new SailException(e.getCause());
+		}
+	}
+
+	/**
+	 * Discards any temporary files and ends the bulk load. Statements that have been added are lost if
+	 * {@link #finish()} has not been called.
+	 */
+	@Override
+	public void close() throws SailException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try {
+			FileUtil.deleteDir(tmpDir);
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			txnLock.release();
+		}
+	}
+
+	private void addQuad(Resource subj, IRI pred, Value obj, Resource context) throws IOException {
+		if (quadCount * 4 == quads.length) {
+			spillRun();
+		}
+
+		ValueStore valueStore = store.getValueStore();
+		int offset = 4 * quadCount;
+		quads[offset] = valueStore.storeValue(subj);
+		quads[offset + 1] = valueStore.storeValue(pred);
+		quads[offset + 2] = valueStore.storeValue(obj);
+		quads[offset + 3] = context == null ? 0 : valueStore.storeValue(context);
+		quadCount++;
+	}
+
+	/**
+	 * Writes the buffered quads to a sorted run file for each index.
+	 */
+	private void spillRun() throws IOException {
+		int run = runSizes.size();
+
+		for (int i = 0; i < fieldSeqs.size(); i++) {
+			sortQuads(i);
+
+			File runFile = getRunFile(i, run);
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(runFile), 1 << 16))) {
+				for (int k = 0; k < 2 * quadCount; k++) {
+					out.writeLong(sortKeys[k]);
+				}
+			}
+		}
+
+		logger.debug("Spilled sorted run {} with {} statements", run, quadCount);
+
+		runSizes.add(quadCount);
+		quadCount = 0;
+	}
+
+	/**
+	 * Fills the sort keys with the buffered quads in the order of the specified index, and sorts them.
+	 */
+	private void sortQuads(int index) {
+		int[] fieldOrder = fieldOrders[index];
+		for (int q = 0; q < quadCount; q++) {
+			int offset = 4 * q;
+			sortKeys[2 * q] = ((long) quads[offset + fieldOrder[0]] << 32)
+					| (quads[offset + fieldOrder[1]] & 0xffffffffL);
+			sortKeys[2 * q + 1] = ((long) quads[offset + fieldOrder[2]] << 32)
+					| (quads[offset + fieldOrder[3]] & 0xffffffffL);
+		}
+		sort(sortKeys, 0, quadCount);
+	}
+
+	private MergedRuns openRuns(int index, Map<Integer, Long> contextSizes) throws IOException {
+		List<SortedRun> runs = new ArrayList<>(runSizes.size() + 1);
+		try {
+			for (int run = 0; run < runSizes.size(); run++) {
+				runs.add(new FileRun(getRunFile(index, run), runSizes.get(run)));
+			}
+
+			// the quads that were not spilled are merged from memory
+			sortQuads(index);
+			runs.add(new MemoryRun(sortKeys, quadCount));
+
+			return new MergedRuns(runs, fieldOrders[index], contextSizes);
+		} catch (IOException e) {
+			for (SortedRun run : runs) {
+				run.close();
+			}
+			throw e;
+		}
+	}
+
+	private File getRunFile(int index, int run) {
+		return new File(tmpDir, fieldSeqs.get(index) + "-" + run + ".run");
+	}
+
+	/*---------------------------------------*
+	 * Sorting of quads encoded as long pairs *
+	 *---------------------------------------*/
+
+	/**
+	 * Sorts the quads in the specified range using an introsort: a quicksort that switches to heapsort for partitions
+	 * that recurse too deeply, guaranteeing <tt>O(n log n)</tt> behaviour on adversarial inputs such as ID sequences
+	 * with a regular stride.
+	 */
+	private static void sort(long[] keys, int low, int high) {
+		sort(keys, low, high, 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, high - low))));
+	}
+
+	private static void sort(long[] keys, int low, int high, int depthLimit) {
+		while (high - low > 16) {
+			if (depthLimit-- == 0) {
+				heapSort(keys, low, high);
+				return;
+			}
+
+			int pivot = medianOfThree(keys, low, (low + high) >>> 1, high - 1);
+			long pivot1 = keys[2 * pivot];
+			long pivot2 = keys[2 * pivot + 1];
+
+			int i = low;
+			int j = high - 1;
+			while (i <= j) {
+				while (compare(keys, i, pivot1, pivot2) < 0) {
+					i++;
+				}
+				while (compare(keys, j, pivot1, pivot2) > 0) {
+					j--;
+				}
+				if (i <= j) {
+					swap(keys, i++, j--);
+				}
+			}
+
+			// recurse into the smaller partition, loop on the larger one
+			if (j + 1 - low < high - i) {
+				sort(keys, low, j + 1, depthLimit);
+				low = i;
+			} else {
+				sort(keys, i, high, depthLimit);
+				high = j + 1;
+			}
+		}
+
+		for (int i = low + 1; i < high; i++) {
+			for (int j = i; j > low && compare(keys, j, keys[2 * j - 2], keys[2 * j - 1]) < 0; j--) {
+				swap(keys, j, j - 1);
+			}
+		}
+	}
+
+	private static void heapSort(long[] keys, int low, int high) {
+		int size = high - low;
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(keys, low, i, size);
+		}
+		for (int end = size - 1; end > 0; end--) {
+			swap(keys, low, low + end);
+			siftDown(keys, low, 0, end);
+		}
+	}
+
+	private static void siftDown(long[] keys, int low, int node, int size) {
+		while (2 * node + 1 < size) {
+			int child = 2 * node + 1;
+			if (child + 1 < size && compare(keys, low + child + 1, keys[2 * (low + child)],
+					keys[2 * (low + child) + 1]) > 0) {
+				child++;
+			}
+			if (compare(keys, low + node, keys[2 * (low + child)], keys[2 * (low + child) + 1]) >= 0) {
+				return;
+			}
+			swap(keys, low + node, low + child);
+			node = child;
+		}
+	}
+
+	private static int medianOfThree(long[] keys, int a, int b, int c) {
+		if (compare(keys, a, keys[2 * b], keys[2 * b + 1]) < 0) {
+			if (compare(keys, b, keys[2 * c], keys[2 * c + 1]) < 0) {
+				return b;
+			}
+			return compare(keys, a, keys[2 * c], keys[2 * c + 1]) < 0 ? c : a;
+		}
+		if (compare(keys, a, keys[2 * c], keys[2 * c + 1]) < 0) {
+			return a;
+		}
+		return compare(keys, b, keys[2 * c], keys[2 * c + 1]) < 0 ? c : b;
+	}
+
+	private static int compare(long[] keys, int idx, long key1, long key2) {
+		int diff = Long.compare(keys[2 * idx], key1);
+		return diff != 0 ? diff : Long.compare(keys[2 * idx + 1], key2);
+	}
+
+	private static void swap(long[] keys, int i, int j) {
+		long tmp1 = keys[2 * i];
+		long tmp2 = keys[2 * i + 1];
+		keys[2 * i] = keys[2 * j];
+		keys[2 * i + 1] = keys[2 * j + 1];
+		keys[2 * j] = tmp1;
+		keys[2 * j + 1] = tmp2;
+	}
+
+	/*-------------*
+	 * Sorted runs *
+	 *-------------*/
+
+	private static abstract class SortedRun implements Comparable<SortedRun> {
+
+		long key1;
+
+		long key2;
+
+		/**
+		 * Advances to the next quad in the run.
+		 *
+		 * @return <tt>false</tt> if the run has been exhausted.
+		 */
+		abstract boolean next() throws IOException;
+
+		abstract void close() throws IOException;
+
+		@Override
+		public int compareTo(SortedRun other) {
+			int diff = Long.compare(key1, other.key1);
+			return diff != 0 ? diff : Long.compare(key2, other.key2);
+		}
+	}
+
+	private static final class MemoryRun extends SortedRun {
+
+		private final long[] keys;
+
+		private final int size;
+
+		private int position;
+
+		MemoryRun(long[] keys, int size) {
+			this.keys = keys;
+			this.size = size;
+		}
+
+		@Override
+		boolean next() {
+			if (position == size) {
+				return false;
+			}
+			key1 = keys[2 * position];
+			key2 = keys[2 * position + 1];
+			position++;
+			return true;
+		}
+
+		@Override
+		void close() {
+		}
+	}
+
+	private static final class FileRun extends SortedRun {
+
+		private final DataInputStream in;
+
+		private int remaining;
+
+		FileRun(File file, int size) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+			this.remaining = size;
+		}
+
+		@Override
+		boolean next() throws IOException {
+			if (remaining == 0) {
+				return false;
+			}
+			key1 = in.readLong();
+			key2 = in.readLong();
+			remaining--;
+			return true;
+		}
+
+		@Override
+		void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * Merges the sorted runs of an index into a sorted stream of triple records, dropping duplicate statements. I/O
+	 * errors while reading the runs are thrown as {@link UncheckedIOException}s.
+	 */
+	private static final class MergedRuns implements Iterator<byte[]>, Closeable {
+
+		private final PriorityQueue<SortedRun> queue;
+
+		private final int[] fieldOrder;
+
+		private final Map<Integer, Long> contextSizes;
+
+		private final int contextPos;
+
+		private long lastKey1 = -1;
+
+		private long lastKey2 = -1;
+
+		private byte[] nextRecord;
+
+		long recordCount;
+
+		MergedRuns(List<SortedRun> runs, int[] fieldOrder, Map<Integer, Long> contextSizes) throws IOException {
+			this.queue = new PriorityQueue<>(runs.size() + 1);
+			this.fieldOrder = fieldOrder;
+			this.contextSizes = contextSizes;
+
+			int contextPos = 0;
+			while (fieldOrder[contextPos] != 3) {
+				contextPos++;
+			}
+			this.contextPos = contextPos;
+
+			for (SortedRun run : runs) {
+				if (run.next()) {
+					queue.add(run);
+				} else {
+					run.close();
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextRecord == null) {
+				try {
+					nextRecord = mergeNext();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return nextRecord != null;
+		}
+
+		@Override
+		public byte[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			byte[] record = nextRecord;
+			nextRecord = null;
+			return record;
+		}
+
+		private byte[] mergeNext() throws IOException {
+			while (!queue.isEmpty()) {
+				SortedRun run = queue.poll();
+				long key1 = run.key1;
+				long key2 = run.key2;
+
+				if (run.next()) {
+					queue.add(run);
+				} else {
+					run.close();
+				}
+
+				if (key1 == lastKey1 && key2 == lastKey2) {
+					// duplicate statement
+					continue;
+				}
+				lastKey1 = key1;
+				lastKey2 = key2;
+				recordCount++;
+
+				byte[] record = new byte[TripleStore.RECORD_LENGTH];
+				for (int j = 0; j < 4; j++) {
+					int id = field(key1, key2, j);
+					ByteArrayUtil.putInt(id, record, 4 * fieldOrder[j]);
+
+					if (j == contextPos && id != 0 && contextSizes != null) {
+						contextSizes.merge(id, 1L, Long::sum);
+					}
+				}
+				record[TripleStore.FLAG_IDX] = TripleStore.EXPLICIT_FLAG;
+
+				return record;
+			}
+
+			return null;
+		}
+
+		private static int field(long key1, long key2, int j) {
+			switch (j) {
+			case 0:
+				return (int) (key1 >>> 32);
+			case 1:
+				return (int) key1;
+			case 2:
+				return (int) (key2 >>> 32);
+			default:
+				return (int) key2;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			while (!queue.isEmpty()) {
+				queue.poll().close();
+			}
+		}
+	}
+}
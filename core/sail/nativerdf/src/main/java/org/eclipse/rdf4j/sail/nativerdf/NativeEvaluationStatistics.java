@@ -110,6 +110,13 @@ class NativeEvaluationStatistics extends EvaluationStatistics {
 			}
 		}
 
+		if (predID != NativeValue.UNKNOWN_ID && contextID == NativeValue.UNKNOWN_ID
+				&& (subjID == NativeValue.UNKNOWN_ID || objID == NativeValue.UNKNOWN_ID)) {
+			// The per-predicate statistics account for skewed predicate and object distributions, which the B-tree
+			// range estimates do not
+			return tripleStore.getPredicateStatistics().cardinality(subjID, predID, objID);
+		}
+
 		return tripleStore.cardinality(subjID, predID, objID, contextID);
 	}
 }
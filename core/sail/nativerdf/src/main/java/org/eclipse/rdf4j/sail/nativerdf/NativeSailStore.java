@@ -86,12 +86,23 @@ class NativeSailStore implements SailStore {
 	 */
 	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, int valueCacheSize,
 			int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize) throws IOException, SailException {
+		this(dataDir, tripleIndexes, forceSync, false, valueCacheSize, valueIDCacheSize, -1, -1, namespaceCacheSize,
+				namespaceIDCacheSize);
+	}
+
+	/**
+	 * Creates a new {@link NativeSailStore}, optionally reading its triple indexes through memory-mapped regions and
+	 * bounding the value caches by memory size instead of by number of entries.
+	 */
+	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, boolean memoryMappedIndexes,
+			int valueCacheSize, int valueIDCacheSize, long valueCacheMemory, long valueIDCacheMemory,
+			int namespaceCacheSize, int namespaceIDCacheSize) throws IOException, SailException {
 		boolean initialized = false;
 		try {
 			namespaceStore = new NamespaceStore(dataDir);
-			valueStore = new ValueStore(dataDir, forceSync, valueCacheSize, valueIDCacheSize, namespaceCacheSize,
-					namespaceIDCacheSize);
-			tripleStore = new TripleStore(dataDir, tripleIndexes, forceSync);
+			valueStore = new ValueStore(dataDir, forceSync, valueCacheSize, valueIDCacheSize, valueCacheMemory,
+					valueIDCacheMemory, namespaceCacheSize, namespaceIDCacheSize);
+			tripleStore = new TripleStore(dataDir, tripleIndexes, forceSync, memoryMappedIndexes);
 			contextStore = new ContextStore(this, dataDir);
 			initialized = true;
 		} finally {
@@ -106,6 +117,18 @@ class NativeSailStore implements SailStore {
 		return valueStore;
 	}
 
+	ValueStore getValueStore() {
+		return valueStore;
+	}
+
+	TripleStore getTripleStore() {
+		return tripleStore;
+	}
+
+	ContextStore getContextStore() {
+		return contextStore;
+	}
+
 	@Override
 	public void close() throws SailException {
 		try {
@@ -239,17 +262,21 @@ class NativeSailStore implements SailStore {
 		}
 
 		List<Integer> contextIDList = new ArrayList<>(contexts.length);
+		List<Resource> contextList = new ArrayList<>(contexts.length);
 		if (contexts.length == 0) {
 			contextIDList.add(NativeValue.UNKNOWN_ID);
+			contextList.add(null);
 		} else {
 			for (Resource context : contexts) {
 				if (context == null) {
 					contextIDList.add(0);
+					contextList.add(null);
 				} else {
 					int contextID = valueStore.getID(context);
 
 					if (contextID != NativeValue.UNKNOWN_ID) {
 						contextIDList.add(contextID);
+						contextList.add(context);
 					}
 				}
 			}
@@ -257,10 +284,12 @@ class NativeSailStore implements SailStore {
 
 		ArrayList<NativeStatementIterator> perContextIterList = new ArrayList<>(contextIDList.size());
 
-		for (int contextID : contextIDList) {
+		for (int i = 0; i < contextIDList.size(); i++) {
+			int contextID = contextIDList.get(i);
 			RecordIterator btreeIter = tripleStore.getTriples(subjID, predID, objID, contextID, explicit, false);
 
-			perContextIterList.add(new NativeStatementIterator(btreeIter, valueStore));
+			perContextIterList.add(
+					new NativeStatementIterator(btreeIter, valueStore, subj, pred, obj, contextList.get(i)));
 		}
 
 		if (perContextIterList.size() == 1) {
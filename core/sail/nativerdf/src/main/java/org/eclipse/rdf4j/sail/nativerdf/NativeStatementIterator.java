@@ -12,6 +12,7 @@ import java.io.IOException;
 import org.eclipse.rdf4j.common.io.ByteArrayUtil;
 import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
@@ -32,6 +33,28 @@ class NativeStatementIterator extends LookAheadIteration<Statement, SailExceptio
 
 	private final ValueStore valueStore;
 
+	/**
+	 * Whether the subject is bound by the statement pattern. Like the other bound values of the pattern, it is then
+	 * read from the value store for the first matching statement only, and reused for the others. Literal objects are
+	 * always read, as these may be stored in a different lexical form. The values of the pattern itself are not used,
+	 * since they may lack the internal IDs of the values returned by the value store.
+	 */
+	private final boolean subjBound;
+
+	private final boolean predBound;
+
+	private final boolean objBound;
+
+	private final boolean contextBound;
+
+	private Resource subj;
+
+	private IRI pred;
+
+	private Value obj;
+
+	private Resource context;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -40,8 +63,25 @@ class NativeStatementIterator extends LookAheadIteration<Statement, SailExceptio
 	 * Creates a new NativeStatementIterator.
 	 */
 	public NativeStatementIterator(RecordIterator btreeIter, ValueStore valueStore) throws IOException {
+		this(btreeIter, valueStore, null, null, null, null);
+	}
+
+	/**
+	 * Creates a new NativeStatementIterator over the statements that match the supplied pattern.
+	 *
+	 * @param subj    The subject of the pattern, or <tt>null</tt> for a wildcard.
+	 * @param pred    The predicate of the pattern, or <tt>null</tt> for a wildcard.
+	 * @param obj     The object of the pattern, or <tt>null</tt> for a wildcard.
+	 * @param context The context of the pattern, or <tt>null</tt> for a wildcard or the default context.
+	 */
+	public NativeStatementIterator(RecordIterator btreeIter, ValueStore valueStore, Resource subj, IRI pred, Value obj,
+			Resource context) throws IOException {
 		this.btreeIter = btreeIter;
 		this.valueStore = valueStore;
+		this.subjBound = subj != null;
+		this.predBound = pred != null;
+		this.objBound = obj != null && !(obj instanceof Literal);
+		this.contextBound = context != null;
 	}
 
 	/*---------*
@@ -57,19 +97,40 @@ class NativeStatementIterator extends LookAheadIteration<Statement, SailExceptio
 				return null;
 			}
 
-			int subjID = ByteArrayUtil.getInt(nextValue, TripleStore.SUBJ_IDX);
-			Resource subj = (Resource) valueStore.getValue(subjID);
+			Resource subj = this.subj;
+			if (subj == null) {
+				int subjID = ByteArrayUtil.getInt(nextValue, TripleStore.SUBJ_IDX);
+				subj = (Resource) valueStore.getValue(subjID);
+				if (subjBound) {
+					this.subj = subj;
+				}
+			}
 
-			int predID = ByteArrayUtil.getInt(nextValue, TripleStore.PRED_IDX);
-			IRI pred = (IRI) valueStore.getValue(predID);
+			IRI pred = this.pred;
+			if (pred == null) {
+				int predID = ByteArrayUtil.getInt(nextValue, TripleStore.PRED_IDX);
+				pred = (IRI) valueStore.getValue(predID);
+				if (predBound) {
+					this.pred = pred;
+				}
+			}
 
-			int objID = ByteArrayUtil.getInt(nextValue, TripleStore.OBJ_IDX);
-			Value obj = valueStore.getValue(objID);
+			Value obj = this.obj;
+			if (obj == null) {
+				int objID = ByteArrayUtil.getInt(nextValue, TripleStore.OBJ_IDX);
+				obj = valueStore.getValue(objID);
+				if (objBound) {
+					this.obj = obj;
+				}
+			}
 
-			Resource context = null;
+			Resource context = this.context;
 			int contextID = ByteArrayUtil.getInt(nextValue, TripleStore.CONTEXT_IDX);
-			if (contextID != 0) {
+			if (context == null && contextID != 0) {
 				context = (Resource) valueStore.getValue(contextID);
+				if (contextBound) {
+					this.context = context;
+				}
 			}
 
 			return valueStore.createStatement(subj, pred, obj, context);
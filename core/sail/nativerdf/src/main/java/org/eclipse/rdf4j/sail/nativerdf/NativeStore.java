@@ -9,8 +9,15 @@ package org.eclipse.rdf4j.sail.nativerdf;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.apache.commons.io.FileUtils;
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
@@ -22,6 +29,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyFactory;
 import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
@@ -65,16 +73,45 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile boolean forceSync = false;
 
+	/**
+	 * Flag indicating whether the triple indexes should be read through memory-mapped regions of the index files. By
+	 * default, this feature is disabled.
+	 */
+	private volatile boolean memoryMappedIndexes = false;
+
+	/**
+	 * The maximum number of triple indexes that are updated concurrently on commit. By default, the indexes are updated
+	 * one after another.
+	 */
+	private volatile int indexUpdateParallelism = 1;
+
 	private volatile int valueCacheSize = ValueStore.VALUE_CACHE_SIZE;
 
 	private volatile int valueIDCacheSize = ValueStore.VALUE_ID_CACHE_SIZE;
 
+	/**
+	 * The approximate memory size (in bytes) of the value cache, a negative value indicates that the value cache is
+	 * bounded by {@link #valueCacheSize} instead.
+	 */
+	private volatile long valueCacheMemory = -1;
+
+	/**
+	 * The approximate memory size (in bytes) of the value ID cache, a negative value indicates that the value ID cache
+	 * is bounded by {@link #valueIDCacheSize} instead.
+	 */
+	private volatile long valueIDCacheMemory = -1;
+
 	private volatile int namespaceCacheSize = ValueStore.NAMESPACE_CACHE_SIZE;
 
 	private volatile int namespaceIDCacheSize = ValueStore.NAMESPACE_ID_CACHE_SIZE;
 
 	private SailStore store;
 
+	/**
+	 * The store that keeps the committed statements, wrapped by {@link #store}.
+	 */
+	private NativeSailStore nativeSailStore;
+
 	// used to decide if store is writable, is true if the store was writable during initialization
 	private boolean isWritable;
 
@@ -83,8 +120,15 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile Lock dirLock;
 
+	/**
+	 * Names of the management beans that were registered for this store.
+	 */
+	private final List<ObjectName> registeredMBeans = new ArrayList<>();
+
 	private EvaluationStrategyFactory evalStratFactory;
 
+	private final QueryPlanCache queryPlanCache = new QueryPlanCache();
+
 	/** independent life cycle */
 	private FederatedServiceResolver serviceResolver;
 
@@ -164,6 +208,48 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		return forceSync;
 	}
 
+	/**
+	 * Specifies whether the B-tree nodes of the triple indexes should be read from memory-mapped regions of the index
+	 * files instead of through regular file reads, must be called before initialization. This reduces system call
+	 * and garbage collection overhead for read-heavy workloads on large stores, at the cost of address space. Mapped
+	 * regions are only released by the garbage collector, which on some platforms (e.g. Windows) may prevent index
+	 * files from being shrunk or deleted. By default, this feature is disabled.
+	 */
+	public void setMemoryMappedIndexes(boolean memoryMappedIndexes) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.memoryMappedIndexes = memoryMappedIndexes;
+	}
+
+	public boolean getMemoryMappedIndexes() {
+		return memoryMappedIndexes;
+	}
+
+	/**
+	 * Specifies the maximum number of triple indexes that are updated concurrently, on separate threads, when a
+	 * transaction is committed or rolled back, must be called before initialization. Each index is stored in its own
+	 * file, so with several indexes configured this reduces commit latency on storage that handles concurrent I/O
+	 * well. By default, the indexes are updated one after another.
+	 *
+	 * @param indexUpdateParallelism The number of indexes to update concurrently, at least <tt>1</tt>.
+	 */
+	public void setIndexUpdateParallelism(int indexUpdateParallelism) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+		if (indexUpdateParallelism < 1) {
+			throw new IllegalArgumentException("indexUpdateParallelism must be at least 1");
+		}
+
+		this.indexUpdateParallelism = indexUpdateParallelism;
+	}
+
+	public int getIndexUpdateParallelism() {
+		return indexUpdateParallelism;
+	}
+
 	public void setValueCacheSize(int valueCacheSize) {
 		this.valueCacheSize = valueCacheSize;
 	}
@@ -172,6 +258,44 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		this.valueIDCacheSize = valueIDCacheSize;
 	}
 
+	/**
+	 * Bounds the value cache by an approximate memory size instead of by a number of entries, must be called before
+	 * initialization.
+	 *
+	 * @param valueCacheMemory The approximate maximum number of bytes used by the value cache, or a negative number to
+	 *                         bound the cache by the {@link #setValueCacheSize(int) value cache size}.
+	 */
+	public void setValueCacheMemory(long valueCacheMemory) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.valueCacheMemory = valueCacheMemory;
+	}
+
+	public long getValueCacheMemory() {
+		return valueCacheMemory;
+	}
+
+	/**
+	 * Bounds the value ID cache by an approximate memory size instead of by a number of entries, must be called before
+	 * initialization.
+	 *
+	 * @param valueIDCacheMemory The approximate maximum number of bytes used by the value ID cache, or a negative
+	 *                           number to bound the cache by the {@link #setValueIDCacheSize(int) value ID cache size}.
+	 */
+	public void setValueIDCacheMemory(long valueIDCacheMemory) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.valueIDCacheMemory = valueIDCacheMemory;
+	}
+
+	public long getValueIDCacheMemory() {
+		return valueIDCacheMemory;
+	}
+
 	public void setNamespaceCacheSize(int namespaceCacheSize) {
 		this.namespaceCacheSize = namespaceCacheSize;
 	}
@@ -197,6 +321,14 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	public synchronized void setEvaluationStrategyFactory(EvaluationStrategyFactory factory) {
 		evalStratFactory = factory;
+		queryPlanCache.invalidateAll();
+	}
+
+	/**
+	 * @return Returns the cache of optimized query plans, which also reports its hit rate.
+	 */
+	public QueryPlanCache getQueryPlanCache() {
+		return queryPlanCache;
 	}
 
 	/**
@@ -262,8 +394,12 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 			if (!VERSION.equals(version) && upgradeStore(dataDir, version)) {
 				FileUtils.writeStringToFile(versionFile, VERSION);
 			}
-			final NativeSailStore master = new NativeSailStore(dataDir, tripleIndexes, forceSync, valueCacheSize,
-					valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize);
+			final NativeSailStore master = new NativeSailStore(dataDir, tripleIndexes, forceSync, memoryMappedIndexes,
+					valueCacheSize, valueIDCacheSize, valueCacheMemory, valueIDCacheMemory, namespaceCacheSize,
+					namespaceIDCacheSize);
+			master.getTripleStore().setIndexUpdateParallelism(indexUpdateParallelism);
+			registerCacheMBeans(dataDir, master.getValueStore());
+			this.nativeSailStore = master;
 			this.store = new SnapshotSailStore(master, () -> new MemoryOverflowModel() {
 
 				@Override
@@ -314,6 +450,7 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 
 			logger.debug("NativeStore shut down");
 		} finally {
+			unregisterMBeans();
 			dirLock.release();
 			if (dependentServiceResolver != null) {
 				dependentServiceResolver.shutDown();
@@ -387,6 +524,99 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		return store;
 	}
 
+	ValueStore getValueStore() {
+		return nativeSailStore.getValueStore();
+	}
+
+	/**
+	 * Starts a bulk load into this store, which must be empty, using the default run size.
+	 *
+	 * @return A loader to which the statements can be added.
+	 * @throws SailException If the store is not empty or the bulk load could not be started.
+	 * @see NativeBulkLoader
+	 */
+	public NativeBulkLoader startBulkLoad() throws SailException {
+		return startBulkLoad(NativeBulkLoader.DEFAULT_RUN_SIZE);
+	}
+
+	/**
+	 * Starts a bulk load into this store, which must be empty. The loader keeps up to <tt>runSize</tt> statements in
+	 * memory before it spills them to a sorted run on disk; larger runs require more memory but fewer, longer merges.
+	 * Isolated transactions are blocked until the loader is closed; no other updates should be made in the meantime.
+	 *
+	 * @param runSize The maximum number of statements to sort in memory.
+	 * @return A loader to which the statements can be added.
+	 * @throws SailException If the store is not empty or the bulk load could not be started.
+	 * @see NativeBulkLoader
+	 */
+	public NativeBulkLoader startBulkLoad(int runSize) throws SailException {
+		if (runSize <= 0) {
+			throw new IllegalArgumentException("runSize must be positive: " + runSize);
+		}
+		if (!isInitialized()) {
+			init();
+		}
+		if (!isWritable()) {
+			throw new SailException("Store is not writable");
+		}
+
+		Lock txnLock = getTransactionLock(IsolationLevels.NONE);
+		try {
+			if (!nativeSailStore.getTripleStore().isEmpty()) {
+				throw new SailException("Bulk loading requires an empty store");
+			}
+			NativeBulkLoader loader = new NativeBulkLoader(nativeSailStore, txnLock, getDataDir(), runSize);
+			txnLock = null;
+			return loader;
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			if (txnLock != null) {
+				txnLock.release();
+			}
+		}
+	}
+
+	/**
+	 * Exposes the statistics of the value caches as management beans, so that cache sizes can be tuned at runtime.
+	 * Failure to register is logged but does not prevent the store from being used.
+	 */
+	private void registerCacheMBeans(File dataDir, ValueStore valueStore) {
+		registerMBean(dataDir, "valueCache", valueStore.getValueCacheStatistics());
+		registerMBean(dataDir, "valueIDCache", valueStore.getValueIDCacheStatistics());
+	}
+
+	private void registerMBean(File dataDir, String name, Object mbean) {
+		try {
+			ObjectName objectName = new ObjectName("org.eclipse.rdf4j.sail.nativerdf:type=NativeStore,dataDir="
+					+ ObjectName.quote(dataDir.getAbsolutePath()) + ",name=" + name);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(mbean, objectName);
+			synchronized (registeredMBeans) {
+				registeredMBeans.add(objectName);
+			}
+		} catch (JMException | RuntimeException e) {
+			logger.warn("Unable to register management bean {} for NativeStore: {}", name, e.getMessage());
+		}
+	}
+
+	private void unregisterMBeans() {
+		synchronized (registeredMBeans) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			for (ObjectName objectName : registeredMBeans) {
+				try {
+					server.unregisterMBean(objectName);
+				} catch (JMException e) {
+					logger.debug("Unable to unregister management bean {}", objectName, e);
+				}
+			}
+			registeredMBeans.clear();
+		}
+	}
+
 	private boolean upgradeStore(File dataDir, String version) throws IOException, SailException {
 		if (version == null) {
 			// either a new store or a pre-2.8.2 store
@@ -14,6 +14,12 @@ import org.eclipse.rdf4j.common.concurrent.locks.Lock;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.RDFStarTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryPlanCache;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.SailReadOnlyException;
 import org.eclipse.rdf4j.sail.base.SailSourceConnection;
@@ -57,6 +63,23 @@ public class NativeStoreConnection extends SailSourceConnection {
 	 * Methods *
 	 *---------*/
 
+	/**
+	 * Evaluates queries on a triple source that provides the IDs of the value store, so that joins, DISTINCT and GROUP
+	 * BY compare value IDs rather than values.
+	 */
+	@Override
+	protected EvaluationStrategy getEvaluationStrategy(Dataset dataset, TripleSource tripleSource) {
+		if (tripleSource instanceof RDFStarTripleSource && !(tripleSource instanceof InternalIdTripleSource)) {
+			tripleSource = new NativeTripleSource((RDFStarTripleSource) tripleSource, nativeStore.getValueStore());
+		}
+		return super.getEvaluationStrategy(dataset, tripleSource);
+	}
+
+	@Override
+	protected QueryPlanCache getQueryPlanCache() {
+		return nativeStore.getQueryPlanCache();
+	}
+
 	@Override
 	protected void startTransactionInternal() throws SailException {
 		addedCount = 0;
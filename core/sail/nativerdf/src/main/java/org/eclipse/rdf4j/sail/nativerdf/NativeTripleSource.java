@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.RDFStarTripleSource;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+
+/**
+ * A triple source of a {@link NativeStore} that exposes the IDs of the {@link ValueStore} as internal IDs, so that the
+ * evaluation strategy can key joins, DISTINCT and GROUP BY on these IDs.
+ */
+class NativeTripleSource implements InternalIdTripleSource, RDFStarTripleSource {
+
+	private final RDFStarTripleSource delegate;
+
+	private final ValueStore valueStore;
+
+	/**
+	 * The IDs of the values that do not carry a current ID of the value store, such as computed values and values
+	 * that were read back from spilled solutions. The value store does not cache the values that it does not contain,
+	 * and looks these up on disk every time, so both found and unknown values are cached for the evaluation that uses
+	 * this triple source.
+	 */
+	private volatile IdCache idCache;
+
+	public NativeTripleSource(RDFStarTripleSource delegate, ValueStore valueStore) {
+		this.delegate = delegate;
+		this.valueStore = valueStore;
+	}
+
+	@Override
+	public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj, IRI pred,
+			Value obj, Resource... contexts) throws QueryEvaluationException {
+		return delegate.getStatements(subj, pred, obj, contexts);
+	}
+
+	@Override
+	public CloseableIteration<? extends Triple, QueryEvaluationException> getRdfStarTriples(Resource subj, IRI pred,
+			Value obj) throws QueryEvaluationException {
+		return delegate.getRdfStarTriples(subj, pred, obj);
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return delegate.getValueFactory();
+	}
+
+	@Override
+	public long getInternalID(Value value) throws QueryEvaluationException {
+		if (value instanceof Triple) {
+			// triples are not stored in the value store
+			return UNKNOWN_ID;
+		}
+
+		ValueStoreRevision revision = valueStore.getRevision();
+		if (value instanceof NativeValue && revision.equals(((NativeValue) value).getValueStoreRevision())) {
+			int id = ((NativeValue) value).getInternalID();
+			if (id != NativeValue.UNKNOWN_ID) {
+				return id;
+			}
+		}
+
+		IdCache cache = idCache;
+		if (cache == null || cache.revision != revision) {
+			cache = new IdCache(revision);
+			idCache = cache;
+		}
+
+		Long cachedID = cache.ids.get(value);
+		if (cachedID != null) {
+			return cachedID;
+		}
+		try {
+			int id = valueStore.getID(value);
+			long internalID = id == NativeValue.UNKNOWN_ID ? UNKNOWN_ID : id;
+			cache.ids.put(value, internalID);
+			return internalID;
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+
+	private static class IdCache {
+
+		private final ValueStoreRevision revision;
+
+		private final Map<Value, Long> ids = new ConcurrentHashMap<>();
+
+		private IdCache(ValueStoreRevision revision) {
+			this.revision = revision;
+		}
+	}
+}
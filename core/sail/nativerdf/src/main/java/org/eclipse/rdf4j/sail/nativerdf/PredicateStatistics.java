@@ -0,0 +1,471 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+
+/**
+ * In-memory statistics about the statements of each predicate in a {@link TripleStore}, used for estimating the
+ * cardinality of statement patterns with a bound predicate. For each predicate, the following is maintained:
+ * <ul>
+ * <li>the exact number of statements;
+ * <li>the approximate number of distinct subjects and objects, counted exactly up to a small number and through a
+ * HyperLogLog sketch beyond that;
+ * <li>the most frequent objects with their (over)estimated frequencies, tracked with the Space-Saving algorithm.
+ * </ul>
+ * The distinct value estimates can not be decreased when statements are removed and are therefore capped by the
+ * statement count; they become exact again when the statistics are rebuilt.
+ * <p>
+ * The statistics are persisted in a file that is written when the triple store is closed and deleted as soon as the
+ * statistics change afterwards, so that a missing file signals that the statistics need to be rebuilt from the
+ * indexes. The file has a 4-byte header consisting of a 3-byte magic number and a 1-byte format version, followed by
+ * the number of predicates as an int and a record per predicate.
+ */
+class PredicateStatistics {
+
+	private static final String FILE_NAME = "predicates.stat";
+
+	/**
+	 * Magic number "Native Predicate Statistics" to detect whether the file is actually a statistics file.
+	 */
+	private static final byte[] MAGIC_NUMBER = new byte[] { 'n', 'p', 's' };
+
+	private static final byte FILE_FORMAT_VERSION = 1;
+
+	/**
+	 * The number of most frequent objects that is tracked per predicate.
+	 */
+	static final int TOP_OBJECTS = 8;
+
+	private final File file;
+
+	private final Map<Integer, PredicateStats> statsMap = new HashMap<>();
+
+	/**
+	 * Flag indicating whether the contents of the statistics file are up-to-date.
+	 */
+	private boolean fileValid;
+
+	PredicateStatistics(File dataDir) {
+		this.file = new File(dataDir, FILE_NAME);
+	}
+
+	/**
+	 * Reads the statistics from file.
+	 *
+	 * @return <tt>true</tt> if the statistics were read, <tt>false</tt> if they need to be rebuilt.
+	 */
+	synchronized boolean load() throws IOException {
+		statsMap.clear();
+		fileValid = false;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
+			if (!Arrays.equals(magicNumber, MAGIC_NUMBER) || in.readByte() != FILE_FORMAT_VERSION) {
+				return false;
+			}
+
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				int predID = in.readInt();
+				statsMap.put(predID, PredicateStats.read(in));
+			}
+		} catch (FileNotFoundException e) {
+			return false;
+		}
+
+		fileValid = true;
+		return true;
+	}
+
+	/**
+	 * Writes the statistics to file, if they have changed since they were last read or written.
+	 */
+	synchronized void store() throws IOException {
+		if (fileValid) {
+			return;
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.write(MAGIC_NUMBER);
+			out.writeByte(FILE_FORMAT_VERSION);
+			out.writeInt(statsMap.size());
+			for (Map.Entry<Integer, PredicateStats> entry : statsMap.entrySet()) {
+				out.writeInt(entry.getKey());
+				entry.getValue().write(out);
+			}
+		}
+
+		fileValid = true;
+	}
+
+	synchronized void clear() throws IOException {
+		invalidateFile();
+		statsMap.clear();
+	}
+
+	/**
+	 * Registers the addition of a statement.
+	 */
+	synchronized void add(int subj, int pred, int obj) throws IOException {
+		invalidateFile();
+		statsMap.computeIfAbsent(pred, p -> new PredicateStats()).add(subj, obj);
+	}
+
+	/**
+	 * Registers the removal of a statement.
+	 */
+	synchronized void remove(int subj, int pred, int obj) throws IOException {
+		invalidateFile();
+		PredicateStats stats = statsMap.get(pred);
+		if (stats != null && stats.remove(obj)) {
+			statsMap.remove(pred);
+		}
+	}
+
+	/**
+	 * Estimates the number of statements matching the specified pattern in any context.
+	 *
+	 * @param subj The subject ID, or <tt>-1</tt> for a wildcard.
+	 * @param pred The predicate ID, must not be a wildcard.
+	 * @param obj  The object ID, or <tt>-1</tt> for a wildcard.
+	 * @return The estimated number of matching statements.
+	 */
+	synchronized double cardinality(int subj, int pred, int obj) {
+		PredicateStats stats = statsMap.get(pred);
+		if (stats == null) {
+			return 0;
+		}
+
+		double cardinality = stats.count;
+		if (subj >= 0) {
+			cardinality /= stats.distinctSubjects();
+		}
+		if (obj >= 0) {
+			cardinality *= stats.objectFrequency(obj) / (double) stats.count;
+		}
+		return cardinality;
+	}
+
+	synchronized long getCount(int pred) {
+		PredicateStats stats = statsMap.get(pred);
+		return stats == null ? 0 : stats.count;
+	}
+
+	synchronized long getDistinctSubjects(int pred) {
+		PredicateStats stats = statsMap.get(pred);
+		return stats == null ? 0 : stats.distinctSubjects();
+	}
+
+	synchronized long getDistinctObjects(int pred) {
+		PredicateStats stats = statsMap.get(pred);
+		return stats == null ? 0 : stats.distinctObjects();
+	}
+
+	private void invalidateFile() throws IOException {
+		if (fileValid) {
+			fileValid = false;
+			if (file.exists() && !file.delete()) {
+				throw new IOException("Unable to delete file: " + file);
+			}
+		}
+	}
+
+	/**
+	 * The statistics of a single predicate.
+	 */
+	private static class PredicateStats {
+
+		long count;
+
+		final DistinctCounter subjects;
+
+		final DistinctCounter objects;
+
+		/**
+		 * The tracked objects, with their counts and the maximum overestimation of these counts.
+		 */
+		final int[] topObjects = new int[TOP_OBJECTS];
+
+		final long[] topObjectCounts = new long[TOP_OBJECTS];
+
+		final long[] topObjectErrors = new long[TOP_OBJECTS];
+
+		int topObjectsSize;
+
+		PredicateStats() {
+			this(new DistinctCounter(), new DistinctCounter());
+		}
+
+		private PredicateStats(DistinctCounter subjects, DistinctCounter objects) {
+			this.subjects = subjects;
+			this.objects = objects;
+		}
+
+		void add(int subj, int obj) {
+			count++;
+			subjects.add(subj);
+			objects.add(obj);
+
+			int i = indexOfTopObject(obj);
+			if (i >= 0) {
+				topObjectCounts[i]++;
+			} else if (topObjectsSize < TOP_OBJECTS) {
+				topObjects[topObjectsSize] = obj;
+				topObjectCounts[topObjectsSize] = 1;
+				topObjectErrors[topObjectsSize] = 0;
+				topObjectsSize++;
+			} else {
+				// Space-Saving: replace the least frequent object, which inherits its count as error
+				int min = 0;
+				for (int j = 1; j < topObjectsSize; j++) {
+					if (topObjectCounts[j] < topObjectCounts[min]) {
+						min = j;
+					}
+				}
+				topObjects[min] = obj;
+				topObjectErrors[min] = topObjectCounts[min];
+				topObjectCounts[min]++;
+			}
+		}
+
+		/**
+		 * @return <tt>true</tt> if the predicate no longer has any statements.
+		 */
+		boolean remove(int obj) {
+			count--;
+
+			int i = indexOfTopObject(obj);
+			if (i >= 0 && --topObjectCounts[i] <= topObjectErrors[i]) {
+				// no statements with this object are known to remain
+				topObjectsSize--;
+				topObjects[i] = topObjects[topObjectsSize];
+				topObjectCounts[i] = topObjectCounts[topObjectsSize];
+				topObjectErrors[i] = topObjectErrors[topObjectsSize];
+			}
+
+			return count <= 0;
+		}
+
+		long distinctSubjects() {
+			return Math.max(1, Math.min(count, subjects.estimate()));
+		}
+
+		long distinctObjects() {
+			return Math.max(1, Math.min(count, objects.estimate()));
+		}
+
+		/**
+		 * Estimates the number of statements with the specified object.
+		 */
+		double objectFrequency(int obj) {
+			long guaranteedTopCount = 0;
+			long minTopCount = Long.MAX_VALUE;
+			for (int i = 0; i < topObjectsSize; i++) {
+				long guaranteedCount = topObjectCounts[i] - topObjectErrors[i];
+				if (topObjects[i] == obj) {
+					return Math.max(1, guaranteedCount);
+				}
+				guaranteedTopCount += guaranteedCount;
+				minTopCount = Math.min(minTopCount, topObjectCounts[i]);
+			}
+
+			// spread the remaining statements evenly over the remaining objects
+			long otherObjects = distinctObjects() - topObjectsSize;
+			double frequency = Math.max(1, count - guaranteedTopCount) / (double) Math.max(1, otherObjects);
+			if (topObjectsSize == TOP_OBJECTS) {
+				// untracked objects can not be more frequent than the least frequent tracked one
+				frequency = Math.min(frequency, minTopCount);
+			}
+			return Math.min(frequency, count);
+		}
+
+		private int indexOfTopObject(int obj) {
+			for (int i = 0; i < topObjectsSize; i++) {
+				if (topObjects[i] == obj) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeLong(count);
+			subjects.write(out);
+			objects.write(out);
+			out.writeInt(topObjectsSize);
+			for (int i = 0; i < topObjectsSize; i++) {
+				out.writeInt(topObjects[i]);
+				out.writeLong(topObjectCounts[i]);
+				out.writeLong(topObjectErrors[i]);
+			}
+		}
+
+		static PredicateStats read(DataInputStream in) throws IOException {
+			long count = in.readLong();
+			PredicateStats stats = new PredicateStats(DistinctCounter.read(in), DistinctCounter.read(in));
+			stats.count = count;
+
+			int topObjectsSize = in.readInt();
+			if (topObjectsSize < 0 || topObjectsSize > TOP_OBJECTS) {
+				throw new IOException("Invalid number of top objects: " + topObjectsSize);
+			}
+			for (int i = 0; i < topObjectsSize; i++) {
+				stats.topObjects[i] = in.readInt();
+				stats.topObjectCounts[i] = in.readLong();
+				stats.topObjectErrors[i] = in.readLong();
+			}
+			stats.topObjectsSize = topObjectsSize;
+			return stats;
+		}
+	}
+
+	/**
+	 * Counts distinct IDs, exactly for small numbers of IDs and approximately with a HyperLogLog sketch for larger
+	 * numbers. The exact set is kept as a sorted array and is replaced by the sketch once it becomes full.
+	 */
+	static class DistinctCounter {
+
+		static final int EXACT_LIMIT = 32;
+
+		private static final int REGISTER_BITS = 7;
+
+		private static final int REGISTERS = 1 << REGISTER_BITS;
+
+		private int[] ids = new int[4];
+
+		private int size;
+
+		private byte[] registers;
+
+		void add(int id) {
+			if (registers != null) {
+				addToSketch(id);
+				return;
+			}
+
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				return;
+			}
+
+			if (size == EXACT_LIMIT) {
+				registers = new byte[REGISTERS];
+				for (int i = 0; i < size; i++) {
+					addToSketch(ids[i]);
+				}
+				addToSketch(id);
+				ids = null;
+				size = 0;
+				return;
+			}
+
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, Math.min(EXACT_LIMIT, size * 2));
+			}
+			pos = -pos - 1;
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			ids[pos] = id;
+			size++;
+		}
+
+		long estimate() {
+			if (registers == null) {
+				return size;
+			}
+
+			double sum = 0;
+			int zeros = 0;
+			for (byte register : registers) {
+				sum += 1.0 / (1L << register);
+				if (register == 0) {
+					zeros++;
+				}
+			}
+
+			double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+			double estimate = alpha * REGISTERS * REGISTERS / sum;
+			if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+				// small range correction: linear counting
+				estimate = REGISTERS * Math.log(REGISTERS / (double) zeros);
+			}
+			return Math.max(EXACT_LIMIT, Math.round(estimate));
+		}
+
+		private void addToSketch(int id) {
+			long hash = hash(id);
+			int register = (int) (hash >>> (64 - REGISTER_BITS));
+			byte rank = (byte) (Long.numberOfLeadingZeros((hash << REGISTER_BITS) | (1L << (REGISTER_BITS - 1))) + 1);
+			if (rank > registers[register]) {
+				registers[register] = rank;
+			}
+		}
+
+		/**
+		 * The MurmurHash3 64-bit finalizer, which spreads consecutive IDs over the entire hash space.
+		 */
+		private static long hash(int id) {
+			long h = id;
+			h ^= h >>> 33;
+			h *= 0xff51afd7ed558ccdL;
+			h ^= h >>> 33;
+			h *= 0xc4ceb9fe1a85ec53L;
+			h ^= h >>> 33;
+			return h;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			if (registers == null) {
+				out.writeByte(0);
+				out.writeByte(size);
+				for (int i = 0; i < size; i++) {
+					out.writeInt(ids[i]);
+				}
+			} else {
+				out.writeByte(1);
+				out.write(registers);
+			}
+		}
+
+		static DistinctCounter read(DataInputStream in) throws IOException {
+			DistinctCounter counter = new DistinctCounter();
+			if (in.readByte() == 0) {
+				int size = in.readUnsignedByte();
+				if (size > EXACT_LIMIT) {
+					throw new IOException("Invalid distinct value count: " + size);
+				}
+				counter.ids = new int[Math.max(4, size)];
+				for (int i = 0; i < size; i++) {
+					counter.ids[i] = in.readInt();
+				}
+				counter.size = size;
+			} else {
+				counter.ids = null;
+				counter.registers = IOUtil.readBytes(in, REGISTERS);
+				if (counter.registers.length != REGISTERS) {
+					throw new EOFException();
+				}
+			}
+			return counter;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Weight-bounded concurrent cache using a segmented LRU eviction policy. Entries are first admitted to a probationary
+ * segment and are promoted to a protected segment when they are accessed again, so that a scan over many values that
+ * are used only once cannot flush the frequently used values out of the cache. The cache is split into independently
+ * locked stripes to reduce lock contention.
+ * <p>
+ * The weight of each entry is determined by a weigher function, which can for example return <tt>1</tt> to bound the
+ * number of entries, or an estimate of the memory used by the entry to bound the memory footprint of the cache.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+class SegmentedLruCache<K, V> implements CacheStatisticsMXBean {
+
+	private static final int MAX_STRIPES = 16;
+
+	/**
+	 * The minimum weight of a single stripe, prevents small caches from being split into stripes that can hardly hold
+	 * any entries.
+	 */
+	private static final long MIN_STRIPE_WEIGHT = 16;
+
+	/**
+	 * The fraction of the weight of a stripe that can be used by the protected segment.
+	 */
+	private static final double PROTECTED_RATIO = 0.8;
+
+	private final Stripe<K, V>[] stripes;
+
+	private final long maxWeight;
+
+	private final ToIntBiFunction<? super K, ? super V> weigher;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Creates a cache that is bounded by the number of entries.
+	 *
+	 * @param capacity the maximum number of entries in the cache
+	 */
+	SegmentedLruCache(int capacity) {
+		this(capacity, (k, v) -> 1);
+	}
+
+	/**
+	 * Creates a cache that is bounded by the total weight of its entries.
+	 *
+	 * @param maxWeight the maximum total weight of the entries in the cache
+	 * @param weigher   function that determines the (positive) weight of an entry
+	 */
+	@SuppressWarnings("unchecked")
+	SegmentedLruCache(long maxWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+		this.maxWeight = Math.max(0, maxWeight);
+		this.weigher = weigher;
+
+		long stripeCount = Long.highestOneBit(Math.max(1, this.maxWeight / MIN_STRIPE_WEIGHT));
+		stripes = new Stripe[(int) Math.min(MAX_STRIPES, stripeCount)];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Stripe<>(this.maxWeight / stripes.length);
+		}
+	}
+
+	public V get(Object key) {
+		V value = stripeFor(key).get(key);
+		if (value == null) {
+			missCount.increment();
+		} else {
+			hitCount.increment();
+		}
+		return value;
+	}
+
+	public void put(K key, V value) {
+		int weight = weigher.applyAsInt(key, value);
+		int evicted = stripeFor(key).put(key, value, weight);
+		if (evicted > 0) {
+			evictionCount.add(evicted);
+		}
+	}
+
+	public void clear() {
+		for (Stripe<K, V> stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	@Override
+	public double getHitRate() {
+		long hits = hitCount.sum();
+		long lookups = hits + missCount.sum();
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	@Override
+	public int getSize() {
+		int size = 0;
+		for (Stripe<K, V> stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	@Override
+	public long getWeight() {
+		long weight = 0;
+		for (Stripe<K, V> stripe : stripes) {
+			weight += stripe.weight();
+		}
+		return weight;
+	}
+
+	@Override
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	@Override
+	public void resetStatistics() {
+		hitCount.reset();
+		missCount.reset();
+		evictionCount.reset();
+	}
+
+	private Stripe<K, V> stripeFor(Object key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return stripes[h & (stripes.length - 1)];
+	}
+
+	private static final class Entry<K, V> {
+
+		final K key;
+
+		final V value;
+
+		final int weight;
+
+		Entry(K key, V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * A single stripe of the cache, guarded by its own monitor.
+	 */
+	private static final class Stripe<K, V> {
+
+		private final long maxWeight;
+
+		private final long maxProtectedWeight;
+
+		/**
+		 * Entries that have been accessed once, in access order.
+		 */
+		private final LinkedHashMap<Object, Entry<K, V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+		/**
+		 * Entries that have been accessed more than once, in access order.
+		 */
+		private final LinkedHashMap<Object, Entry<K, V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+		private long probationWeight;
+
+		private long protectedWeight;
+
+		Stripe(long maxWeight) {
+			this.maxWeight = maxWeight;
+			this.maxProtectedWeight = (long) (maxWeight * PROTECTED_RATIO);
+		}
+
+		synchronized V get(Object key) {
+			Entry<K, V> entry = protectedSegment.get(key);
+			if (entry != null) {
+				return entry.value;
+			}
+
+			entry = probation.remove(key);
+			if (entry == null) {
+				return null;
+			}
+
+			// second access, promote entry to the protected segment
+			probationWeight -= entry.weight;
+			protectedSegment.put(entry.key, entry);
+			protectedWeight += entry.weight;
+
+			// demote least recently used protected entries back to probation
+			Iterator<Entry<K, V>> iter = protectedSegment.values().iterator();
+			while (protectedWeight > maxProtectedWeight && iter.hasNext()) {
+				Entry<K, V> demoted = iter.next();
+				if (demoted == entry) {
+					break;
+				}
+				iter.remove();
+				protectedWeight -= demoted.weight;
+				probation.put(demoted.key, demoted);
+				probationWeight += demoted.weight;
+			}
+
+			return entry.value;
+		}
+
+		/**
+		 * @return the number of entries that were evicted to make room for the new entry
+		 */
+		synchronized int put(K key, V value, int weight) {
+			remove(key);
+
+			if (weight > maxWeight) {
+				// entry would not fit, don't cache it
+				return 0;
+			}
+
+			probation.put(key, new Entry<>(key, value, weight));
+			probationWeight += weight;
+
+			int evicted = 0;
+			while (probationWeight + protectedWeight > maxWeight) {
+				if (!probation.isEmpty()) {
+					probationWeight -= evictEldest(probation);
+				} else {
+					protectedWeight -= evictEldest(protectedSegment);
+				}
+				evicted++;
+			}
+			return evicted;
+		}
+
+		synchronized void clear() {
+			probation.clear();
+			protectedSegment.clear();
+			probationWeight = 0;
+			protectedWeight = 0;
+		}
+
+		synchronized int size() {
+			return probation.size() + protectedSegment.size();
+		}
+
+		synchronized long weight() {
+			return probationWeight + protectedWeight;
+		}
+
+		private void remove(Object key) {
+			Entry<K, V> entry = probation.remove(key);
+			if (entry != null) {
+				probationWeight -= entry.weight;
+			}
+			entry = protectedSegment.remove(key);
+			if (entry != null) {
+				protectedWeight -= entry.weight;
+			}
+		}
+
+		private int evictEldest(LinkedHashMap<Object, Entry<K, V>> segment) {
+			Iterator<Entry<K, V>> iter = segment.values().iterator();
+			Entry<K, V> eldest = iter.next();
+			iter.remove();
+			return eldest.weight;
+		}
+	}
+}
@@ -14,15 +14,21 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.rdf4j.common.io.ByteArrayUtil;
 import org.eclipse.rdf4j.sail.SailException;
@@ -141,10 +147,31 @@ class TripleStore implements Closeable {
 
 	private final boolean forceSync;
 
+	/**
+	 * Flag indicating whether the index files should be read through memory-mapped regions.
+	 */
+	private final boolean memoryMappedIndexes;
+
 	private final TxnStatusFile txnStatusFile;
 
 	private volatile RecordCache updatedTriplesCache;
 
+	/**
+	 * Per-predicate statistics for cardinality estimation, <tt>null</tt> while an uncompleted transaction is being
+	 * recovered.
+	 */
+	private PredicateStatistics predicateStatistics;
+
+	/**
+	 * The maximum number of indexes that are updated concurrently on commit and rollback.
+	 */
+	private volatile int indexUpdateParallelism = 1;
+
+	/**
+	 * Executor for parallel index updates, created lazily when more than one index can be updated concurrently.
+	 */
+	private ExecutorService indexUpdateExecutor;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -154,8 +181,14 @@ class TripleStore implements Closeable {
 	}
 
 	public TripleStore(File dir, String indexSpecStr, boolean forceSync) throws IOException, SailException {
+		this(dir, indexSpecStr, forceSync, false);
+	}
+
+	public TripleStore(File dir, String indexSpecStr, boolean forceSync, boolean memoryMappedIndexes)
+			throws IOException, SailException {
 		this.dir = dir;
 		this.forceSync = forceSync;
+		this.memoryMappedIndexes = memoryMappedIndexes;
 		this.txnStatusFile = new TxnStatusFile(dir);
 
 		File propFile = new File(dir, PROPERTIES_FILE);
@@ -173,6 +206,7 @@ class TripleStore implements Closeable {
 			}
 
 			initIndexes(indexSpecs);
+			initPredicateStatistics(false);
 		} else {
 			// Read triple properties file and check format version number
 			properties = loadProperties(propFile);
@@ -190,6 +224,9 @@ class TripleStore implements Closeable {
 				processUncompletedTransaction(txnStatus);
 			}
 
+			// Statistics are not reliable if the last transaction did not complete
+			initPredicateStatistics(txnStatus == TxnStatus.NONE);
+
 			// Compare the existing indexes with the requested indexes
 			Set<String> reqIndexSpecs = parseIndexSpecList(indexSpecStr);
 
@@ -285,6 +322,31 @@ class TripleStore implements Closeable {
 		}
 	}
 
+	private void initPredicateStatistics(boolean load) throws IOException {
+		predicateStatistics = new PredicateStatistics(dir);
+
+		if (load) {
+			try {
+				if (predicateStatistics.load()) {
+					return;
+				}
+			} catch (IOException e) {
+				logger.warn("Failed to read predicate statistics, rebuilding them", e);
+			}
+		}
+
+		logger.debug("Rebuilding predicate statistics...");
+		predicateStatistics.clear();
+		try (RecordIterator iter = indexes.get(0).getBTree().iterateAll()) {
+			byte[] data;
+			while ((data = iter.next()) != null) {
+				predicateStatistics.add(ByteArrayUtil.getInt(data, SUBJ_IDX), ByteArrayUtil.getInt(data, PRED_IDX),
+						ByteArrayUtil.getInt(data, OBJ_IDX));
+			}
+		}
+		logger.debug("Predicate statistics rebuilt");
+	}
+
 	private void processUncompletedTransaction(TxnStatus txnStatus) throws IOException {
 		switch (txnStatus) {
 		case COMMITTING:
@@ -410,8 +472,22 @@ class TripleStore implements Closeable {
 
 	@Override
 	public void close() throws IOException {
+		synchronized (this) {
+			if (indexUpdateExecutor != null) {
+				indexUpdateExecutor.shutdown();
+				indexUpdateExecutor = null;
+			}
+		}
 		try {
 			List<Throwable> caughtExceptions = new ArrayList<>();
+			if (predicateStatistics != null) {
+				try {
+					predicateStatistics.store();
+				} catch (Throwable e) {
+					logger.warn("Failed to store predicate statistics");
+					caughtExceptions.add(e);
+				}
+			}
 			for (TripleIndex index : indexes) {
 				try {
 					index.getBTree().close();
@@ -504,6 +580,38 @@ class TripleStore implements Closeable {
 	 * Inner class ExplicitStatementFilter *
 	 *-------------------------------------*/
 
+	/**
+	 * Registers the triples returned by the wrapped iterator in the predicate statistics.
+	 */
+	private class StatisticsUpdatingIterator implements RecordIterator {
+
+		private final RecordIterator wrappedIter;
+
+		public StatisticsUpdatingIterator(RecordIterator wrappedIter) {
+			this.wrappedIter = wrappedIter;
+		}
+
+		@Override
+		public byte[] next() throws IOException {
+			byte[] data = wrappedIter.next();
+			if (data != null) {
+				predicateStatistics.add(ByteArrayUtil.getInt(data, SUBJ_IDX), ByteArrayUtil.getInt(data, PRED_IDX),
+						ByteArrayUtil.getInt(data, OBJ_IDX));
+			}
+			return data;
+		}
+
+		@Override
+		public void set(byte[] value) throws IOException {
+			wrappedIter.set(value);
+		}
+
+		@Override
+		public void close() throws IOException {
+			wrappedIter.close();
+		}
+	}
+
 	private static class ExplicitStatementFilter implements RecordIterator {
 
 		private final RecordIterator wrappedIter;
@@ -613,6 +721,13 @@ class TripleStore implements Closeable {
 		}
 	}
 
+	/**
+	 * Returns the per-predicate statistics of the committed triples.
+	 */
+	PredicateStatistics getPredicateStatistics() {
+		return predicateStatistics;
+	}
+
 	protected double cardinality(int subj, int pred, int obj, int context) throws IOException {
 		TripleIndex index = getBestIndex(subj, pred, obj, context);
 		BTree btree = index.btree;
@@ -649,6 +764,68 @@ class TripleStore implements Closeable {
 		for (TripleIndex index : indexes) {
 			index.getBTree().clear();
 		}
+		predicateStatistics.clear();
+	}
+
+	/**
+	 * Returns the field sequences of the triple indexes, e.g. <tt>spoc</tt>, in index order.
+	 */
+	List<String> getIndexFieldSeqs() {
+		List<String> fieldSeqs = new ArrayList<>(indexes.size());
+		for (TripleIndex index : indexes) {
+			fieldSeqs.add(new String(index.getFieldSeq()));
+		}
+		return fieldSeqs;
+	}
+
+	/**
+	 * Checks whether this triple store contains any triples, including uncommitted ones.
+	 */
+	boolean isEmpty() throws IOException {
+		try (RecordIterator iter = indexes.get(0).getBTree().iterateAll()) {
+			return iter.next() == null;
+		}
+	}
+
+	/**
+	 * Fills an empty index with the supplied committed triples, bypassing the transaction mechanism. The iterator
+	 * must return the triples sorted in the order of the index' field sequence, without duplicates.
+	 *
+	 * @param fieldSeq      The field sequence of the index to load, e.g. <tt>spoc</tt>.
+	 * @param sortedTriples The triple records to load into the index.
+	 * @see BTree#bulkLoad(Iterator)
+	 */
+	void bulkLoad(String fieldSeq, Iterator<byte[]> sortedTriples) throws IOException {
+		for (TripleIndex index : indexes) {
+			if (fieldSeq.equals(new String(index.getFieldSeq()))) {
+				if (index == indexes.get(0)) {
+					// register the triples in the predicate statistics while loading the first index
+					index.getBTree().bulkLoad(new Iterator<byte[]>() {
+
+						@Override
+						public boolean hasNext() {
+							return sortedTriples.hasNext();
+						}
+
+						@Override
+						public byte[] next() {
+							byte[] data = sortedTriples.next();
+							try {
+								predicateStatistics.add(ByteArrayUtil.getInt(data, SUBJ_IDX),
+										ByteArrayUtil.getInt(data, PRED_IDX), ByteArrayUtil.getInt(data, OBJ_IDX));
+							} catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+							return data;
+						}
+					});
+				} else {
+					index.getBTree().bulkLoad(sortedTriples);
+				}
+				return;
+			}
+		}
+		throw new IllegalArgumentException("No such index: " + fieldSeq);
 	}
 
 	public boolean storeTriple(int subj, int pred, int obj, int context) throws IOException {
@@ -827,15 +1004,16 @@ class TripleStore implements Closeable {
 			updatedTriplesCache.storeRecords(removedTriplesCache);
 
 			// Set the REMOVED flag by overwriting the affected records
-			for (TripleIndex index : indexes) {
+			forEachIndex(index -> {
 				BTree btree = index.getBTree();
 
 				try (RecordIterator recIter = removedTriplesCache.getRecords()) {
-					while ((data = recIter.next()) != null) {
-						btree.insert(data);
+					byte[] record;
+					while ((record = recIter.next()) != null) {
+						btree.insert(record);
 					}
 				}
-			}
+			});
 		} finally {
 			removedTriplesCache.discard();
 		}
@@ -864,9 +1042,12 @@ class TripleStore implements Closeable {
 		// updatedTriplesCache will be null when recovering from a crashed commit
 		boolean validCache = updatedTriplesCache != null && updatedTriplesCache.isValid();
 
-		for (TripleIndex index : indexes) {
+		forEachIndex(index -> {
 			BTree btree = index.getBTree();
 
+			// The statistics are updated once, along with the first index
+			PredicateStatistics statistics = index == indexes.get(0) ? predicateStatistics : null;
+
 			RecordIterator iter;
 			if (validCache) {
 				// Use the cached set of updated triples
@@ -884,6 +1065,17 @@ class TripleStore implements Closeable {
 					boolean wasRemoved = (flags & REMOVED_FLAG) != 0;
 					boolean wasToggled = (flags & TOGGLE_EXPLICIT_FLAG) != 0;
 
+					if (statistics != null && wasAdded != wasRemoved) {
+						int subj = ByteArrayUtil.getInt(data, SUBJ_IDX);
+						int pred = ByteArrayUtil.getInt(data, PRED_IDX);
+						int obj = ByteArrayUtil.getInt(data, OBJ_IDX);
+						if (wasAdded) {
+							statistics.add(subj, pred, obj);
+						} else {
+							statistics.remove(subj, pred, obj);
+						}
+					}
+
 					if (wasRemoved) {
 						btree.remove(data);
 					} else if (wasAdded || wasToggled) {
@@ -906,7 +1098,7 @@ class TripleStore implements Closeable {
 			} finally {
 				iter.close();
 			}
-		}
+		});
 
 		if (updatedTriplesCache != null) {
 			updatedTriplesCache.clear();
@@ -944,7 +1136,7 @@ class TripleStore implements Closeable {
 
 		byte txnFlagsMask = ~(ADDED_FLAG | REMOVED_FLAG | TOGGLE_EXPLICIT_FLAG);
 
-		for (TripleIndex index : indexes) {
+		forEachIndex(index -> {
 			BTree btree = index.getBTree();
 
 			RecordIterator iter;
@@ -983,7 +1175,7 @@ class TripleStore implements Closeable {
 			} finally {
 				iter.close();
 			}
-		}
+		});
 
 		if (updatedTriplesCache != null) {
 			updatedTriplesCache.clear();
@@ -995,19 +1187,119 @@ class TripleStore implements Closeable {
 	}
 
 	protected void sync() throws IOException {
-		List<Throwable> exceptions = new ArrayList<>();
-		for (TripleIndex index : indexes) {
+		forEachIndex(index -> index.getBTree().sync());
+	}
+
+	/**
+	 * Sets the maximum number of triple indexes that are updated concurrently when a transaction is committed or
+	 * rolled back. A value of <tt>1</tt>, the default, updates the indexes one after another on the calling thread.
+	 */
+	public void setIndexUpdateParallelism(int indexUpdateParallelism) {
+		if (indexUpdateParallelism < 1) {
+			throw new IllegalArgumentException("indexUpdateParallelism must be at least 1");
+		}
+		synchronized (this) {
+			this.indexUpdateParallelism = indexUpdateParallelism;
+			if (indexUpdateExecutor != null) {
+				indexUpdateExecutor.shutdown();
+				indexUpdateExecutor = null;
+			}
+		}
+	}
+
+	public int getIndexUpdateParallelism() {
+		return indexUpdateParallelism;
+	}
+
+	/**
+	 * Applies the supplied update to every triple index. When more than one index can be updated concurrently, the
+	 * first index is updated on the calling thread while the others are handed to worker threads. This method only
+	 * returns once all updates have completed, so that the transaction status is never advanced while an index is
+	 * still being modified. All updates are attempted, even if some of them fail; the first failure is rethrown with
+	 * the others attached as suppressed exceptions.
+	 */
+	private void forEachIndex(IndexUpdate update) throws IOException {
+		ExecutorService executor = getIndexUpdateExecutor();
+
+		Throwable failure = null;
+		if (executor == null) {
+			for (TripleIndex index : indexes) {
+				try {
+					update.apply(index);
+				} catch (IOException | RuntimeException | Error e) {
+					failure = addFailure(failure, e);
+				}
+			}
+		} else {
+			List<Future<?>> futures = new ArrayList<>(indexes.size() - 1);
+			for (TripleIndex index : indexes.subList(1, indexes.size())) {
+				futures.add(executor.submit(() -> {
+					update.apply(index);
+					return null;
+				}));
+			}
+
 			try {
-				index.getBTree().sync();
-			} catch (Throwable e) {
-				exceptions.add(e);
+				update.apply(indexes.get(0));
+			} catch (IOException | RuntimeException | Error e) {
+				failure = addFailure(failure, e);
+			}
+
+			boolean interrupted = false;
+			for (Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get();
+						break;
+					} catch (InterruptedException e) {
+						// the index files must not be touched after this method returns, keep waiting
+						interrupted = true;
+					} catch (ExecutionException e) {
+						failure = addFailure(failure, e.getCause());
+						break;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
 			}
 		}
-		if (!exceptions.isEmpty()) {
-			throw new IOException(exceptions.get(0));
+
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new IOException(failure);
 		}
 	}
 
+	private static Throwable addFailure(Throwable failure, Throwable e) {
+		if (failure == null) {
+			return e;
+		}
+		failure.addSuppressed(e);
+		return failure;
+	}
+
+	private synchronized ExecutorService getIndexUpdateExecutor() {
+		int threads = Math.min(indexUpdateParallelism, indexes.size()) - 1;
+		if (threads < 1) {
+			return null;
+		}
+		if (indexUpdateExecutor == null) {
+			indexUpdateExecutor = Executors.newFixedThreadPool(threads, r -> {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setName("rdf4j-nativestore-index-update-" + t.getName());
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return indexUpdateExecutor;
+	}
+
 	private byte[] getData(int subj, int pred, int obj, int context, int flags) {
 		byte[] data = new byte[RECORD_LENGTH];
 
@@ -1086,6 +1378,12 @@ class TripleStore implements Closeable {
 	 * Inner class TripleIndex *
 	 *-------------------------*/
 
+	@FunctionalInterface
+	private interface IndexUpdate {
+
+		void apply(TripleIndex index) throws IOException;
+	}
+
 	private class TripleIndex {
 
 		private final TripleComparator tripleComparator;
@@ -1094,7 +1392,8 @@ class TripleStore implements Closeable {
 
 		public TripleIndex(String fieldSeq) throws IOException {
 			tripleComparator = new TripleComparator(fieldSeq);
-			btree = new BTree(dir, getFilenamePrefix(fieldSeq), 2048, RECORD_LENGTH, tripleComparator, forceSync);
+			btree = new BTree(dir, getFilenamePrefix(fieldSeq), 2048, RECORD_LENGTH, tripleComparator, forceSync,
+					memoryMappedIndexes);
 		}
 
 		private String getFilenamePrefix(String fieldSeq) {
@@ -71,6 +71,11 @@ public class ValueStore extends AbstractValueFactory {
 	 */
 	public static final int NAMESPACE_ID_CACHE_SIZE = 32;
 
+	/**
+	 * The approximate number of bytes used by a cache entry, excluding the cached value itself.
+	 */
+	private static final int CACHE_ENTRY_OVERHEAD = 96;
+
 	private static final String FILENAME_PREFIX = "values";
 
 	private static final byte URI_VALUE = 0x1; // 0000 0001
@@ -101,14 +106,16 @@ public class ValueStore extends AbstractValueFactory {
 	private volatile ValueStoreRevision revision;
 
 	/**
-	 * A simple cache containing the [VALUE_CACHE_SIZE] most-recently used values stored by their ID.
+	 * A cache containing the most-recently and most-frequently used values stored by their ID, bounded by either a
+	 * number of entries [VALUE_CACHE_SIZE] or an approximate memory size.
 	 */
-	private final ConcurrentCache<Integer, NativeValue> valueCache;
+	private final SegmentedLruCache<Integer, NativeValue> valueCache;
 
 	/**
-	 * A simple cache containing the [ID_CACHE_SIZE] most-recently used value-IDs stored by their value.
+	 * A cache containing the most-recently and most-frequently used value-IDs stored by their value, bounded by either
+	 * a number of entries [VALUE_ID_CACHE_SIZE] or an approximate memory size.
 	 */
-	private final ConcurrentCache<NativeValue, Integer> valueIDCache;
+	private final SegmentedLruCache<NativeValue, Integer> valueIDCache;
 
 	/**
 	 * A simple cache containing the [NAMESPACE_CACHE_SIZE] most-recently used namespaces stored by their ID.
@@ -135,11 +142,32 @@ public class ValueStore extends AbstractValueFactory {
 
 	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize,
 			int namespaceIDCacheSize) throws IOException {
+		this(dataDir, forceSync, valueCacheSize, valueIDCacheSize, -1, -1, namespaceCacheSize, namespaceIDCacheSize);
+	}
+
+	/**
+	 * Creates a new ValueStore.
+	 *
+	 * @param valueCacheMemory   The approximate maximum number of bytes used by the value cache, or a negative number to
+	 *                           bound the value cache by <tt>valueCacheSize</tt> entries.
+	 * @param valueIDCacheMemory The approximate maximum number of bytes used by the value ID cache, or a negative
+	 *                           number to bound the value ID cache by <tt>valueIDCacheSize</tt> entries.
+	 */
+	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, long valueCacheMemory,
+			long valueIDCacheMemory, int namespaceCacheSize, int namespaceIDCacheSize) throws IOException {
 		super();
 		dataStore = new DataStore(dataDir, FILENAME_PREFIX, forceSync);
 
-		valueCache = new ConcurrentCache<>(valueCacheSize);
-		valueIDCache = new ConcurrentCache<>(valueIDCacheSize);
+		if (valueCacheMemory >= 0) {
+			valueCache = new SegmentedLruCache<>(valueCacheMemory, (id, value) -> estimateCacheEntrySize(value));
+		} else {
+			valueCache = new SegmentedLruCache<>(valueCacheSize);
+		}
+		if (valueIDCacheMemory >= 0) {
+			valueIDCache = new SegmentedLruCache<>(valueIDCacheMemory, (value, id) -> estimateCacheEntrySize(value));
+		} else {
+			valueIDCache = new SegmentedLruCache<>(valueIDCacheSize);
+		}
 		namespaceCache = new ConcurrentCache<>(namespaceCacheSize);
 		namespaceIDCache = new ConcurrentCache<>(namespaceIDCacheSize);
 
@@ -162,6 +190,20 @@ public class ValueStore extends AbstractValueFactory {
 		return revision;
 	}
 
+	/**
+	 * @return The usage statistics of the cache that maps IDs to values.
+	 */
+	public CacheStatisticsMXBean getValueCacheStatistics() {
+		return valueCache;
+	}
+
+	/**
+	 * @return The usage statistics of the cache that maps values to IDs.
+	 */
+	public CacheStatisticsMXBean getValueIDCacheStatistics() {
+		return valueIDCache;
+	}
+
 	/**
 	 * Gets a read lock on this value store that can be used to prevent values from being removed while the lock is
 	 * active.
@@ -413,6 +455,22 @@ public class ValueStore extends AbstractValueFactory {
 		}
 	}
 
+	/**
+	 * Estimates the number of bytes that are used by a cache entry for the supplied value, assuming two bytes per
+	 * character.
+	 */
+	private static int estimateCacheEntrySize(Value value) {
+		int size = CACHE_ENTRY_OVERHEAD;
+		if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			size += 2 * literal.getLabel().length();
+			size += literal.getLanguage().map(lang -> 48 + 2 * lang.length()).orElse(0);
+		} else {
+			size += 2 * value.stringValue().length();
+		}
+		return size;
+	}
+
 	/**
 	 * Checks if the supplied Value object is a NativeValue object that has been created by this ValueStore.
 	 */
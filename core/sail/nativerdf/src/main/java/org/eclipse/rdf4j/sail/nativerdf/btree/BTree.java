@@ -15,6 +15,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -80,6 +81,12 @@ public class BTree implements Closeable {
 	 */
 	private final boolean forceSync;
 
+	/**
+	 * Reader for memory-mapped access to the nodes in the BTree file, <tt>null</tt> if nodes should be read using
+	 * regular file reads.
+	 */
+	final MappedNodeReader mappedNodeReader;
+
 	/**
 	 * Object used to determine whether one value is lower, equal or greater than another value. This determines the
 	 * order of values in the BTree.
@@ -238,6 +245,30 @@ public class BTree implements Closeable {
 	 */
 	public BTree(File dataDir, String filenamePrefix, int blockSize, int valueSize, RecordComparator comparator,
 			boolean forceSync) throws IOException {
+		this(dataDir, filenamePrefix, blockSize, valueSize, comparator, forceSync, false);
+	}
+
+	/**
+	 * Creates a new BTree that uses the supplied <tt>RecordComparator</tt> to compare the values that are or will be
+	 * stored in the B-Tree.
+	 *
+	 * @param dataDir        The directory for the BTree data.
+	 * @param filenamePrefix The prefix for all files used by this BTree.
+	 * @param blockSize      The size (in bytes) of a file block for a single node. Ideally, the size specified is the
+	 *                       size of a block in the used file system.
+	 * @param valueSize      The size (in bytes) of the fixed-length values that are or will be stored in the B-Tree.
+	 * @param comparator     The <tt>RecordComparator</tt> to use for determining whether one value is smaller, larger
+	 *                       or equal to another.
+	 * @param forceSync      Flag indicating whether updates should be synced to disk forcefully by calling
+	 *                       {@link FileChannel#force(boolean)}. This may have a severe impact on write performance.
+	 * @param memoryMapped   Flag indicating whether nodes should be read from memory-mapped regions of the B-Tree
+	 *                       file instead of through positional file reads. Memory-mapped regions are only released
+	 *                       by the garbage collector, which on some platforms (e.g. Windows) prevents the file from
+	 *                       being shrunk or deleted while it is mapped.
+	 * @throws IOException In case the initialization of the B-Tree file failed.
+	 */
+	public BTree(File dataDir, String filenamePrefix, int blockSize, int valueSize, RecordComparator comparator,
+			boolean forceSync, boolean memoryMapped) throws IOException {
 		if (dataDir == null) {
 			throw new IllegalArgumentException("dataDir must not be null");
 		}
@@ -322,6 +353,8 @@ public class BTree implements Closeable {
 		minValueCount = (branchFactor - 1) / 2;
 		nodeSize = 8 + (branchFactor - 1) * slotSize;
 
+		mappedNodeReader = memoryMapped ? new MappedNodeReader(nioFile, this.blockSize) : null;
+
 		// System.out.println("blockSize=" + this.blockSize);
 		// System.out.println("valueSize=" + this.valueSize);
 		// System.out.println("slotSize=" + this.slotSize);
@@ -386,6 +419,9 @@ public class BTree implements Closeable {
 					nodeCache.clear();
 				} finally {
 					try {
+						if (mappedNodeReader != null) {
+							mappedNodeReader.close();
+						}
 						nioFile.close();
 					} finally {
 						allocatedNodesList.close(syncChanges);
@@ -738,6 +774,114 @@ public class BTree implements Closeable {
 		}
 	}
 
+	/**
+	 * Fills an empty B-Tree with the values from the supplied iterator, which must return the values in ascending order
+	 * (according to this B-Tree's comparator) and without duplicates. Instead of inserting the values one by one, the
+	 * tree is built bottom-up: nodes are filled completely and are written to disk once, in the order in which they are
+	 * completed. The resulting file has the same format as a file created through {@link #insert(byte[])}.
+	 *
+	 * @param sortedValues The values to load into the B-Tree.
+	 * @throws IOException              If an I/O error occurred.
+	 * @throws IllegalStateException    If the B-Tree is not empty.
+	 * @throws IllegalArgumentException If the values are not returned in ascending order.
+	 */
+	public void bulkLoad(Iterator<byte[]> sortedValues) throws IOException {
+		btreeLock.writeLock().lock();
+		try {
+			if (rootNodeID != 0) {
+				throw new IllegalStateException("Bulk loading requires an empty BTree: " + getFile());
+			}
+
+			// The nodes on the right edge of the tree that are still being filled, from the leaf up to the root
+			List<Node> path = new ArrayList<>();
+			byte[] previousValue = null;
+
+			while (sortedValues.hasNext()) {
+				byte[] value = sortedValues.next();
+				if (previousValue == null) {
+					previousValue = new byte[valueSize];
+					path.add(new Node(allocatedNodesList.allocateNode(), this));
+				} else if (comparator.compareBTreeValues(previousValue, value, 0, valueSize) >= 0) {
+					throw new IllegalArgumentException("Values are not sorted or contain duplicates: " + getFile());
+				}
+				System.arraycopy(value, 0, previousValue, 0, valueSize);
+
+				Node leaf = path.get(0);
+				if (leaf.isFull()) {
+					// the value separates the full leaf from the next one
+					addSeparator(path, 1, value);
+				} else {
+					leaf.insertValueNodeIDPair(leaf.getValueCount(), value, 0);
+				}
+			}
+
+			if (path.isEmpty()) {
+				return;
+			}
+
+			// The nodes on the right edge of the tree may contain less than the minimum number of values. Working
+			// top-down, these are topped up with values from their (full) left siblings.
+			for (int level = path.size() - 1; level > 0; level--) {
+				Node parentNode = path.get(level);
+				Node node = path.get(level - 1);
+
+				if (node.getValueCount() < minValueCount) {
+					int nodeIdx = parentNode.getValueCount();
+					Node leftSibling = readNode(parentNode.getChildNodeID(nodeIdx - 1));
+					try {
+						while (node.getValueCount() < minValueCount) {
+							parentNode.rotateRight(nodeIdx, leftSibling, node);
+						}
+						leftSibling.write();
+					} finally {
+						leftSibling.release();
+					}
+				}
+			}
+
+			for (Node node : path) {
+				node.write();
+			}
+
+			rootNodeID = path.get(path.size() - 1).getID();
+			height = path.size();
+			writeFileHeader();
+
+			sync();
+		} finally {
+			btreeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Completes the node at <tt>level - 1</tt> in the path of a bulk load and adds the separator value, together with
+	 * a new node that replaces the completed node in the path, to its parent node. A new parent node is created if the
+	 * parent is full or does not yet exist.
+	 */
+	private void addSeparator(List<Node> path, int level, byte[] separator) throws IOException {
+		Node completedNode = path.get(level - 1);
+		Node newNode = new Node(allocatedNodesList.allocateNode(), this);
+		path.set(level - 1, newNode);
+
+		if (level == path.size()) {
+			// the tree grows a level
+			Node newRootNode = new Node(allocatedNodesList.allocateNode(), this);
+			newRootNode.setChildNodeID(0, completedNode.getID());
+			newRootNode.insertValueNodeIDPair(0, separator, newNode.getID());
+			path.add(newRootNode);
+		} else {
+			Node parentNode = path.get(level);
+			if (parentNode.isFull()) {
+				addSeparator(path, level + 1, separator);
+				path.get(level).setChildNodeID(0, newNode.getID());
+			} else {
+				parentNode.insertValueNodeIDPair(parentNode.getValueCount(), separator, newNode.getID());
+			}
+		}
+
+		completedNode.write();
+	}
+
 	private InsertResult insertInTree(byte[] value, int nodeID, Node node) throws IOException {
 		InsertResult insertResult = null;
 
@@ -984,7 +1128,7 @@ public class BTree implements Closeable {
 		btreeLock.writeLock().lock();
 		try {
 			nodeCache.clear();
-			nioFile.truncate(HEADER_LENGTH);
+			truncate(HEADER_LENGTH);
 
 			if (rootNodeID != 0) {
 				rootNodeID = 0;
@@ -1035,7 +1179,7 @@ public class BTree implements Closeable {
 				int maxNodeID = allocatedNodesList.getMaxNodeID();
 				if (node.getID() > maxNodeID) {
 					// Shrink file
-					nioFile.truncate(nodeID2offset(maxNodeID) + nodeSize);
+					truncate(nodeID2offset(maxNodeID) + nodeSize);
 				}
 			}
 		} else {
@@ -1043,6 +1187,14 @@ public class BTree implements Closeable {
 		}
 	}
 
+	private void truncate(long newSize) throws IOException {
+		if (mappedNodeReader != null) {
+			// unmap any regions beyond the new file size first
+			mappedNodeReader.truncate(newSize);
+		}
+		nioFile.truncate(newSize);
+	}
+
 	private void writeFileHeader() throws IOException {
 		ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH);
 		buf.put(MAGIC_NUMBER);
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.btree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.rdf4j.common.io.NioFile;
+
+/**
+ * Reads B-tree node data from read-only memory-mapped segments of the B-tree file, which avoids a system call and a
+ * temporary buffer for every node that is read from disk. The file is mapped in fixed-size segments that are a
+ * multiple of the block size, so a node never spans two segments. Only segments that are completely covered by the
+ * file are mapped; reads from the tail of the file are left to the regular {@link NioFile} read path. The reader keeps
+ * track of the file size through {@link #extend(long)} and {@link #truncate(long)}, so that it does not have to query
+ * the file system to find out whether a segment can be mapped.
+ * <p>
+ * Writes still go through the {@link NioFile}. This relies on the operating system sharing its page cache between
+ * file channels and mapped buffers, which is the case on all major platforms. Segments that extend beyond a truncated
+ * file size must be dropped through {@link #truncate(long)} <em>before</em> the file itself is truncated, since
+ * accessing a mapped region beyond the end of the file crashes the JVM.
+ */
+class MappedNodeReader {
+
+	/**
+	 * The approximate size of a mapped segment, the actual size is rounded down to a multiple of the block size.
+	 */
+	static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private final NioFile nioFile;
+
+	private final long segmentSize;
+
+	/**
+	 * Lock that prevents segments from being dropped while they are being read from.
+	 */
+	private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+	private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+	/**
+	 * The (minimum) size of the underlying file.
+	 */
+	private final AtomicLong fileSize;
+
+	MappedNodeReader(NioFile nioFile, int blockSize) throws IOException {
+		this(nioFile, blockSize, SEGMENT_SIZE);
+	}
+
+	MappedNodeReader(NioFile nioFile, int blockSize, int approxSegmentSize) throws IOException {
+		this.nioFile = nioFile;
+		this.segmentSize = (long) blockSize * Math.max(1, approxSegmentSize / blockSize);
+		this.fileSize = new AtomicLong(nioFile.size());
+	}
+
+	/**
+	 * Copies <tt>length</tt> bytes starting at <tt>offset</tt> from the mapped file into <tt>dst</tt>.
+	 *
+	 * @return <tt>true</tt> if the data was read from a mapped segment, <tt>false</tt> if the requested region is not
+	 *         (yet) mapped and has to be read from the file directly.
+	 */
+	boolean read(long offset, byte[] dst, int length) throws IOException {
+		int segmentIdx = (int) (offset / segmentSize);
+
+		segmentLock.readLock().lock();
+		try {
+			MappedByteBuffer segment = getSegment(segmentIdx);
+			if (segment == null) {
+				return false;
+			}
+
+			ByteBuffer buf = segment.duplicate();
+			buf.position((int) (offset - segmentIdx * segmentSize));
+			buf.get(dst, 0, length);
+			return true;
+		} finally {
+			segmentLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Notifies this reader that data has been written to the file up to <tt>endOffset</tt>.
+	 */
+	void extend(long endOffset) {
+		fileSize.accumulateAndGet(endOffset, Math::max);
+	}
+
+	/**
+	 * Drops all mapped segments that extend beyond <tt>newSize</tt>. Must be called before the file is truncated.
+	 */
+	void truncate(long newSize) {
+		segmentLock.writeLock().lock();
+		try {
+			fileSize.set(newSize);
+			int retainedSegments = (int) Math.min(segments.length, newSize / segmentSize);
+			if (retainedSegments < segments.length) {
+				segments = Arrays.copyOf(segments, retainedSegments);
+			}
+		} finally {
+			segmentLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Drops all mapped segments. The mappings are released by the garbage collector.
+	 */
+	void close() {
+		truncate(0L);
+	}
+
+	private MappedByteBuffer getSegment(int segmentIdx) throws IOException {
+		MappedByteBuffer[] currentSegments = segments;
+		if (segmentIdx < currentSegments.length && currentSegments[segmentIdx] != null) {
+			return currentSegments[segmentIdx];
+		}
+		if (fileSize.get() < (segmentIdx + 1) * segmentSize) {
+			// segment is not completely covered by the file
+			return null;
+		}
+		return mapSegment(segmentIdx);
+	}
+
+	private synchronized MappedByteBuffer mapSegment(int segmentIdx) throws IOException {
+		MappedByteBuffer[] currentSegments = segments;
+		if (segmentIdx < currentSegments.length && currentSegments[segmentIdx] != null) {
+			// mapped by another thread in the mean time
+			return currentSegments[segmentIdx];
+		}
+
+		long segmentStart = segmentIdx * segmentSize;
+		MappedByteBuffer segment = nioFile.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentSize);
+
+		MappedByteBuffer[] newSegments = currentSegments;
+		if (segmentIdx >= newSegments.length) {
+			newSegments = Arrays.copyOf(newSegments, segmentIdx + 1);
+		} else {
+			newSegments = newSegments.clone();
+		}
+		newSegments[segmentIdx] = segment;
+		segments = newSegments;
+
+		return segment;
+	}
+}
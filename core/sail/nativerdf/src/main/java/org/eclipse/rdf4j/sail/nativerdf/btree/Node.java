@@ -445,14 +445,17 @@ class Node {
 	}
 
 	public void read() throws IOException {
-		ByteBuffer buf = ByteBuffer.wrap(data);
+		long offset = tree.nodeID2offset(id);
 
-		// Don't fill the spare slot in data:
-		buf.limit(tree.nodeSize);
+		// Don't fill the spare slot in data
+		if (tree.mappedNodeReader == null || !tree.mappedNodeReader.read(offset, data, tree.nodeSize)) {
+			ByteBuffer buf = ByteBuffer.wrap(data);
+			buf.limit(tree.nodeSize);
 
-		int bytesRead = tree.nioFile.read(buf, tree.nodeID2offset(id));
-		assert bytesRead == tree.nodeSize : "Read operation didn't read the entire node (" + bytesRead + " of "
-				+ tree.nodeSize + " bytes)";
+			int bytesRead = tree.nioFile.read(buf, offset);
+			assert bytesRead == tree.nodeSize : "Read operation didn't read the entire node (" + bytesRead + " of "
+					+ tree.nodeSize + " bytes)";
+		}
 
 		valueCount = ByteArrayUtil.getInt(data, 0);
 	}
@@ -463,10 +466,15 @@ class Node {
 		// Don't write the spare slot in data to the file:
 		buf.limit(tree.nodeSize);
 
-		int bytesWritten = tree.nioFile.write(buf, tree.nodeID2offset(id));
+		long offset = tree.nodeID2offset(id);
+		int bytesWritten = tree.nioFile.write(buf, offset);
 		assert bytesWritten == tree.nodeSize : "Write operation didn't write the entire node (" + bytesWritten + " of "
 				+ tree.nodeSize + " bytes)";
 
+		if (tree.mappedNodeReader != null) {
+			tree.mappedNodeReader.extend(offset + tree.nodeSize);
+		}
+
 		dataChanged = false;
 	}
 
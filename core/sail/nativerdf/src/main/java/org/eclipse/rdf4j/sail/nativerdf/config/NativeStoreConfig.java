@@ -8,11 +8,15 @@
 package org.eclipse.rdf4j.sail.nativerdf.config;
 
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.FORCE_SYNC;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.INDEX_UPDATE_PARALLELISM;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.MEMORY_MAPPED_INDEXES;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_ID_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.TRIPLE_INDEXES;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_CACHE_MEMORY;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_CACHE_SIZE;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_ID_CACHE_MEMORY;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_ID_CACHE_SIZE;
 
 import org.eclipse.rdf4j.model.Model;
@@ -37,10 +41,18 @@ public class NativeStoreConfig extends BaseSailConfig {
 
 	private boolean forceSync = false;
 
+	private boolean memoryMappedIndexes = false;
+
+	private int indexUpdateParallelism = -1;
+
 	private int valueCacheSize = -1;
 
 	private int valueIDCacheSize = -1;
 
+	private long valueCacheMemory = -1;
+
+	private long valueIDCacheMemory = -1;
+
 	private int namespaceCacheSize = -1;
 
 	private int namespaceIDCacheSize = -1;
@@ -83,6 +95,22 @@ public class NativeStoreConfig extends BaseSailConfig {
 		this.forceSync = forceSync;
 	}
 
+	public boolean getMemoryMappedIndexes() {
+		return memoryMappedIndexes;
+	}
+
+	public void setMemoryMappedIndexes(boolean memoryMappedIndexes) {
+		this.memoryMappedIndexes = memoryMappedIndexes;
+	}
+
+	public int getIndexUpdateParallelism() {
+		return indexUpdateParallelism;
+	}
+
+	public void setIndexUpdateParallelism(int indexUpdateParallelism) {
+		this.indexUpdateParallelism = indexUpdateParallelism;
+	}
+
 	public int getValueCacheSize() {
 		return valueCacheSize;
 	}
@@ -99,6 +127,22 @@ public class NativeStoreConfig extends BaseSailConfig {
 		this.valueIDCacheSize = valueIDCacheSize;
 	}
 
+	public long getValueCacheMemory() {
+		return valueCacheMemory;
+	}
+
+	public void setValueCacheMemory(long valueCacheMemory) {
+		this.valueCacheMemory = valueCacheMemory;
+	}
+
+	public long getValueIDCacheMemory() {
+		return valueIDCacheMemory;
+	}
+
+	public void setValueIDCacheMemory(long valueIDCacheMemory) {
+		this.valueIDCacheMemory = valueIDCacheMemory;
+	}
+
 	public int getNamespaceCacheSize() {
 		return namespaceCacheSize;
 	}
@@ -127,12 +171,24 @@ public class NativeStoreConfig extends BaseSailConfig {
 		if (forceSync) {
 			m.add(implNode, FORCE_SYNC, vf.createLiteral(forceSync));
 		}
+		if (memoryMappedIndexes) {
+			m.add(implNode, MEMORY_MAPPED_INDEXES, vf.createLiteral(memoryMappedIndexes));
+		}
+		if (indexUpdateParallelism > 0) {
+			m.add(implNode, INDEX_UPDATE_PARALLELISM, vf.createLiteral(indexUpdateParallelism));
+		}
 		if (valueCacheSize >= 0) {
 			m.add(implNode, VALUE_CACHE_SIZE, vf.createLiteral(valueCacheSize));
 		}
 		if (valueIDCacheSize >= 0) {
 			m.add(implNode, VALUE_ID_CACHE_SIZE, vf.createLiteral(valueIDCacheSize));
 		}
+		if (valueCacheMemory >= 0) {
+			m.add(implNode, VALUE_CACHE_MEMORY, vf.createLiteral(valueCacheMemory));
+		}
+		if (valueIDCacheMemory >= 0) {
+			m.add(implNode, VALUE_ID_CACHE_MEMORY, vf.createLiteral(valueIDCacheMemory));
+		}
 		if (namespaceCacheSize >= 0) {
 			m.add(implNode, NAMESPACE_CACHE_SIZE, vf.createLiteral(namespaceCacheSize));
 		}
@@ -160,6 +216,24 @@ public class NativeStoreConfig extends BaseSailConfig {
 				}
 			});
 
+			Models.objectLiteral(m.getStatements(implNode, MEMORY_MAPPED_INDEXES, null)).ifPresent(lit -> {
+				try {
+					setMemoryMappedIndexes(lit.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + MEMORY_MAPPED_INDEXES + " property, found " + lit);
+				}
+			});
+
+			Models.objectLiteral(m.getStatements(implNode, INDEX_UPDATE_PARALLELISM, null)).ifPresent(lit -> {
+				try {
+					setIndexUpdateParallelism(lit.intValue());
+				} catch (NumberFormatException e) {
+					throw new SailConfigException(
+							"Integer value required for " + INDEX_UPDATE_PARALLELISM + " property, found " + lit);
+				}
+			});
+
 			Models.objectLiteral(m.getStatements(implNode, VALUE_CACHE_SIZE, null)).ifPresent(lit -> {
 				try {
 					setValueCacheSize(lit.intValue());
@@ -178,6 +252,24 @@ public class NativeStoreConfig extends BaseSailConfig {
 				}
 			});
 
+			Models.objectLiteral(m.getStatements(implNode, VALUE_CACHE_MEMORY, null)).ifPresent(lit -> {
+				try {
+					setValueCacheMemory(lit.longValue());
+				} catch (NumberFormatException e) {
+					throw new SailConfigException(
+							"Long value required for " + VALUE_CACHE_MEMORY + " property, found " + lit);
+				}
+			});
+
+			Models.objectLiteral(m.getStatements(implNode, VALUE_ID_CACHE_MEMORY, null)).ifPresent(lit -> {
+				try {
+					setValueIDCacheMemory(lit.longValue());
+				} catch (NumberFormatException e) {
+					throw new SailConfigException(
+							"Long value required for " + VALUE_ID_CACHE_MEMORY + " property, found " + lit);
+				}
+			});
+
 			Models.objectLiteral(m.getStatements(implNode, NAMESPACE_CACHE_SIZE, null)).ifPresent(lit -> {
 				try {
 					setNamespaceCacheSize(lit.intValue());
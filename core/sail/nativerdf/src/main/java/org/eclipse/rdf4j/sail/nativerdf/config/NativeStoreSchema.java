@@ -29,12 +29,24 @@ public class NativeStoreSchema {
 	/** <tt>http://www.openrdf.org/config/sail/native#forceSync</tt> */
 	public final static IRI FORCE_SYNC;
 
+	/** <tt>http://www.openrdf.org/config/sail/native#memoryMappedIndexes</tt> */
+	public final static IRI MEMORY_MAPPED_INDEXES;
+
+	/** <tt>http://www.openrdf.org/config/sail/native#indexUpdateParallelism</tt> */
+	public final static IRI INDEX_UPDATE_PARALLELISM;
+
 	/** <tt>http://www.openrdf.org/config/sail/native#valueCacheSize</tt> */
 	public final static IRI VALUE_CACHE_SIZE;
 
 	/** <tt>http://www.openrdf.org/config/sail/native#valueIDCacheSize</tt> */
 	public final static IRI VALUE_ID_CACHE_SIZE;
 
+	/** <tt>http://www.openrdf.org/config/sail/native#valueCacheMemory</tt> */
+	public final static IRI VALUE_CACHE_MEMORY;
+
+	/** <tt>http://www.openrdf.org/config/sail/native#valueIDCacheMemory</tt> */
+	public final static IRI VALUE_ID_CACHE_MEMORY;
+
 	/** <tt>http://www.openrdf.org/config/sail/native#namespaceCacheSize</tt> */
 	public final static IRI NAMESPACE_CACHE_SIZE;
 
@@ -45,8 +57,12 @@ public class NativeStoreSchema {
 		ValueFactory factory = SimpleValueFactory.getInstance();
 		TRIPLE_INDEXES = factory.createIRI(NAMESPACE, "tripleIndexes");
 		FORCE_SYNC = factory.createIRI(NAMESPACE, "forceSync");
+		MEMORY_MAPPED_INDEXES = factory.createIRI(NAMESPACE, "memoryMappedIndexes");
+		INDEX_UPDATE_PARALLELISM = factory.createIRI(NAMESPACE, "indexUpdateParallelism");
 		VALUE_CACHE_SIZE = factory.createIRI(NAMESPACE, "valueCacheSize");
 		VALUE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "valueIDCacheSize");
+		VALUE_CACHE_MEMORY = factory.createIRI(NAMESPACE, "valueCacheMemory");
+		VALUE_ID_CACHE_MEMORY = factory.createIRI(NAMESPACE, "valueIDCacheMemory");
 		NAMESPACE_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceCacheSize");
 		NAMESPACE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceIDCacheSize");
 	}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeBulkLoaderTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private final ValueFactory F = SimpleValueFactory.getInstance();
+
+	private final IRI CTX_1 = F.createIRI("urn:one");
+
+	private final IRI CTX_2 = F.createIRI("urn:two");
+
+	private File dataDir;
+
+	private NativeStore store;
+
+	@Before
+	public void before() throws Exception {
+		dataDir = tempFolder.newFolder("dbmodel");
+		store = new NativeStore(dataDir, "spoc,posc,cspo");
+		store.init();
+	}
+
+	@After
+	public void after() throws Exception {
+		store.shutDown();
+	}
+
+	@Test
+	public void testBulkLoad() throws Exception {
+		Set<Statement> expected = new HashSet<>();
+
+		// a small run size, so that the statements are spilled to several runs
+		try (NativeBulkLoader loader = store.startBulkLoad(100)) {
+			for (int i = 0; i < 1000; i++) {
+				IRI subj = F.createIRI("urn:s" + (i % 37));
+				Statement st = F.createStatement(subj, RDFS.LABEL, F.createLiteral("label " + i));
+				loader.add(st);
+				// duplicates must be dropped
+				loader.add(st);
+				expected.add(st);
+
+				Statement typeSt = F.createStatement(subj, RDF.TYPE, RDFS.RESOURCE, i % 2 == 0 ? CTX_1 : CTX_2);
+				loader.add(typeSt);
+				expected.add(typeSt);
+			}
+			assertEquals(expected.size(), loader.finish());
+		}
+
+		verifyContents(expected);
+
+		// reopen the store to check that the loaded files are complete
+		store.shutDown();
+		store = new NativeStore(dataDir, "spoc,posc,cspo");
+		store.init();
+		verifyContents(expected);
+
+		// the store must remain usable for regular updates
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.removeStatements(null, null, null, CTX_1);
+			con.addStatement(CTX_1, RDFS.LABEL, F.createLiteral("one"));
+			con.commit();
+
+			assertEquals(expected.size() - 37 + 1, con.size());
+		}
+	}
+
+	@Test(expected = SailException.class)
+	public void testBulkLoadNonEmptyStore() throws Exception {
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(CTX_1, RDFS.LABEL, F.createLiteral("one"));
+			con.commit();
+		}
+
+		store.startBulkLoad().close();
+	}
+
+	@Test
+	public void testCloseWithoutFinish() throws Exception {
+		try (NativeBulkLoader loader = store.startBulkLoad()) {
+			loader.add(CTX_1, RDFS.LABEL, F.createLiteral("one"));
+		}
+
+		try (SailConnection con = store.getConnection()) {
+			assertEquals(0, con.size());
+		}
+		// temporary files must have been removed
+		assertEquals(0, dataDir.list((dir, name) -> name.startsWith("bulkload")).length);
+	}
+
+	private void verifyContents(Set<Statement> expected) {
+		try (SailConnection con = store.getConnection()) {
+			assertEquals(expected.size(), con.size());
+			assertEquals(2 * 37, con.size(CTX_1) + con.size(CTX_2));
+
+			Set<Resource> contexts = new HashSet<>(Iterations.asList(con.getContextIDs()));
+			assertEquals(2, contexts.size());
+			assertTrue(contexts.contains(CTX_1));
+			assertTrue(contexts.contains(CTX_2));
+
+			for (Statement st : expected) {
+				assertTrue("missing statement " + st, con.hasStatement(st.getSubject(), st.getPredicate(),
+						st.getObject(), false, st.getContext() == null ? new Resource[] { null }
+								: new Resource[] { st.getContext() }));
+			}
+			assertEquals(37, Iterations.asList(con.getStatements(null, RDF.TYPE, null, false)).stream()
+					.map(Statement::getSubject)
+					.distinct()
+					.count());
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.evaluation.InternalIdTripleSource;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeTripleSourceTest {
+
+	private static final String PREFIXES = "PREFIX rdf: <" + RDF.NAMESPACE + "> PREFIX rdfs: <" + RDFS.NAMESPACE
+			+ "> ";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private NativeStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		store = new NativeStore(tempFolder.newFolder());
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (int i = 0; i < 100; i++) {
+				IRI subj = vf.createIRI("urn:s:" + i);
+				con.addStatement(subj, RDF.VALUE, vf.createLiteral(String.valueOf(i % 5), XMLSchema.INTEGER));
+				con.addStatement(subj, RDFS.LABEL, vf.createLiteral("label " + (i % 10)));
+			}
+			con.commit();
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		store.shutDown();
+	}
+
+	@Test
+	public void testInternalIDs() throws Exception {
+		NativeTripleSource tripleSource = new NativeTripleSource(null, store.getValueStore());
+		Value stored;
+		try (SailConnection con = store.getConnection();
+				CloseableIteration<? extends Statement, SailException> iter = con.getStatements(null, RDF.VALUE,
+						null, false)) {
+			stored = iter.next().getObject();
+		}
+
+		long id = tripleSource.getInternalID(stored);
+		assertNotEquals(InternalIdTripleSource.UNKNOWN_ID, id);
+		// an equal value that was not read from the store has the same ID
+		Literal copy = vf.createLiteral(stored.stringValue(), XMLSchema.INTEGER);
+		assertEquals(id, tripleSource.getInternalID(copy));
+		assertNotEquals(id, tripleSource.getInternalID(RDF.VALUE));
+		assertEquals(InternalIdTripleSource.UNKNOWN_ID, tripleSource.getInternalID(vf.createLiteral("unknown")));
+	}
+
+	@Test
+	public void testBoundValuesReadFromStore() throws Exception {
+		// the values of the pattern are not stored values, but the statements must hold the stored values
+		try (SailConnection con = store.getConnection();
+				CloseableIteration<? extends Statement, SailException> iter = con.getStatements(vf.createIRI("urn:s:1"),
+						RDF.VALUE, null, false)) {
+			Statement st = iter.next();
+			assertTrue(st.getSubject() instanceof NativeValue);
+			assertTrue(st.getPredicate() instanceof NativeValue);
+			assertTrue(st.getObject() instanceof NativeValue);
+			assertNotEquals(NativeValue.UNKNOWN_ID, ((NativeValue) st.getPredicate()).getInternalID());
+		}
+	}
+
+	@Test
+	public void testGroupBy() throws Exception {
+		// the values of the VALUES clause are not read from the store, but must be grouped with the stored values
+		Map<Value, Integer> counts = new HashMap<>();
+		evaluate(PREFIXES + "SELECT ?v (COUNT(*) AS ?c) "
+				+ "{ { ?s rdf:value ?v } UNION { VALUES ?v { 1 42 } } } GROUP BY ?v", bs -> {
+					counts.put(bs.getValue("v"), Integer.parseInt(bs.getValue("c").stringValue()));
+				});
+
+		assertEquals(6, counts.size());
+		assertEquals(20, (int) counts.get(vf.createLiteral("0", XMLSchema.INTEGER)));
+		assertEquals(21, (int) counts.get(vf.createLiteral("1", XMLSchema.INTEGER)));
+		assertEquals(1, (int) counts.get(vf.createLiteral("42", XMLSchema.INTEGER)));
+	}
+
+	@Test
+	public void testDistinct() throws Exception {
+		Map<Value, Integer> counts = new HashMap<>();
+		evaluate(PREFIXES + "SELECT DISTINCT ?v ?l "
+				+ "{ { ?s rdf:value ?v ; rdfs:label ?l } UNION { VALUES (?v ?l) { (1 \"label 1\") (5 UNDEF) } } }",
+				bs -> counts.merge(bs.getValue("v"), 1, Integer::sum));
+
+		// value i % 5 occurs with labels i % 10
+		assertEquals(6, counts.size());
+		assertEquals(2, (int) counts.get(vf.createLiteral("1", XMLSchema.INTEGER)));
+		assertEquals(1, (int) counts.get(vf.createLiteral("5", XMLSchema.INTEGER)));
+	}
+
+	@Test
+	public void testDistinctComputedValues() throws Exception {
+		// computed values are not NativeValues, their IDs are cached whether or not these are stored
+		Map<Value, Integer> counts = new HashMap<>();
+		evaluate(PREFIXES + "SELECT DISTINCT ?v { { ?s rdf:value ?v } UNION { ?s rdf:value ?x BIND(?x + 0 AS ?v) } "
+				+ "UNION { ?s rdf:value ?x BIND(?x + 10 AS ?v) } }",
+				bs -> counts.merge(bs.getValue("v"), 1, Integer::sum));
+
+		assertEquals(10, counts.size());
+		assertEquals(1, (int) counts.get(vf.createLiteral("4", XMLSchema.INTEGER)));
+		assertEquals(1, (int) counts.get(vf.createLiteral("14", XMLSchema.INTEGER)));
+	}
+
+	@Test
+	public void testOptionalJoin() throws Exception {
+		int[] count = new int[1];
+		evaluate(PREFIXES + "SELECT * { ?s rdf:value ?v OPTIONAL { SELECT ?s ?l { ?s rdfs:label ?l } } }",
+				bs -> {
+					int i = Integer.parseInt(bs.getValue("s").stringValue().substring("urn:s:".length()));
+					assertEquals("label " + (i % 10), bs.getValue("l").stringValue());
+					count[0]++;
+				});
+		assertEquals(100, count[0]);
+	}
+
+	private void evaluate(String query, Consumer<BindingSet> consumer) throws SailException {
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		try (SailConnection con = store.getConnection();
+				CloseableIteration<? extends BindingSet, QueryEvaluationException> iter = con
+						.evaluate(pq.getTupleExpr(), null, EmptyBindingSet.getInstance(), false)) {
+			while (iter.hasNext()) {
+				consumer.accept(iter.next());
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PredicateStatisticsTest {
+
+	private static final int TYPE = 1;
+
+	private static final int LABEL = 2;
+
+	private static final int CLASS_A = 3;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File dataDir;
+
+	@Before
+	public void before() throws Exception {
+		dataDir = tempFolder.newFolder();
+	}
+
+	@Test
+	public void testSkewedObjects() throws Exception {
+		TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc");
+		try {
+			tripleStore.startTransaction();
+			// 900 subjects of type A, 100 subjects of distinct other types
+			for (int i = 0; i < 1000; i++) {
+				int subj = 1000 + i;
+				tripleStore.storeTriple(subj, TYPE, i < 900 ? CLASS_A : 100 + i, 0);
+				tripleStore.storeTriple(subj, LABEL, 5000 + i, 0);
+			}
+			tripleStore.commit();
+
+			PredicateStatistics stats = tripleStore.getPredicateStatistics();
+			assertEquals(1000, stats.getCount(TYPE));
+			assertEquals(1000, stats.cardinality(-1, TYPE, -1), 0);
+			assertEquals(900, stats.cardinality(-1, TYPE, CLASS_A), 0);
+			assertTrue(stats.cardinality(-1, TYPE, 150) <= 10);
+			assertEquals(1000, stats.getDistinctSubjects(LABEL), 100);
+			assertEquals(1000, stats.getDistinctObjects(LABEL), 100);
+			assertEquals(1, stats.cardinality(1000, LABEL, -1), 0.2);
+			assertEquals(0, stats.cardinality(-1, 42, -1), 0);
+
+			// removals and rolled back transactions
+			tripleStore.startTransaction();
+			tripleStore.removeTriplesByContext(-1, TYPE, CLASS_A, -1);
+			tripleStore.commit();
+
+			tripleStore.startTransaction();
+			tripleStore.storeTriple(1, LABEL, 1, 0);
+			tripleStore.rollback();
+
+			assertEquals(100, stats.getCount(TYPE));
+			assertEquals(1000, stats.getCount(LABEL));
+			assertTrue(stats.cardinality(-1, TYPE, CLASS_A) <= 1);
+		} finally {
+			tripleStore.close();
+		}
+
+		// statistics must survive a restart
+		assertTrue(new File(dataDir, "predicates.stat").exists());
+		tripleStore = new TripleStore(dataDir, "spoc,posc");
+		try {
+			assertEquals(100, tripleStore.getPredicateStatistics().getCount(TYPE));
+			assertEquals(1000, tripleStore.getPredicateStatistics().getCount(LABEL));
+		} finally {
+			tripleStore.close();
+		}
+	}
+
+	@Test
+	public void testRebuildAfterCrash() throws Exception {
+		TripleStore tripleStore = new TripleStore(dataDir, "spoc");
+		tripleStore.startTransaction();
+		tripleStore.storeTriple(1, TYPE, CLASS_A, 0);
+		tripleStore.storeTriple(2, TYPE, CLASS_A, 0);
+		tripleStore.commit();
+		tripleStore.close();
+
+		tripleStore = new TripleStore(dataDir, "spoc");
+		tripleStore.startTransaction();
+		tripleStore.storeTriple(3, TYPE, CLASS_A, 0);
+		tripleStore.commit();
+
+		// the changes are not stored until the store is closed, simulate a crash by not closing it
+		assertFalse(new File(dataDir, "predicates.stat").exists());
+
+		PredicateStatistics stats = new PredicateStatistics(dataDir);
+		assertFalse(stats.load());
+
+		TripleStore recovered = new TripleStore(dataDir, "spoc");
+		try {
+			assertEquals(3, recovered.getPredicateStatistics().getCount(TYPE));
+		} finally {
+			recovered.close();
+			tripleStore.close();
+		}
+	}
+
+	@Test
+	public void testDistinctCounter() {
+		PredicateStatistics.DistinctCounter counter = new PredicateStatistics.DistinctCounter();
+		for (int i = 0; i < PredicateStatistics.DistinctCounter.EXACT_LIMIT; i++) {
+			counter.add(i);
+			counter.add(i);
+		}
+		assertEquals(PredicateStatistics.DistinctCounter.EXACT_LIMIT, counter.estimate());
+
+		for (int i = 0; i < 100_000; i++) {
+			counter.add(i);
+		}
+		assertEquals(100_000, counter.estimate(), 15_000);
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SegmentedLruCacheTest {
+
+	@Test
+	public void testGetPut() {
+		SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(100);
+
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.put(1, "uno");
+
+		assertEquals("uno", cache.get(1));
+		assertEquals("two", cache.get(2));
+		assertNull(cache.get(3));
+		assertEquals(2, cache.getSize());
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testCapacityIsRespected() {
+		SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(100);
+
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, String.valueOf(i));
+		}
+
+		assertTrue(cache.getSize() <= 100);
+		assertEquals(1000 - cache.getSize(), cache.getEvictionCount());
+	}
+
+	@Test
+	public void testFrequentlyUsedEntriesSurviveScan() {
+		SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(100);
+
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, String.valueOf(i));
+			cache.get(i);
+		}
+
+		// a scan over many values that are used only once
+		for (int i = 1000; i < 10000; i++) {
+			cache.put(i, String.valueOf(i));
+		}
+
+		for (int i = 0; i < 50; i++) {
+			assertNotNull("frequently used entry " + i + " was evicted", cache.get(i));
+		}
+	}
+
+	@Test
+	public void testWeightBound() {
+		SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(1000, (k, v) -> v.length());
+
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "0123456789");
+		}
+		assertTrue(cache.getWeight() <= 1000);
+
+		// entries larger than a stripe are not cached
+		cache.put(-1, new String(new char[2000]));
+		assertNull(cache.get(-1));
+	}
+
+	@Test
+	public void testClear() {
+		SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(100);
+		cache.put(1, "one");
+		cache.clear();
+
+		assertNull(cache.get(1));
+		assertEquals(0, cache.getSize());
+		assertEquals(0, cache.getWeight());
+	}
+}
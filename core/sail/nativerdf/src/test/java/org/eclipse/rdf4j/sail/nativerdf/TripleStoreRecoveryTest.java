@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -91,4 +92,51 @@ public class TripleStoreRecoveryTest {
 		}
 	}
 
+	@Test
+	public void testParallelIndexUpdates() throws Exception {
+		TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc,ospc,cspo");
+		try {
+			tripleStore.setIndexUpdateParallelism(4);
+
+			tripleStore.startTransaction();
+			for (int i = 1; i <= 100; i++) {
+				tripleStore.storeTriple(i, 2, 3, 4);
+			}
+			tripleStore.commit();
+
+			tripleStore.startTransaction();
+			tripleStore.removeTriplesByContext(-1, -1, -1, 4);
+			tripleStore.storeTriple(1, 2, 3, 5);
+			tripleStore.rollback();
+
+			tripleStore.startTransaction();
+			tripleStore.removeTriplesByContext(1, -1, -1, -1);
+			tripleStore.commit();
+		} finally {
+			tripleStore.close();
+		}
+
+		// each index must contain the same triples, without any transaction flags
+		tripleStore = new TripleStore(dataDir, "spoc,posc,ospc,cspo");
+		try {
+			assertEquals(99, countTriples(tripleStore, -1, -1, -1, -1));
+			assertEquals(99, countTriples(tripleStore, -1, 2, -1, -1));
+			assertEquals(99, countTriples(tripleStore, -1, -1, 3, -1));
+			assertEquals(99, countTriples(tripleStore, -1, -1, -1, 4));
+			assertEquals(0, countTriples(tripleStore, -1, -1, -1, 5));
+		} finally {
+			tripleStore.close();
+		}
+	}
+
+	private int countTriples(TripleStore tripleStore, int subj, int pred, int obj, int context) throws Exception {
+		int count = 0;
+		try (RecordIterator iter = tripleStore.getTriples(subj, pred, obj, context, true, false)) {
+			while (iter.next() != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 }
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.nativerdf.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.assertj.core.util.Files;
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.sail.nativerdf.btree.BTree;
+import org.eclipse.rdf4j.sail.nativerdf.btree.DefaultRecordComparator;
+import org.eclipse.rdf4j.sail.nativerdf.btree.RecordIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading B-tree nodes through regular file reads with reading them from memory-mapped regions.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10)
+@BenchmarkMode({ Mode.AverageTime })
+@Fork(value = 1, jvmArgs = { "-Xms256M", "-Xmx256M", "-XX:+UseG1GC" })
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BTreeReadBenchmark {
+
+	private static final int RANDOM_SEED = 524826405;
+
+	private static final int VALUE_COUNT = 5_000_000;
+
+	private static final int LOOKUP_COUNT = 100_000;
+
+	@Param({ "false", "true" })
+	public boolean memoryMapped;
+
+	private File tempFolder;
+
+	private BTree btree;
+
+	@Setup(Level.Trial)
+	public void beforeClass() throws IOException {
+		tempFolder = Files.newTemporaryFolder();
+
+		BTree initBTree = new BTree(tempFolder, "btree", 2048, 8);
+		try {
+			byte[] data = new byte[8];
+			for (long i = 0; i < VALUE_COUNT; i++) {
+				ByteArrayUtil.putLong(i, data, 0);
+				initBTree.insert(data);
+			}
+		} finally {
+			initBTree.close();
+		}
+
+		btree = new BTree(tempFolder, "btree", 2048, 8, new DefaultRecordComparator(), false, memoryMapped);
+
+		System.gc();
+	}
+
+	@TearDown(Level.Trial)
+	public void afterClass() throws IOException {
+		try {
+			btree.close();
+		} finally {
+			FileUtils.deleteDirectory(tempFolder);
+		}
+	}
+
+	@Benchmark
+	public long pointLookups() throws IOException {
+		Random random = new Random(RANDOM_SEED);
+		byte[] key = new byte[8];
+
+		long found = 0;
+		for (int i = 0; i < LOOKUP_COUNT; i++) {
+			ByteArrayUtil.putLong(random.nextInt(VALUE_COUNT), key, 0);
+			if (btree.get(key) != null) {
+				found++;
+			}
+		}
+
+		return found;
+	}
+
+	@Benchmark
+	public long fullScan() throws IOException {
+		long count = 0;
+		try (RecordIterator iter = btree.iterateAll()) {
+			while (iter.next() != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
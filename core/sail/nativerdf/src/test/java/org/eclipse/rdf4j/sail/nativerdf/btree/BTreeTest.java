@@ -7,6 +7,12 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf.btree;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -141,6 +147,99 @@ public class BTreeTest {
 		btree.clear();
 	}
 
+	@Test
+	public void testBulkLoad() throws Exception {
+		for (int valueCount : new int[] { 0, 1, 15, 16, 17, 100, 241, 255, 256 }) {
+			BTree bulkTree = new BTree(dir, "bulk" + valueCount, 85, 1);
+			try {
+				bulkTree.bulkLoad(TEST_VALUES.subList(0, valueCount).iterator());
+
+				assertTreeIsBalanced(bulkTree);
+				try (RecordIterator iter = bulkTree.iterateAll()) {
+					for (int i = 0; i < valueCount; i++) {
+						assertArrayEquals(TEST_VALUES.get(i), iter.next());
+					}
+					assertNull(iter.next());
+				}
+
+				// the tree must remain usable for regular updates
+				for (byte[] value : RANDOMIZED_TEST_VALUES) {
+					bulkTree.insert(value);
+				}
+				for (byte[] value : RANDOMIZED_TEST_VALUES) {
+					assertNotNull(bulkTree.remove(value));
+				}
+				try (RecordIterator iter = bulkTree.iterateAll()) {
+					assertNull(iter.next());
+				}
+			} finally {
+				bulkTree.delete();
+			}
+		}
+	}
+
+	@Test
+	public void testBulkLoadAfterReopen() throws Exception {
+		btree.bulkLoad(TEST_VALUES.iterator());
+		btree.close();
+
+		btree = new BTree(dir, "test", 85, 1);
+		for (byte[] value : TEST_VALUES) {
+			assertArrayEquals(value, btree.get(value));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testBulkLoadNonEmpty() throws Exception {
+		btree.insert(TEST_VALUES.get(0));
+		btree.bulkLoad(TEST_VALUES.subList(1, 2).iterator());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBulkLoadUnsorted() throws Exception {
+		btree.bulkLoad(RANDOMIZED_TEST_VALUES.iterator());
+	}
+
+	private static void assertTreeIsBalanced(BTree tree) throws Exception {
+		Node rootNode = tree.readRootNode();
+		if (rootNode != null) {
+			try {
+				assertNodeIsBalanced(tree, rootNode, true);
+			} finally {
+				rootNode.release();
+			}
+		}
+	}
+
+	/**
+	 * @return the height of the subtree
+	 */
+	private static int assertNodeIsBalanced(BTree tree, Node node, boolean isRoot) throws Exception {
+		if (!isRoot) {
+			assertTrue(node + " contains too few values", node.getValueCount() >= tree.minValueCount);
+		}
+		assertTrue(node + " contains too many values", node.getValueCount() < tree.branchFactor);
+
+		if (node.isLeaf()) {
+			return 1;
+		}
+
+		int height = -1;
+		for (int i = 0; i <= node.getValueCount(); i++) {
+			Node childNode = node.getChildNode(i);
+			try {
+				int childHeight = assertNodeIsBalanced(tree, childNode, false);
+				if (height != -1) {
+					assertEquals("leaves at different depths", height, childHeight);
+				}
+				height = childHeight;
+			} finally {
+				childNode.release();
+			}
+		}
+		return height + 1;
+	}
+
 	/*
 	 * Test for SES-527 public void testRootNodeSplit() throws Exception { // Fill the root node for (int i = 0; i < 15;
 	 * i++) { btree.insert(TEST_VALUES.get(i)); } // Fire up an iterator RecordIterator iter = btree.iterateAll();
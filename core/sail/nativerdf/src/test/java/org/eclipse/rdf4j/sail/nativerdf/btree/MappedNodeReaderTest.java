@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.btree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.io.NioFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedNodeReaderTest {
+
+	private static final int BLOCK_SIZE = 64;
+
+	private static final int SEGMENT_SIZE = 4 * BLOCK_SIZE;
+
+	@Rule
+	public TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private NioFile nioFile;
+
+	private MappedNodeReader reader;
+
+	@Before
+	public void setUp() throws Exception {
+		nioFile = new NioFile(new File(tmpDir.getRoot(), "mapped.dat"));
+		reader = new MappedNodeReader(nioFile, BLOCK_SIZE, SEGMENT_SIZE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		reader.close();
+		nioFile.close();
+	}
+
+	@Test
+	public void testReadFromMappedSegments() throws Exception {
+		List<byte[]> blocks = writeBlocks(10);
+
+		byte[] data = new byte[BLOCK_SIZE];
+		for (int i = 0; i < 8; i++) {
+			assertTrue("block " + i + " should be mapped", reader.read((long) i * BLOCK_SIZE, data, BLOCK_SIZE));
+			assertArrayEquals(blocks.get(i), data);
+		}
+
+		// third segment is only partially covered by the file
+		assertFalse(reader.read(8L * BLOCK_SIZE, data, BLOCK_SIZE));
+		assertFalse(reader.read(9L * BLOCK_SIZE, data, BLOCK_SIZE));
+	}
+
+	@Test
+	public void testWritesAreVisible() throws Exception {
+		writeBlocks(8);
+
+		byte[] update = block(42);
+		nioFile.write(ByteBuffer.wrap(update), 2L * BLOCK_SIZE);
+
+		byte[] data = new byte[BLOCK_SIZE];
+		assertTrue(reader.read(2L * BLOCK_SIZE, data, BLOCK_SIZE));
+		assertArrayEquals(update, data);
+	}
+
+	@Test
+	public void testTruncate() throws Exception {
+		writeBlocks(8);
+
+		byte[] data = new byte[BLOCK_SIZE];
+		assertTrue(reader.read(5L * BLOCK_SIZE, data, BLOCK_SIZE));
+
+		reader.truncate(6L * BLOCK_SIZE);
+		nioFile.truncate(6L * BLOCK_SIZE);
+
+		assertTrue(reader.read(1L * BLOCK_SIZE, data, BLOCK_SIZE));
+		assertFalse(reader.read(5L * BLOCK_SIZE, data, BLOCK_SIZE));
+	}
+
+	private List<byte[]> writeBlocks(int count) throws Exception {
+		List<byte[]> blocks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			byte[] block = block(i);
+			long offset = (long) i * BLOCK_SIZE;
+			nioFile.write(ByteBuffer.wrap(block), offset);
+			reader.extend(offset + BLOCK_SIZE);
+			blocks.add(block);
+		}
+		return blocks;
+	}
+
+	private byte[] block(int seed) {
+		byte[] block = new byte[BLOCK_SIZE];
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			block[i] = (byte) (seed * 31 + i);
+		}
+		return block;
+	}
+}
@@ -133,6 +133,14 @@ public class AndPropertyShape extends PathPropertyShape {
 				.orElse(false);
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		super.collectDependencies(dependencies);
+		and.stream()
+				.flatMap(Collection::stream)
+				.forEach(p -> p.collectDependencies(dependencies));
+	}
+
 	@Override
 	public SourceConstraintComponent getSourceConstraintComponent() {
 		return SourceConstraintComponent.AndConstraintComponent;
@@ -7,13 +7,10 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.shacl.AST;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
 import org.eclipse.rdf4j.sail.SailConnection;
@@ -83,7 +80,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 
 			if (getPath() == null) {
 				planNode = new ModifyTuple(overrideTargetNode.getPlanNode(), t -> {
-					t.line.add(t.line.get(0));
+					t.append(t.get(0));
 					return t;
 				});
 
@@ -130,7 +127,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 			PlanNode targets = new ModifyTuple(
 					nodeShape.getPlanAddedStatements(connectionsGroup, null),
 					t -> {
-						t.line.add(t.line.get(0));
+						t.append(t.get(0));
 						return t;
 					});
 
@@ -232,10 +229,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 							false,
 							null, "?a", "?c"),
 					t -> {
-						List<Value> line = t.line;
-						t.line = new ArrayList<>(2);
-						t.line.add(line.get(1));
-						t.line.add(line.get(0));
+						t.setLine(t.get(1), t.get(0));
 
 						return t;
 					}));
@@ -261,7 +255,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 
 			if (getPath() == null) {
 				planNode = new ModifyTuple(overrideTargetNode.getPlanNode(), t -> {
-					t.line.add(t.line.get(0));
+					t.append(t.get(0));
 					return t;
 				});
 
@@ -342,10 +336,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 								false, null, "?a",
 								"?c"),
 						t -> {
-							List<Value> line = t.line;
-							t.line = new ArrayList<>(2);
-							t.line.add(line.get(1));
-							t.line.add(line.get(0));
+							t.setLine(t.get(1), t.get(0));
 
 							return t;
 						}));
@@ -379,6 +370,13 @@ public class ClassPropertyShape extends PathPropertyShape {
 				|| super.requiresEvaluation(addedStatements, removedStatements, stats);
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		super.collectDependencies(dependencies);
+		// the type of the value is read, so removing it from the class can invalidate the subject pointing to it
+		dependencies.addType(classResource);
+	}
+
 	@Override
 	public SourceConstraintComponent getSourceConstraintComponent() {
 		return SourceConstraintComponent.ClassConstraintComponent;
@@ -443,10 +441,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 							false,
 							null, "?a", "?c"),
 					t -> {
-						List<Value> line = t.line;
-						t.line = new ArrayList<>(2);
-						t.line.add(line.get(1));
-						t.line.add(line.get(0));
+						t.setLine(t.get(1), t.get(0));
 
 						return t;
 					}));
@@ -473,10 +468,7 @@ public class ClassPropertyShape extends PathPropertyShape {
 							false,
 							null, "?a", "?c"),
 					t -> {
-						List<Value> line = t.line;
-						t.line = new ArrayList<>(2);
-						t.line.add(line.get(1));
-						t.line.add(line.get(0));
+						t.setLine(t.get(1), t.get(0));
 
 						return t;
 					}));
@@ -25,7 +25,6 @@ import org.eclipse.rdf4j.sail.shacl.ConnectionsGroup;
 import org.eclipse.rdf4j.sail.shacl.RdfsSubClassOfReasoner;
 import org.eclipse.rdf4j.sail.shacl.ShaclSail;
 import org.eclipse.rdf4j.sail.shacl.Stats;
-import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedSplitter;
 import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNode;
 import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNodeProvider;
 import org.eclipse.rdf4j.sail.shacl.planNodes.Select;
@@ -103,7 +102,7 @@ public class NodeShape implements PlanGenerator, RequiresEvalutation, QueryGener
 		if (validateEntireBaseSail) {
 			if (connectionsGroup.getSail().isCacheSelectNodes()) {
 				PlanNode overrideTargetNode = getPlan(connectionsGroup, printPlans, null, false, false);
-				overrideTargetNodeBufferedSplitter = new BufferedSplitter(overrideTargetNode);
+				overrideTargetNodeBufferedSplitter = connectionsGroup.getBufferedSplitter(overrideTargetNode);
 			} else {
 				overrideTargetNodeBufferedSplitter = () -> getPlan(connectionsGroup, printPlans, null,
 						false, false);
@@ -117,10 +116,10 @@ public class NodeShape implements PlanGenerator, RequiresEvalutation, QueryGener
 		}
 
 		Stream<PlanNode> propertyShapesPlans = convertToPlan(propertyShapes, connectionsGroup, nodeShape, printPlans,
-				overrideTargetNodeBufferedSplitter, addedStatements, removedStatements);
+				overrideTargetNodeBufferedSplitter, addedStatements, removedStatements, validateEntireBaseSail);
 
 		Stream<PlanNode> nodeShapesPlans = convertToPlan(this.nodeShapes, connectionsGroup, nodeShape, printPlans,
-				overrideTargetNodeBufferedSplitter, addedStatements, removedStatements);
+				overrideTargetNodeBufferedSplitter, addedStatements, removedStatements, validateEntireBaseSail);
 
 		return Stream.concat(propertyShapesPlans, nodeShapesPlans);
 	}
@@ -129,11 +128,14 @@ public class NodeShape implements PlanGenerator, RequiresEvalutation, QueryGener
 			ConnectionsGroup connectionsGroup,
 			NodeShape nodeShape, boolean printPlans, PlanNodeProvider overrideTargetNodeBufferedSplitter,
 			SailConnection addedStatements,
-			SailConnection removedStatements) {
+			SailConnection removedStatements, boolean validateEntireBaseSail) {
 
 		Stats stats = connectionsGroup.getStats();
 		return propertyShapes
 				.stream()
+				// skip shapes that read none of the predicates and types that were changed, without querying the
+				// added and removed statements
+				.filter(propertyShape -> validateEntireBaseSail || propertyShape.getDependencies().isAffectedBy(stats))
 				.filter(propertyShape -> propertyShape.requiresEvaluation(addedStatements, removedStatements, stats))
 				.map(propertyShape -> propertyShape.getPlan(connectionsGroup, printPlans,
 						overrideTargetNodeBufferedSplitter, false, false));
@@ -144,6 +146,14 @@ public class NodeShape implements PlanGenerator, RequiresEvalutation, QueryGener
 		return true;
 	}
 
+	/**
+	 * Adds the predicates and types that are read to find the targets of this shape. A node shape without a target
+	 * targets every subject, so it depends on all predicates.
+	 */
+	void collectDependencies(ShapeDependencies dependencies) {
+		dependencies.addAllPredicates();
+	}
+
 	@Override
 	public String getQuery(String subjectVariable, String objectVariable,
 			RdfsSubClassOfReasoner rdfsSubClassOfReasoner) {
@@ -125,6 +125,12 @@ public class NotPropertyShape extends PathPropertyShape {
 
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		super.collectDependencies(dependencies);
+		orPropertyShape.collectDependencies(dependencies);
+	}
+
 	@Override
 	public SourceConstraintComponent getSourceConstraintComponent() {
 		return SourceConstraintComponent.NotConstraintComponent;
@@ -21,7 +21,6 @@ import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.Stats;
 import org.eclipse.rdf4j.sail.shacl.planNodes.AggregateIteratorTypeOverride;
 import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedPlanNode;
-import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedSplitter;
 import org.eclipse.rdf4j.sail.shacl.planNodes.EnrichWithShape;
 import org.eclipse.rdf4j.sail.shacl.planNodes.EqualsJoin;
 import org.eclipse.rdf4j.sail.shacl.planNodes.InnerJoin;
@@ -107,11 +106,11 @@ public class OrPropertyShape extends PathPropertyShape {
 					.flatMap(Collection::stream)
 					.map(p -> new TrimTuple(p, 0, 1)) // we only want the targets
 					.collect(Collectors.toList());
-			targetNodesToValidate = new BufferedSplitter(new Unique(unionAll(collect)));
+			targetNodesToValidate = connectionsGroup.getBufferedSplitter(new Unique(unionAll(collect)));
 
 		} else {
 			if (connectionsGroup.getSail().isCacheSelectNodes()) {
-				targetNodesToValidate = new BufferedSplitter(overrideTargetNode.getPlanNode());
+				targetNodesToValidate = connectionsGroup.getBufferedSplitter(overrideTargetNode.getPlanNode());
 			} else {
 				targetNodesToValidate = overrideTargetNode;
 			}
@@ -226,6 +225,14 @@ public class OrPropertyShape extends PathPropertyShape {
 				.orElse(false);
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		super.collectDependencies(dependencies);
+		or.stream()
+				.flatMap(Collection::stream)
+				.forEach(p -> p.collectDependencies(dependencies));
+	}
+
 	@Override
 	public SourceConstraintComponent getSourceConstraintComponent() {
 		return SourceConstraintComponent.OrConstraintComponent;
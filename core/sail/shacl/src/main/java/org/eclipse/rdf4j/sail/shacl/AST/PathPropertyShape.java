@@ -160,6 +160,18 @@ public abstract class PathPropertyShape extends PropertyShape {
 				|| path.requiresEvaluation(addedStatements, removedStatements, stats);
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		super.collectDependencies(dependencies);
+
+		Path path = getPath();
+		if (path instanceof SimplePath) {
+			dependencies.addPredicate(((SimplePath) path).getPath());
+		} else if (path != null) {
+			dependencies.addAllPredicates();
+		}
+	}
+
 	public Path getPath() {
 		if (path == null && parent != null) {
 			return parent.getPath();
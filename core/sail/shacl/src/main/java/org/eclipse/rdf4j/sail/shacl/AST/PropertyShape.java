@@ -51,6 +51,8 @@ public abstract class PropertyShape implements PlanGenerator, RequiresEvalutatio
 	NodeShape nodeShape;
 	PathPropertyShape parent;
 
+	private volatile ShapeDependencies dependencies;
+
 	PropertyShape(Resource id, NodeShape nodeShape, boolean deactivated, PathPropertyShape parent) {
 		this.id = id;
 		this.nodeShape = nodeShape;
@@ -90,6 +92,23 @@ public abstract class PropertyShape implements PlanGenerator, RequiresEvalutatio
 		return nodeShape.requiresEvaluation(addedStatements, removedStatements, stats);
 	}
 
+	/**
+	 * @return the predicates and types that the plan of this shape reads
+	 */
+	ShapeDependencies getDependencies() {
+		ShapeDependencies dependencies = this.dependencies;
+		if (dependencies == null) {
+			dependencies = new ShapeDependencies();
+			collectDependencies(dependencies);
+			this.dependencies = dependencies;
+		}
+		return dependencies;
+	}
+
+	void collectDependencies(ShapeDependencies dependencies) {
+		nodeShape.collectDependencies(dependencies);
+	}
+
 	public String getPlanAsGraphvizDot(PlanNode planNode, ConnectionsGroup connectionsGroup) {
 
 		StringBuilder stringBuilder = new StringBuilder("Graphviz DOT output:\n\n");
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.AST;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.sail.shacl.Stats;
+
+/**
+ * The predicates and the objects of rdf:type statements that the plan of a shape reads, either to find its targets, to
+ * follow its sh:path or to check its constraint. Types are also read in the reverse direction of the path, eg. sh:class
+ * reads the type of the value that the path leads to. A transaction that changes none of these can not change the
+ * result of the shape.
+ */
+class ShapeDependencies {
+
+	private final Set<IRI> predicates = new HashSet<>();
+	private final Set<Resource> types = new HashSet<>();
+	private boolean allPredicates;
+
+	void addPredicate(IRI predicate) {
+		predicates.add(predicate);
+	}
+
+	void addType(Resource type) {
+		types.add(type);
+	}
+
+	/**
+	 * The shape reads all statements of its focus nodes, eg. a node shape without a target.
+	 */
+	void addAllPredicates() {
+		allPredicates = true;
+	}
+
+	/**
+	 * @return true if the changes recorded in the stats may affect the shape, or if no changes were recorded
+	 */
+	boolean isAffectedBy(Stats stats) {
+		if (allPredicates || !stats.hasRecordedChanges()) {
+			return true;
+		}
+
+		return predicates.stream().anyMatch(stats::hasChangedPredicate)
+				|| types.stream().anyMatch(stats::hasChangedType);
+	}
+
+	@Override
+	public String toString() {
+		return "ShapeDependencies{" +
+				"predicates=" + predicates +
+				", types=" + types +
+				", allPredicates=" + allPredicates +
+				'}';
+	}
+}
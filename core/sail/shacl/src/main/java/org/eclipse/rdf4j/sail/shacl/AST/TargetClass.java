@@ -101,6 +101,11 @@ public class TargetClass extends NodeShape {
 
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		targetClass.forEach(dependencies::addType);
+	}
+
 	@Override
 	public String getQuery(String subjectVariable, String objectVariable,
 			RdfsSubClassOfReasoner rdfsSubClassOfReasoner) {
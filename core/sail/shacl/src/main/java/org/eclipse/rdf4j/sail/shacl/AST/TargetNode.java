@@ -76,6 +76,11 @@ public class TargetNode extends NodeShape {
 		return true;
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		// the targets are fixed and don't depend on the data
+	}
+
 	@Override
 	public String getQuery(String subjectVariable, String objectVariable,
 			RdfsSubClassOfReasoner rdfsSubClassOfReasoner) {
@@ -106,6 +106,11 @@ public class TargetObjectsOf extends NodeShape {
 				.orElseThrow(IllegalStateException::new);
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		targetObjectsOf.forEach(dependencies::addPredicate);
+	}
+
 	@Override
 	public String getQuery(String subjectVariable, String objectVariable,
 			RdfsSubClassOfReasoner rdfsSubClassOfReasoner) {
@@ -103,6 +103,11 @@ public class TargetSubjectsOf extends NodeShape {
 
 	}
 
+	@Override
+	void collectDependencies(ShapeDependencies dependencies) {
+		targetSubjectsOf.forEach(dependencies::addPredicate);
+	}
+
 	@Override
 	public String getQuery(String subjectVariable, String objectVariable,
 			RdfsSubClassOfReasoner rdfsSubClassOfReasoner) {
@@ -46,6 +46,8 @@ public class ConnectionsGroup implements Closeable {
 	// used to cache Select plan nodes so that we don't query a store for the same data during the same validation step.
 	private final Map<PlanNode, BufferedSplitter> selectNodeCache = new HashMap<>();
 
+	private final ConcurrentLinkedQueue<BufferedSplitter> bufferedSplittersToClose = new ConcurrentLinkedQueue<>();
+
 	ConnectionsGroup(ShaclSail sail, SailConnection baseConnection,
 			SailConnection previousStateConnection, Sail addedStatements, Sail removedStatements,
 			Stats stats, RdfsSubClassOfReasonerProvider rdfsSubClassOfReasonerProvider) {
@@ -76,8 +78,14 @@ public class ConnectionsGroup implements Closeable {
 
 	@Override
 	public void close() {
-		for (SailConnection sailConnection : connectionsToClose) {
-			sailConnection.close();
+		try {
+			for (SailConnection sailConnection : connectionsToClose) {
+				sailConnection.close();
+			}
+		} finally {
+			for (BufferedSplitter bufferedSplitter : bufferedSplittersToClose) {
+				bufferedSplitter.close();
+			}
 		}
 	}
 
@@ -95,11 +103,21 @@ public class ConnectionsGroup implements Closeable {
 			return select;
 		}
 
-		BufferedSplitter bufferedSplitter = selectNodeCache.computeIfAbsent(select, BufferedSplitter::new);
+		BufferedSplitter bufferedSplitter = selectNodeCache.computeIfAbsent(select, this::getBufferedSplitter);
 
 		return bufferedSplitter.getPlanNode();
 	}
 
+	/**
+	 * @return a new BufferedSplitter for the plan node, which is closed together with this connections group so that
+	 *         the tuples it may have spilled to disk are deleted
+	 */
+	public BufferedSplitter getBufferedSplitter(PlanNode planNode) {
+		BufferedSplitter bufferedSplitter = new BufferedSplitter(planNode);
+		bufferedSplittersToClose.add(bufferedSplitter);
+		return bufferedSplitter;
+	}
+
 	public RdfsSubClassOfReasoner getRdfsSubClassOfReasoner() {
 		return rdfsSubClassOfReasonerProvider.getRdfsSubClassOfReasoner();
 	}
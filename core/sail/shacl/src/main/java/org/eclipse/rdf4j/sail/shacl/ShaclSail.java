@@ -10,6 +10,7 @@ package org.eclipse.rdf4j.sail.shacl;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
@@ -18,12 +19,20 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.rdf4j.IsolationLevels;
@@ -185,6 +194,16 @@ public class ShaclSail extends NotifyingSailWrapper {
 	private boolean rdfsSubClassReasoning = ShaclSailConfig.RDFS_SUB_CLASS_REASONING_DEFAULT;
 	private boolean serializableValidation = ShaclSailConfig.SERIALIZABLE_VALIDATION_DEFAULT;
 	private boolean performanceLogging = ShaclSailConfig.PERFORMANCE_LOGGING_DEFAULT;
+	private int validationThreads = ShaclSailConfig.VALIDATION_THREADS_DEFAULT;
+	private int validationQueueSize = ShaclSailConfig.VALIDATION_QUEUE_SIZE_DEFAULT;
+	private int validationBufferSize = ShaclSailConfig.VALIDATION_BUFFER_SIZE_DEFAULT;
+	private boolean bulkValidation = false;
+
+	// distinguishes the management beans of the sails in this JVM
+	private static final AtomicLong MANAGEMENT_BEAN_IDS = new AtomicLong();
+
+	private final ValidationStatistics validationStatistics = new ValidationStatistics();
+	private ObjectName validationStatisticsName;
 
 	static {
 		try {
@@ -277,6 +296,16 @@ public class ShaclSail extends NotifyingSailWrapper {
 			return;
 		}
 
+		try {
+			initializeInternal();
+		} catch (RuntimeException | Error e) {
+			unregisterValidationStatistics();
+			initialized.set(false);
+			throw e;
+		}
+	}
+
+	private void initializeInternal() {
 		super.initialize();
 
 		if (shapesRepo != null) {
@@ -308,6 +337,34 @@ public class ShaclSail extends NotifyingSailWrapper {
 
 		assert executorService[0] == null;
 
+		registerValidationStatistics();
+	}
+
+	/**
+	 * Exposes the validation statistics as a management bean until the sail is shut down. Failure to register is
+	 * logged but does not prevent the sail from being used.
+	 */
+	private void registerValidationStatistics() {
+		try {
+			ObjectName objectName = new ObjectName("org.eclipse.rdf4j.sail.shacl:type=ShaclSail,id="
+					+ MANAGEMENT_BEAN_IDS.incrementAndGet() + ",name=validationStatistics");
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(validationStatistics, objectName);
+			validationStatisticsName = objectName;
+		} catch (JMException | RuntimeException e) {
+			logger.warn("Unable to register management bean for ShaclSail: {}", e.getMessage());
+		}
+	}
+
+	private void unregisterValidationStatistics() {
+		if (validationStatisticsName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(validationStatisticsName);
+			} catch (JMException e) {
+				logger.debug("Unable to unregister management bean {}", validationStatisticsName, e);
+			}
+			validationStatisticsName = null;
+		}
 	}
 
 	List<NodeShape> refreshShapes(SailRepositoryConnection shapesRepoConnection) throws SailException {
@@ -354,15 +411,27 @@ public class ShaclSail extends NotifyingSailWrapper {
 
 		}
 
+		unregisterValidationStatistics();
+
 		initialized.set(false);
 		executorService[0] = null;
+		validationStatistics.setExecutor(null);
 		nodeShapes = Collections.emptyList();
 		super.shutDown();
 	}
 
-	synchronized <T> Future<T> submitRunnableToExecutorService(Callable<T> runnable) {
+	<T> Future<T> submitRunnableToExecutorService(Callable<T> runnable) {
+		// submit outside of the lock on the sail, since a full queue makes the calling thread execute the plan
+		return getExecutorService().submit(runnable);
+	}
+
+	private synchronized ExecutorService getExecutorService() {
 		if (executorService[0] == null) {
-			executorService[0] = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2,
+			int threads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors() * 2;
+			// the threads must not reference the sail, so that it can be garbage collected and the pool shut down
+			ValidationStatistics statistics = validationStatistics;
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(validationQueueSize),
 					r -> {
 						Thread t = Executors.defaultThreadFactory().newThread(r);
 						// this thread pool does not need to stick around if the all other threads are done, because it
@@ -370,9 +439,24 @@ public class ShaclSail extends NotifyingSailWrapper {
 						// thread to receive the validation results.
 						t.setDaemon(true);
 						return t;
+					},
+					(r, e) -> {
+						// back-pressure: when the queue is full the committing thread executes the plan itself
+						if (e.isShutdown()) {
+							throw new RejectedExecutionException("ShaclSail has been shut down");
+						}
+						statistics.recordCallerRuns();
+						r.run();
 					});
+			executor.allowCoreThreadTimeOut(true);
+			validationStatistics.setExecutor(executor);
+			executorService[0] = executor;
 		}
-		return executorService[0].submit(runnable);
+		return executorService[0];
+	}
+
+	ValidationStatistics getValidationStatisticsCollector() {
+		return validationStatistics;
 	}
 
 	@Override
@@ -581,6 +665,9 @@ public class ShaclSail extends NotifyingSailWrapper {
 	 * EXPERIMENTAL! Run SHACL validation in parallel. Default: false
 	 * <p>
 	 * May cause deadlock, especially when using NativeStore.
+	 * <p>
+	 * The plans are executed by a pool of {@link #setValidationThreads(int) validation threads} that is shared by all
+	 * transactions.
 	 *
 	 * @param parallelValidation default true
 	 */
@@ -588,6 +675,89 @@ public class ShaclSail extends NotifyingSailWrapper {
 		this.parallelValidation = parallelValidation;
 	}
 
+	/**
+	 * @return the number of threads used for parallel validation, <code>0</code> for twice the number of available
+	 *         processors
+	 * @see #setValidationThreads(int)
+	 */
+	public int getValidationThreads() {
+		return validationThreads;
+	}
+
+	/**
+	 * Set the number of threads that execute validation plans when {@link #setParallelValidation(boolean) parallel
+	 * validation} is enabled. Idle threads are stopped after a minute. Changes made after the first parallel validation
+	 * take effect once the sail has been shut down and initialized again.
+	 *
+	 * @param validationThreads default 0, which uses twice the number of available processors
+	 */
+	public void setValidationThreads(int validationThreads) {
+		if (validationThreads < 0) {
+			throw new IllegalArgumentException("validationThreads must not be negative: " + validationThreads);
+		}
+		this.validationThreads = validationThreads;
+	}
+
+	/**
+	 * @return the maximum number of validation plans waiting for a thread
+	 * @see #setValidationQueueSize(int)
+	 */
+	public int getValidationQueueSize() {
+		return validationQueueSize;
+	}
+
+	/**
+	 * Set the maximum number of validation plans that wait for a {@link #setValidationThreads(int) validation thread}.
+	 * When the queue is full the committing thread executes its plans itself, which limits how far concurrent
+	 * transactions can get ahead of the validation threads. Like {@link #setValidationThreads(int)}, changes made after
+	 * the first parallel validation take effect once the sail has been shut down and initialized again.
+	 *
+	 * @param validationQueueSize default 1024
+	 */
+	public void setValidationQueueSize(int validationQueueSize) {
+		if (validationQueueSize < 1) {
+			throw new IllegalArgumentException("validationQueueSize must be positive: " + validationQueueSize);
+		}
+		this.validationQueueSize = validationQueueSize;
+	}
+
+	/**
+	 * @return the maximum number of tuples that a validation plan buffers in memory per sort or shared sub-plan
+	 * @see #setValidationBufferSize(int)
+	 */
+	public int getValidationBufferSize() {
+		return validationBufferSize;
+	}
+
+	/**
+	 * Set the maximum number of tuples that a validation plan buffers in memory to sort them, or to share them between
+	 * plans when {@link #setCacheSelectNodes(boolean) select nodes are cached}. Beyond this the tuples are spilled to
+	 * temporary files and merged from there, so that very large transactions can be validated with a bounded amount of
+	 * memory. Spilling is disabled by default. Tuples are never spilled when
+	 * {@link #setLogValidationViolations(boolean) violations are logged}, since that needs the history of every tuple.
+	 *
+	 * @param validationBufferSize default 0, which buffers all tuples in memory
+	 */
+	public void setValidationBufferSize(int validationBufferSize) {
+		if (validationBufferSize < 0) {
+			throw new IllegalArgumentException("validationBufferSize must not be negative: " + validationBufferSize);
+		}
+		this.validationBufferSize = validationBufferSize;
+	}
+
+	/**
+	 * The execution time and number of violations of every validated shape, and the load of the validation threads.
+	 * The statistics are also registered as a management bean under
+	 * <code>org.eclipse.rdf4j.sail.shacl:type=ShaclSail</code> when the sail is initialized. The bean stays registered
+	 * until {@link #shutDown()} is called, so a sail that is discarded without being shut down leaves its statistics
+	 * behind in the platform MBean server.
+	 *
+	 * @return the validation statistics of this sail
+	 */
+	public ValidationStatisticsMXBean getValidationStatistics() {
+		return validationStatistics;
+	}
+
 	/**
 	 * Check if selected nodes caches is enabled.
 	 *
@@ -640,6 +810,29 @@ public class ShaclSail extends NotifyingSailWrapper {
 		return validationEnabled;
 	}
 
+	/**
+	 * Check if the sail is in bulk validation mode.
+	 *
+	 * @return <code>true</code> if transactions are validated in bulk, <code>false</code> otherwise.
+	 * @see #setBulkValidation(boolean)
+	 */
+	public boolean isBulkValidation() {
+		return bulkValidation;
+	}
+
+	/**
+	 * Put the sail in bulk validation mode, eg. for the initial load of a large amount of data. While the mode is
+	 * enabled, transactions neither track their added and removed statements nor validate them on commit(). Changes to
+	 * the shapes are still stored. Once the data is loaded, validate it in a single pass with
+	 * {@link ShaclSailConnection#revalidate(java.util.function.Consumer)}, which streams the violations instead of
+	 * collecting them in the report. The mode should only be changed while no transactions are active.
+	 *
+	 * @param bulkValidation default false
+	 */
+	public void setBulkValidation(boolean bulkValidation) {
+		this.bulkValidation = bulkValidation;
+	}
+
 	/**
 	 * Check if logging of validation plans is enabled.
 	 *
@@ -13,10 +13,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,9 +44,11 @@ import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.eclipse.rdf4j.sail.shacl.AST.NodeShape;
 import org.eclipse.rdf4j.sail.shacl.AST.PropertyShape;
 import org.eclipse.rdf4j.sail.shacl.planNodes.EnrichWithShape;
+import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNode;
 import org.eclipse.rdf4j.sail.shacl.planNodes.Tuple;
 import org.eclipse.rdf4j.sail.shacl.planNodes.ValidationExecutionLogger;
 import org.eclipse.rdf4j.sail.shacl.results.ValidationReport;
+import org.eclipse.rdf4j.sail.shacl.results.ValidationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,7 +132,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		}
 
 		stats.setBaseSailEmpty(isEmpty());
-		if (stats.isBaseSailEmpty()) {
+		if (stats.isBaseSailEmpty() || sail.isBulkValidation()) {
 			removeConnectionListener(this);
 			connectionListenerActive = false;
 		} else {
@@ -137,7 +142,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 	}
 
 	private void setupConnectionListener() {
-		if (!connectionListenerActive && sail.isValidationEnabled()) {
+		if (!connectionListenerActive && sail.isValidationEnabled() && !sail.isBulkValidation()) {
 			addConnectionListener(this);
 
 		}
@@ -300,7 +305,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 	}
 
-	private List<Tuple> validate(List<NodeShape> nodeShapes, boolean validateEntireBaseSail) {
+	private List<Tuple> validate(List<NodeShape> changedNodeShapes, List<NodeShape> unchangedNodeShapes) {
 
 		try {
 			if (!sail.isValidationEnabled()) {
@@ -308,7 +313,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			}
 
 			try (ConnectionsGroup connectionsGroup = getConnectionsGroup()) {
-				return performValidation(nodeShapes, validateEntireBaseSail, connectionsGroup);
+				return performValidation(changedNodeShapes, unchangedNodeShapes, connectionsGroup);
 			}
 		} finally {
 			rdfsSubClassOfReasoner = null;
@@ -337,8 +342,12 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 				this::getRdfsSubClassOfReasoner);
 	}
 
-	private static List<Tuple> performValidation(List<NodeShape> nodeShapes, boolean validateEntireBaseSail,
-			ConnectionsGroup connectionsGroup) {
+	/**
+	 * Validates the changed node shapes against the entire base sail and the unchanged node shapes against only the
+	 * added and removed statements.
+	 */
+	private static List<Tuple> performValidation(List<NodeShape> changedNodeShapes,
+			List<NodeShape> unchangedNodeShapes, ConnectionsGroup connectionsGroup) {
 		long beforeValidation = 0;
 
 		ShaclSail sail = connectionsGroup.getSail();
@@ -348,60 +357,23 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		}
 
 		try {
-			Stream<Callable<List<Tuple>>> callableStream = nodeShapes
+			Stream<PlanNode> changedNodeShapesPlans = changedNodeShapes
 					.stream()
 					.flatMap(nodeShape -> nodeShape
-							.generatePlans(connectionsGroup, nodeShape, sail.isLogValidationPlans(),
-									validateEntireBaseSail))
-					.filter(Objects::nonNull)
-					.map(planNode -> () -> {
-						ValidationExecutionLogger validationExecutionLogger = new ValidationExecutionLogger();
-						planNode.receiveLogger(validationExecutionLogger);
-
-						try (Stream<Tuple> stream = planNode.iterator().stream()) {
-							if (GlobalValidationExecutionLogging.loggingEnabled) {
-								PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
-								logger.info("Start execution of plan " + propertyShape.getNodeShape().toString() + " : "
-										+ propertyShape.toString());
-							}
-
-							long before = 0;
-							if (sail.isPerformanceLogging()) {
-								before = System.currentTimeMillis();
-							}
-
-							List<Tuple> collect = new ArrayList<>(stream.collect(Collectors.toList()));
-							validationExecutionLogger.flush();
-
-							if (sail.isPerformanceLogging()) {
-								long after = System.currentTimeMillis();
-								PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
-								logger.info("Execution of plan took {} ms for {} : {}", (after - before),
-										propertyShape.getNodeShape().toString(), propertyShape.toString());
-							}
+							.generatePlans(connectionsGroup, nodeShape, sail.isLogValidationPlans(), true));
 
-							if (GlobalValidationExecutionLogging.loggingEnabled) {
-								PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
-								logger.info("Finished execution of plan {} : {}",
-										propertyShape.getNodeShape().toString(),
-										propertyShape.toString());
-							}
-
-							boolean valid = collect.isEmpty();
-
-							if (!valid && sail.isLogValidationViolations()) {
-								PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
-
-								logger.info(
-										"SHACL not valid. The following experimental debug results were produced: \n\tNodeShape: {}\n\tPropertyShape: {} \n\t\t{}",
-										propertyShape.getNodeShape().getId(), propertyShape.getId(),
-										collect.stream()
-												.map(a -> a.toString() + " -cause-> " + a.getCause())
-												.collect(Collectors.joining("\n\t\t")));
-							}
+			Stream<PlanNode> unchangedNodeShapesPlans = unchangedNodeShapes
+					.stream()
+					.flatMap(nodeShape -> nodeShape
+							.generatePlans(connectionsGroup, nodeShape, sail.isLogValidationPlans(), false));
 
-							return collect;
-						}
+			Stream<Callable<List<Tuple>>> callableStream = Stream.concat(changedNodeShapesPlans,
+					unchangedNodeShapesPlans)
+					.filter(Objects::nonNull)
+					.map(planNode -> () -> {
+						List<Tuple> invalidTuples = new ArrayList<>();
+						executePlan(sail, planNode, invalidTuples::add);
+						return invalidTuples;
 					});
 
 			if (sail.isParallelValidation()) {
@@ -439,6 +411,69 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		}
 	}
 
+	/**
+	 * Executes a validation plan and passes the invalid tuples to the handler as the plan produces them.
+	 */
+	private static void executePlan(ShaclSail sail, PlanNode planNode, Consumer<Tuple> invalidTupleHandler) {
+		ValidationExecutionLogger validationExecutionLogger = new ValidationExecutionLogger(
+				sail.isLogValidationViolations(), sail.getValidationBufferSize());
+		planNode.receiveLogger(validationExecutionLogger);
+
+		try (CloseableIteration<Tuple, SailException> iterator = planNode.iterator()) {
+			if (GlobalValidationExecutionLogging.loggingEnabled) {
+				PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
+				logger.info("Start execution of plan " + propertyShape.getNodeShape().toString() + " : "
+						+ propertyShape.toString());
+			}
+
+			long before = System.nanoTime();
+
+			// the invalid tuples are only kept in memory when they are logged
+			List<Tuple> loggedTuples = sail.isLogValidationViolations() ? new ArrayList<>() : null;
+			int violations = 0;
+			while (iterator.hasNext()) {
+				Tuple invalidTuple = iterator.next();
+				invalidTupleHandler.accept(invalidTuple);
+				if (loggedTuples != null) {
+					loggedTuples.add(invalidTuple);
+				}
+				violations++;
+			}
+			validationExecutionLogger.flush();
+
+			long nanos = System.nanoTime() - before;
+			if (planNode instanceof EnrichWithShape) {
+				sail.getValidationStatisticsCollector()
+						.record(((EnrichWithShape) planNode).getPropertyShape(), nanos, violations);
+			}
+
+			if (sail.isPerformanceLogging()) {
+				PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
+				logger.info("Execution of plan took {} ms for {} : {}",
+						TimeUnit.NANOSECONDS.toMillis(nanos),
+						propertyShape.getNodeShape().toString(), propertyShape.toString());
+			}
+
+			if (GlobalValidationExecutionLogging.loggingEnabled) {
+				PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
+				logger.info("Finished execution of plan {} : {}",
+						propertyShape.getNodeShape().toString(),
+						propertyShape.toString());
+			}
+
+			if (violations > 0 && loggedTuples != null) {
+				PropertyShape propertyShape = ((EnrichWithShape) planNode).getPropertyShape();
+
+				logger.info(
+						"SHACL not valid. The following experimental debug results were produced: \n\tNodeShape: {}\n\tPropertyShape: {} \n\t\t{}",
+						propertyShape.getNodeShape().getId(), propertyShape.getId(),
+						loggedTuples.stream()
+								.map(a -> a.toString() + " -cause-> " + a.getCause())
+								.collect(Collectors.joining("\n\t\t")));
+			}
+		}
+	}
+
 	void fillAddedAndRemovedStatementRepositories() {
 
 		long before = 0;
@@ -510,6 +545,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 									.filter(statement -> !otherSet.contains(statement))
 									.flatMap(statement -> rdfsSubClassOfReasoner == null ? Stream.of(statement)
 											: rdfsSubClassOfReasoner.forwardChain(statement))
+									.peek(stats::changed)
 									.forEach(statement -> connection.addStatement(statement.getSubject(),
 											statement.getPredicate(), statement.getObject(), statement.getContext()));
 							connection.commit();
@@ -517,6 +553,8 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 					});
 
+			stats.setRecordedChanges(true);
+
 		}
 
 		if (sail.isPerformanceLogging()) {
@@ -580,6 +618,11 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 			List<NodeShape> nodeShapesAfterRefresh = this.nodeShapes;
 
+			if (sail.isBulkValidation()) {
+				logger.debug("Bulk validation, the transaction is validated by a later call to revalidate(...).");
+				return;
+			}
+
 			stats.setEmpty(isEmpty());
 
 			if (addedStatementsSet.isEmpty() && removedStatementsSet.isEmpty() && !shapesModifiedInCurrentTransaction) {
@@ -589,15 +632,27 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 				}
 			}
 
-			if (shapesModifiedInCurrentTransaction && addedStatementsSet.isEmpty() && removedStatementsSet.isEmpty()) {
-				// we can optimize which shapes to revalidate since no data has changed.
+			// shapes that are new or changed in this transaction are validated against the entire base sail, the
+			// data is already known to conform to the other shapes so they only need to validate the changes
+			List<NodeShape> changedNodeShapes = Collections.emptyList();
+			List<NodeShape> unchangedNodeShapes = nodeShapesAfterRefresh;
+
+			if (shapesModifiedInCurrentTransaction) {
 				assert nodeShapesBeforeRefresh != nodeShapesAfterRefresh;
 
 				HashSet<NodeShape> nodeShapesBeforeRefreshSet = new HashSet<>(nodeShapesBeforeRefresh);
 
-				nodeShapesAfterRefresh = nodeShapesAfterRefresh.stream()
-						.filter(nodeShape -> !nodeShapesBeforeRefreshSet.contains(nodeShape))
-						.collect(Collectors.toList());
+				Map<Boolean, List<NodeShape>> partitioned = nodeShapesAfterRefresh.stream()
+						.collect(Collectors.partitioningBy(nodeShapesBeforeRefreshSet::contains));
+
+				changedNodeShapes = partitioned.get(false);
+
+				if (addedStatementsSet.isEmpty() && removedStatementsSet.isEmpty()) {
+					// we can skip the unchanged shapes since no data has changed.
+					unchangedNodeShapes = Collections.emptyList();
+				} else {
+					unchangedNodeShapes = partitioned.get(true);
+				}
 
 			}
 
@@ -608,7 +663,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 				synchronized (sail) {
 
 					if (!sail.usesSingleConnection()) {
-						invalidTuples = serializableValidation(nodeShapesAfterRefresh);
+						invalidTuples = serializableValidation(changedNodeShapes, unchangedNodeShapes);
 					}
 
 				}
@@ -622,7 +677,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 //					readLock = sail.convertToReadLock(writeLock);
 //					writeLock = null;
 //				}
-				invalidTuples = validate(nodeShapesAfterRefresh, shapesModifiedInCurrentTransaction);
+				invalidTuples = validate(changedNodeShapes, unchangedNodeShapes);
 			}
 
 			boolean valid = invalidTuples.isEmpty();
@@ -650,7 +705,8 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 	}
 
-	private List<Tuple> serializableValidation(List<NodeShape> nodeShapesAfterRefresh) {
+	private List<Tuple> serializableValidation(List<NodeShape> changedNodeShapes,
+			List<NodeShape> unchangedNodeShapes) {
 		List<Tuple> invalidTuples;
 		try {
 			try {
@@ -682,8 +738,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 					serializableConnection.flush();
 
-					invalidTuples = performValidation(nodeShapesAfterRefresh,
-							shapesModifiedInCurrentTransaction, connectionsGroup);
+					invalidTuples = performValidation(changedNodeShapes, unchangedNodeShapes, connectionsGroup);
 
 				} finally {
 					serializableConnection.rollback();
@@ -766,9 +821,70 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 		loadCachedNodeShapes();
 		prepareValidation();
-		List<Tuple> validate = validate(this.nodeShapes, true);
+		List<Tuple> validate = validate(this.nodeShapes, Collections.emptyList());
 
 		return new ShaclSailValidationException(validate).getValidationReport();
 	}
 
+	/**
+	 * Validates all data against all shapes in a single pass over the base sail, typically at the end of a
+	 * {@link ShaclSail#setBulkValidation(boolean) bulk load}. Unlike {@link #revalidate()}, the changes of the
+	 * transaction are not copied to separate stores first, and the plans are executed one at a time, so that only the
+	 * tuples of a single plan are buffered, within the limit of {@link ShaclSail#setValidationBufferSize(int)}.
+	 * Pending changes of the transaction are validated as well.
+	 * <p>
+	 * Each violation is passed to the handler as soon as it is found, instead of being collected in the returned
+	 * report.
+	 *
+	 * @param validationResultHandler receives a ValidationResult for every violation
+	 * @return a report that only states whether the data conforms, the results have been passed to the handler
+	 */
+	public ValidationReport revalidate(Consumer<ValidationResult> validationResultHandler) {
+
+		if (!isActive()) {
+			throw new IllegalStateException("No active transaction!");
+		}
+
+		flush();
+		loadCachedNodeShapes();
+
+		if (sail.isRdfsSubClassReasoning()) {
+			rdfsSubClassOfReasoner = RdfsSubClassOfReasoner.createReasoner(this);
+		}
+
+		// the plans for the entire base sail only read the base connection, the stores for the changes stay empty
+		Sail emptyAddedStatements = getNewMemorySail();
+		Sail emptyRemovedStatements = getNewMemorySail();
+
+		Stats bulkStats = new Stats();
+		bulkStats.setEmpty(isEmpty());
+
+		boolean[] conforms = { true };
+
+		try (ConnectionsGroup connectionsGroup = new ConnectionsGroup(sail,
+				new VerySimpleRdfsBackwardsChainingConnection(this, rdfsSubClassOfReasoner), previousStateConnection,
+				emptyAddedStatements, emptyRemovedStatements, bulkStats, this::getRdfsSubClassOfReasoner)) {
+
+			nodeShapes.stream()
+					.flatMap(nodeShape -> nodeShape
+							.generatePlans(connectionsGroup, nodeShape, sail.isLogValidationPlans(), true))
+					.filter(Objects::nonNull)
+					.forEach(planNode -> executePlan(sail, planNode, invalidTuple -> {
+						conforms[0] = false;
+						ValidationResult validationResult = ShaclSailValidationException
+								.getValidationResult(invalidTuple);
+						if (validationResult != null) {
+							validationResultHandler.accept(validationResult);
+						}
+					}));
+
+		} finally {
+			rdfsSubClassOfReasoner = null;
+			emptyAddedStatements.shutDown();
+			emptyRemovedStatements.shutDown();
+		}
+
+		return new ValidationReport(conforms[0]);
+	}
+
 }
@@ -55,21 +55,33 @@ public class ShaclSailValidationException extends SailException implements Valid
 		ValidationReport validationReport = new ValidationReport(invalidTuples.isEmpty());
 
 		for (Tuple invalidTuple : invalidTuples) {
-			ValidationResult parent = null;
-			ArrayDeque<PropertyShape> propertyShapes = new ArrayDeque<>(invalidTuple.getCausedByPropertyShapes());
-
-			while (!propertyShapes.isEmpty()) {
-				ValidationResult validationResult = new ValidationResult(propertyShapes.pop(),
-						invalidTuple.line.get(0));
-				if (parent == null) {
-					validationReport.addValidationResult(validationResult);
-				} else {
-					parent.setDetail(validationResult);
-				}
-				parent = validationResult;
+			ValidationResult validationResult = getValidationResult(invalidTuple);
+			if (validationResult != null) {
+				validationReport.addValidationResult(validationResult);
 			}
-
 		}
 		return validationReport;
 	}
+
+	/**
+	 * @return the ValidationResult for the shape that the invalid tuple violates, with the results for the shapes
+	 *         nested in it as details, or null if the tuple was not caused by a shape
+	 */
+	static ValidationResult getValidationResult(Tuple invalidTuple) {
+		ValidationResult first = null;
+		ValidationResult parent = null;
+		ArrayDeque<PropertyShape> propertyShapes = new ArrayDeque<>(invalidTuple.getCausedByPropertyShapes());
+
+		while (!propertyShapes.isEmpty()) {
+			ValidationResult validationResult = new ValidationResult(propertyShapes.pop(), invalidTuple.get(0));
+			if (parent == null) {
+				first = validationResult;
+			} else {
+				parent.setDetail(validationResult);
+			}
+			parent = validationResult;
+		}
+
+		return first;
+	}
 }
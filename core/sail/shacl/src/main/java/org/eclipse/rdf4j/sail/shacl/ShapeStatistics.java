@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of the execution statistics of the validation plan of one constraint of a shape.
+ */
+public class ShapeStatistics {
+
+	private final String nodeShape;
+	private final String propertyShape;
+	private final String constraintComponent;
+	private final long executionCount;
+	private final long violationCount;
+	private final long totalTimeNanos;
+	private final long maxTimeNanos;
+
+	@ConstructorProperties({ "nodeShape", "propertyShape", "constraintComponent", "executionCount",
+			"violationCount", "totalTimeNanos", "maxTimeNanos" })
+	public ShapeStatistics(String nodeShape, String propertyShape, String constraintComponent, long executionCount,
+			long violationCount, long totalTimeNanos, long maxTimeNanos) {
+		this.nodeShape = nodeShape;
+		this.propertyShape = propertyShape;
+		this.constraintComponent = constraintComponent;
+		this.executionCount = executionCount;
+		this.violationCount = violationCount;
+		this.totalTimeNanos = totalTimeNanos;
+		this.maxTimeNanos = maxTimeNanos;
+	}
+
+	/**
+	 * @return The id of the node shape.
+	 */
+	public String getNodeShape() {
+		return nodeShape;
+	}
+
+	/**
+	 * @return The id of the property shape, or of the node shape if the constraint is declared on the node shape.
+	 */
+	public String getPropertyShape() {
+		return propertyShape;
+	}
+
+	/**
+	 * @return The local name of the constraint component, eg. <tt>MinCountConstraintComponent</tt>.
+	 */
+	public String getConstraintComponent() {
+		return constraintComponent;
+	}
+
+	/**
+	 * @return The number of times the plan was executed.
+	 */
+	public long getExecutionCount() {
+		return executionCount;
+	}
+
+	/**
+	 * @return The number of invalid tuples the plan produced, summed over all executions.
+	 */
+	public long getViolationCount() {
+		return violationCount;
+	}
+
+	/**
+	 * @return The time spent executing the plan, summed over all executions.
+	 */
+	public long getTotalTimeNanos() {
+		return totalTimeNanos;
+	}
+
+	/**
+	 * @return The time of the slowest execution of the plan.
+	 */
+	public long getMaxTimeNanos() {
+		return maxTimeNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "ShapeStatistics{" +
+				"nodeShape='" + nodeShape + '\'' +
+				", propertyShape='" + propertyShape + '\'' +
+				", constraintComponent='" + constraintComponent + '\'' +
+				", executionCount=" + executionCount +
+				", violationCount=" + violationCount +
+				", totalTimeNanos=" + totalTimeNanos +
+				", maxTimeNanos=" + maxTimeNanos +
+				'}';
+	}
+}
@@ -8,8 +8,14 @@
 
 package org.eclipse.rdf4j.sail.shacl;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 
 /**
  * @deprecated since 3.0. This feature is for internal use only: its existence, signature or behavior may change without
@@ -22,6 +28,9 @@ public class Stats {
 	private boolean hasAdded;
 	private boolean hasRemoved;
 	private boolean empty;
+	private boolean recordedChanges;
+	private final Set<IRI> changedPredicates = ConcurrentHashMap.newKeySet();
+	private final Set<Value> changedTypes = ConcurrentHashMap.newKeySet();
 
 	public void added(Statement statement) {
 		hasAdded = true;
@@ -70,4 +79,43 @@ public class Stats {
 	void setEmpty(boolean empty) {
 		this.empty = empty;
 	}
+
+	/**
+	 * Records the predicate, and the type if it is an rdf:type statement, of a statement that was added or removed in
+	 * this transaction. Statements inferred from the change are recorded as well.
+	 */
+	void changed(Statement statement) {
+		changedPredicates.add(statement.getPredicate());
+		if (RDF.TYPE.equals(statement.getPredicate())) {
+			changedTypes.add(statement.getObject());
+		}
+	}
+
+	void setRecordedChanges(boolean recordedChanges) {
+		this.recordedChanges = recordedChanges;
+	}
+
+	/**
+	 *
+	 * @return true if the predicates and types of the changes in this transaction have been recorded
+	 */
+	public boolean hasRecordedChanges() {
+		return recordedChanges;
+	}
+
+	/**
+	 *
+	 * @return true if statements with this predicate were added or removed in this transaction
+	 */
+	public boolean hasChangedPredicate(IRI predicate) {
+		return changedPredicates.contains(predicate);
+	}
+
+	/**
+	 *
+	 * @return true if rdf:type statements with this type were added or removed in this transaction
+	 */
+	public boolean hasChangedType(Value type) {
+		return changedTypes.contains(type);
+	}
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.sail.shacl.AST.PropertyShape;
+
+/**
+ * Collects the execution times of the validation plans of a {@link ShaclSail}, per shape and constraint component.
+ */
+class ValidationStatistics implements ValidationStatisticsMXBean {
+
+	private final LongAdder planCount = new LongAdder();
+	private final LongAdder violationCount = new LongAdder();
+	private final LongAdder callerRunsCount = new LongAdder();
+
+	private final ConcurrentHashMap<List<String>, ShapeCounters> shapes = new ConcurrentHashMap<>();
+
+	private volatile ThreadPoolExecutor executor;
+
+	void setExecutor(ThreadPoolExecutor executor) {
+		this.executor = executor;
+	}
+
+	void recordCallerRuns() {
+		callerRunsCount.increment();
+	}
+
+	void record(PropertyShape propertyShape, long nanos, int violations) {
+		planCount.increment();
+		violationCount.add(violations);
+
+		List<String> key = Arrays.asList(String.valueOf(propertyShape.getNodeShape().getId()),
+				String.valueOf(propertyShape.getId()), propertyShape.getSourceConstraintComponent().name());
+
+		ShapeCounters counters = shapes.computeIfAbsent(key, k -> new ShapeCounters());
+		counters.executionCount.increment();
+		counters.violationCount.add(violations);
+		counters.totalTimeNanos.add(nanos);
+		counters.maxTimeNanos.accumulate(nanos);
+	}
+
+	@Override
+	public long getPlanCount() {
+		return planCount.sum();
+	}
+
+	@Override
+	public long getViolationCount() {
+		return violationCount.sum();
+	}
+
+	@Override
+	public long getCallerRunsCount() {
+		return callerRunsCount.sum();
+	}
+
+	@Override
+	public int getQueuedPlanCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return executor == null ? 0 : executor.getQueue().size();
+	}
+
+	@Override
+	public int getActiveThreadCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return executor == null ? 0 : executor.getActiveCount();
+	}
+
+	@Override
+	public List<ShapeStatistics> getShapeStatistics() {
+		return shapes.entrySet()
+				.stream()
+				.map(entry -> entry.getValue().snapshot(entry.getKey()))
+				.sorted(Comparator.comparingLong(ShapeStatistics::getTotalTimeNanos).reversed())
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public void resetStatistics() {
+		planCount.reset();
+		violationCount.reset();
+		callerRunsCount.reset();
+		shapes.clear();
+	}
+
+	private static class ShapeCounters {
+
+		final LongAdder executionCount = new LongAdder();
+		final LongAdder violationCount = new LongAdder();
+		final LongAdder totalTimeNanos = new LongAdder();
+		final LongAccumulator maxTimeNanos = new LongAccumulator(Math::max, 0);
+
+		ShapeStatistics snapshot(List<String> key) {
+			return new ShapeStatistics(key.get(0), key.get(1), key.get(2), executionCount.sum(),
+					violationCount.sum(), totalTimeNanos.sum(), maxTimeNanos.get());
+		}
+	}
+}
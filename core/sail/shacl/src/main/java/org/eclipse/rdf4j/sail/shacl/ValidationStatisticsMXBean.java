@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import java.util.List;
+
+/**
+ * Management interface exposing how much time the {@link ShaclSail} spends validating, per shape, and how busy the
+ * executor used for parallel validation is.
+ */
+public interface ValidationStatisticsMXBean {
+
+	/**
+	 * @return The number of validation plans that have been executed.
+	 */
+	long getPlanCount();
+
+	/**
+	 * @return The number of invalid tuples that were found, summed over all plans.
+	 */
+	long getViolationCount();
+
+	/**
+	 * @return The number of plans that were executed by the committing thread because the queue of the executor was
+	 *         full.
+	 */
+	long getCallerRunsCount();
+
+	/**
+	 * @return The number of plans waiting in the queue of the executor.
+	 */
+	int getQueuedPlanCount();
+
+	/**
+	 * @return The number of threads of the executor that are executing a plan.
+	 */
+	int getActiveThreadCount();
+
+	/**
+	 * @return The execution statistics of every shape that has been validated, ordered by total time, most expensive
+	 *         first.
+	 */
+	List<ShapeStatistics> getShapeStatistics();
+
+	/**
+	 * Resets all counters and the statistics of all shapes.
+	 */
+	void resetStatistics();
+}
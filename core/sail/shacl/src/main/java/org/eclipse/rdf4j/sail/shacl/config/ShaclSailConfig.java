@@ -19,10 +19,14 @@ import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.RDFS_SUB_CLASS
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.SERIALIZABLE_VALIDATION;
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.UNDEFINED_TARGET_VALIDATES_ALL_SUBJECTS;
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_ENABLED;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_BUFFER_SIZE;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_QUEUE_SIZE;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_THREADS;
 
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.impl.BooleanLiteral;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.sail.config.AbstractDelegatingSailImplConfig;
 import org.eclipse.rdf4j.sail.config.SailConfigException;
@@ -47,6 +51,9 @@ public class ShaclSailConfig extends AbstractDelegatingSailImplConfig {
 	public static final boolean RDFS_SUB_CLASS_REASONING_DEFAULT = true;
 	public static final boolean PERFORMANCE_LOGGING_DEFAULT = false;
 	public static final boolean SERIALIZABLE_VALIDATION_DEFAULT = true;
+	public static final int VALIDATION_THREADS_DEFAULT = 0;
+	public static final int VALIDATION_QUEUE_SIZE_DEFAULT = 1024;
+	public static final int VALIDATION_BUFFER_SIZE_DEFAULT = 0;
 
 	private boolean parallelValidation = PARALLEL_VALIDATION_DEFAULT;
 	private boolean undefinedTargetValidatesAllSubjects = UNDEFINED_TARGET_VALIDATES_ALL_SUBJECTS_DEFAULT;
@@ -59,6 +66,9 @@ public class ShaclSailConfig extends AbstractDelegatingSailImplConfig {
 	private boolean rdfsSubClassReasoning = RDFS_SUB_CLASS_REASONING_DEFAULT;
 	private boolean performanceLogging = PERFORMANCE_LOGGING_DEFAULT;
 	private boolean serializableValidation = SERIALIZABLE_VALIDATION_DEFAULT;
+	private int validationThreads = VALIDATION_THREADS_DEFAULT;
+	private int validationQueueSize = VALIDATION_QUEUE_SIZE_DEFAULT;
+	private int validationBufferSize = VALIDATION_BUFFER_SIZE_DEFAULT;
 
 	public ShaclSailConfig() {
 		super(ShaclSailFactory.SAIL_TYPE);
@@ -156,6 +166,30 @@ public class ShaclSailConfig extends AbstractDelegatingSailImplConfig {
 		this.serializableValidation = serializableValidation;
 	}
 
+	public int getValidationThreads() {
+		return validationThreads;
+	}
+
+	public void setValidationThreads(int validationThreads) {
+		this.validationThreads = validationThreads;
+	}
+
+	public int getValidationQueueSize() {
+		return validationQueueSize;
+	}
+
+	public void setValidationQueueSize(int validationQueueSize) {
+		this.validationQueueSize = validationQueueSize;
+	}
+
+	public int getValidationBufferSize() {
+		return validationBufferSize;
+	}
+
+	public void setValidationBufferSize(int validationBufferSize) {
+		this.validationBufferSize = validationBufferSize;
+	}
+
 	@Override
 	public Resource export(Model m) {
 		Resource implNode = super.export(m);
@@ -173,6 +207,11 @@ public class ShaclSailConfig extends AbstractDelegatingSailImplConfig {
 		m.add(implNode, RDFS_SUB_CLASS_REASONING, BooleanLiteral.valueOf(isRdfsSubClassReasoning()));
 		m.add(implNode, PERFORMANCE_LOGGING, BooleanLiteral.valueOf(isPerformanceLogging()));
 		m.add(implNode, SERIALIZABLE_VALIDATION, BooleanLiteral.valueOf(isSerializableValidation()));
+		m.add(implNode, VALIDATION_THREADS, SimpleValueFactory.getInstance().createLiteral(getValidationThreads()));
+		m.add(implNode, VALIDATION_QUEUE_SIZE,
+				SimpleValueFactory.getInstance().createLiteral(getValidationQueueSize()));
+		m.add(implNode, VALIDATION_BUFFER_SIZE,
+				SimpleValueFactory.getInstance().createLiteral(getValidationBufferSize()));
 		return implNode;
 	}
 
@@ -203,6 +242,12 @@ public class ShaclSailConfig extends AbstractDelegatingSailImplConfig {
 					.ifPresent(l -> setPerformanceLogging(l.booleanValue()));
 			Models.objectLiteral(m.getStatements(implNode, SERIALIZABLE_VALIDATION, null))
 					.ifPresent(l -> setSerializableValidation(l.booleanValue()));
+			Models.objectLiteral(m.getStatements(implNode, VALIDATION_THREADS, null))
+					.ifPresent(l -> setValidationThreads(l.intValue()));
+			Models.objectLiteral(m.getStatements(implNode, VALIDATION_QUEUE_SIZE, null))
+					.ifPresent(l -> setValidationQueueSize(l.intValue()));
+			Models.objectLiteral(m.getStatements(implNode, VALIDATION_BUFFER_SIZE, null))
+					.ifPresent(l -> setValidationBufferSize(l.intValue()));
 		} catch (IllegalArgumentException e) {
 			throw new SailConfigException("error parsing Sail configuration", e);
 		}
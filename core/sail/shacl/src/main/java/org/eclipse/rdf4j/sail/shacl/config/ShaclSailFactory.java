@@ -64,6 +64,9 @@ public class ShaclSailFactory implements SailFactory {
 			sail.setPerformanceLogging(shaclSailConfig.isPerformanceLogging());
 			sail.setSerializableValidation(shaclSailConfig.isSerializableValidation());
 			sail.setRdfsSubClassReasoning(shaclSailConfig.isRdfsSubClassReasoning());
+			sail.setValidationThreads(shaclSailConfig.getValidationThreads());
+			sail.setValidationQueueSize(shaclSailConfig.getValidationQueueSize());
+			sail.setValidationBufferSize(shaclSailConfig.getValidationBufferSize());
 		}
 
 		return sail;
@@ -55,6 +55,15 @@ public class ShaclSailSchema {
 	/** <code>http://rdf4j.org/config/sail/shacl#serializableValidation</code> */
 	public final static IRI SERIALIZABLE_VALIDATION = create("serializableValidation");
 
+	/** <code>http://rdf4j.org/config/sail/shacl#validationThreads</code> */
+	public final static IRI VALIDATION_THREADS = create("validationThreads");
+
+	/** <code>http://rdf4j.org/config/sail/shacl#validationQueueSize</code> */
+	public final static IRI VALIDATION_QUEUE_SIZE = create("validationQueueSize");
+
+	/** <code>http://rdf4j.org/config/sail/shacl#validationBufferSize</code> */
+	public final static IRI VALIDATION_BUFFER_SIZE = create("validationBufferSize");
+
 	private static IRI create(String localName) {
 		return SimpleValueFactory.getInstance().createIRI(NAMESPACE, localName);
 	}
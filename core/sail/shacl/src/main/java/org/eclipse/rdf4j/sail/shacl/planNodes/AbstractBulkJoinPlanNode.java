@@ -76,7 +76,7 @@ abstract class AbstractBulkJoinPlanNode implements PlanNode {
 						return true;
 					}
 
-					boolean hasStatement = previousStateConnection.hasStatement(((Resource) tuple.line.get(0)), null,
+					boolean hasStatement = previousStateConnection.hasStatement(((Resource) tuple.get(0)), null,
 							null, true);
 
 					if (!hasStatement && GlobalValidationExecutionLogging.loggingEnabled) {
@@ -87,7 +87,7 @@ abstract class AbstractBulkJoinPlanNode implements PlanNode {
 					return hasStatement;
 
 				})
-				.map(tuple -> (Resource) tuple.line.get(0))
+				.map(tuple -> (Resource) tuple.get(0))
 				.map(r -> new ListBindingSet(Collections.singletonList("a"), Collections.singletonList(r)))
 				.collect(Collectors.toList());
 	}
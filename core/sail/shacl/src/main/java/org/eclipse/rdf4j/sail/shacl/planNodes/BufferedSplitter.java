@@ -9,11 +9,11 @@
 package org.eclipse.rdf4j.sail.shacl.planNodes;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.shacl.GlobalValidationExecutionLogging;
 import org.slf4j.Logger;
@@ -25,31 +25,76 @@ import org.slf4j.LoggerFactory;
  *         Allows the iterator of one planNode to be used by multiple other nodes by buffering all results from the
  *         parent iterator. This will potentially take a fair bit of memory, but maybe be useful for perfomance so that
  *         we don't query the underlying datastores for the same data multiple times.
+ *         <p>
+ *         When the plan is executed with a {@link ValidationExecutionLogger} that limits the number of buffered
+ *         tuples, and the parent produces more tuples than that, they are spilled to a temporary file that is read by
+ *         every iterator instead. The file is deleted when the splitter is closed.
  */
-public class BufferedSplitter implements PlanNodeProvider {
+public class BufferedSplitter implements PlanNodeProvider, AutoCloseable {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	PlanNode parent;
 	private List<Tuple> tuplesBuffer;
+	private TupleFile tupleFile;
 	private BufferedSplitter that = this;
 
 	public BufferedSplitter(PlanNode planNode) {
 		parent = planNode;
 	}
 
-	synchronized private void init() {
-		if (tuplesBuffer == null) {
-			tuplesBuffer = new ArrayList<>();
+	synchronized private void init(ValidationExecutionLogger validationExecutionLogger) {
+		if (tuplesBuffer == null && tupleFile == null) {
+			int spillThreshold = validationExecutionLogger != null ? validationExecutionLogger.getSpillThreshold() : 0;
+
+			List<Tuple> tuplesBuffer = new ArrayList<>();
+			TupleFile tupleFile = null;
 			try (CloseableIteration<Tuple, SailException> iterator = parent.iterator()) {
 
 				while (iterator.hasNext()) {
 					Tuple next = iterator.next();
-					tuplesBuffer.add(next);
+					if (tupleFile != null) {
+						tupleFile.add(next);
+					} else {
+						tuplesBuffer.add(next);
+						if (tuplesBuffer.size() == spillThreshold) {
+							logger.debug("Spilling tuples of {} to disk after {} tuples", parent, spillThreshold);
+							tupleFile = new TupleFile();
+							tuplesBuffer.forEach(tupleFile::add);
+							tuplesBuffer = null;
+						}
+					}
 				}
+			} catch (RuntimeException e) {
+				if (tupleFile != null) {
+					tupleFile.close();
+				}
+				throw e;
 			}
+
+			this.tuplesBuffer = tuplesBuffer;
+			this.tupleFile = tupleFile;
+		}
+
+	}
+
+	private synchronized CloseableIteration<Tuple, SailException> bufferedTuples(
+			ValidationExecutionLogger validationExecutionLogger) {
+		init(validationExecutionLogger);
+		if (tupleFile != null) {
+			return tupleFile.iterator();
 		}
+		return new CloseableIteratorIteration<>(tuplesBuffer.iterator());
+	}
 
+	/**
+	 * Deletes the temporary file that the tuples may have been spilled to.
+	 */
+	@Override
+	public synchronized void close() {
+		if (tupleFile != null) {
+			tupleFile.close();
+		}
 	}
 
 	@Override
@@ -64,14 +109,13 @@ public class BufferedSplitter implements PlanNodeProvider {
 			@Override
 			public CloseableIteration<Tuple, SailException> iterator() {
 
-				init();
-				Iterator<Tuple> iterator = tuplesBuffer.iterator();
+				CloseableIteration<Tuple, SailException> iterator = bufferedTuples(validationExecutionLogger);
 
 				return new CloseableIteration<Tuple, SailException>() {
 
 					@Override
 					public void close() throws SailException {
-
+						iterator.close();
 					}
 
 					@Override
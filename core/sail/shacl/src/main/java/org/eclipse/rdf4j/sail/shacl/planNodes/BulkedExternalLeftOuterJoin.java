@@ -102,15 +102,15 @@ public class BulkedExternalLeftOuterJoin extends AbstractBulkJoinPlanNode {
 					if (!right.isEmpty()) {
 						Tuple rightPeek = right.peekLast();
 
-						if (rightPeek.line.get(0) == leftPeek.line.get(0)
-								|| rightPeek.line.get(0).equals(leftPeek.line.get(0))) {
+						if (rightPeek.get(0) == leftPeek.get(0)
+								|| rightPeek.get(0).equals(leftPeek.get(0))) {
 							// we have a join !
-							joined = TupleHelper.join(leftPeek, rightPeek);
+							joined = TupleHelper.join(leftPeek, rightPeek, tupleHistory);
 							right.removeLast();
 
 							Tuple rightPeek2 = right.peekLast();
 
-							if (rightPeek2 == null || !rightPeek2.line.get(0).equals(leftPeek.line.get(0))) {
+							if (rightPeek2 == null || !rightPeek2.get(0).equals(leftPeek.get(0))) {
 								// no more to join from right, pop left so we don't print it again.
 
 								left.removeLast();
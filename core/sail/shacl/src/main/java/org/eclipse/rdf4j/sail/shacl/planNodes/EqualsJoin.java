@@ -55,13 +55,15 @@ public class EqualsJoin implements PlanNode {
 				while (next == null) {
 					if (nextRight != null) {
 
-						if (nextLeft.line == nextRight.line || nextLeft.line.equals(nextRight.line)) {
+						if (nextLeft.equals(nextRight)) {
 							if (useAsFilter) {
 								next = nextLeft;
-								next.addAllCausedByPropertyShape(nextRight.getCausedByPropertyShapes());
-								next.addHistory(nextRight);
+								next.addAllCausedByPropertyShape(nextRight);
+								if (tupleHistory) {
+									next.addHistory(nextRight);
+								}
 							} else {
-								next = TupleHelper.join(nextLeft, nextRight);
+								next = TupleHelper.join(nextLeft, nextRight, tupleHistory);
 							}
 							nextRight = null;
 						} else {
@@ -59,13 +59,15 @@ public class ExternalFilterByPredicate implements PlanNode {
 				while (next == null && parentIterator.hasNext()) {
 					Tuple temp = parentIterator.next();
 
-					Value subject = temp.line.get(index);
+					Value subject = temp.get(index);
 
 					IRI matchedPredicate = matchesFilter(subject);
 
 					if (matchedPredicate != null) {
 						next = temp;
-						next.addHistory(new Tuple(Arrays.asList(subject, matchedPredicate)));
+						if (tupleHistory) {
+							next.addHistory(new Tuple(subject, matchedPredicate));
+						}
 					}
 
 				}
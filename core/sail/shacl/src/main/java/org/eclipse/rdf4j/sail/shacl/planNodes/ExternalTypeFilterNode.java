@@ -57,14 +57,16 @@ public class ExternalTypeFilterNode implements PlanNode {
 				while (next == null && parentIterator.hasNext()) {
 					Tuple temp = parentIterator.next();
 
-					Value subject = temp.line.get(index);
+					Value subject = temp.get(index);
 
 					Resource matchedType = isType(subject);
 
 					if (returnMatching) {
 						if (matchedType != null) {
 							next = temp;
-							next.addHistory(new Tuple(Arrays.asList(subject, RDF.TYPE, matchedType)));
+							if (tupleHistory) {
+								next.addHistory(new Tuple(subject, RDF.TYPE, matchedType));
+							}
 						} else {
 							if (GlobalValidationExecutionLogging.loggingEnabled) {
 								validationExecutionLogger.log(depth(),
@@ -75,7 +77,9 @@ public class ExternalTypeFilterNode implements PlanNode {
 					} else {
 						if (matchedType == null) {
 							next = temp;
-							next.addHistory(new Tuple(Arrays.asList(subject)));
+							if (tupleHistory) {
+								next.addHistory(new Tuple(subject));
+							}
 						} else {
 							if (GlobalValidationExecutionLogging.loggingEnabled) {
 								validationExecutionLogger.log(depth(),
@@ -8,10 +8,6 @@
 
 package org.eclipse.rdf4j.sail.shacl.planNodes;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.Value;
@@ -58,12 +54,14 @@ public class GroupByCount implements PlanNode {
 
 				next = new Tuple();
 
-				Value subject = tempNext.line.get(0);
+				Value subject = tempNext.get(0);
 
-				while (tempNext != null && (tempNext.line.get(0) == subject || tempNext.line.get(0).equals(subject))) {
+				while (tempNext != null && (tempNext.get(0) == subject || tempNext.get(0).equals(subject))) {
 
-					next.addHistory(tempNext);
-					if (tempNext.line.size() > 1) {
+					if (tupleHistory) {
+						next.addHistory(tempNext);
+					}
+					if (tempNext.size() > 1) {
 						count++;
 					}
 
@@ -75,11 +73,7 @@ public class GroupByCount implements PlanNode {
 
 				}
 
-				// Arrays.asList(...) is immutable, wrap in ArrayList to make it mutable
-				List<Value> line = new ArrayList<>(
-						Arrays.asList(subject, SimpleValueFactory.getInstance().createLiteral(count)));
-
-				next.line = line;
+				next.setLine(subject, SimpleValueFactory.getInstance().createLiteral(count));
 
 			}
 
@@ -98,6 +98,8 @@ public class InnerJoin implements MultiStreamPlanNode, PlanNode {
 			CloseableIteration<Tuple, SailException> leftIterator = left.iterator();
 			CloseableIteration<Tuple, SailException> rightIterator = right.iterator();
 
+			final boolean tupleHistory = LoggingCloseableIteration.tupleHistory(validationExecutionLogger);
+
 			Tuple next;
 			Tuple nextLeft;
 			Tuple nextRight;
@@ -142,9 +144,9 @@ public class InnerJoin implements MultiStreamPlanNode, PlanNode {
 				while (next == null) {
 					if (nextRight != null) {
 
-						if (nextLeft.line.get(0) == nextRight.line.get(0)
-								|| nextLeft.line.get(0).equals(nextRight.line.get(0))) {
-							next = TupleHelper.join(nextLeft, nextRight);
+						if (nextLeft.get(0) == nextRight.get(0)
+								|| nextLeft.get(0).equals(nextRight.get(0))) {
+							next = TupleHelper.join(nextLeft, nextRight, tupleHistory);
 							joinedLeft = nextLeft;
 							nextRight = null;
 						} else {
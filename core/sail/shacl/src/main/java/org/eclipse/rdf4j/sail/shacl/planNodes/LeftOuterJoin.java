@@ -60,9 +60,9 @@ public class LeftOuterJoin implements PlanNode {
 
 					if (nextRight != null) {
 
-						if (nextLeft.line.get(0) == nextRight.line.get(0)
-								|| nextLeft.line.get(0).equals(nextRight.line.get(0))) {
-							next = TupleHelper.join(nextLeft, nextRight);
+						if (nextLeft.get(0) == nextRight.get(0)
+								|| nextLeft.get(0).equals(nextRight.get(0))) {
+							next = TupleHelper.join(nextLeft, nextRight, tupleHistory);
 							prevLeft = nextLeft;
 							nextRight = null;
 						} else {
@@ -48,7 +48,7 @@ public class LiteralComparatorFilter extends FilterPlanNode {
 
 	@Override
 	boolean checkTuple(Tuple t) {
-		Value literal = t.line.get(1);
+		Value literal = t.get(1);
 
 		if (literal instanceof Literal) {
 
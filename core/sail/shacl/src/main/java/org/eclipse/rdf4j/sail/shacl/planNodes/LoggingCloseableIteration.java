@@ -11,10 +11,16 @@ abstract class LoggingCloseableIteration implements CloseableIteration<Tuple, Sa
 	private final ValidationExecutionLogger validationExecutionLogger;
 	private PlanNode planNode;
 	private final Logger logger = LoggerFactory.getLogger(getClass());
+	final boolean tupleHistory;
 
 	public LoggingCloseableIteration(PlanNode planNode, ValidationExecutionLogger validationExecutionLogger) {
 		this.planNode = planNode;
 		this.validationExecutionLogger = validationExecutionLogger;
+		this.tupleHistory = tupleHistory(validationExecutionLogger);
+	}
+
+	static boolean tupleHistory(ValidationExecutionLogger validationExecutionLogger) {
+		return validationExecutionLogger != null && validationExecutionLogger.isTupleHistory();
 	}
 
 	static String leadingSpace(PlanNode planNode) {
@@ -24,7 +24,7 @@ public class MaxLengthFilter extends FilterPlanNode {
 
 	@Override
 	boolean checkTuple(Tuple t) {
-		Value literal = t.line.get(1);
+		Value literal = t.get(1);
 
 		return literal.stringValue().length() <= maxLength;
 	}
@@ -24,7 +24,7 @@ public class MinLengthFilter extends FilterPlanNode {
 
 	@Override
 	boolean checkTuple(Tuple t) {
-		Value literal = t.line.get(1);
+		Value literal = t.get(1);
 
 		return literal.stringValue().length() >= minLength;
 	}
@@ -64,7 +64,7 @@ public class PatternFilter extends FilterPlanNode {
 
 	@Override
 	boolean checkTuple(Tuple t) {
-		Value literal = t.line.get(1);
+		Value literal = t.get(1);
 
 		return pattern.matcher(literal.stringValue()).matches();
 	}
@@ -10,17 +10,32 @@ package org.eclipse.rdf4j.sail.shacl.planNodes;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
 import org.eclipse.rdf4j.sail.SailException;
 
+/**
+ * Sorts the tuples of its parent on their first value. When the plan is executed with a
+ * {@link ValidationExecutionLogger} that limits the number of buffered tuples, sorted runs of that many tuples are
+ * spilled to temporary files and merged while the sorted tuples are read.
+ */
 public class Sort implements PlanNode {
 
+	/**
+	 * The number of runs of similar size that are merged into a single run, which also bounds the number of runs that
+	 * are read at once. Each tuple is rewritten once per level of merged runs, a logarithmic number of times.
+	 */
+	private static final int MAX_RUNS = 64;
+
+	private static final ValueComparator valueComparator = new ValueComparator();
+
 	private final PlanNode parent;
 	private boolean printed = false;
 	private ValidationExecutionLogger validationExecutionLogger;
@@ -35,15 +50,24 @@ public class Sort implements PlanNode {
 
 			CloseableIteration<Tuple, SailException> iterator = parent.iterator();
 
-			List<Tuple> sortedTuples;
+			CloseableIteration<Tuple, SailException> sortedTuplesIterator;
 
-			Iterator<Tuple> sortedTuplesIterator;
-
-			ValueComparator valueComparator = new ValueComparator();
+			// the spilled runs by the number of times their tuples have been merged, each level in input order
+			final List<List<TupleFile>> levels = new ArrayList<>();
 
 			@Override
 			public void close() throws SailException {
-				iterator.close();
+				try {
+					iterator.close();
+				} finally {
+					try {
+						if (sortedTuplesIterator != null) {
+							sortedTuplesIterator.close();
+						}
+					} finally {
+						levels.forEach(runs -> runs.forEach(TupleFile::close));
+					}
+				}
 			}
 
 			@Override
@@ -53,32 +77,111 @@ public class Sort implements PlanNode {
 			}
 
 			private void sortTuples() {
-				if (sortedTuples == null) {
-					sortedTuples = new ArrayList<>();
+				if (sortedTuplesIterator == null) {
+					int spillThreshold = validationExecutionLogger != null
+							? validationExecutionLogger.getSpillThreshold()
+							: 0;
+
+					List<Tuple> sortedTuples = new ArrayList<>();
 					boolean alreadySorted = true;
 					Tuple prev = null;
 					while (iterator.hasNext()) {
 						Tuple next = iterator.next();
 						sortedTuples.add(next);
-						if (prev != null && valueComparator.compare(prev.line.get(0), next.line.get(0)) > 0) {
+						if (prev != null && valueComparator.compare(prev.get(0), next.get(0)) > 0) {
 							alreadySorted = false;
 						}
 						prev = next;
+
+						if (sortedTuples.size() == spillThreshold) {
+							spill(sort(sortedTuples, alreadySorted));
+							sortedTuples.clear();
+							alreadySorted = true;
+							prev = null;
+						}
 					}
 
-					if (!alreadySorted && sortedTuples.size() > 1) {
-						if (sortedTuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
-							Tuple[] objects = sortedTuples.toArray(new Tuple[0]);
-							Arrays.parallelSort(objects,
-									(a, b) -> valueComparator.compare(a.line.get(0), b.line.get(0)));
-							sortedTuples = Arrays.asList(objects);
-						} else {
-							sortedTuples.sort((a, b) -> valueComparator.compare(a.line.get(0), b.line.get(0)));
+					sortedTuples = sort(sortedTuples, alreadySorted);
+
+					if (levels.isEmpty()) {
+						sortedTuplesIterator = new CloseableIteratorIteration<>(sortedTuples.iterator());
+					} else {
+						reduceRuns();
+						List<TupleFile> runs = runs();
+						List<CloseableIteration<Tuple, SailException>> iterators = new ArrayList<>(runs.size() + 1);
+						runs.forEach(run -> iterators.add(run.iterator()));
+						iterators.add(new CloseableIteratorIteration<>(sortedTuples.iterator()));
+						sortedTuplesIterator = new MergeIteration(iterators);
+					}
+				}
+			}
+
+			private void spill(List<Tuple> sortedTuples) {
+				TupleFile run = new TupleFile();
+				try {
+					sortedTuples.forEach(run::add);
+				} catch (RuntimeException e) {
+					run.close();
+					throw e;
+				}
+				addRun(run, 0);
+			}
+
+			private void addRun(TupleFile run, int level) {
+				while (levels.size() <= level) {
+					levels.add(new ArrayList<>());
+				}
+				List<TupleFile> runs = levels.get(level);
+				runs.add(run);
+				if (runs.size() == MAX_RUNS) {
+					mergeRuns(level);
+				}
+			}
+
+			/**
+			 * Merges the runs of the lowest levels until at most MAX_RUNS runs are left to merge while reading.
+			 */
+			private void reduceRuns() {
+				for (int level = 0; level < levels.size() && runs().size() > MAX_RUNS; level++) {
+					if (levels.get(level).size() > 1) {
+						mergeRuns(level);
+					}
+				}
+			}
+
+			/**
+			 * Merges the runs of a level into a single run on the next level. The runs of a level are newer than those
+			 * of the next level, so appending the merged run keeps the runs in input order.
+			 */
+			private void mergeRuns(int level) {
+				List<TupleFile> runs = levels.get(level);
+				TupleFile merged = new TupleFile();
+				try {
+					List<CloseableIteration<Tuple, SailException>> iterators = new ArrayList<>(runs.size());
+					runs.forEach(run -> iterators.add(run.iterator()));
+					try (MergeIteration mergeIteration = new MergeIteration(iterators)) {
+						while (mergeIteration.hasNext()) {
+							merged.add(mergeIteration.next());
 						}
 					}
-					sortedTuplesIterator = sortedTuples.iterator();
+				} catch (RuntimeException e) {
+					merged.close();
+					throw e;
+				}
+				runs.forEach(TupleFile::close);
+				levels.set(level, new ArrayList<>());
+				addRun(merged, level + 1);
+			}
 
+			/**
+			 * @return the spilled runs in input order, from the highest level to the lowest
+			 */
+			private List<TupleFile> runs() {
+				List<TupleFile> runs = new ArrayList<>();
+				for (int level = levels.size() - 1; level >= 0; level--) {
+					runs.addAll(levels.get(level));
 				}
+				return runs;
 			}
 
 			@Override
@@ -96,6 +199,89 @@ public class Sort implements PlanNode {
 
 	}
 
+	private static List<Tuple> sort(List<Tuple> tuples, boolean alreadySorted) {
+		if (alreadySorted || tuples.size() <= 1) {
+			return tuples;
+		}
+
+		if (tuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
+			Tuple[] objects = tuples.toArray(new Tuple[0]);
+			Arrays.parallelSort(objects, (a, b) -> valueComparator.compare(a.get(0), b.get(0)));
+			return Arrays.asList(objects);
+		}
+
+		tuples.sort((a, b) -> valueComparator.compare(a.get(0), b.get(0)));
+		return tuples;
+	}
+
+	/**
+	 * Merges iterations that are each sorted on the first value of their tuples. Tuples with equal first values are
+	 * returned in the order of the iterations, so that the merge is stable when the iterations are runs of the input
+	 * in their original order.
+	 */
+	private static class MergeIteration implements CloseableIteration<Tuple, SailException> {
+
+		private final List<CloseableIteration<Tuple, SailException>> iterators;
+
+		private final PriorityQueue<Head> heads;
+
+		MergeIteration(List<CloseableIteration<Tuple, SailException>> iterators) {
+			this.iterators = iterators;
+			this.heads = new PriorityQueue<>(Math.max(1, iterators.size()), (a, b) -> {
+				int compare = valueComparator.compare(a.tuple.get(0), b.tuple.get(0));
+				return compare != 0 ? compare : Integer.compare(a.index, b.index);
+			});
+			for (int i = 0; i < iterators.size(); i++) {
+				CloseableIteration<Tuple, SailException> iterator = iterators.get(i);
+				if (iterator.hasNext()) {
+					heads.add(new Head(iterator.next(), i));
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() throws SailException {
+			return !heads.isEmpty();
+		}
+
+		@Override
+		public Tuple next() throws SailException {
+			Head head = heads.poll();
+			if (head == null) {
+				throw new NoSuchElementException();
+			}
+			Tuple tuple = head.tuple;
+			CloseableIteration<Tuple, SailException> iterator = iterators.get(head.index);
+			if (iterator.hasNext()) {
+				head.tuple = iterator.next();
+				heads.add(head);
+			}
+			return tuple;
+		}
+
+		@Override
+		public void remove() throws SailException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() throws SailException {
+			iterators.forEach(CloseableIteration::close);
+		}
+
+		private static class Head {
+
+			private Tuple tuple;
+
+			private final int index;
+
+			Head(Tuple tuple, int index) {
+				this.tuple = tuple;
+				this.index = index;
+			}
+		}
+	}
+
 	@Override
 	public int depth() {
 		return parent.depth() + 1;
@@ -10,6 +10,7 @@ package org.eclipse.rdf4j.sail.shacl.planNodes;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.sail.SailException;
 
 /**
@@ -50,15 +51,17 @@ public class TrimTuple implements PlanNode {
 
 				Tuple next = parentIterator.next();
 
-				Tuple tuple = new Tuple();
-
-				int tempLength = newLength >= 0 ? newLength : next.line.size();
-				for (int i = startIndex; i < tempLength && i < next.line.size(); i++) {
-					tuple.line.add(next.line.get(i));
+				int tempLength = Math.min(newLength >= 0 ? newLength : next.size(), next.size());
+				Value[] line = new Value[Math.max(tempLength - startIndex, 0)];
+				for (int i = startIndex; i < tempLength; i++) {
+					line[i - startIndex] = next.get(i);
 				}
 
-				tuple.addHistory(next);
-				tuple.addAllCausedByPropertyShape(next.getCausedByPropertyShapes());
+				Tuple tuple = new Tuple(line);
+				if (tupleHistory) {
+					tuple.addHistory(next);
+				}
+				tuple.addAllCausedByPropertyShape(next);
 
 				return tuple;
 			}
@@ -9,11 +9,12 @@
 package org.eclipse.rdf4j.sail.shacl.planNodes;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.model.Value;
@@ -22,37 +23,51 @@ import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
 import org.eclipse.rdf4j.sail.shacl.AST.PropertyShape;
 
 /**
+ * A fixed-arity row of values flowing between plan nodes. Values are held by reference in an array, and compared by
+ * identity before falling back to equals.
+ * <p>
+ * The history of a tuple is the tuples it was derived from. It is only recorded when the plan is executed with a
+ * {@link ValidationExecutionLogger} that asks for it, and then only as references to the parent tuples, so that
+ * {@link #getCause()} can walk the derivation without copying it into every tuple along the way.
+ *
  * @author Heshan Jayasinghe, Håvard Mikkelsen Ottestad
  */
 public class Tuple implements Comparable<Tuple> {
 
-	private Deque<PropertyShape> causedByPropertyShapes = new ArrayDeque<>(1);
+	private static final Value[] EMPTY_LINE = new Value[0];
 
-	private List<Tuple> history = new ArrayList<>(1);
+	private static final Tuple[] NO_HISTORY = new Tuple[0];
 
-	public List<Value> line = new ArrayList<>(3);
+	private Deque<PropertyShape> causedByPropertyShapes;
+
+	private Tuple[] history = NO_HISTORY;
+
+	private Value[] line;
 
 	static final private ValueComparator valueComparator = new ValueComparator();
 
 	public Tuple(List<Value> list) {
-		line = list;
+		line = list.toArray(EMPTY_LINE);
 	}
 
 	public Tuple(Value... list) {
-		// Arrays.asList(...) is immutable, wrap in ArrayList to make it mutable
-		line = new ArrayList<>(Arrays.asList(list));
+		line = list;
 	}
 
 	public Tuple(List<Value> list, Tuple historyTuple) {
-		line = list;
+		this(list);
 		addHistory(historyTuple);
 	}
 
 	public Tuple() {
+		line = EMPTY_LINE;
 	}
 
 	public Tuple(BindingSet bindingset, String[] bindingnames) {
 
+		Value[] values = new Value[bindingnames.length];
+		int size = 0;
+
 		for (String bindingname : bindingnames) {
 			Value value;
 			if (bindingname.startsWith("?")) {
@@ -61,20 +76,56 @@ public class Tuple implements Comparable<Tuple> {
 				value = bindingset.getValue(bindingname);
 			}
 			if (value != null) {
-				line.add(value);
+				values[size++] = value;
 			}
 		}
 
+		line = size == values.length ? values : Arrays.copyOf(values, size);
 	}
 
 	public Tuple(Tuple tuple) {
-		line = new ArrayList<>(tuple.line);
-		history = new ArrayList<>(tuple.history);
-		causedByPropertyShapes = new ArrayDeque<>(causedByPropertyShapes);
+		line = tuple.line;
+		history = tuple.history;
+		if (tuple.causedByPropertyShapes != null) {
+			causedByPropertyShapes = new ArrayDeque<>(tuple.causedByPropertyShapes);
+		}
+	}
+
+	/**
+	 * @return the value at the given position of this tuple
+	 */
+	public Value get(int index) {
+		return line[index];
+	}
+
+	/**
+	 * @return the number of values in this tuple
+	 */
+	public int size() {
+		return line.length;
 	}
 
+	/**
+	 * @return an unmodifiable view of the values of this tuple
+	 */
 	public List<Value> getlist() {
-		return line;
+		return Collections.unmodifiableList(Arrays.asList(line));
+	}
+
+	/**
+	 * Replaces the values of this tuple. The array is not copied, and must not be modified afterwards.
+	 */
+	public void setLine(Value... values) {
+		line = values;
+	}
+
+	/**
+	 * Appends a value to the end of this tuple.
+	 */
+	public void append(Value value) {
+		Value[] values = Arrays.copyOf(line, line.length + 1);
+		values[line.length] = value;
+		line = values;
 	}
 
 	@Override
@@ -90,17 +141,20 @@ public class Tuple implements Comparable<Tuple> {
 			propertyShapeDescrption = ", propertyShapes= " + join;
 		}
 
-		return "Tuple{" + "line=" + Arrays.toString(line.toArray()) + propertyShapeDescrption + "}";
+		return "Tuple{" + "line=" + Arrays.toString(line) + propertyShapeDescrption + "}";
 	}
 
 	public void addCausedByPropertyShape(PropertyShape propertyShape) {
 		if (causedByPropertyShapes == null) {
-			causedByPropertyShapes = new ArrayDeque<>();
+			causedByPropertyShapes = new ArrayDeque<>(1);
 		}
 		causedByPropertyShapes.addFirst(propertyShape);
 	}
 
 	public Deque<PropertyShape> getCausedByPropertyShapes() {
+		if (causedByPropertyShapes == null) {
+			return new ArrayDeque<>(0);
+		}
 		return causedByPropertyShapes;
 	}
 
@@ -114,12 +168,16 @@ public class Tuple implements Comparable<Tuple> {
 		}
 		Tuple tuple = (Tuple) o;
 
-		if (tuple.line.size() != line.size()) {
+		if (tuple.line == line) {
+			return true;
+		}
+
+		if (tuple.line.length != line.length) {
 			return false;
 		}
 
-		for (int i = 0; i < line.size(); i++) {
-			if (!(line.get(i) == tuple.line.get(i) || line.get(i).equals(tuple.line.get(i)))) {
+		for (int i = 0; i < line.length; i++) {
+			if (!(line[i] == tuple.line[i] || line[i].equals(tuple.line[i]))) {
 				return false;
 			}
 		}
@@ -129,16 +187,19 @@ public class Tuple implements Comparable<Tuple> {
 
 	@Override
 	public int hashCode() {
-
-		return Objects.hash(line);
+		return Arrays.hashCode(line);
 	}
 
 	@Override
 	public int compareTo(Tuple o) {
 
-		for (int i = 0; i < Math.min(o.line.size(), line.size()); i++) {
+		for (int i = 0; i < Math.min(o.line.length, line.length); i++) {
+
+			if (line[i] == o.line[i]) {
+				continue;
+			}
 
-			int compareTo = valueComparator.compare(line.get(i), o.line.get(i));
+			int compareTo = valueComparator.compare(line[i], o.line[i]);
 
 			if (compareTo != 0) {
 				return compareTo;
@@ -149,21 +210,41 @@ public class Tuple implements Comparable<Tuple> {
 		return 0;
 	}
 
+	/**
+	 * @return the distinct tuples that this tuple was derived from, oldest first. Empty unless the plan was executed
+	 *         with tuple history enabled.
+	 */
 	public String getCause() {
-		return " [ "
-				+ String.join(" , ", history.stream().distinct().map(Object::toString).collect(Collectors.toList()))
+		Set<Tuple> cause = new LinkedHashSet<>();
+		collectHistory(cause);
+		return " [ " + String.join(" , ", cause.stream().map(Object::toString).collect(Collectors.toList()))
 				+ " ]";
 	}
 
+	private void collectHistory(Set<Tuple> cause) {
+		for (Tuple tuple : history) {
+			tuple.collectHistory(cause);
+			cause.add(tuple);
+		}
+	}
+
 	public void addHistory(Tuple tuple) {
-		history.addAll(tuple.history);
-		history.add(tuple);
+		Tuple[] newHistory = Arrays.copyOf(history, history.length + 1);
+		newHistory[history.length] = tuple;
+		history = newHistory;
 	}
 
 	public void addAllCausedByPropertyShape(Deque<PropertyShape> causedByPropertyShapes) {
-		if (causedByPropertyShapes != null) {
-
-			this.causedByPropertyShapes.addAll(causedByPropertyShapes);
+		if (causedByPropertyShapes != null && !causedByPropertyShapes.isEmpty()) {
+			if (this.causedByPropertyShapes == null) {
+				this.causedByPropertyShapes = new ArrayDeque<>(causedByPropertyShapes);
+			} else {
+				this.causedByPropertyShapes.addAll(causedByPropertyShapes);
+			}
 		}
 	}
+
+	void addAllCausedByPropertyShape(Tuple tuple) {
+		addAllCausedByPropertyShape(tuple.causedByPropertyShapes);
+	}
 }
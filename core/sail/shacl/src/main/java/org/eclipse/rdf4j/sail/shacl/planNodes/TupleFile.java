@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.planNodes;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueSpillCodec;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.shacl.AST.PropertyShape;
+
+/**
+ * A temporary file of tuples in the compact binary encoding of {@link ValueSpillCodec}, which are read back in the
+ * order in which they were written. A value that is equal to the value at the same position of the previous tuple is
+ * written as a single repeat marker, which keeps sorted runs small. The property shapes that caused a tuple are kept in
+ * memory and written as indexes into a table. The history of tuples is not written.
+ */
+class TupleFile implements Closeable {
+
+	private final File file;
+
+	private final ValueSpillCodec.Writer output;
+
+	private final List<PropertyShape> propertyShapes = new ArrayList<>();
+
+	private final Map<PropertyShape, Integer> propertyShapeTable = new IdentityHashMap<>();
+
+	private Tuple previous;
+
+	private long size;
+
+	private final List<Reader> readers = new ArrayList<>(1);
+
+	TupleFile() {
+		try {
+			file = File.createTempFile("rdf4j-shacl-tuples-", "");
+			output = new ValueSpillCodec.Writer(file);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * @return The number of tuples in this file.
+	 */
+	long size() {
+		return size;
+	}
+
+	void add(Tuple tuple) {
+		if (!output.isOpen()) {
+			throw new IllegalStateException("File is no longer writable");
+		}
+
+		try {
+			output.writeInt(tuple.size());
+			for (int i = 0; i < tuple.size(); i++) {
+				Value value = tuple.get(i);
+				if (previous != null && i < previous.size() && value.equals(previous.get(i))) {
+					output.writeRepeat();
+				} else {
+					output.writeValue(value);
+				}
+			}
+
+			Deque<PropertyShape> causedByPropertyShapes = tuple.getCausedByPropertyShapes();
+			output.writeInt(causedByPropertyShapes.size());
+			for (PropertyShape propertyShape : causedByPropertyShapes) {
+				Integer id = propertyShapeTable.get(propertyShape);
+				if (id == null) {
+					id = propertyShapes.size();
+					propertyShapes.add(propertyShape);
+					propertyShapeTable.put(propertyShape, id);
+				}
+				output.writeInt(id);
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+
+		previous = tuple;
+		size++;
+	}
+
+	/**
+	 * Finishes writing and returns an iteration over the tuples in this file. The file can be read any number of times.
+	 */
+	CloseableIteration<Tuple, SailException> iterator() {
+		try {
+			output.finish();
+			previous = null;
+			Reader reader = new Reader();
+			synchronized (readers) {
+				readers.add(reader);
+			}
+			return reader;
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			output.close();
+			synchronized (readers) {
+				for (Reader reader : readers) {
+					reader.close();
+				}
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			file.delete();
+		}
+	}
+
+	private class Reader implements CloseableIteration<Tuple, SailException> {
+
+		private final ValueSpillCodec.Reader input;
+
+		private Value[] previous;
+
+		private long remaining;
+
+		private boolean closed;
+
+		Reader() throws IOException {
+			input = new ValueSpillCodec.Reader(file);
+			remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public Tuple next() {
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			try {
+				Value[] line = new Value[input.readInt()];
+				for (int i = 0; i < line.length; i++) {
+					byte marker = input.readMarker();
+					if (marker == ValueSpillCodec.REPEAT_RECORD_MARKER) {
+						line[i] = previous[i];
+					} else {
+						line[i] = input.readValue(marker);
+					}
+				}
+				Tuple tuple = new Tuple(line);
+
+				int propertyShapeCount = input.readInt();
+				if (propertyShapeCount > 0) {
+					Deque<PropertyShape> causedByPropertyShapes = new ArrayDeque<>(propertyShapeCount);
+					for (int i = 0; i < propertyShapeCount; i++) {
+						causedByPropertyShapes.addLast(propertyShapes.get(input.readInt()));
+					}
+					tuple.addAllCausedByPropertyShape(causedByPropertyShapes);
+				}
+
+				previous = line;
+				if (--remaining == 0) {
+					close();
+				}
+				return tuple;
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				try {
+					input.close();
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
+		}
+	}
+}
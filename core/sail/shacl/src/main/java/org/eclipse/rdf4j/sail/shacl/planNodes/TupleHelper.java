@@ -8,29 +8,31 @@
 
 package org.eclipse.rdf4j.sail.shacl.planNodes;
 
-import java.util.ArrayList;
-
 import org.eclipse.rdf4j.model.Value;
 
 /**
  * @author Håvard Ottestad
  */
 public class TupleHelper {
-	public static Tuple join(Tuple left, Tuple right) {
+	public static Tuple join(Tuple left, Tuple right, boolean history) {
 
-		ArrayList<Value> newLine = new ArrayList<>(left.line.size() + right.line.size() - 1);
+		Value[] newLine = new Value[left.size() + right.size() - 1];
 
-		newLine.addAll(left.line);
+		for (int i = 0; i < left.size(); i++) {
+			newLine[i] = left.get(i);
+		}
 
-		for (int i = 1; i < right.line.size(); i++) {
-			newLine.add(right.line.get(i));
+		for (int i = 1; i < right.size(); i++) {
+			newLine[left.size() + i - 1] = right.get(i);
 		}
 
 		Tuple tuple = new Tuple(newLine);
-		tuple.addHistory(left);
-		tuple.addHistory(right);
-		tuple.addAllCausedByPropertyShape(left.getCausedByPropertyShapes());
-		tuple.addAllCausedByPropertyShape(right.getCausedByPropertyShapes());
+		if (history) {
+			tuple.addHistory(left);
+			tuple.addHistory(right);
+		}
+		tuple.addAllCausedByPropertyShape(left);
+		tuple.addAllCausedByPropertyShape(right);
 		return tuple;
 
 	}
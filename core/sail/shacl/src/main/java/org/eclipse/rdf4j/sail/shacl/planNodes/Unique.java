@@ -55,7 +55,7 @@ public class Unique implements PlanNode {
 				while (next == null && parentIterator.hasNext()) {
 					Tuple temp = parentIterator.next();
 
-					if (temp.line.size() > 1) {
+					if (temp.size() > 1) {
 						useMultiCardinalityDedupeSet = true;
 					}
 
@@ -63,9 +63,9 @@ public class Unique implements PlanNode {
 						next = temp;
 					} else {
 						if (useMultiCardinalityDedupeSet) {
-							if (multiCardinalityDedupeSet == null || !previous.line.get(0).equals(temp.line.get(0))) {
+							if (multiCardinalityDedupeSet == null || !previous.get(0).equals(temp.get(0))) {
 								multiCardinalityDedupeSet = new HashSet<>();
-								if (previous.line.get(0).equals(temp.line.get(0))) {
+								if (previous.get(0).equals(temp.get(0))) {
 									multiCardinalityDedupeSet.add(previous);
 								}
 							}
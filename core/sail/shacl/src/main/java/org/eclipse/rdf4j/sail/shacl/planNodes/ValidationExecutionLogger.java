@@ -19,6 +19,46 @@ public class ValidationExecutionLogger {
 
 	private static boolean groupedLogging = true;
 
+	private final boolean tupleHistory;
+
+	private final int bufferSize;
+
+	public ValidationExecutionLogger() {
+		this(false);
+	}
+
+	/**
+	 * @param tupleHistory true if tuples should record the tuples they were derived from, which is needed for
+	 *                     {@link Tuple#getCause()}
+	 */
+	public ValidationExecutionLogger(boolean tupleHistory) {
+		this(tupleHistory, 0);
+	}
+
+	/**
+	 * @param tupleHistory true if tuples should record the tuples they were derived from, which is needed for
+	 *                     {@link Tuple#getCause()}
+	 * @param bufferSize   the number of tuples that a {@link Sort} or a {@link BufferedSplitter} holds in memory before
+	 *                     it spills them to a temporary file, 0 to keep all tuples in memory
+	 */
+	public ValidationExecutionLogger(boolean tupleHistory, int bufferSize) {
+		this.tupleHistory = tupleHistory;
+		this.bufferSize = bufferSize;
+	}
+
+	public boolean isTupleHistory() {
+		return tupleHistory;
+	}
+
+	/**
+	 * @return the number of tuples that may be buffered in memory before they are spilled to a temporary file, or 0 if
+	 *         they are never spilled. Tuples are never spilled while tuple history is recorded, because the history is
+	 *         not written to the file.
+	 */
+	int getSpillThreshold() {
+		return tupleHistory ? 0 : bufferSize;
+	}
+
 	void log(int depth, String name, Tuple tuple, PlanNode planNode, String id) {
 		LogStatement logStatement = new LogStatement(depth, name, tuple, planNode, id);
 		if (groupedLogging) {
@@ -115,7 +115,7 @@ public class ValidationResult {
 	/**
 	 * @return the focus node, aka. the subject, that caused the violation
 	 */
-	private Value getFocusNode() {
+	public Value getFocusNode() {
 		return focusNode;
 	}
 
@@ -9,6 +9,7 @@
 package org.eclipse.rdf4j.sail.shacl;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
 import java.io.File;
@@ -49,6 +50,7 @@ import org.eclipse.rdf4j.rio.WriterConfig;
 import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.eclipse.rdf4j.sail.shacl.results.ValidationReport;
+import org.eclipse.rdf4j.sail.shacl.results.ValidationResult;
 import org.junit.AfterClass;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -465,7 +467,7 @@ abstract public class AbstractShaclTest {
 	}
 
 	static void runTestCaseRevalidate(String shaclPath, String dataPath, ExpectedResult expectedResult,
-			IsolationLevel isolationLevel) {
+			IsolationLevel isolationLevel, boolean bulkValidation) {
 
 		if (!dataPath.endsWith("/")) {
 			dataPath = dataPath + "/";
@@ -484,9 +486,14 @@ abstract public class AbstractShaclTest {
 		}
 
 		ValidationReport report;
+		List<ValidationResult> streamedResults = new ArrayList<>();
 
 		try (SailRepositoryConnection shaclSailConnection = shaclRepository.getConnection()) {
-			((ShaclSail) shaclRepository.getSail()).disableValidation();
+			if (bulkValidation) {
+				((ShaclSail) shaclRepository.getSail()).setBulkValidation(true);
+			} else {
+				((ShaclSail) shaclRepository.getSail()).disableValidation();
+			}
 			shaclSailConnection.begin(isolationLevel);
 
 			URL resource = AbstractShaclTest.class.getClassLoader().getResource(dataPath);
@@ -507,10 +514,17 @@ abstract public class AbstractShaclTest {
 
 			shaclSailConnection.commit();
 
-			((ShaclSail) shaclRepository.getSail()).enableValidation();
+			if (!bulkValidation) {
+				((ShaclSail) shaclRepository.getSail()).enableValidation();
+			}
 
 			shaclSailConnection.begin();
-			report = ((ShaclSailConnection) shaclSailConnection.getSailConnection()).revalidate();
+			if (bulkValidation) {
+				report = ((ShaclSailConnection) shaclSailConnection.getSailConnection())
+						.revalidate(streamedResults::add);
+			} else {
+				report = ((ShaclSailConnection) shaclSailConnection.getSailConnection()).revalidate();
+			}
 
 			shaclSailConnection.commit();
 		}
@@ -521,8 +535,10 @@ abstract public class AbstractShaclTest {
 
 		if (expectedResult == ExpectedResult.valid) {
 			assertTrue(report.conforms());
+			assertTrue(streamedResults.isEmpty());
 		} else {
 			assertFalse(report.conforms());
+			assertEquals(bulkValidation, !streamedResults.isEmpty());
 		}
 
 	}
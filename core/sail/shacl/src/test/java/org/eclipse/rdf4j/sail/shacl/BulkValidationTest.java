@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.shacl.results.ValidationReport;
+import org.eclipse.rdf4j.sail.shacl.results.ValidationResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BulkValidationTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private ShaclSail shaclSail;
+
+	private SailRepository repository;
+
+	@Before
+	public void setUp() throws IOException {
+		shaclSail = new ShaclSail(new MemoryStore());
+		shaclSail.setBulkValidation(true);
+		repository = new SailRepository(shaclSail);
+		repository.init();
+		Utils.loadShapeData(repository, "reduceNumberOfPlansTest/shacl.ttl");
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testBulkLoadWithViolations() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			for (int i = 0; i < 10; i++) {
+				connection.begin();
+				addPerson(connection, i, i % 4 == 0 ? 1 : 2);
+				connection.commit();
+			}
+
+			connection.begin();
+			List<ValidationResult> results = new ArrayList<>();
+			ValidationReport report = ((ShaclSailConnection) connection.getSailConnection()).revalidate(results::add);
+			ValidationReport expected = ((ShaclSailConnection) connection.getSailConnection()).revalidate();
+			connection.commit();
+
+			assertFalse(report.conforms());
+			assertTrue(report.getValidationResult().isEmpty());
+			assertEquals(3, results.size());
+			assertEquals(focusNodes(expected.getValidationResult()), focusNodes(results));
+			for (ValidationResult result : results) {
+				assertEquals(SourceConstraintComponent.MinCountConstraintComponent,
+						result.getSourceConstraintComponent());
+			}
+		}
+	}
+
+	@Test
+	public void testBulkLoadConforms() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 10; i++) {
+				addPerson(connection, i, 2);
+			}
+			connection.commit();
+
+			connection.begin();
+			List<ValidationResult> results = new ArrayList<>();
+			ValidationReport report = ((ShaclSailConnection) connection.getSailConnection()).revalidate(results::add);
+			connection.commit();
+
+			assertTrue(report.conforms());
+			assertTrue(results.isEmpty());
+		}
+	}
+
+	@Test
+	public void testValidationAfterBulkLoad() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			addPerson(connection, 0, 2);
+			connection.commit();
+		}
+
+		shaclSail.setBulkValidation(false);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			addPerson(connection, 1, 1);
+			try {
+				connection.commit();
+				fail("A single ssn should not be valid");
+			} catch (RepositoryException e) {
+				assertTrue(e.getCause() instanceof ShaclSailValidationException);
+			}
+			connection.rollback();
+		}
+	}
+
+	private void addPerson(SailRepositoryConnection connection, int i, int ssnCount) {
+		IRI person = Utils.Ex.createIri("person" + i);
+		connection.add(person, RDF.TYPE, Utils.Ex.Person);
+		connection.add(person, Utils.Ex.name, vf.createLiteral("Person " + i));
+		for (int j = 0; j < ssnCount; j++) {
+			connection.add(person, Utils.Ex.ssn, vf.createLiteral(i * 10 + j));
+		}
+	}
+
+	private static List<String> focusNodes(List<ValidationResult> results) {
+		List<String> focusNodes = new ArrayList<>();
+		results.stream()
+				.map(result -> result.getFocusNode().stringValue())
+				.sorted(Comparator.naturalOrder())
+				.forEach(focusNodes::add);
+		return focusNodes;
+	}
+
+}
@@ -53,9 +53,9 @@ public class BulkedExternalInnerJoinTest {
 			tuples.forEach(System.out::println);
 
 			assertEquals("[http://b, http://www.w3.org/2000/01/rdf-schema#Resource]",
-					Arrays.toString(tuples.get(0).line.toArray()));
+					Arrays.toString(tuples.get(0).getlist().toArray()));
 			assertEquals("[http://d, http://www.w3.org/2000/01/rdf-schema#subPropertyOf]",
-					Arrays.toString(tuples.get(1).line.toArray()));
+					Arrays.toString(tuples.get(1).getlist().toArray()));
 
 		}
 	}
@@ -8,6 +8,7 @@
 
 package org.eclipse.rdf4j.sail.shacl;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 import java.util.Arrays;
@@ -24,6 +25,7 @@ import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedPlanNode;
 import org.eclipse.rdf4j.sail.shacl.planNodes.InnerJoin;
 import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNode;
 import org.eclipse.rdf4j.sail.shacl.planNodes.Tuple;
+import org.eclipse.rdf4j.sail.shacl.planNodes.ValidationExecutionLogger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -268,6 +270,25 @@ public class InnerJoinTest {
 
 	}
 
+	@Test
+	public void testHistory() {
+
+		PlanNode innerJoin = new InnerJoin(new MockInputPlanNode(Arrays.asList("a")),
+				new MockInputPlanNode(Arrays.asList("a", "b"))).getJoined(BufferedPlanNode.class);
+
+		List<Tuple> tuples = new MockConsumePlanNode(innerJoin).asList();
+
+		assertEquals(" [  ]", tuples.get(0).getCause());
+
+		innerJoin = new InnerJoin(new MockInputPlanNode(Arrays.asList("a")),
+				new MockInputPlanNode(Arrays.asList("a", "b"))).getJoined(BufferedPlanNode.class);
+
+		tuples = new MockConsumePlanNode(innerJoin, new ValidationExecutionLogger(true)).asList();
+
+		assertEquals(" [ Tuple{line=[\"a\"]} , Tuple{line=[\"a\", \"b\"]} ]", tuples.get(0).getCause());
+
+	}
+
 	public void verify(List<Tuple> actual, List<String>... expect) {
 
 		Set<Tuple> collect = Arrays.stream(expect)
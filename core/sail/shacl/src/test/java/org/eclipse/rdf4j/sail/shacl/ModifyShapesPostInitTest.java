@@ -259,6 +259,60 @@ public class ModifyShapesPostInitTest {
 
 	}
 
+	@Test(expected = ShaclSailValidationException.class)
+	public void testAddingShapesAndDataInSameTransaction() throws Throwable {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+
+		SailRepository sailRepository = new SailRepository(shaclSail);
+		sailRepository.init();
+
+		try (SailRepositoryConnection connection = sailRepository.getConnection()) {
+
+			StringReader shaclRules = new StringReader(String.join("\n", "",
+					"@prefix ex: <http://example.com/ns#> .",
+					"@prefix sh: <http://www.w3.org/ns/shacl#> .",
+					"@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .",
+
+					"ex:PersonShape",
+					"        a sh:NodeShape  ;",
+					"        sh:targetClass ex:Person ;",
+					"        sh:property [",
+					"                sh:path ex:age ;",
+					"                sh:datatype xsd:integer ;",
+					"        ] ."));
+
+			connection.begin();
+			connection.add(shaclRules, "", RDFFormat.TURTLE, RDF4J.SHACL_SHAPE_GRAPH);
+			connection.commit();
+
+			add(connection, "ex:pete a ex:Person .");
+
+			StringReader extraShaclRules = new StringReader(String.join("\n", "",
+					"@prefix ex: <http://example.com/ns#> .",
+					"@prefix sh: <http://www.w3.org/ns/shacl#> .",
+
+					"ex:NameShape",
+					"        a sh:NodeShape  ;",
+					"        sh:targetClass ex:Person ;",
+					"        sh:property [",
+					"                sh:path ex:name ;",
+					"                sh:minCount 1 ;",
+					"        ] ."));
+
+			// the new shape must be validated against ex:pete, even though the data in the transaction only
+			// touches ex:steve
+			connection.begin();
+			connection.add(extraShaclRules, "", RDFFormat.TURTLE, RDF4J.SHACL_SHAPE_GRAPH);
+			addInTransaction(connection, "ex:steve a ex:Person; ex:name \"Steve\"; ex:age 20 .");
+
+			try {
+				connection.commit();
+			} catch (RepositoryException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
 	@Test
 	public void testIsolation() throws Throwable {
 		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
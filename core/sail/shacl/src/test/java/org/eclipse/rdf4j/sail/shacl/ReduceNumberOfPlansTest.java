@@ -132,6 +132,64 @@ public class ReduceNumberOfPlansTest {
 
 	}
 
+	@Test
+	public void testTargetNodeWithUnrelatedChanges() throws IOException {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		shaclSail.init();
+		Utils.loadShapeData(shaclSail, "reduceNumberOfPlansTest/shaclTargetNode.ttl");
+
+		try (ShaclSailConnection connection = (ShaclSailConnection) shaclSail.getConnection()) {
+
+			ValueFactory vf = shaclSail.getValueFactory();
+			IRI pete = Utils.Ex.createIri("pete");
+
+			connection.begin();
+			connection.addStatement(pete, Utils.Ex.name, vf.createLiteral("Pete"));
+			connection.commit();
+
+			connection.begin();
+
+			connection.addStatement(Utils.Ex.createIri(), Utils.Ex.ssn, vf.createLiteral("a"));
+
+			refreshAddedRemovedStatements(connection);
+			try (ConnectionsGroup connectionsGroup = connection.getConnectionsGroup()) {
+
+				List<PlanNode> collect1 = shaclSail.getNodeShapes()
+						.stream()
+						.flatMap(shape -> shape.generatePlans(connectionsGroup, shape, false, false))
+						.collect(Collectors.toList());
+				assertEquals(0, collect1.size());
+			}
+
+			connection.addStatement(Utils.Ex.createIri(), RDF.TYPE, Utils.Ex.Person);
+
+			refreshAddedRemovedStatements(connection);
+			try (ConnectionsGroup connectionsGroup = connection.getConnectionsGroup()) {
+
+				List<PlanNode> collect2 = shaclSail.getNodeShapes()
+						.stream()
+						.flatMap(shape -> shape.generatePlans(connectionsGroup, shape, false, false))
+						.collect(Collectors.toList());
+				assertEquals(1, collect2.size());
+			}
+
+			connection.removeStatements(pete, Utils.Ex.name, null);
+
+			refreshAddedRemovedStatements(connection);
+			try (ConnectionsGroup connectionsGroup = connection.getConnectionsGroup()) {
+
+				List<PlanNode> collect3 = shaclSail.getNodeShapes()
+						.stream()
+						.flatMap(shape -> shape.generatePlans(connectionsGroup, shape, false, false))
+						.collect(Collectors.toList());
+				assertEquals(2, collect3.size());
+			}
+			connection.rollback();
+
+		}
+
+	}
+
 	private void refreshAddedRemovedStatements(ShaclSailConnection connection) {
 
 		connection.fillAddedAndRemovedStatementRepositories();
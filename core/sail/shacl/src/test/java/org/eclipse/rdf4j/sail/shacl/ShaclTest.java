@@ -35,7 +35,12 @@ public class ShaclTest extends AbstractShaclTest {
 
 	@Test
 	public void testRevalidation() {
-		runWithAutomaticLogging(() -> runTestCaseRevalidate(testCasePath, path, expectedResult, isolationLevel));
+		runWithAutomaticLogging(() -> runTestCaseRevalidate(testCasePath, path, expectedResult, isolationLevel, false));
+	}
+
+	@Test
+	public void testBulkValidation() {
+		runWithAutomaticLogging(() -> runTestCaseRevalidate(testCasePath, path, expectedResult, isolationLevel, true));
 	}
 
 	@Test
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.shacl.mock.MockConsumePlanNode;
+import org.eclipse.rdf4j.sail.shacl.mock.MockInputPlanNode;
+import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedSplitter;
+import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNode;
+import org.eclipse.rdf4j.sail.shacl.planNodes.Sort;
+import org.eclipse.rdf4j.sail.shacl.planNodes.Tuple;
+import org.eclipse.rdf4j.sail.shacl.planNodes.ValidationExecutionLogger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SortTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private List<Tuple> tuples;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(42);
+		IRI datatype = vf.createIRI("http://example.com/ns#datatype");
+		tuples = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			Value subject;
+			switch (random.nextInt(4)) {
+			case 0:
+				subject = vf.createBNode("node" + random.nextInt(1000));
+				break;
+			case 1:
+				subject = vf.createLiteral(String.valueOf(random.nextInt(1000)), XMLSchema.INT);
+				break;
+			case 2:
+				subject = vf.createLiteral("label " + random.nextInt(1000), "en");
+				break;
+			default:
+				subject = vf.createIRI("http://example.com/ns#" + random.nextInt(1000));
+			}
+			Value object = i % 3 == 0 ? vf.createLiteral("value " + i, datatype) : vf.createLiteral(i);
+			tuples.add(new Tuple(subject, object));
+		}
+	}
+
+	@Test
+	public void testSpilledSortEqualsInMemorySort() {
+		List<Tuple> expected = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples))).asList();
+
+		// more than 64 runs, of which the first 64 are merged into a single run
+		List<Tuple> actual = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples)),
+				new ValidationExecutionLogger(false, 100)).asList();
+
+		assertEquals(expected, actual);
+
+		ValueComparator valueComparator = new ValueComparator();
+		for (int i = 1; i < actual.size(); i++) {
+			assertTrue(valueComparator.compare(actual.get(i - 1).get(0), actual.get(i).get(0)) <= 0);
+		}
+	}
+
+	@Test
+	public void testSpilledSortWithManyRuns() {
+		List<Tuple> input = tuples.subList(0, 8190);
+		List<Tuple> expected = new MockConsumePlanNode(new Sort(new MockInputPlanNode(input))).asList();
+
+		// 63 runs that have been merged once and 63 runs that have not, which are merged again before the final merge
+		List<Tuple> actual = new MockConsumePlanNode(new Sort(new MockInputPlanNode(input)),
+				new ValidationExecutionLogger(false, 2)).asList();
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testSpilledBufferedSplitter() {
+		try (BufferedSplitter bufferedSplitter = new BufferedSplitter(new MockInputPlanNode(tuples))) {
+			ValidationExecutionLogger validationExecutionLogger = new ValidationExecutionLogger(false, 100);
+
+			PlanNode first = bufferedSplitter.getPlanNode();
+			PlanNode second = bufferedSplitter.getPlanNode();
+
+			assertEquals(tuples, new MockConsumePlanNode(first, validationExecutionLogger).asList());
+			assertEquals(tuples, new MockConsumePlanNode(second, validationExecutionLogger).asList());
+		}
+	}
+
+	@Test
+	public void testValidationWithSmallBuffer() throws IOException {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		shaclSail.setValidationBufferSize(3);
+		SailRepository repository = new SailRepository(shaclSail);
+		repository.init();
+		Utils.loadShapeData(repository, "reduceNumberOfPlansTest/shacl.ttl");
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 100; i++) {
+				IRI person = Utils.Ex.createIri();
+				connection.add(person, RDF.TYPE, Utils.Ex.Person);
+				connection.add(person, Utils.Ex.name, vf.createLiteral("Person " + i));
+				connection.add(person, Utils.Ex.ssn, vf.createLiteral(i));
+				connection.add(person, Utils.Ex.ssn, vf.createLiteral(-i - 1));
+			}
+			connection.commit();
+
+			connection.begin();
+			IRI person = Utils.Ex.createIri();
+			connection.add(person, RDF.TYPE, Utils.Ex.Person);
+			connection.add(person, Utils.Ex.name, vf.createLiteral("Pete"));
+			connection.add(person, Utils.Ex.ssn, vf.createLiteral(1000));
+			try {
+				connection.commit();
+				fail("A single ssn should not be valid");
+			} catch (RepositoryException e) {
+				assertTrue(e.getCause() instanceof ShaclSailValidationException);
+			}
+			connection.rollback();
+		}
+
+		repository.shutDown();
+	}
+
+}
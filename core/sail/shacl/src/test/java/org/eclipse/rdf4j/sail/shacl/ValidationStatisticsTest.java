@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.Test;
+
+public class ValidationStatisticsTest {
+
+	@Test
+	public void testShapeStatistics() throws IOException {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		SailRepository repository = new SailRepository(shaclSail);
+		repository.init();
+		Utils.loadShapeData(repository, "reduceNumberOfPlansTest/shacl.ttl");
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			IRI person = Utils.Ex.createIri();
+
+			connection.begin();
+			connection.add(person, RDF.TYPE, Utils.Ex.Person);
+			connection.add(person, Utils.Ex.name, connection.getValueFactory().createLiteral("Pete"));
+			try {
+				connection.commit();
+				fail("Missing ssn should not be valid");
+			} catch (RepositoryException e) {
+				assertTrue(e.getCause() instanceof ShaclSailValidationException);
+			}
+			connection.rollback();
+		}
+
+		ValidationStatisticsMXBean statistics = shaclSail.getValidationStatistics();
+		assertEquals(2, statistics.getPlanCount());
+		assertEquals(1, statistics.getViolationCount());
+
+		List<ShapeStatistics> shapeStatistics = statistics.getShapeStatistics();
+		assertEquals(2, shapeStatistics.size());
+		for (ShapeStatistics shape : shapeStatistics) {
+			assertEquals("http://example.com/ns#shape1", shape.getNodeShape());
+			assertEquals("MinCountConstraintComponent", shape.getConstraintComponent());
+			assertEquals(1, shape.getExecutionCount());
+			assertTrue(shape.getMaxTimeNanos() <= shape.getTotalTimeNanos());
+		}
+		assertEquals(1, shapeStatistics.stream().mapToLong(ShapeStatistics::getViolationCount).sum());
+
+		statistics.resetStatistics();
+		assertEquals(0, statistics.getPlanCount());
+		assertTrue(statistics.getShapeStatistics().isEmpty());
+
+		repository.shutDown();
+	}
+
+	@Test
+	public void testCallerRunsWhenQueueIsFull() throws Exception {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		shaclSail.setValidationThreads(1);
+		shaclSail.setValidationQueueSize(1);
+		shaclSail.init();
+
+		CountDownLatch latch = new CountDownLatch(1);
+		Thread caller = Thread.currentThread();
+
+		// the first plan occupies the only thread, the second fills the queue
+		Future<Thread> first = shaclSail.submitRunnableToExecutorService(() -> {
+			latch.await();
+			return Thread.currentThread();
+		});
+		Future<Thread> second = shaclSail.submitRunnableToExecutorService(Thread::currentThread);
+		Future<Thread> third = shaclSail.submitRunnableToExecutorService(Thread::currentThread);
+
+		assertEquals(caller, third.get());
+		assertEquals(1, shaclSail.getValidationStatistics().getCallerRunsCount());
+		assertEquals(1, shaclSail.getValidationStatistics().getQueuedPlanCount());
+
+		latch.countDown();
+		assertNotEquals(caller, first.get());
+		assertNotEquals(caller, second.get());
+
+		shaclSail.shutDown();
+	}
+
+	@Test
+	public void testManagementBeanRegisteredUntilShutDown() throws Exception {
+		int registered = countManagementBeans();
+
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		shaclSail.init();
+		assertEquals(registered + 1, countManagementBeans());
+
+		shaclSail.shutDown();
+		assertEquals(registered, countManagementBeans());
+	}
+
+	@Test
+	public void testManagementBeanNotRegisteredWhenInitializationFails() throws Exception {
+		int registered = countManagementBeans();
+
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore() {
+
+			@Override
+			protected void initializeInternal() throws SailException {
+				throw new SailException("initialization failed");
+			}
+		});
+
+		// a failed initialization is attempted again
+		for (int i = 0; i < 2; i++) {
+			try {
+				shaclSail.init();
+				fail("Initialization should fail");
+			} catch (SailException e) {
+				assertEquals("initialization failed", e.getMessage());
+			}
+			assertEquals(registered, countManagementBeans());
+		}
+	}
+
+	private static int countManagementBeans() throws MalformedObjectNameException {
+		return ManagementFactory.getPlatformMBeanServer()
+				.queryNames(new ObjectName("org.eclipse.rdf4j.sail.shacl:type=ShaclSail,*"), null)
+				.size();
+	}
+
+}
@@ -276,4 +276,29 @@ public class ComplexBenchmark {
 
 	}
 
+	@Benchmark
+	public void shaclLogValidationViolations() throws Exception {
+
+		SailRepository repository = new SailRepository(Utils.getInitializedShaclSail("complexBenchmark/shacl.ttl"));
+
+		((ShaclSail) repository.getSail()).setParallelValidation(false);
+		((ShaclSail) repository.getSail()).setCacheSelectNodes(false);
+		((ShaclSail) repository.getSail()).setLogValidationViolations(true);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+
+			connection.begin(IsolationLevels.SNAPSHOT);
+			connection.prepareUpdate(transaction1).execute();
+			connection.commit();
+
+			connection.begin(IsolationLevels.SNAPSHOT);
+			connection.prepareUpdate(transaction2).execute();
+			connection.commit();
+
+		}
+
+		repository.shutDown();
+
+	}
+
 }
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.shacl.GlobalValidationExecutionLogging;
+import org.eclipse.rdf4j.sail.shacl.mock.MockConsumePlanNode;
+import org.eclipse.rdf4j.sail.shacl.mock.MockInputPlanNode;
+import org.eclipse.rdf4j.sail.shacl.planNodes.BufferedPlanNode;
+import org.eclipse.rdf4j.sail.shacl.planNodes.InnerJoin;
+import org.eclipse.rdf4j.sail.shacl.planNodes.LeftOuterJoin;
+import org.eclipse.rdf4j.sail.shacl.planNodes.PlanNode;
+import org.eclipse.rdf4j.sail.shacl.planNodes.TrimTuple;
+import org.eclipse.rdf4j.sail.shacl.planNodes.Tuple;
+import org.eclipse.rdf4j.sail.shacl.planNodes.ValidationExecutionLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the tuples of a target and two of its properties through a chain of joins, the way the plans of property
+ * shapes do, with and without tuple history.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10)
+@BenchmarkMode({ Mode.AverageTime })
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "-XX:+UseSerialGC" })
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JoinBenchmark {
+	{
+		GlobalValidationExecutionLogging.loggingEnabled = false;
+	}
+
+	private static final int SIZE = 100_000;
+
+	private List<Tuple> targets;
+	private List<Tuple> labels;
+	private List<Tuple> comments;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		SimpleValueFactory vf = SimpleValueFactory.getInstance();
+
+		targets = new ArrayList<>(SIZE);
+		labels = new ArrayList<>(SIZE);
+		comments = new ArrayList<>(SIZE / 2);
+
+		for (int i = 0; i < SIZE; i++) {
+			IRI iri = vf.createIRI("http://example.com/" + String.format("%08d", i));
+			targets.add(new Tuple(iri, RDF.TYPE, RDFS.RESOURCE));
+			labels.add(new Tuple(iri, vf.createLiteral("label" + i)));
+			if (i % 2 == 0) {
+				comments.add(new Tuple(iri, vf.createLiteral("comment" + i)));
+			}
+		}
+
+		System.gc();
+	}
+
+	@Benchmark
+	public List<Tuple> joins() {
+		return new MockConsumePlanNode(plan()).asList();
+	}
+
+	@Benchmark
+	public List<Tuple> joinsWithHistory() {
+		return new MockConsumePlanNode(plan(), new ValidationExecutionLogger(true)).asList();
+	}
+
+	private PlanNode plan() {
+		PlanNode target = new TrimTuple(new MockInputPlanNode(targets), 0, 1);
+		PlanNode withLabels = new InnerJoin(target, new MockInputPlanNode(labels))
+				.getJoined(BufferedPlanNode.class);
+		return new LeftOuterJoin(withLabels, new MockInputPlanNode(comments));
+	}
+
+}
@@ -40,6 +40,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
 import org.slf4j.LoggerFactory;
 
 import ch.qos.logback.classic.Logger;
@@ -175,6 +176,46 @@ public class NativeStoreBenchmark {
 
 	}
 
+	@Benchmark
+	public void shaclBulkNativeStore(Blackhole blackhole) throws IOException {
+
+		File file = Files.newTemporaryFolder();
+
+		ShaclSail shaclSail = new ShaclSail(new NativeStore(file, "spoc,ospc,psoc"));
+
+		// load without tracking the changes, and validate everything in a single pass afterwards
+		shaclSail.setBulkValidation(true);
+
+		SailRepository sailRepository = new SailRepository(shaclSail);
+		sailRepository.init();
+
+		try (SailRepositoryConnection connection = sailRepository.getConnection()) {
+
+			connection.begin(IsolationLevels.NONE);
+			try (InputStream inputStream = getFile("complexBenchmark/shacl.ttl")) {
+				connection.add(inputStream, "", RDFFormat.TURTLE, RDF4J.SHACL_SHAPE_GRAPH);
+			}
+			connection.commit();
+
+			connection.begin(IsolationLevels.NONE);
+
+			try (InputStream inputStream = new BufferedInputStream(getFile("complexBenchmark/generated.ttl"))) {
+				connection.add(inputStream, "", RDFFormat.TURTLE);
+			}
+			connection.commit();
+
+			connection.begin(IsolationLevels.NONE);
+			((ShaclSailConnection) connection.getSailConnection()).revalidate(blackhole::consume);
+			connection.commit();
+
+		}
+
+		sailRepository.shutDown();
+
+		FileUtils.deleteDirectory(file);
+
+	}
+
 	@Benchmark
 	public void nativeStore() throws IOException {
 
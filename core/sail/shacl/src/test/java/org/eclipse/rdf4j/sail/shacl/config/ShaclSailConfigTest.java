@@ -19,6 +19,9 @@ import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.RDFS_SUB_CLASS
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.SERIALIZABLE_VALIDATION;
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.UNDEFINED_TARGET_VALIDATES_ALL_SUBJECTS;
 import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_ENABLED;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_BUFFER_SIZE;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_QUEUE_SIZE;
+import static org.eclipse.rdf4j.sail.shacl.config.ShaclSailSchema.VALIDATION_THREADS;
 
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.Model;
@@ -58,6 +61,9 @@ public class ShaclSailConfigTest {
 		assertThat(subject.isRdfsSubClassReasoning()).isTrue();
 		assertThat(subject.isPerformanceLogging()).isFalse();
 		assertThat(subject.isSerializableValidation()).isTrue();
+		assertThat(subject.getValidationThreads()).isEqualTo(0);
+		assertThat(subject.getValidationQueueSize()).isEqualTo(1024);
+		assertThat(subject.getValidationBufferSize()).isEqualTo(0);
 
 	}
 
@@ -77,7 +83,10 @@ public class ShaclSailConfigTest {
 			.add(GLOBAL_LOG_VALIDATION_EXECUTION, true)
 			.add(RDFS_SUB_CLASS_REASONING, false)
 			.add(PERFORMANCE_LOGGING, true)
-			.add(SERIALIZABLE_VALIDATION, false);
+			.add(SERIALIZABLE_VALIDATION, false)
+			.add(VALIDATION_THREADS, 4)
+			.add(VALIDATION_QUEUE_SIZE, 16)
+			.add(VALIDATION_BUFFER_SIZE, 4096);
 
 		// @formatter:on
 
@@ -94,6 +103,9 @@ public class ShaclSailConfigTest {
 		assertThat(subject.isRdfsSubClassReasoning()).isFalse();
 		assertThat(subject.isPerformanceLogging()).isTrue();
 		assertThat(subject.isSerializableValidation()).isFalse();
+		assertThat(subject.getValidationThreads()).isEqualTo(4);
+		assertThat(subject.getValidationQueueSize()).isEqualTo(16);
+		assertThat(subject.getValidationBufferSize()).isEqualTo(4096);
 
 	}
 
@@ -131,6 +143,9 @@ public class ShaclSailConfigTest {
 		assertThat(m.contains(node, RDFS_SUB_CLASS_REASONING, null)).isTrue();
 		assertThat(m.contains(node, PERFORMANCE_LOGGING, null)).isTrue();
 		assertThat(m.contains(node, SERIALIZABLE_VALIDATION, null)).isTrue();
+		assertThat(m.contains(node, VALIDATION_THREADS, null)).isTrue();
+		assertThat(m.contains(node, VALIDATION_QUEUE_SIZE, null)).isTrue();
+		assertThat(m.contains(node, VALIDATION_BUFFER_SIZE, null)).isTrue();
 
 	}
 
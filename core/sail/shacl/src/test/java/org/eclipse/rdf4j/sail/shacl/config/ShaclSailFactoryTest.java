@@ -61,6 +61,9 @@ public class ShaclSailFactoryTest {
 		config.setPerformanceLogging(!config.isPerformanceLogging());
 		config.setSerializableValidation(!config.isSerializableValidation());
 		config.setRdfsSubClassReasoning(!config.isRdfsSubClassReasoning());
+		config.setValidationThreads(config.getValidationThreads() + 2);
+		config.setValidationQueueSize(config.getValidationQueueSize() * 2);
+		config.setValidationBufferSize(config.getValidationBufferSize() + 4096);
 
 		ShaclSail sail = (ShaclSail) subject.getSail(config);
 		assertMatchesConfig(sail, config);
@@ -79,6 +82,9 @@ public class ShaclSailFactoryTest {
 		assertThat(sail.isPerformanceLogging()).isEqualTo(config.isPerformanceLogging());
 		assertThat(sail.isSerializableValidation()).isEqualTo(config.isSerializableValidation());
 		assertThat(sail.isRdfsSubClassReasoning()).isEqualTo(config.isRdfsSubClassReasoning());
+		assertThat(sail.getValidationThreads()).isEqualTo(config.getValidationThreads());
+		assertThat(sail.getValidationQueueSize()).isEqualTo(config.getValidationQueueSize());
+		assertThat(sail.getValidationBufferSize()).isEqualTo(config.getValidationBufferSize());
 	}
 
 }
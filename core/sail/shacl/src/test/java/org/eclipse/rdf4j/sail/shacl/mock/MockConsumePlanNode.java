@@ -24,10 +24,16 @@ public class MockConsumePlanNode {
 
 	private static final ValidationExecutionLogger VALIDATION_EXECUTION_LOGGER = new ValidationExecutionLogger();
 	PlanNode innerNode;
+	private final ValidationExecutionLogger validationExecutionLogger;
 
 	public MockConsumePlanNode(PlanNode innerNode) {
+		this(innerNode, VALIDATION_EXECUTION_LOGGER);
+	}
+
+	public MockConsumePlanNode(PlanNode innerNode, ValidationExecutionLogger validationExecutionLogger) {
 		this.innerNode = innerNode;
-		innerNode.receiveLogger(VALIDATION_EXECUTION_LOGGER);
+		this.validationExecutionLogger = validationExecutionLogger;
+		innerNode.receiveLogger(validationExecutionLogger);
 	}
 
 	public List<Tuple> asList() {
@@ -40,7 +46,7 @@ public class MockConsumePlanNode {
 				ret.add(iterator.next());
 			}
 
-			VALIDATION_EXECUTION_LOGGER.flush();
+			validationExecutionLogger.flush();
 
 			return ret;
 		}
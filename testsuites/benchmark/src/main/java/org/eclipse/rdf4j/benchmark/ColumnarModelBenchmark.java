@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.ColumnarModel;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.impl.TreeModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link ColumnarModel} with {@link LinkedHashModel} and {@link TreeModel}: the heap retained by a model, and
+ * the time to look up the statements of the instances of a class, as when traversing a SHACL shapes graph.
+ */
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColumnarModelBenchmark {
+
+	@Param({ "100" })
+	public int countk = 100;
+
+	@Param({ "LinkedHashModel", "TreeModel", "ColumnarModel" })
+	public String model;
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private List<Statement> statements;
+
+	private IRI type;
+
+	private Model filled;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		IRI status = vf.createIRI("http://example.org/property/status");
+		IRI related = vf.createIRI("http://example.org/property/related");
+		statements = new ArrayList<>(countk * 1000);
+		for (int i = 0; i < countk * 1000; i++) {
+			Resource subject = vf.createIRI("http://example.org/resource/" + random.nextInt(countk * 100));
+			switch (i % 3) {
+			case 0:
+				statements.add(vf.createStatement(subject, RDF.TYPE,
+						vf.createIRI("http://example.org/class/" + random.nextInt(100))));
+				break;
+			case 1:
+				statements.add(vf.createStatement(subject, status, vf.createLiteral("status " + random.nextInt(20))));
+				break;
+			default:
+				statements.add(vf.createStatement(subject, related,
+						vf.createIRI("http://example.org/resource/" + random.nextInt(countk * 100))));
+			}
+		}
+		type = vf.createIRI("http://example.org/class/42");
+		filled = createModel();
+		filled.addAll(statements);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public int filterInstances() {
+		int count = 0;
+		for (Resource instance : filled.filter(null, RDF.TYPE, type).subjects()) {
+			count += filled.filter(instance, null, null).size();
+		}
+		return count;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public Model addAll() {
+		Model result = createModel();
+		result.addAll(statements);
+		return result;
+	}
+
+	/**
+	 * Reports the heap retained by the model, in kilobytes, as the <tt>retainedKB</tt> counter. The values are shared
+	 * with the statement list, so this is the footprint of the model's own structures.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int retainedHeap(Footprint footprint) {
+		long before = usedHeap();
+		Model result = createModel();
+		result.addAll(statements);
+		footprint.retainedKB = (usedHeap() - before) / 1024;
+		return result.size();
+	}
+
+	private Model createModel() {
+		switch (model) {
+		case "TreeModel":
+			return new TreeModel();
+		case "ColumnarModel":
+			return new ColumnarModel();
+		default:
+			return new LinkedHashModel();
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long retainedKB;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + ColumnarModelBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesByteParser;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of the character-based {@link NTriplesParser} and the byte-based {@link NTriplesByteParser}
+ * on a generated N-Triples file, read from a stream, from a direct buffer and through memory-mapping.
+ */
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NTriplesParserBenchmark {
+
+	private static final String BASE_URI = "http://example.org/";
+
+	@Param({ "1000" })
+	public int countk = 1000;
+
+	/**
+	 * The percentage of literals that contain non-ASCII characters or escape sequences.
+	 */
+	@Param({ "0", "20" })
+	public int nonAsciiPercentage = 0;
+
+	private File file;
+
+	private ByteBuffer directBuffer;
+
+	@Setup
+	public void setup() throws Exception {
+		file = File.createTempFile("benchmark", ".nt");
+		Random random = new Random(42);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for (int i = 0; i < countk * 1000; i++) {
+				String subject = "<http://example.org/resource/" + random.nextInt(countk * 100) + "> ";
+				switch (i % 3) {
+				case 0:
+					writer.write(subject + "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type> "
+							+ "<http://example.org/class/" + random.nextInt(100) + "> .\n");
+					break;
+				case 1:
+					writer.write(subject + "<http://example.org/property/value> \"" + random.nextInt()
+							+ "\"^^<http://www.w3.org/2001/XMLSchema#int> .\n");
+					break;
+				default:
+					String label = random.nextInt(100) < nonAsciiPercentage ? "Étiquette \\\"" + i + "\\\" – ü"
+							: "Label number " + i;
+					writer.write(subject + "<http://www.w3.org/2000/01/rdf-schema#label> \"" + label + "\"@en .\n");
+				}
+			}
+		}
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		directBuffer = ByteBuffer.allocateDirect(bytes.length);
+		directBuffer.put(bytes);
+		directBuffer.flip();
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+		directBuffer = null;
+	}
+
+	@Benchmark
+	public long ntriplesParserStream() throws Exception {
+		return parseStream(new NTriplesParser());
+	}
+
+	@Benchmark
+	public long byteParserStream() throws Exception {
+		return parseStream(new NTriplesByteParser());
+	}
+
+	@Benchmark
+	public long byteParserDirectBuffer() throws Exception {
+		NTriplesByteParser parser = new NTriplesByteParser();
+		CountingHandler handler = new CountingHandler();
+		parser.setRDFHandler(handler);
+		parser.parse(directBuffer, BASE_URI);
+		return handler.count;
+	}
+
+	@Benchmark
+	public long byteParserMappedFile() throws Exception {
+		NTriplesByteParser parser = new NTriplesByteParser();
+		CountingHandler handler = new CountingHandler();
+		parser.setRDFHandler(handler);
+		parser.parse(file, BASE_URI);
+		return handler.count;
+	}
+
+	private long parseStream(RDFParser parser) throws Exception {
+		CountingHandler handler = new CountingHandler();
+		parser.setRDFHandler(handler);
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			parser.parse(in, BASE_URI);
+		}
+		return handler.count;
+	}
+
+	private static class CountingHandler extends AbstractRDFHandler {
+
+		long count;
+
+		@Override
+		public void handleStatement(Statement st) {
+			count++;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + NTriplesParserBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.io.FileUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures ORDER BY queries over results that are too large to be sorted in memory, so that sorted runs are written to
+ * and merged from disk.
+ *
+ * @see QueryOrderBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryOrderSpillBenchmark {
+
+	private File tempDir;
+
+	private Repository repository;
+
+	private RepositoryConnection conn;
+
+	@Param({ "250", "1000" })
+	public int countk = 250;
+
+	@Param({ "1000", "-1" })
+	public int limit = -1;
+
+	@Param({ "10000", "100000" })
+	public int syncThreshold = 10000;
+
+	@Setup
+	public void setup() throws Exception {
+		tempDir = File.createTempFile("nativestore", "");
+		tempDir.delete();
+		tempDir.mkdirs();
+		NativeStore sail = new NativeStore(tempDir, "spoc,posc");
+		sail.setIterationCacheSyncThreshold(syncThreshold);
+		repository = new SailRepository(sail);
+		repository.init();
+
+		Random random = new Random(42);
+		try (RepositoryConnection conn = repository.getConnection()) {
+			ValueFactory vf = conn.getValueFactory();
+			for (int i = 0; i < countk; i++) {
+				conn.begin();
+				for (int j = 0; j < 1000; j++) {
+					IRI subj = vf.createIRI("urn:test:", Integer.toHexString(random.nextInt()));
+					conn.add(subj, RDF.VALUE, vf.createLiteral(random.nextInt(countk * 100)));
+					conn.add(subj, RDFS.LABEL, vf.createLiteral(Long.toHexString(random.nextLong()), "en"));
+				}
+				conn.commit();
+			}
+		}
+		conn = repository.getConnection();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		conn.close();
+		repository.shutDown();
+		FileUtil.deleteDir(tempDir);
+	}
+
+	@Benchmark
+	public long orderByValue() throws Exception {
+		return count("SELECT ?s ?v ?l { ?s rdf:value ?v ; rdfs:label ?l } ORDER BY ?v ?l");
+	}
+
+	@Benchmark
+	public long orderByValueDistinct() throws Exception {
+		return count("SELECT DISTINCT ?v { ?s rdf:value ?v } ORDER BY DESC(?v)");
+	}
+
+	private long count(String query) {
+		StringBuilder rq = new StringBuilder(query);
+		if (limit > 0) {
+			rq.append(" LIMIT ").append(limit);
+		}
+		long count = 0;
+		try (TupleQueryResult result = conn.prepareTupleQuery(rq.toString()).evaluate()) {
+			while (result.hasNext()) {
+				result.next();
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + QueryOrderSpillBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
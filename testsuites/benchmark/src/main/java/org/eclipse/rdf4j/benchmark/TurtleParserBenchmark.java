@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.trig.TriGParser;
+import org.eclipse.rdf4j.rio.turtle.TurtleParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of the {@link TurtleParser} and the {@link TriGParser} on generated documents that use
+ * prefixed names, predicate and object lists, long literals and comments.
+ */
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TurtleParserBenchmark {
+
+	private static final String BASE_URI = "http://example.org/";
+
+	@Param({ "100" })
+	public int countk = 100;
+
+	private byte[] turtle;
+
+	private byte[] trig;
+
+	@Setup
+	public void setup() {
+		turtle = generate(false).getBytes(StandardCharsets.UTF_8);
+		trig = generate(true).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public long turtleParser() throws Exception {
+		return parse(new TurtleParser(), turtle);
+	}
+
+	@Benchmark
+	public long trigParser() throws Exception {
+		return parse(new TriGParser(), trig);
+	}
+
+	private long parse(RDFParser parser, byte[] data) throws Exception {
+		CountingHandler handler = new CountingHandler();
+		parser.setRDFHandler(handler);
+		parser.parse(new ByteArrayInputStream(data), BASE_URI);
+		return handler.count;
+	}
+
+	/**
+	 * Generates about <tt>countk</tt> thousand statements, five or six per subject. For TriG, every hundred
+	 * subjects are wrapped in a named graph.
+	 */
+	private String generate(boolean graphs) {
+		Random random = new Random(42);
+		StringBuilder sb = new StringBuilder();
+		sb.append("@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n");
+		sb.append("@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n");
+		sb.append("@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n");
+		sb.append("@prefix ex: <http://example.org/> .\n\n");
+		int subjects = countk * 1000 / 5;
+		for (int i = 0; i < subjects; i++) {
+			if (graphs && i % 100 == 0) {
+				if (i > 0) {
+					sb.append("}\n\n");
+				}
+				sb.append("<http://example.org/graph/").append(i / 100).append("> {\n");
+			}
+			if (i % 50 == 0) {
+				sb.append("# resources ").append(i).append(" to ").append(i + 49).append('\n');
+			}
+			sb.append("ex:resource").append(random.nextInt(countk * 100)).append('\n');
+			sb.append("\ta ex:Class").append(random.nextInt(100)).append(" ;\n");
+			sb.append("\trdfs:label \"Label number ").append(i).append("\"@en ;\n");
+			sb.append("\tex:value ").append(random.nextInt(1000)).append(" , \"")
+					.append(random.nextInt())
+					.append("\"^^xsd:int ;\n");
+			if (i % 10 == 0) {
+				sb.append("\trdfs:comment \"\"\"A longer description of resource ").append(i)
+						.append(",\nspanning several lines and containing \"quotes\".\"\"\" ;\n");
+			}
+			sb.append("\tex:related <http://example.org/resource/").append(random.nextInt(countk * 100))
+					.append("> .\n");
+		}
+		if (graphs) {
+			sb.append("}\n");
+		}
+		return sb.toString();
+	}
+
+	private static class CountingHandler extends AbstractRDFHandler {
+
+		long count;
+
+		@Override
+		public void handleStatement(Statement st) {
+			count++;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + TurtleParserBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
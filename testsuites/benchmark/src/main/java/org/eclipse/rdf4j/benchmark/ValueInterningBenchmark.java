@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.InterningValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.impl.TreeModel;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures parsing N-Triples into a {@link Model} with and without an {@link InterningValueFactory}: the parse
+ * throughput, and the heap retained by the resulting model.
+ */
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ValueInterningBenchmark {
+
+	private static final String BASE_URI = "http://example.org/";
+
+	@Param({ "100" })
+	public int countk = 100;
+
+	/**
+	 * The value factory used by the parser: <tt>simple</tt>, or an interning factory with a <tt>weak</tt> or
+	 * <tt>bounded</tt> dictionary, optionally sharing namespaces.
+	 */
+	@Param({ "simple", "weak", "bounded", "weakSharedNamespaces" })
+	public String factory;
+
+	/**
+	 * The model that the statements are parsed into.
+	 */
+	@Param({ "LinkedHashModel", "TreeModel" })
+	public String model;
+
+	private byte[] data;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < countk * 1000; i++) {
+			String subject = "<http://example.org/resource/" + random.nextInt(countk * 100) + "> ";
+			switch (i % 3) {
+			case 0:
+				sb.append(subject)
+						.append("<http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://example.org/class/")
+						.append(random.nextInt(100))
+						.append("> .\n");
+				break;
+			case 1:
+				sb.append(subject)
+						.append("<http://example.org/property/status> \"status ")
+						.append(random.nextInt(20))
+						.append("\" .\n");
+				break;
+			default:
+				sb.append(subject)
+						.append("<http://example.org/property/related> <http://example.org/resource/")
+						.append(random.nextInt(countk * 100))
+						.append("> .\n");
+			}
+		}
+		data = sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public Model parse() throws Exception {
+		return parse(createValueFactory());
+	}
+
+	/**
+	 * Reports the heap retained by the parsed model, in kilobytes, as the <tt>retainedKB</tt> counter.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int retainedHeap(Footprint footprint) throws Exception {
+		ValueFactory vf = createValueFactory();
+		long before = usedHeap();
+		Model result = parse(vf);
+		footprint.retainedKB = (usedHeap() - before) / 1024;
+		return result.size();
+	}
+
+	private Model parse(ValueFactory vf) throws Exception {
+		Model result = "TreeModel".equals(model) ? new TreeModel() : new LinkedHashModel();
+		RDFParser parser = new NTriplesParser(vf);
+		parser.setRDFHandler(new StatementCollector(result));
+		parser.parse(new ByteArrayInputStream(data), BASE_URI);
+		return result;
+	}
+
+	private ValueFactory createValueFactory() {
+		switch (factory) {
+		case "weak":
+			return new InterningValueFactory();
+		case "bounded":
+			return new InterningValueFactory(SimpleValueFactory.getInstance(), 1 << 16, false);
+		case "weakSharedNamespaces":
+			return new InterningValueFactory(SimpleValueFactory.getInstance(), 0, true);
+		default:
+			return SimpleValueFactory.getInstance();
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long retainedKB;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + ValueInterningBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
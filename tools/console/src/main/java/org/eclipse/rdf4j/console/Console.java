@@ -20,6 +20,7 @@ import java.util.regex.Pattern;
 import org.eclipse.rdf4j.RDF4J;
 import org.eclipse.rdf4j.common.app.AppConfiguration;
 import org.eclipse.rdf4j.common.app.AppVersion;
+import org.eclipse.rdf4j.console.command.BulkLoad;
 import org.eclipse.rdf4j.console.command.Clear;
 import org.eclipse.rdf4j.console.command.Close;
 import org.eclipse.rdf4j.console.command.Connect;
@@ -238,6 +239,7 @@ public class Console {
 		// handling data
 		register(new Verify(consoleIO, settingMap));
 		register(new Load(consoleIO, STATE, settingMap));
+		register(new BulkLoad(consoleIO, STATE, settingMap));
 		register(new Clear(consoleIO, STATE));
 		register(new Export(consoleIO, STATE, settingMap));
 		register(new Convert(consoleIO, STATE, settingMap));
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.console.command;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.eclipse.rdf4j.console.ConsoleIO;
+import org.eclipse.rdf4j.console.ConsoleState;
+import org.eclipse.rdf4j.console.Util;
+import org.eclipse.rdf4j.console.setting.ConsoleSetting;
+import org.eclipse.rdf4j.console.setting.WorkDir;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.sail.Sail;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.StackableSail;
+import org.eclipse.rdf4j.sail.nativerdf.NativeBulkLoader;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+
+/**
+ * Bulk load command, loads a large data file into an empty native store.
+ */
+public class BulkLoad extends ConsoleCommand {
+	@Override
+	public String getName() {
+		return "bulkload";
+	}
+
+	@Override
+	public String getHelpShort() {
+		return "Loads a large data file into an empty native store, takes a file path or URL as argument";
+	}
+
+	@Override
+	public String getHelpLong() {
+		return PrintHelp.USAGE + "bulkload <file-or-url> [from <base-uri>] [into <context-id>]\n"
+				+ "  <file-or-url>   The path or URL identifying the data file\n"
+				+ "  <base-uri>      The base URI to use for resolving relative references, defaults to <file-or-url>\n"
+				+ "  <context-id>    The ID of the context to add the data to, e.g. foo:bar or _:n123\n"
+				+ "Loads the specified data file into the current repository, which must be an empty native store.\n"
+				+ "The indexes are built after all data has been read, which is much faster than the load command\n"
+				+ "for large files. Inferencers stacked on top of the store are bypassed.\n";
+	}
+
+	@Override
+	public String[] usesSettings() {
+		return new String[] { WorkDir.NAME };
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param consoleIO
+	 * @param state
+	 * @param settings
+	 */
+	public BulkLoad(ConsoleIO consoleIO, ConsoleState state, Map<String, ConsoleSetting> settings) {
+		super(consoleIO, state, settings);
+	}
+
+	@Override
+	public void execute(final String... tokens) {
+		Repository repository = state.getRepository();
+		if (repository == null) {
+			writeUnopenedError();
+		} else {
+			if (tokens.length < 2) {
+				writeln(getHelpLong());
+			} else {
+				String baseURI = null;
+				String context = null;
+
+				int index = 2;
+				if (tokens.length >= index + 2 && tokens[index].equalsIgnoreCase("from")) {
+					baseURI = tokens[index + 1];
+					index += 2;
+				}
+				if (tokens.length >= index + 2 && tokens[index].equalsIgnoreCase("into")) {
+					context = tokens[tokens.length - 1];
+					index += 2;
+				}
+				if (index < tokens.length) {
+					writeln(getHelpLong());
+				} else {
+					NativeStore store = getNativeStore(repository);
+					if (store == null) {
+						writeError("Bulk loading is only supported for native stores");
+					} else {
+						bulkLoad(store, repository, baseURI, context, tokens[1]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the native store underlying a repository, if any.
+	 *
+	 * @param repository repository
+	 * @return native store or null
+	 */
+	private NativeStore getNativeStore(Repository repository) {
+		if (!(repository instanceof SailRepository)) {
+			return null;
+		}
+		Sail sail = ((SailRepository) repository).getSail();
+		while (sail instanceof StackableSail) {
+			sail = ((StackableSail) sail).getBaseSail();
+		}
+		return sail instanceof NativeStore ? (NativeStore) sail : null;
+	}
+
+	/**
+	 * Get working dir setting.
+	 *
+	 * @return path of working dir
+	 */
+	private Path getWorkDir() {
+		return ((WorkDir) settings.get(WorkDir.NAME)).get();
+	}
+
+	/**
+	 * Bulk load data into a native store
+	 *
+	 * @param store      native store
+	 * @param repository repository
+	 * @param baseURI
+	 * @param context
+	 * @param dataPath   file or URL
+	 */
+	private void bulkLoad(NativeStore store, Repository repository, String baseURI, String context,
+			String dataPath) {
+		try {
+			URL dataURL;
+			File dataFile = null;
+			if (Util.isHttpOrFile(dataPath)) {
+				dataURL = new URL(dataPath);
+			} else {
+				dataFile = Util.getNormalizedPath(getWorkDir(), dataPath).toFile();
+				dataURL = dataFile.toURI().toURL();
+			}
+			if (baseURI == null) {
+				baseURI = dataURL.toExternalForm();
+			}
+
+			RDFFormat format = Rio.getParserFormatForFileName(dataURL.getPath())
+					.orElseThrow(Rio.unsupportedFormat(dataPath));
+			Resource[] contexts = getContexts(repository, context);
+
+			writeln("Loading data...");
+			final long startTime = System.nanoTime();
+
+			long statementCount;
+			try (NativeBulkLoader loader = store.startBulkLoad();
+					InputStream in = dataFile != null ? new FileInputStream(dataFile) : dataURL.openStream()) {
+				RDFParser parser = Rio.createParser(format, repository.getValueFactory());
+				parser.setRDFHandler(new AbstractRDFHandler() {
+					@Override
+					public void handleStatement(Statement st) throws RDFHandlerException {
+						if (contexts.length == 0) {
+							loader.add(st);
+						} else {
+							loader.add(st.getSubject(), st.getPredicate(), st.getObject(), contexts);
+						}
+					}
+				});
+				parser.parse(in, baseURI);
+
+				writeln("Building indexes...");
+				statementCount = loader.finish();
+			}
+
+			final long endTime = System.nanoTime();
+			writeln(statementCount + " statements have been loaded into the repository ("
+					+ (endTime - startTime) / 1_000_000 + " ms)");
+		} catch (MalformedURLException e) {
+			writeError("Malformed URL: " + dataPath);
+		} catch (IllegalArgumentException e) {
+			// Thrown when context URI is invalid
+			writeError(e.getMessage());
+		} catch (IOException e) {
+			writeError("Failed to load data", e);
+		} catch (UnsupportedRDFormatException e) {
+			writeError("No parser available for this RDF format");
+		} catch (RDFParseException e) {
+			writeError("Malformed document", e);
+		} catch (SailException e) {
+			writeError("Unable to bulk load data", e);
+		}
+	}
+
+	/**
+	 * Get context as resource
+	 *
+	 * @param repository
+	 * @param context
+	 * @return array of size one, or empty array
+	 */
+	private Resource[] getContexts(Repository repository, String context) {
+		Resource[] contexts = new Resource[0];
+		if (context != null) {
+			Resource contextURI;
+			if (context.startsWith("_:")) {
+				contextURI = repository.getValueFactory().createBNode(context.substring(2));
+			} else {
+				contextURI = repository.getValueFactory().createIRI(context);
+			}
+			contexts = new Resource[] { contextURI };
+		}
+		return contexts;
+	}
+}